@@ -0,0 +1,59 @@
+package de.upb.crypto.clarc.acs.benchmark;
+
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.SystemManager;
+import de.upb.crypto.clarc.acs.user.impl.clarc.User;
+
+/**
+ * Setup steps shared by the benchmarks.
+ */
+final class BenchmarkSupport {
+    /**
+     * Insecure debug groups, which count group operations instead of performing them
+     */
+    static final String DEBUG_PROVIDER = "debug";
+    /**
+     * The secure groups chosen by {@link PublicParametersFactory}, i.e. mcl if it is installed and the java-based
+     * Barreto-Naehrig groups otherwise
+     */
+    static final String DEFAULT_PROVIDER = "default";
+    /**
+     * Like {@link #DEFAULT_PROVIDER}, but using lazy groups
+     */
+    static final String LAZY_PROVIDER = "lazy";
+
+    private BenchmarkSupport() {
+    }
+
+    static PublicParametersFactory createPublicParametersFactory(String provider) {
+        PublicParametersFactory ppFactory = new PublicParametersFactory();
+        switch (provider) {
+            case DEBUG_PROVIDER:
+                ppFactory.setDebugMode(true);
+                break;
+            case DEFAULT_PROVIDER:
+                break;
+            case LAZY_PROVIDER:
+                ppFactory.setLazygroups(true);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown bilinear group provider " + provider);
+        }
+        return ppFactory;
+    }
+
+    static PublicParameters createPublicParameters(String provider) {
+        return createPublicParametersFactory(provider).create();
+    }
+
+    /**
+     * Creates a user which is registered at the given system manager.
+     */
+    static User createRegisteredUser(PublicParameters pp, SystemManager systemManager) {
+        User user = new User(pp);
+        user.finishRegistration(systemManager.nonInteractiveJoinVerification(
+                user.createNonInteractiveJoinRequest(systemManager.getPublicIdentity())));
+        return user;
+    }
+}
@@ -0,0 +1,179 @@
+package de.upb.crypto.clarc.acs.benchmark;
+
+import de.upb.crypto.clarc.acs.attributes.AttributeDefinition;
+import de.upb.crypto.clarc.acs.attributes.AttributeNameValuePair;
+import de.upb.crypto.clarc.acs.attributes.BigIntegerAttributeDefinition;
+import de.upb.crypto.clarc.acs.attributes.StringAttributeDefinition;
+import de.upb.crypto.clarc.acs.issuer.credentials.Attributes;
+import de.upb.crypto.clarc.acs.issuer.credentials.CredentialIssuerPublicIdentity;
+import de.upb.crypto.clarc.acs.issuer.impl.clarc.credentials.CredentialIssueResponse;
+import de.upb.crypto.clarc.acs.issuer.impl.clarc.credentials.CredentialIssuer;
+import de.upb.crypto.clarc.acs.policy.IssuerScopedFragment;
+import de.upb.crypto.clarc.acs.policy.PolicyInformation;
+import de.upb.crypto.clarc.acs.pseudonym.impl.clarc.Identity;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.SystemManager;
+import de.upb.crypto.clarc.acs.user.NonInteractivePolicyProof;
+import de.upb.crypto.clarc.acs.user.impl.clarc.User;
+import de.upb.crypto.clarc.acs.user.impl.clarc.UserPublicKey;
+import de.upb.crypto.clarc.acs.user.impl.clarc.credentials.CredentialNonInteractiveResponseHandler;
+import de.upb.crypto.clarc.acs.verifier.credentials.VerificationResult;
+import de.upb.crypto.clarc.acs.verifier.impl.clarc.credentials.CredentialVerifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static de.upb.crypto.clarc.acs.policy.PolicyBuilder.policy;
+
+/**
+ * Benchmarks issuing credentials, proving and verifying policies as well as opening the resulting proofs.
+ * <p>
+ * The credentials contain {@link #attributeCount} string attributes and a numeric attribute. The policy is given by
+ * {@link #policyShape}:
+ * <ul>
+ * <li>equality: the first string attribute is equal to its value</li>
+ * <li>and: all string attributes are equal to their values</li>
+ * <li>or: the first string attribute is equal to its value or to another value</li>
+ * <li>range: the numeric attribute is within a range of {@link #rangeWidth} values</li>
+ * <li>set: the first string attribute is within a set of {@link #setSize} values</li>
+ * </ul>
+ * {@link #setSize} and {@link #rangeWidth} only affect the corresponding shape, hence a run should usually restrict
+ * them, e.g. via {@code -p policyShape=set -p rangeWidth=18}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CredentialBenchmark {
+    private static final String NUMERIC_ATTRIBUTE = "number";
+
+    @Param({"1", "4"})
+    public int attributeCount;
+
+    @Param({"equality", "and", "or", "range", "set"})
+    public String policyShape;
+
+    @Param({"3", "16"})
+    public int setSize;
+
+    @Param({"18", "1000000"})
+    public long rangeWidth;
+
+    @Param({BenchmarkSupport.DEBUG_PROVIDER, BenchmarkSupport.DEFAULT_PROVIDER})
+    public String provider;
+
+    private PublicParameters pp;
+    private SystemManager systemManager;
+    private User user;
+    private Identity identity;
+    private CredentialIssuer issuer;
+    private CredentialVerifier verifier;
+    private Attributes attributes;
+    private PolicyInformation policyInformation;
+    private NonInteractivePolicyProof proof;
+    private VerificationResult verificationResult;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pp = BenchmarkSupport.createPublicParameters(provider);
+        systemManager = new SystemManager(pp);
+        user = BenchmarkSupport.createRegisteredUser(pp, systemManager);
+        identity = user.createIdentity();
+        verifier = new CredentialVerifier(pp, systemManager.getPublicIdentity());
+
+        List<AttributeDefinition> attributeDefinitions = new ArrayList<>();
+        AttributeNameValuePair[] attributeValues = new AttributeNameValuePair[attributeCount + 1];
+        for (int i = 0; i < attributeCount; i++) {
+            StringAttributeDefinition definition = new StringAttributeDefinition(getAttributeName(i), "");
+            attributeDefinitions.add(definition);
+            attributeValues[i] = definition.createAttribute(getAttributeValue(i));
+        }
+        BigIntegerAttributeDefinition numericDefinition = new BigIntegerAttributeDefinition(NUMERIC_ATTRIBUTE,
+                BigInteger.ZERO, BigInteger.valueOf(rangeWidth));
+        attributeDefinitions.add(numericDefinition);
+        attributeValues[attributeCount] = numericDefinition.createAttribute(BigInteger.valueOf(rangeWidth / 2));
+        attributes = new Attributes(attributeValues);
+
+        issuer = new CredentialIssuer(pp, attributeDefinitions);
+        issueCredential();
+        policyInformation = createPolicy(issuer.getPublicIdentity());
+        proof = createNonInteractivePolicyProof();
+        verificationResult = verifyNonInteractiveProof();
+        if (!verificationResult.isVerify()) {
+            throw new IllegalStateException("The proof for the policy " + policyShape + " is not valid");
+        }
+    }
+
+    private static String getAttributeName(int i) {
+        return "attribute" + i;
+    }
+
+    private static String getAttributeValue(int i) {
+        return "value" + i;
+    }
+
+    private PolicyInformation createPolicy(CredentialIssuerPublicIdentity issuerPublicIdentity) {
+        IssuerScopedFragment fragment = policy(pp, true).forIssuer(issuerPublicIdentity);
+        switch (policyShape) {
+            case "equality":
+                fragment = fragment.attribute(getAttributeName(0)).isEqual(getAttributeValue(0));
+                break;
+            case "and":
+                for (int i = 0; i < attributeCount; i++) {
+                    fragment = fragment.attribute(getAttributeName(i)).isEqual(getAttributeValue(i));
+                }
+                break;
+            case "or":
+                fragment = fragment.attribute(getAttributeName(0)).isEqual(getAttributeValue(0))
+                        .or()
+                        .attribute(getAttributeName(0)).isEqual("other");
+                break;
+            case "range":
+                fragment = fragment.attribute(NUMERIC_ATTRIBUTE).isInRange(0, rangeWidth - 1);
+                break;
+            case "set":
+                String[] members = new String[setSize];
+                members[0] = getAttributeValue(0);
+                for (int i = 1; i < setSize; i++) {
+                    members[i] = "member" + i;
+                }
+                fragment = fragment.attribute(getAttributeName(0)).isInSet(members);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown policy shape " + policyShape);
+        }
+        return fragment.build();
+    }
+
+    /**
+     * Creates the request, issues the credential and stores it at the user.
+     */
+    @Benchmark
+    public void issueCredential() {
+        CredentialNonInteractiveResponseHandler responseHandler =
+                user.createNonInteractiveIssueCredentialRequest(issuer.getPublicIdentity(), identity, attributes);
+        CredentialIssueResponse response = issuer.issueNonInteractively(responseHandler.getRequest());
+        user.receiveCredentialNonInteractively(responseHandler, response);
+    }
+
+    @Benchmark
+    public NonInteractivePolicyProof createNonInteractivePolicyProof() {
+        return user.createNonInteractivePolicyProof(identity, policyInformation, verifier.getIdentity());
+    }
+
+    @Benchmark
+    public VerificationResult verifyNonInteractiveProof() {
+        return verifier.verifyNonInteractiveProof(proof, policyInformation);
+    }
+
+    @Benchmark
+    public UserPublicKey retrievePublicKey() {
+        return systemManager.retrievePublicKey(verificationResult);
+    }
+}
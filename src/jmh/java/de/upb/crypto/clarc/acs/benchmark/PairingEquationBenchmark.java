@@ -0,0 +1,127 @@
+package de.upb.crypto.clarc.acs.benchmark;
+
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.math.interfaces.mappings.BilinearMap;
+import de.upb.crypto.math.interfaces.mappings.PairingProductExpression;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the pairing products evaluated by the protocol factories, the system manager and the review verifier,
+ * comparing separate pairings, which are combined in GT afterwards, with a multi-pairing sharing the final
+ * exponentiation.
+ * <p>
+ * The call sites given by {@link #site} evaluate:
+ * <ul>
+ * <li>rate: e(sigma2, g~) * e(sigma1, X~)^-1 and e(sigma2', g~) * e(sigma1', X~')^-1 * e(sigma1', Y1~')^-h in
+ * RateProtocolFactory and RateVerifyProtocolFactory</li>
+ * <li>masterCredential: e(sigma2, g~) * e(sigma1, X~)^-1 in MasterCredentialVerifierProtocolFactory</li>
+ * <li>joinTau: e(upk, Y~) * e(g^-1, tau) in InteractiveJoinVerifyProcess</li>
+ * <li>retrievePublicKey: e(sigma2, g~) * e(sigma1, X~)^-1 in SystemManager#retrievePublicKey</li>
+ * <li>areFromSameUser: e(L1 / L1*, b) * e(H^-1, L2 / L2*) in ReviewVerifier#areFromSameUser</li>
+ * </ul>
+ * As only the costs of the pairings are of interest, the arguments are random group elements.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PairingEquationBenchmark {
+    @Param({"rate", "masterCredential", "joinTau", "retrievePublicKey", "areFromSameUser"})
+    public String site;
+
+    @Param({BenchmarkSupport.DEBUG_PROVIDER, BenchmarkSupport.DEFAULT_PROVIDER})
+    public String provider;
+
+    private BilinearMap map;
+    /**
+     * The pairing products of the call site, each given by its factors
+     */
+    private List<List<Factor>> products;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        PublicParameters pp = BenchmarkSupport.createPublicParameters(provider);
+        map = pp.getBilinearMap();
+        products = new ArrayList<>();
+        switch (site) {
+            case "rate":
+                products.add(createProduct(2));
+                List<Factor> tokenProduct = createProduct(3);
+                tokenProduct.set(2, new Factor(tokenProduct.get(2).g1, tokenProduct.get(2).g2,
+                        pp.getZp().getUniformlyRandomElement().getInteger()));
+                products.add(tokenProduct);
+                break;
+            case "masterCredential":
+            case "joinTau":
+            case "retrievePublicKey":
+            case "areFromSameUser":
+                products.add(createProduct(2));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown call site " + site);
+        }
+    }
+
+    private List<Factor> createProduct(int numberOfFactors) {
+        List<Factor> product = new ArrayList<>();
+        for (int i = 0; i < numberOfFactors; i++) {
+            product.add(new Factor(map.getG1().getUniformlyRandomNonNeutral(),
+                    map.getG2().getUniformlyRandomNonNeutral(), BigInteger.ONE));
+        }
+        return product;
+    }
+
+    /**
+     * Evaluates the pairing products like before, i.e. every pairing is evaluated including its final exponentiation.
+     */
+    @Benchmark
+    public GroupElement[] separatePairings() {
+        GroupElement[] results = new GroupElement[products.size()];
+        for (int i = 0; i < results.length; i++) {
+            GroupElement result = map.getGT().getNeutralElement();
+            for (Factor factor : products.get(i)) {
+                GroupElement pairing = map.apply(factor.g1, factor.g2);
+                result = result.op(factor.exponent.equals(BigInteger.ONE) ? pairing : pairing.pow(factor.exponent));
+            }
+            results[i] = result;
+        }
+        return results;
+    }
+
+    /**
+     * Evaluates the pairing products like the call sites do, i.e. using a {@link PairingProductExpression}.
+     */
+    @Benchmark
+    public GroupElement[] multiPairing() {
+        GroupElement[] results = new GroupElement[products.size()];
+        for (int i = 0; i < results.length; i++) {
+            PairingProductExpression expression = map.pairingProductExpression();
+            for (Factor factor : products.get(i)) {
+                expression.op(factor.g1, factor.g2, factor.exponent);
+            }
+            results[i] = expression.evaluate();
+        }
+        return results;
+    }
+
+    private static class Factor {
+        private final GroupElement g1;
+        private final GroupElement g2;
+        private final BigInteger exponent;
+
+        private Factor(GroupElement g1, GroupElement g2, BigInteger exponent) {
+            this.g1 = g1;
+            this.g2 = g2;
+            this.exponent = exponent;
+        }
+    }
+}
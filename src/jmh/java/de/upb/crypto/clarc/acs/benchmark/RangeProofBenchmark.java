@@ -0,0 +1,132 @@
+package de.upb.crypto.clarc.acs.benchmark;
+
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.clarc.predicategeneration.parametergeneration.RangeProofCostModel;
+import de.upb.crypto.clarc.predicategeneration.parametergeneration.RangeProofParameterGen;
+import de.upb.crypto.clarc.predicategeneration.rangeproofs.ArbitraryRangeProofProtocol;
+import de.upb.crypto.clarc.predicategeneration.rangeproofs.ArbitraryRangeProofProtocolFactory;
+import de.upb.crypto.clarc.predicategeneration.rangeproofs.ArbitraryRangeProofPublicParameters;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentPair;
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
+import de.upb.crypto.craco.commitment.pedersen.PedersenPublicParameters;
+import de.upb.crypto.craco.common.RingElementPlainText;
+import de.upb.crypto.math.structures.zn.Zp;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks creating and verifying range proofs for typical ranges, comparing the previously fixed base 16 with the
+ * bases chosen by the {@link RangeProofCostModel}s.
+ * <p>
+ * The ranges given by {@link #range} are:
+ * <ul>
+ * <li>age: [18, 200], i.e. proving to be of age</li>
+ * <li>width300: [0, 300], which base 16 only represents with 3 instead of 2 digits</li>
+ * <li>date: [0, 36525], i.e. a date within a century in days</li>
+ * <li>income: [0, 1000000]</li>
+ * </ul>
+ * The base and exponent of a run are printed during the setup. The size of a proof grows linearly with the exponent.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RangeProofBenchmark {
+    private static final String NAME = "range";
+    private static final String FIXED_BASE = "fixed16";
+
+    @Param({"age", "width300", "date", "income"})
+    public String range;
+
+    @Param({FIXED_BASE, "PROVER_TIME", "VERIFIER_TIME", "PROOF_SIZE"})
+    public String baseSelection;
+
+    @Param({BenchmarkSupport.DEBUG_PROVIDER, BenchmarkSupport.DEFAULT_PROVIDER})
+    public String provider;
+
+    private ArbitraryRangeProofProtocolFactory factory;
+    private PedersenCommitmentPair commitment;
+    private Zp.ZpElement value;
+    private ArbitraryRangeProofProtocol verifier;
+    private Announcement[] announcements;
+    private Challenge challenge;
+    private Response[] responses;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        PublicParameters pp = BenchmarkSupport.createPublicParameters(provider);
+        BigInteger lowerBound = BigInteger.ZERO;
+        BigInteger upperBound;
+        switch (range) {
+            case "age":
+                lowerBound = BigInteger.valueOf(18);
+                upperBound = BigInteger.valueOf(200);
+                break;
+            case "width300":
+                upperBound = BigInteger.valueOf(300);
+                break;
+            case "date":
+                upperBound = BigInteger.valueOf(36525);
+                break;
+            case "income":
+                upperBound = BigInteger.valueOf(1000000);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown range " + range);
+        }
+
+        PedersenCommitmentScheme commitmentScheme = PublicParametersFactory.getSingleMessageCommitmentScheme(pp);
+        value = pp.getZp().createZnElement(lowerBound.add(upperBound).shiftRight(1));
+        commitment = commitmentScheme.commit(new RingElementPlainText(value));
+        ArbitraryRangeProofPublicParameters rangePP =
+                createRangePP(pp, commitmentScheme.getPp(), lowerBound, upperBound);
+
+        factory = new ArbitraryRangeProofProtocolFactory(rangePP, NAME);
+        verifier = factory.getVerifierProtocol();
+        ArbitraryRangeProofProtocol prover = factory.getProverProtocol(commitment, value);
+        announcements = prover.generateAnnouncements();
+        challenge = verifier.chooseChallenge();
+        responses = prover.generateResponses(challenge);
+        if (!verify()) {
+            throw new IllegalStateException("The range proof for " + range + " is not valid");
+        }
+    }
+
+    private ArbitraryRangeProofPublicParameters createRangePP(PublicParameters pp, PedersenPublicParameters pedersenPP,
+                                                              BigInteger lowerBound, BigInteger upperBound) {
+        if (!FIXED_BASE.equals(baseSelection)) {
+            return RangeProofParameterGen.getRangePP(pedersenPP, commitment.getCommitmentValue().getCommitmentElement(),
+                    lowerBound, upperBound, 0, pp.getZp(), pp.getNguyenAccumulatorPP(),
+                    RangeProofCostModel.valueOf(baseSelection));
+        }
+        BigInteger base = BigInteger.valueOf(16);
+        int exponent = 0;
+        while (upperBound.subtract(lowerBound).compareTo(base.pow(exponent).subtract(BigInteger.ONE)) >= 0) {
+            exponent++;
+        }
+        return new ArbitraryRangeProofPublicParameters(pedersenPP.getG(), pedersenPP.getH()[0],
+                commitment.getCommitmentValue().getCommitmentElement(), base, exponent, 0,
+                pp.getNguyenAccumulatorPP(), pp.getZp(), lowerBound, upperBound);
+    }
+
+    @Benchmark
+    public Response[] prove() {
+        ArbitraryRangeProofProtocol prover = factory.getProverProtocol(commitment, value);
+        prover.generateAnnouncements();
+        return prover.generateResponses(challenge);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return verifier.verify(announcements, challenge, responses);
+    }
+}
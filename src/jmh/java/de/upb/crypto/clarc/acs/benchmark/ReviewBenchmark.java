@@ -0,0 +1,66 @@
+package de.upb.crypto.clarc.acs.benchmark;
+
+import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewTokenIssuer;
+import de.upb.crypto.clarc.acs.pseudonym.impl.clarc.Identity;
+import de.upb.crypto.clarc.acs.review.Review;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.SystemManager;
+import de.upb.crypto.clarc.acs.user.impl.clarc.User;
+import de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken.ReviewTokenNonInteractiveResponseHandler;
+import de.upb.crypto.clarc.acs.verifier.impl.clarc.reviews.ReviewVerifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the creation and verification of reviews.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReviewBenchmark {
+    private static final byte[] ITEM = "item".getBytes();
+    private static final byte[] MESSAGE = "This item was awesome".getBytes();
+
+    @Param({BenchmarkSupport.DEBUG_PROVIDER, BenchmarkSupport.DEFAULT_PROVIDER})
+    public String provider;
+
+    private User user;
+    private ReviewTokenIssuer reviewTokenIssuer;
+    private ReviewVerifier reviewVerifier;
+    private Review review;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        PublicParameters pp = BenchmarkSupport.createPublicParameters(provider);
+        SystemManager systemManager = new SystemManager(pp);
+        user = BenchmarkSupport.createRegisteredUser(pp, systemManager);
+        Identity identity = user.createIdentity();
+
+        reviewTokenIssuer = new ReviewTokenIssuer(pp);
+        reviewVerifier = new ReviewVerifier(pp, systemManager.getPublicIdentity(),
+                reviewTokenIssuer.getPublicIdentity());
+        ReviewTokenNonInteractiveResponseHandler responseHandler = user.createNonInteractiveIssueReviewTokenRequest(
+                reviewTokenIssuer.getPublicIdentity(), identity, ITEM);
+        user.receiveReviewTokenNonInteractively(responseHandler,
+                reviewTokenIssuer.issueNonInteractively(responseHandler.getRequest()));
+
+        review = createReview();
+        if (!reviewVerifier.verify(review)) {
+            throw new IllegalStateException("The review is not valid");
+        }
+    }
+
+    @Benchmark
+    public Review createReview() {
+        return user.createReview(MESSAGE, reviewTokenIssuer.getPublicIdentity(), ITEM);
+    }
+
+    @Benchmark
+    public boolean verifyReview() {
+        return reviewVerifier.verify(review);
+    }
+}
@@ -0,0 +1,47 @@
+package de.upb.crypto.clarc.acs.benchmark;
+
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.SystemManager;
+import de.upb.crypto.clarc.acs.user.impl.clarc.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the creation of the public parameters and the registration of users at the system manager.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SetupBenchmark {
+    @Param({BenchmarkSupport.DEBUG_PROVIDER, BenchmarkSupport.DEFAULT_PROVIDER})
+    public String provider;
+
+    private PublicParametersFactory ppFactory;
+    private PublicParameters pp;
+    private SystemManager systemManager;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ppFactory = BenchmarkSupport.createPublicParametersFactory(provider);
+        pp = ppFactory.create();
+        systemManager = new SystemManager(pp);
+    }
+
+    @Benchmark
+    public PublicParameters createPublicParameters() {
+        return ppFactory.create();
+    }
+
+    /**
+     * Creates the user's keys, the join request and its verification by the system manager.
+     */
+    @Benchmark
+    public User join() {
+        return BenchmarkSupport.createRegisteredUser(pp, systemManager);
+    }
+}
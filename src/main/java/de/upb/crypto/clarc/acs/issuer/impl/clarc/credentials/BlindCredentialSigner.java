@@ -0,0 +1,85 @@
+package de.upb.crypto.clarc.acs.issuer.impl.clarc.credentials;
+
+import de.upb.crypto.clarc.acs.attributes.AttributeNameValuePair;
+import de.upb.crypto.clarc.acs.issuer.credentials.Attributes;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.user.credentials.PSCredential;
+import de.upb.crypto.clarc.exponentiation.FixedBaseExponentiation;
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentValue;
+import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
+import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
+import de.upb.crypto.craco.sig.ps.PSSignature;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.serialization.Representation;
+import de.upb.crypto.math.structures.zn.Zp;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates blinded credentials like {@link CreateCredentialHelper#createBlindedCredential}, but shares everything only
+ * depending on the issuer between the credentials, which is used to issue a batch of credentials.
+ * <p>
+ * The blind signature on the commitment C and the attributes m_1, ..., m_n is
+ * (g^u, (X * C * Y_1^m_1 * ... * Y_n^m_n)^u) for a random u, see {@link PSExtendedSignatureScheme#blindSign}. Here,
+ * X = g^x is computed once, the exponentiations with the fixed bases g and Y_i use {@link FixedBaseExponentiation}
+ * and the Zp representation of every attribute value is hashed only once for all credentials.
+ * All methods are thread-safe.
+ * </p>
+ */
+class BlindCredentialSigner {
+    private final PublicParameters pp;
+    private final IssuerKeyPair issuerKeyPair;
+    private final CredentialIssuerPublicIdentity issuerPublicIdentity;
+    private final GroupElement groupElementX;
+    private final Representation verificationKeyRepresentation;
+    private final Map<AttributeNameValuePair, Zp.ZpElement> zpRepresentations = new ConcurrentHashMap<>();
+
+    BlindCredentialSigner(PublicParameters pp, IssuerKeyPair issuerKeyPair,
+                          CredentialIssuerPublicIdentity issuerPublicIdentity) {
+        this.pp = pp;
+        this.issuerKeyPair = issuerKeyPair;
+        this.issuerPublicIdentity = issuerPublicIdentity;
+        PSExtendedVerificationKey verificationKey = issuerKeyPair.getVerificationKey();
+        this.groupElementX = FixedBaseExponentiation.of(verificationKey.getGroup1ElementG())
+                .pow(issuerKeyPair.getSigningKey().getExponentX());
+        this.verificationKeyRepresentation = verificationKey.getRepresentation();
+    }
+
+    /**
+     * @param attributes     the attributes to sign
+     * @param uskCommitValue the commitment on the user secret key
+     * @return the blinded credential, which is distributed like the one created by
+     * {@link CreateCredentialHelper#createBlindedCredential}
+     * @throws IllegalArgumentException if the attributes do not match the attribute space of the issuer
+     */
+    PSCredential createBlindedCredential(Attributes attributes, PedersenCommitmentValue uskCommitValue) {
+        PSExtendedVerificationKey verificationKey = issuerKeyPair.getVerificationKey();
+        GroupElement[] y = verificationKey.getGroup1ElementsYi();
+        AttributeNameValuePair[] userAttributes;
+        try {
+            userAttributes = attributes.getAttributes(issuerPublicIdentity.getAttributeSpace());
+        } catch (IllegalStateException | IndexOutOfBoundsException e) {
+            // Too many attributes or an attribute which is not defined in the attribute space
+            throw new IllegalArgumentException("The attributes do not match the attribute space of the issuer", e);
+        }
+        if (userAttributes.length != y.length - 1) {
+            throw new IllegalArgumentException("Expected one attribute less than the number of messages of an " +
+                    "ordinary signature");
+        }
+
+        GroupElement base = groupElementX.op(uskCommitValue.getCommitmentElement());
+        for (int i = 0; i < userAttributes.length; i++) {
+            //Index shift at Y_i, since the first element is for the usk
+            base = base.op(FixedBaseExponentiation.of(y[i + 1]).pow(getZpRepresentation(userAttributes[i])));
+        }
+        Zp.ZpElement u = pp.getZp().getUniformlyRandomUnit();
+        PSSignature signature = new PSSignature(FixedBaseExponentiation.of(verificationKey.getGroup1ElementG()).pow(u),
+                base.pow(u));
+        return new PSCredential(signature.getRepresentation(), userAttributes, verificationKeyRepresentation);
+    }
+
+    private Zp.ZpElement getZpRepresentation(AttributeNameValuePair attribute) {
+        return zpRepresentations.computeIfAbsent(attribute, a -> a.getZpRepresentation(pp.getHashIntoZp()));
+    }
+}
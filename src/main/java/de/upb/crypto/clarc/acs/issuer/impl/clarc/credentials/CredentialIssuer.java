@@ -9,19 +9,25 @@ import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.user.NonInteractiveIssuableRequest;
 import de.upb.crypto.clarc.acs.user.credentials.PSCredential;
 import de.upb.crypto.clarc.acs.user.impl.clarc.credentials.NonInteractiveCredentialRequest;
+import de.upb.crypto.clarc.parallel.ParallelExecution;
 import de.upb.crypto.clarc.protocols.arguments.InteractiveThreeWayAoK;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.FiatShamirHeuristic;
 import de.upb.crypto.clarc.protocols.parameters.Announcement;
 import de.upb.crypto.craco.commitment.interfaces.CommitmentValue;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentValue;
+import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
 import de.upb.crypto.math.hash.impl.SHA256HashFunction;
 import de.upb.crypto.math.serialization.ObjectRepresentation;
 import de.upb.crypto.math.serialization.Representation;
 import de.upb.crypto.math.serialization.annotations.AnnotatedRepresentationUtil;
 import de.upb.crypto.math.serialization.annotations.Represented;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 public class CredentialIssuer implements Issuer<Attributes, PSCredential> {
     @Represented
@@ -29,6 +35,7 @@ public class CredentialIssuer implements Issuer<Attributes, PSCredential> {
     private final IssuerKeyPair issuerKeyPair;
     @Represented
     private CredentialIssuerPublicIdentity publicIdentity;
+    private volatile Executor executor;
 
     public CredentialIssuer(PublicParameters pp, IssuerKeyPair issuerKeyPair,
                             List<AttributeDefinition> attributeSpace) {
@@ -84,14 +91,7 @@ public class CredentialIssuer implements Issuer<Attributes, PSCredential> {
             NonInteractiveIssuableRequest nonInteractiveIssuableRequest) {
         final NonInteractiveCredentialRequest clarcCredentialRequest =
                 (NonInteractiveCredentialRequest) nonInteractiveIssuableRequest;
-        IssueIssuableProtocolFactory protocolFactory = new IssueIssuableProtocolFactory(
-                pp, issuerKeyPair.getVerificationKey(),
-                clarcCredentialRequest.getPseudonym(),
-                clarcCredentialRequest.getCommitment()
-        );
-        final InteractiveThreeWayAoK protocol = protocolFactory.getProtocol();
-        FiatShamirHeuristic fiatShamirHeuristic = new FiatShamirHeuristic(protocol, new SHA256HashFunction());
-        if (!fiatShamirHeuristic.verify(clarcCredentialRequest.getProof())) {
+        if (!verifyRequest(clarcCredentialRequest)) {
             return null;
         }
         PSCredential blindedCredential = CreateCredentialHelper.createBlindedCredential(pp,
@@ -100,6 +100,102 @@ public class CredentialIssuer implements Issuer<Attributes, PSCredential> {
         return new CredentialIssueResponse(blindedCredential);
     }
 
+    /**
+     * Sets the executor which is used to process the requests of a batch in parallel, see {@link #issueBatch}.
+     *
+     * @param executor the executor to use, or null to process the requests sequentially in the calling thread
+     *                 (default)
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Issues credentials for a batch of requests like {@link #issueNonInteractively}.
+     * <p>
+     * The proofs of all requests are checked at once using random linear combinations, see
+     * {@link CredentialRequestEquations}. If that check fails, the requests are split in halves which are checked
+     * recursively to find the invalid ones. Everything only depending on this issuer is computed once and shared by
+     * all credentials of the batch, see {@link BlindCredentialSigner}. If an executor is set, the requests are restored
+     * and the credentials are signed in parallel.
+     * </p>
+     *
+     * @param requests the requests to issue credentials for
+     * @return the responses in the same order as the given requests, where the response is null if the respective
+     * request is invalid, e.g. its proof is invalid or its attributes do not match the attribute space of this issuer
+     */
+    public List<CredentialIssueResponse> issueBatch(List<NonInteractiveCredentialRequest> requests) {
+        final PSExtendedVerificationKey verificationKey = issuerKeyPair.getVerificationKey();
+        CredentialRequestEquations[] equations = new CredentialRequestEquations[requests.size()];
+        ParallelExecution.forEachIndex(executor, 0, requests.size(), i -> equations[i] =
+                CredentialRequestEquations.of(pp, verificationKey, requests.get(i)));
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < equations.length; i++) {
+            if (equations[i] != null) {
+                candidates.add(i);
+            }
+        }
+        boolean[] verified = new boolean[requests.size()];
+        verifyRequestEquations(verificationKey, equations, candidates, verified);
+
+        BlindCredentialSigner signer = new BlindCredentialSigner(pp, issuerKeyPair, publicIdentity);
+        CredentialIssueResponse[] responses = new CredentialIssueResponse[requests.size()];
+        ParallelExecution.forEachIndex(executor, 0, requests.size(), i -> {
+            if (!verified[i]) {
+                return;
+            }
+            NonInteractiveCredentialRequest request = requests.get(i);
+            try {
+                responses[i] = new CredentialIssueResponse(
+                        signer.createBlindedCredential(request.getIssuable(), request.getCommitment()));
+            } catch (IllegalArgumentException e) {
+                // The attributes of this request do not match the attribute space, only this request is rejected
+            }
+        });
+        return Arrays.asList(responses);
+    }
+
+    /**
+     * Checks the equations of the given candidates at once and marks them as verified on success. Otherwise the
+     * candidates are split in halves which are checked recursively.
+     *
+     * @param verificationKey the verification key of this issuer
+     * @param equations       the equations of all requests
+     * @param candidates      indices of the requests to check
+     * @param verified        result array, the entries of successfully checked candidates are set to true
+     */
+    private void verifyRequestEquations(PSExtendedVerificationKey verificationKey,
+                                        CredentialRequestEquations[] equations, List<Integer> candidates,
+                                        boolean[] verified) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        List<CredentialRequestEquations> batch =
+                candidates.stream().map(i -> equations[i]).collect(Collectors.toList());
+        if (CredentialRequestEquations.verify(pp, verificationKey, batch)) {
+            candidates.forEach(i -> verified[i] = true);
+        } else if (candidates.size() > 1) {
+            int middle = candidates.size() / 2;
+            verifyRequestEquations(verificationKey, equations, candidates.subList(0, middle), verified);
+            verifyRequestEquations(verificationKey, equations, candidates.subList(middle, candidates.size()),
+                    verified);
+        }
+    }
+
+    /**
+     * Verifies the proof of knowledge of the user secret key contained in the given request.
+     */
+    private boolean verifyRequest(NonInteractiveCredentialRequest request) {
+        IssueIssuableProtocolFactory protocolFactory = new IssueIssuableProtocolFactory(
+                pp, issuerKeyPair.getVerificationKey(),
+                request.getPseudonym(),
+                request.getCommitment()
+        );
+        final InteractiveThreeWayAoK protocol = protocolFactory.getProtocol();
+        FiatShamirHeuristic fiatShamirHeuristic = new FiatShamirHeuristic(protocol, new SHA256HashFunction());
+        return fiatShamirHeuristic.verify(request.getProof());
+    }
+
     @Override
     public CredentialIssuerPublicIdentity getPublicIdentity() {
         return publicIdentity;
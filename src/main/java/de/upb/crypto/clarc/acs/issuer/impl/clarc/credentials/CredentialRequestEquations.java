@@ -0,0 +1,222 @@
+package de.upb.crypto.clarc.acs.issuer.impl.clarc.credentials;
+
+import de.upb.crypto.clarc.acs.protocols.impl.clarc.IssueIssuableProtocolFactory;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.clarc.acs.user.impl.clarc.credentials.NonInteractiveCredentialRequest;
+import de.upb.crypto.clarc.protocols.damgardtechnique.DamgardTechnique;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.FiatShamirHeuristic;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirProof;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrAnnouncement;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrChallenge;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocol;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrResponse;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.craco.common.MessageBlock;
+import de.upb.crypto.craco.common.RingElementPlainText;
+import de.upb.crypto.craco.commitment.HashThenCommitCommitmentScheme;
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentValue;
+import de.upb.crypto.craco.commitment.pedersen.PedersenOpenValue;
+import de.upb.crypto.craco.commitment.pedersen.PedersenPublicParameters;
+import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
+import de.upb.crypto.math.hash.impl.SHA256HashFunction;
+import de.upb.crypto.math.interfaces.hash.HashFunction;
+import de.upb.crypto.math.interfaces.structures.Group;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.interfaces.structures.PowProductExpression;
+import de.upb.crypto.math.random.interfaces.RandomGeneratorSupplier;
+import de.upb.crypto.math.serialization.ListRepresentation;
+import de.upb.crypto.math.serialization.ObjectRepresentation;
+import de.upb.crypto.math.serialization.Representation;
+import de.upb.crypto.math.structures.zn.Zp;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The equations a non-interactive credential request has to fulfill, which are collected such that the requests of a
+ * batch can be checked at once, see {@link CredentialIssuer#issueBatch}.
+ * <p>
+ * The request contains a Fiat-Shamir proof of the protocol created by {@link IssueIssuableProtocolFactory}, i.e.
+ * Damgard's technique applied to the proof of knowledge of r1, usk and r2 with nym = gnym^r1 * hnym^usk and
+ * C = Y0^usk * g^r2. For the challenge c, the Schnorr announcements t1, t2 and the responses s_r1, s_usk, s_r2 have to
+ * fulfill t1 * nym^c = gnym^s_r1 * hnym^s_usk and t2 * C^c = Y0^s_usk * g^s_r2. Furthermore, the Damgard commitment
+ * D = gnym^rho * hnym^m has to open to m = H(t1, t2), see {@link HashThenCommitCommitmentScheme}.
+ * Comparing m to the hash is done per request, while the three group equations of a number of requests are raised to
+ * independent random exponents d_i, e_i and f_i and multiplied (small exponent test):
+ * \prod_i t1_i^d_i * nym_i^(c_i * d_i) * t2_i^e_i * C_i^(c_i * e_i) * D_i^f_i =
+ * gnym^(\sum_i d_i * s_r1_i + f_i * rho_i) * hnym^(\sum_i d_i * s_usk_i + f_i * m_i) * Y0^(\sum_i e_i * s_usk_i) *
+ * g^(\sum_i e_i * s_r2_i).
+ * Since all bases on the right-hand side are fixed by the system and the issuer, a single multi-exponentiation is
+ * needed for all requests. If any of the equations does not hold, the combined check fails with overwhelming
+ * probability.
+ * </p>
+ */
+class CredentialRequestEquations {
+    /**
+     * Bit length of the random exponents used to combine the equations. The probability of accepting a batch which
+     * contains an invalid equation is at most 2^-SECURITY_PARAMETER.
+     */
+    private static final int SECURITY_PARAMETER = 128;
+    private static final String R1 = "r1";
+    private static final String USK = "usk";
+    private static final String R2 = "r2";
+    private static final Set<String> VARIABLES = new HashSet<>(Arrays.asList(R1, USK, R2));
+
+    private final GroupElement nym;
+    private final GroupElement commitment;
+    private final GroupElement damgardCommitment;
+    private final GroupElement nymAnnouncement;
+    private final GroupElement commitmentAnnouncement;
+    private final Zp.ZpElement challenge;
+    private final Map<String, Zp.ZpElement> responses;
+    private final PedersenOpenValue damgardOpenValue;
+
+    private CredentialRequestEquations(GroupElement nym, GroupElement commitment, GroupElement damgardCommitment,
+                                       GroupElement nymAnnouncement, GroupElement commitmentAnnouncement,
+                                       Zp.ZpElement challenge, Map<String, Zp.ZpElement> responses,
+                                       PedersenOpenValue damgardOpenValue) {
+        this.nym = nym;
+        this.commitment = commitment;
+        this.damgardCommitment = damgardCommitment;
+        this.nymAnnouncement = nymAnnouncement;
+        this.commitmentAnnouncement = commitmentAnnouncement;
+        this.challenge = challenge;
+        this.responses = responses;
+        this.damgardOpenValue = damgardOpenValue;
+    }
+
+    /**
+     * Restores the elements of the given request, computes the Fiat-Shamir challenge of its proof and checks that the
+     * Damgard commitment is opened to the hash of the Schnorr announcements.
+     *
+     * @param pp                    the public parameters of the system
+     * @param issuerVerificationKey the verification key of the issuer
+     * @param request               the request to check
+     * @return the equations of the given request or null, if the request is malformed or its Damgard commitment is
+     * opened to another value
+     */
+    static CredentialRequestEquations of(PublicParameters pp, PSExtendedVerificationKey issuerVerificationKey,
+                                         NonInteractiveCredentialRequest request) {
+        try {
+            HashFunction hashFunction = new SHA256HashFunction();
+            GeneralizedSchnorrProtocol protocol = new IssueIssuableProtocolFactory(pp, issuerVerificationKey,
+                    request.getPseudonym(), request.getCommitment()).getGeneralizedSchnorrProtocol();
+            DamgardTechnique damgardTechnique =
+                    new DamgardTechnique(protocol, PublicParametersFactory.getMultiMessageCommitmentScheme(pp));
+            FiatShamirProof proof = (FiatShamirProof) request.getProof();
+            Representation[] announcementRepresentations = proof.getAnnouncementRepresentations();
+            Representation[] responseRepresentations = proof.getResponseRepresentations();
+            if (announcementRepresentations.length != 1 || responseRepresentations.length != 1) {
+                return null;
+            }
+            Announcement[] announcements = {damgardTechnique.recreateAnnouncement(announcementRepresentations[0])};
+
+            // The Damgard announcement and response are not accessible, hence their representations are read directly
+            PedersenCommitmentValue damgardCommitment = (PedersenCommitmentValue) announcementRepresentations[0].obj()
+                    .get("commitmentValue").repr().recreateRepresentable();
+            ObjectRepresentation damgardResponse = responseRepresentations[0].obj();
+            GeneralizedSchnorrAnnouncement[] schnorrAnnouncements = damgardResponse.get("announcements").list()
+                    .stream()
+                    .map(protocol::recreateAnnouncement)
+                    .toArray(GeneralizedSchnorrAnnouncement[]::new);
+            ListRepresentation responseList = damgardResponse.get("responses").list();
+            Map<String, Zp.ZpElement> responses = new HashMap<>();
+            responseList.forEach(representation -> {
+                GeneralizedSchnorrResponse response = protocol.recreateResponse(representation);
+                responses.put(response.getVariableName(), response.getResponse());
+            });
+            PedersenOpenValue damgardOpenValue =
+                    (PedersenOpenValue) damgardResponse.get("d").repr().recreateRepresentable();
+            if (schnorrAnnouncements.length != 2 || responses.size() != responseList.size()
+                    || !VARIABLES.equals(responses.keySet()) || damgardOpenValue.getMessages().length != 1) {
+                return null;
+            }
+
+            // Like HashThenCommitCommitmentScheme#verify, the commitment has to open to the hash of the announcements
+            PedersenCommitmentScheme pedersen = PublicParametersFactory.getSingleMessageCommitmentScheme(pp);
+            MessageBlock hashedAnnouncements = pedersen.mapToPlainText(pp.getHashFunction().hash(
+                    new MessageBlock(schnorrAnnouncements).getUniqueByteRepresentation()));
+            if (hashedAnnouncements.size() != 1 || !damgardOpenValue.getMessages()[0]
+                    .equals(((RingElementPlainText) hashedAnnouncements.get(0)).getRingElement())) {
+                return null;
+            }
+
+            byte[] hash = new FiatShamirHeuristic(damgardTechnique, hashFunction)
+                    .getHashForAnnouncementAndAuxData(announcements, proof.getAuxData(), hashFunction);
+            GeneralizedSchnorrChallenge challenge =
+                    (GeneralizedSchnorrChallenge) protocol.createChallengeFromByteArray(hash);
+            return new CredentialRequestEquations(request.getPseudonym().getCommitmentValue().getCommitmentElement(),
+                    request.getCommitment().getCommitmentElement(),
+                    damgardCommitment.getCommitmentElement(),
+                    schnorrAnnouncements[0].getAnnouncement(),
+                    schnorrAnnouncements[1].getAnnouncement(),
+                    challenge.getChallenge(),
+                    responses,
+                    damgardOpenValue);
+        } catch (RuntimeException e) {
+            // Malformed requests are considered invalid
+            return null;
+        }
+    }
+
+    /**
+     * Checks the equations of all given requests using random linear combinations.
+     *
+     * @param pp                    the public parameters of the system
+     * @param issuerVerificationKey the verification key of the issuer
+     * @param equations             the equations of the requests to check
+     * @return true if all equations hold, false if (with overwhelming probability) at least one of them does not hold
+     */
+    static boolean verify(PublicParameters pp, PSExtendedVerificationKey issuerVerificationKey,
+                          Collection<CredentialRequestEquations> equations) {
+        if (equations.isEmpty()) {
+            return true;
+        }
+        PedersenPublicParameters nymPP = pp.getSingleMessageCommitmentPublicParameters();
+        PedersenPublicParameters issuerPP =
+                IssuerKeyPairFactory.getPedersenPPForSingleValueFromIssuerPK(pp, issuerVerificationKey);
+        Group group = pp.getBilinearMap().getG1();
+        BigInteger bound = BigInteger.ONE.shiftLeft(SECURITY_PARAMETER);
+        BigInteger order = group.size();
+        PowProductExpression proofs = new PowProductExpression(group);
+        BigInteger gnymExponent = BigInteger.ZERO;
+        BigInteger hnymExponent = BigInteger.ZERO;
+        BigInteger y0Exponent = BigInteger.ZERO;
+        BigInteger gExponent = BigInteger.ZERO;
+
+        for (CredentialRequestEquations equation : equations) {
+            BigInteger c = equation.challenge.getInteger();
+            BigInteger d = RandomGeneratorSupplier.getRnd().getRandomElement(bound);
+            proofs.op(equation.nymAnnouncement, d);
+            proofs.op(equation.nym, c.multiply(d).mod(order));
+            gnymExponent = gnymExponent.add(equation.responses.get(R1).getInteger().multiply(d));
+            hnymExponent = hnymExponent.add(equation.responses.get(USK).getInteger().multiply(d));
+
+            BigInteger e = RandomGeneratorSupplier.getRnd().getRandomElement(bound);
+            proofs.op(equation.commitmentAnnouncement, e);
+            proofs.op(equation.commitment, c.multiply(e).mod(order));
+            y0Exponent = y0Exponent.add(equation.responses.get(USK).getInteger().multiply(e));
+            gExponent = gExponent.add(equation.responses.get(R2).getInteger().multiply(e));
+
+            BigInteger f = RandomGeneratorSupplier.getRnd().getRandomElement(bound);
+            proofs.op(equation.damgardCommitment, f);
+            gnymExponent = gnymExponent.add(equation.damgardOpenValue.getRandomValue().getInteger().multiply(f));
+            hnymExponent = hnymExponent.add(equation.damgardOpenValue.getMessages()[0].getInteger().multiply(f));
+        }
+
+        GroupElement bases = new PowProductExpression(group)
+                .op(nymPP.getG(), gnymExponent.mod(order))
+                .op(nymPP.getH()[0], hnymExponent.mod(order))
+                .op(issuerPP.getH()[0], y0Exponent.mod(order))
+                .op(issuerPP.getG(), gExponent.mod(order))
+                .evaluate();
+        return proofs.evaluate().equals(bases);
+    }
+}
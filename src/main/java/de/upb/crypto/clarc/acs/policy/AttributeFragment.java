@@ -1,5 +1,7 @@
 package de.upb.crypto.clarc.acs.policy;
 
+import de.upb.crypto.clarc.predicategeneration.parametergeneration.RangeProofCostModel;
+
 public class AttributeFragment {
     private final IssuerScopedFragment fragment;
     private final String attributeName;
@@ -56,4 +58,18 @@ public class AttributeFragment {
         fragment.addRangeCheck(attributeName, lowerBound, upperBound);
         return fragment;
     }
+
+    /**
+     * Asserts that the said attribute is within a given range, where the parameters of the range proof are chosen
+     * such that the given cost is minimized
+     *
+     * @param lowerBound the lower bound of the range
+     * @param upperBound the upper bound of the range
+     * @param costModel  the cost to minimize, e.g. the size of the proof
+     * @return {@link IssuerScopedFragment} an issuer scoped fragment for adding further restrictions
+     */
+    public IssuerScopedFragment isInRange(long lowerBound, long upperBound, RangeProofCostModel costModel) {
+        fragment.addRangeCheck(attributeName, lowerBound, upperBound, costModel);
+        return fragment;
+    }
 }
@@ -12,6 +12,7 @@ import de.upb.crypto.clarc.predicategeneration.fixedprotocols.PredicateTypePrimi
 import de.upb.crypto.clarc.predicategeneration.inequalityproofs.InequalityPublicParameters;
 import de.upb.crypto.clarc.predicategeneration.parametergeneration.EqualityParameterGen;
 import de.upb.crypto.clarc.predicategeneration.parametergeneration.InequalityParameterGen;
+import de.upb.crypto.clarc.predicategeneration.parametergeneration.RangeProofCostModel;
 import de.upb.crypto.clarc.predicategeneration.parametergeneration.RangeProofParameterGen;
 import de.upb.crypto.clarc.predicategeneration.parametergeneration.SetMembershipParameterGen;
 import de.upb.crypto.clarc.predicategeneration.policies.PredicatePolicyFact;
@@ -222,6 +223,10 @@ public class IssuerScopedFragment implements PotentialFragmentEndPart {
     }
 
     void addRangeCheck(String attributeName, long lowerBound, long upperBound) {
+        addRangeCheck(attributeName, lowerBound, upperBound, RangeProofParameterGen.DEFAULT_COST_MODEL);
+    }
+
+    void addRangeCheck(String attributeName, long lowerBound, long upperBound, RangeProofCostModel costModel) {
         final BigIntegerAttributeDefinition attributeDefinition = getBigIntegerAttributeDefinition(attributeName);
         if (lowerBound > upperBound) {
             throw new IllegalArgumentException("lowerBound is larger than upperBound");
@@ -232,7 +237,7 @@ public class IssuerScopedFragment implements PotentialFragmentEndPart {
         final ArbitraryRangeProofPublicParameters rangePP = RangeProofParameterGen.getRangePP(
                 pp.getSingleMessageCommitmentPublicParameters(),
                 BigInteger.valueOf(lowerBound), BigInteger.valueOf(upperBound),
-                attributeIndex, pp.getZp(), pp.getNguyenAccumulatorPP()
+                attributeIndex, pp.getZp(), pp.getNguyenAccumulatorPP(), costModel
         );
         PredicatePolicyFact fact = new PredicatePolicyFact(
                 rangePP,
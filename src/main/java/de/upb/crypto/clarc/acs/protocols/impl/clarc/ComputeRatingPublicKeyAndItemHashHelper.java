@@ -1,18 +1,192 @@
 package de.upb.crypto.clarc.acs.protocols.impl.clarc;
 
 import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewToken;
+import de.upb.crypto.clarc.acs.issuer.reviewtokens.Item;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.craco.enc.sym.streaming.aes.ByteArrayImplementation;
+import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
 import de.upb.crypto.math.hash.impl.ByteArrayAccumulator;
+import de.upb.crypto.math.interfaces.hash.HashIntoStructure;
 import de.upb.crypto.math.interfaces.structures.GroupElement;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Computes the hash H(rpk, item) of a rating public key rpk and an item into G1, which is used by all review related
+ * protocols.
+ * <p>
+ * Since hashing into G1 is expensive and an item typically gets many reviews, the results are kept in a bounded cache
+ * which evicts the least recently used entry if it is full. All hashed points have the same size, hence the bound on
+ * the number of entries also bounds the memory used by the cache. The cache is shared by all threads.
+ * </p>
+ */
 public class ComputeRatingPublicKeyAndItemHashHelper {
+    /**
+     * Default maximum number of cached hashes
+     */
+    public static final int DEFAULT_MAXIMUM_CACHE_SIZE = 10000;
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+
+    private static int maximumCacheSize = DEFAULT_MAXIMUM_CACHE_SIZE;
+    private static final Map<CacheKey, GroupElement> cache = new LinkedHashMap<CacheKey, GroupElement>(16, 0.75f,
+            true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, GroupElement> eldest) {
+            if (size() > maximumCacheSize) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
     public static GroupElement getHashedRatingPublicKeyAndItem(ReviewToken blindedToken, PublicParameters pp) {
+        CacheKey key = new CacheKey(pp.getHashIntoGroup1(), blindedToken.getRatingIssuerPublicKey(),
+                blindedToken.getItem().getData());
+        synchronized (cache) {
+            GroupElement hash = cache.get(key);
+            if (hash != null) {
+                hits.incrementAndGet();
+                return hash;
+            }
+        }
+        misses.incrementAndGet();
+
+        // Hash outside of the lock, computing the same hash concurrently at worst results in redundant work
         byte[] itemBytes = blindedToken.getItem().getData().getData();
         byte[] rpkBytes = blindedToken.getRatingIssuerPublicKey().getUniqueByteRepresentation();
         ByteArrayAccumulator dataToHash = new ByteArrayAccumulator();
         dataToHash.append(itemBytes);
         dataToHash.appendSeperator();
         dataToHash.append(rpkBytes);
-        return (GroupElement) pp.getHashIntoGroup1().hashIntoStructure(dataToHash.extractBytes());
+        GroupElement hash = (GroupElement) pp.getHashIntoGroup1().hashIntoStructure(dataToHash.extractBytes());
+        synchronized (cache) {
+            if (maximumCacheSize > 0) {
+                cache.put(key, hash);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Sets the maximum number of cached hashes, evicting the least recently used ones if there are more. A size of 0
+     * disables the cache.
+     *
+     * @param maximumSize the maximum number of cached hashes
+     */
+    public static void setMaximumCacheSize(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("The maximum cache size must not be negative");
+        }
+        synchronized (cache) {
+            maximumCacheSize = maximumSize;
+            Iterator<CacheKey> iterator = cache.keySet().iterator();
+            while (cache.size() > maximumSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes the cached hashes of all items for the given rating public key, e.g. if the key is no longer in use.
+     *
+     * @param ratingPublicKey the rating public key
+     */
+    public static void invalidate(PSExtendedVerificationKey ratingPublicKey) {
+        synchronized (cache) {
+            cache.keySet().removeIf(key -> key.ratingPublicKey.equals(ratingPublicKey));
+        }
+    }
+
+    /**
+     * Removes the cached hash for the given rating public key and item.
+     *
+     * @param ratingPublicKey the rating public key
+     * @param item            the item
+     */
+    public static void invalidate(PSExtendedVerificationKey ratingPublicKey, Item item) {
+        synchronized (cache) {
+            cache.keySet().removeIf(key -> key.ratingPublicKey.equals(ratingPublicKey)
+                    && key.item.equals(item.getData()));
+        }
+    }
+
+    /**
+     * Removes all cached hashes.
+     */
+    public static void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return the number of hashes which have been taken from the cache
+     */
+    public static long getCacheHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of hashes which have been computed since they were not cached
+     */
+    public static long getCacheMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of hashes which have been removed from the cache since it was full
+     */
+    public static long getCacheEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the number of currently cached hashes
+     */
+    public static int getCacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static final class CacheKey {
+        private final HashIntoStructure hashIntoGroup1;
+        private final PSExtendedVerificationKey ratingPublicKey;
+        private final ByteArrayImplementation item;
+        private final int hashCode;
+
+        private CacheKey(HashIntoStructure hashIntoGroup1, PSExtendedVerificationKey ratingPublicKey,
+                         ByteArrayImplementation item) {
+            this.hashIntoGroup1 = hashIntoGroup1;
+            this.ratingPublicKey = ratingPublicKey;
+            this.item = item;
+            this.hashCode = Objects.hash(hashIntoGroup1, ratingPublicKey, item);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CacheKey that = (CacheKey) o;
+            return hashCode == that.hashCode &&
+                    Objects.equals(item, that.item) &&
+                    Objects.equals(ratingPublicKey, that.ratingPublicKey) &&
+                    Objects.equals(hashIntoGroup1, that.hashIntoGroup1);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
     }
 }
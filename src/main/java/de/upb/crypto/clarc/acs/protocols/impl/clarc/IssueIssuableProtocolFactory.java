@@ -38,6 +38,16 @@ public class IssueIssuableProtocolFactory implements ProtocolFactory {
 
     @Override
     public InteractiveThreeWayAoK getProtocol() {
+        return applyDamgardsTechnique(getGeneralizedSchnorrProtocol());
+    }
+
+    /**
+     * Returns the protocol proving the two equations nym = gnym^r1 * hnym^usk and C = Y0^usk * g^r2, which is wrapped
+     * using Damgard's technique by {@link #getProtocol()}.
+     *
+     * @return the protocol without Damgard's technique
+     */
+    public GeneralizedSchnorrProtocol getGeneralizedSchnorrProtocol() {
         // Proof of knowledge with User for usk and pseudonym
         final PedersenPublicParameters pedersenPublicParameters =
                 IssuerKeyPairFactory.getPedersenPPForSingleValueFromIssuerPK(pp, issuerVerificationKey);
@@ -95,7 +105,7 @@ public class IssueIssuableProtocolFactory implements ProtocolFactory {
         GeneralizedSchnorrProtocolFactory generalizedSchnorrProtocolFactory = new GeneralizedSchnorrProtocolFactory
                 (listOfProblems, pp.getZp());
 
-        return applyDamgardsTechnique(generalizedSchnorrProtocolFactory.createVerifierGeneralizedSchnorrProtocol());
+        return generalizedSchnorrProtocolFactory.createVerifierGeneralizedSchnorrProtocol();
     }
 
     InteractiveThreeWayAoK applyDamgardsTechnique(GeneralizedSchnorrProtocol protocol) {
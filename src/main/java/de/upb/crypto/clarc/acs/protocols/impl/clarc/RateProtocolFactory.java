@@ -73,11 +73,12 @@ public class RateProtocolFactory implements ProtocolFactory {
         // first equation
         GroupElement leftSide1 = map.apply(blindedRegistrationInformation.getGroup1ElementSigma1(),
                 openPublicKey.getGroup2ElementsTildeYi()[0]);
-        GroupElement rightSideTop1 = map.apply(blindedRegistrationInformation.getGroup1ElementSigma2(),
-                openPublicKey.getGroup2ElementTildeG());
-        GroupElement rightSideBottom1 = map.apply(blindedRegistrationInformation.getGroup1ElementSigma1(),
-                openPublicKey.getGroup2ElementTildeX());
-        GroupElement rightSide1 = rightSideTop1.op(rightSideBottom1.inv());
+        // e(sigma2, g~) * e(sigma1, X~)^-1, evaluated as a multi-pairing with a single final exponentiation
+        GroupElement rightSide1 = map.pairingProductExpression()
+                .op(blindedRegistrationInformation.getGroup1ElementSigma2(), openPublicKey.getGroup2ElementTildeG())
+                .op(blindedRegistrationInformation.getGroup1ElementSigma1().inv(),
+                        openPublicKey.getGroup2ElementTildeX())
+                .evaluate();
 
         ArithGroupElementExpression rightSide1Expr = new NumberGroupElementLiteral(rightSide1);
         ArithGroupElementExpression leftSide1WithoutUsk = new NumberGroupElementLiteral(leftSide1);
@@ -108,12 +109,13 @@ public class RateProtocolFactory implements ProtocolFactory {
 
         // fourth equation
         HashIntoZp hashIntoZp = new HashIntoZp(zp);
+        PSExtendedVerificationKey ratingPublicKey = blindedToken.getRatingIssuerPublicKey();
         GroupElement leftSide4First = map.apply(blindedToken.getSignature().getGroup1ElementSigma1(),
-                blindedToken.getRatingIssuerPublicKey().getGroup2ElementTildeG());
+                ratingPublicKey.getGroup2ElementTildeG());
         ArithGroupElementExpression leftSide4FirstWithoutR = new NumberGroupElementLiteral(leftSide4First);
         ArithGroupElementExpression leftSide4FirstExpr = new PowerGroupElementExpression(leftSide4FirstWithoutR, rExpr);
         GroupElement leftSide4Second = map.apply(blindedToken.getSignature().getGroup1ElementSigma1(),
-                blindedToken.getRatingIssuerPublicKey().getGroup2ElementsTildeYi()[0]);
+                ratingPublicKey.getGroup2ElementsTildeYi()[0]);
         ArithGroupElementExpression leftSide4SecondWithoutUsk = new NumberGroupElementLiteral(leftSide4Second);
         ArithGroupElementExpression leftSide4SecondExpr =
                 new PowerGroupElementExpression(leftSide4SecondWithoutUsk, userSecret);
@@ -122,16 +124,16 @@ public class RateProtocolFactory implements ProtocolFactory {
         leftSide4.add(leftSide4SecondExpr);
         ArithGroupElementExpression leftSide4Expr = new ProductGroupElementExpression(leftSide4);
 
-        GroupElement rightSide4Top = map.apply(blindedToken.getSignature().getGroup1ElementSigma2(),
-                blindedToken.getRatingIssuerPublicKey().getGroup2ElementTildeG());
-        GroupElement rightSide4BottomFirstPart = map.apply(blindedToken.getSignature().getGroup1ElementSigma1(),
-                blindedToken.getRatingIssuerPublicKey().getGroup2ElementTildeX());
-        GroupElement rightSide4BottomSecondPart = map.apply(blindedToken.getSignature().getGroup1ElementSigma1(),
-                blindedToken.getRatingIssuerPublicKey()
-                        .getGroup2ElementsTildeYi()[1]).pow(hashIntoZp.hashIntoStructure
-                (blindedToken.getItem().getData().getUniqueByteRepresentation()));
-        GroupElement rightSide4Bottom = rightSide4BottomFirstPart.op(rightSide4BottomSecondPart);
-        GroupElement rightSide4 = rightSide4Top.op(rightSide4Bottom.inv());
+        // e(sigma2, g~) * e(sigma1, X~)^-1 * e(sigma1, Y1~)^-H(item), evaluated as a multi-pairing
+        PSSignature tokenSignature = blindedToken.getSignature();
+        Zp.ZpElement hashedItem =
+                hashIntoZp.hashIntoStructure(blindedToken.getItem().getData().getUniqueByteRepresentation());
+        GroupElement rightSide4 = map.pairingProductExpression()
+                .op(tokenSignature.getGroup1ElementSigma2(), ratingPublicKey.getGroup2ElementTildeG())
+                .op(tokenSignature.getGroup1ElementSigma1().inv(), ratingPublicKey.getGroup2ElementTildeX())
+                .op(tokenSignature.getGroup1ElementSigma1(), ratingPublicKey.getGroup2ElementsTildeYi()[1],
+                        hashedItem.neg())
+                .evaluate();
         ArithGroupElementExpression rightSide4Expr = new NumberGroupElementLiteral(rightSide4);
         ArithComparisonExpression equality4 = new GroupElementEqualityExpression(rightSide4Expr, leftSide4Expr);
 
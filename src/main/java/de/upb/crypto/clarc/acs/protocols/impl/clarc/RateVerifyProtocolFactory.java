@@ -2,11 +2,18 @@ package de.upb.crypto.clarc.acs.protocols.impl.clarc;
 
 import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewToken;
 import de.upb.crypto.clarc.acs.protocols.ProtocolFactory;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSSignatureBatch;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.protocols.expressions.arith.*;
 import de.upb.crypto.clarc.protocols.expressions.comparison.ArithComparisonExpression;
 import de.upb.crypto.clarc.protocols.expressions.comparison.GroupElementEqualityExpression;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrAnnouncement;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrChallenge;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocol;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrResponse;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.Response;
 import de.upb.crypto.clarc.protocols.protocolfactory.GeneralizedSchnorrProtocolFactory;
 import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
 import de.upb.crypto.craco.sig.ps.PSSignature;
@@ -15,13 +22,17 @@ import de.upb.crypto.math.interfaces.structures.GroupElement;
 import de.upb.crypto.math.structures.zn.HashIntoZp;
 import de.upb.crypto.math.structures.zn.Zp;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.math.BigInteger;
+import java.util.*;
 
 import static de.upb.crypto.clarc.acs.protocols.impl.clarc.ComputeRatingPublicKeyAndItemHashHelper.getHashedRatingPublicKeyAndItem;
 
 public class RateVerifyProtocolFactory implements ProtocolFactory {
 
+    public static final String USK = "usk";
+    public static final String ZETA = "zeta";
+    public static final String TOKEN_RANDOM = "r";
+
     private PublicParameters pp;
     private PSSignature blindedRegistrationInformation;
     private PSExtendedVerificationKey openPublicKey;
@@ -29,6 +40,7 @@ public class RateVerifyProtocolFactory implements ProtocolFactory {
     private ReviewToken blindedToken;
     private GroupElement L1;
     private GroupElement L2;
+    private GroupElement hash;
 
 
     public RateVerifyProtocolFactory(PublicParameters pp,
@@ -38,6 +50,31 @@ public class RateVerifyProtocolFactory implements ProtocolFactory {
                                      ReviewToken blindedToken,
                                      GroupElement L1,
                                      GroupElement L2) {
+        this(pp, blindedRegistrationInformation, openPublicKey, linkabilityBasis, blindedToken, L1, L2,
+                getHashedRatingPublicKeyAndItem(blindedToken, pp));
+    }
+
+    /**
+     * Instantiates the factory with an already computed hash H(rpk, item) of the given token, see
+     * {@link ComputeRatingPublicKeyAndItemHashHelper#getHashedRatingPublicKeyAndItem}.
+     *
+     * @param pp                             the acs public parameters
+     * @param blindedRegistrationInformation the blinded registration information of the user
+     * @param openPublicKey                  public key of the system manager
+     * @param linkabilityBasis               linkability basis b of the system manager
+     * @param blindedToken                   the blinded review token
+     * @param L1                             L1 = H(rpk, item)^{zeta + usk}
+     * @param L2                             L2 = b^zeta
+     * @param hash                           H(rpk, item)
+     */
+    public RateVerifyProtocolFactory(PublicParameters pp,
+                                     PSSignature blindedRegistrationInformation,
+                                     PSExtendedVerificationKey openPublicKey,
+                                     GroupElement linkabilityBasis,
+                                     ReviewToken blindedToken,
+                                     GroupElement L1,
+                                     GroupElement L2,
+                                     GroupElement hash) {
         this.pp = pp;
         this.blindedRegistrationInformation = blindedRegistrationInformation;
         this.openPublicKey = openPublicKey;
@@ -45,6 +82,7 @@ public class RateVerifyProtocolFactory implements ProtocolFactory {
         this.blindedToken = blindedToken;
         this.L1 = L1;
         this.L2 = L2;
+        this.hash = hash;
     }
 
     @Override
@@ -52,21 +90,18 @@ public class RateVerifyProtocolFactory implements ProtocolFactory {
         BilinearMap map = pp.getBilinearMap();
         Zp zp = pp.getZp();
 
-        GroupElement hash = getHashedRatingPublicKeyAndItem(blindedToken, pp);
-        ArithGroupElementExpression hashExpr = new NumberGroupElementLiteral(hash);
-
-        ArithZnElementExpression userSecret = new ZnVariable("usk");
-        ArithZnElementExpression zetaExpr = new ZnVariable("zeta");
-        ArithZnElementExpression rExpr = new ZnVariable("r");
+        ArithZnElementExpression userSecret = new ZnVariable(USK);
+        ArithZnElementExpression rExpr = new ZnVariable(TOKEN_RANDOM);
 
         // first equation
         GroupElement leftSide1 = map.apply(blindedRegistrationInformation.getGroup1ElementSigma1(),
                 openPublicKey.getGroup2ElementsTildeYi()[0]);
-        GroupElement rightSideTop1 = map.apply(blindedRegistrationInformation.getGroup1ElementSigma2(),
-                openPublicKey.getGroup2ElementTildeG());
-        GroupElement rightSideBottom1 = map.apply(blindedRegistrationInformation.getGroup1ElementSigma1(),
-                openPublicKey.getGroup2ElementTildeX());
-        GroupElement rightSide1 = rightSideTop1.op(rightSideBottom1.inv());
+        // e(sigma2, g~) * e(sigma1, X~)^-1, evaluated as a multi-pairing with a single final exponentiation
+        GroupElement rightSide1 = map.pairingProductExpression()
+                .op(blindedRegistrationInformation.getGroup1ElementSigma2(), openPublicKey.getGroup2ElementTildeG())
+                .op(blindedRegistrationInformation.getGroup1ElementSigma1().inv(),
+                        openPublicKey.getGroup2ElementTildeX())
+                .evaluate();
 
         ArithGroupElementExpression rightSide1Expr = new NumberGroupElementLiteral(rightSide1);
         ArithGroupElementExpression leftSide1WithoutUsk = new NumberGroupElementLiteral(leftSide1);
@@ -76,6 +111,55 @@ public class RateVerifyProtocolFactory implements ProtocolFactory {
         ArithGroupElementExpression leftSide1Final = new ProductGroupElementExpression(leftSide1List);
         ArithComparisonExpression equality1 = new GroupElementEqualityExpression(rightSide1Expr, leftSide1Final);
 
+        // fourth equation
+        HashIntoZp hashIntoZp = new HashIntoZp(zp);
+        PSExtendedVerificationKey ratingPublicKey = blindedToken.getRatingIssuerPublicKey();
+        GroupElement leftSide4First = map.apply(blindedToken.getSignature().getGroup1ElementSigma1(),
+                ratingPublicKey.getGroup2ElementTildeG());
+        ArithGroupElementExpression leftSide4FirstWithoutR = new NumberGroupElementLiteral(leftSide4First);
+        ArithGroupElementExpression leftSide4FirstExpr = new PowerGroupElementExpression(leftSide4FirstWithoutR, rExpr);
+        GroupElement leftSide4Second = map.apply(blindedToken.getSignature().getGroup1ElementSigma1(),
+                ratingPublicKey.getGroup2ElementsTildeYi()[0]);
+        ArithGroupElementExpression leftSide4SecondWithoutUsk = new NumberGroupElementLiteral(leftSide4Second);
+        ArithGroupElementExpression leftSide4SecondExpr =
+                new PowerGroupElementExpression(leftSide4SecondWithoutUsk, userSecret);
+        // e(sigma2, g~) * e(sigma1, X~)^-1 * e(sigma1, Y1~)^-H(item), evaluated as a multi-pairing
+        PSSignature tokenSignature = blindedToken.getSignature();
+        Zp.ZpElement hashedItem =
+                hashIntoZp.hashIntoStructure(blindedToken.getItem().getData().getUniqueByteRepresentation());
+        GroupElement rightSide4 = map.pairingProductExpression()
+                .op(tokenSignature.getGroup1ElementSigma2(), ratingPublicKey.getGroup2ElementTildeG())
+                .op(tokenSignature.getGroup1ElementSigma1().inv(), ratingPublicKey.getGroup2ElementTildeX())
+                .op(tokenSignature.getGroup1ElementSigma1(), ratingPublicKey.getGroup2ElementsTildeYi()[1],
+                        hashedItem.neg())
+                .evaluate();
+        List<ArithGroupElementExpression> leftSide4 = new ArrayList<>();
+        leftSide4.add(leftSide4FirstExpr);
+        leftSide4.add(leftSide4SecondExpr);
+        ArithGroupElementExpression leftSide4Expr = new ProductGroupElementExpression(leftSide4);
+        ArithGroupElementExpression rightSide4Expr = new NumberGroupElementLiteral(rightSide4);
+        ArithComparisonExpression equality4 = new GroupElementEqualityExpression(rightSide4Expr, leftSide4Expr);
+
+        ArithComparisonExpression[] linkingProblems = createLinkingProblems();
+        ArithComparisonExpression[] listOfProblems = {equality1, linkingProblems[0], linkingProblems[1], equality4};
+        GeneralizedSchnorrProtocolFactory generalizedSchnorrProtocolFactory = new GeneralizedSchnorrProtocolFactory
+                (listOfProblems, pp.getZp());
+
+        return generalizedSchnorrProtocolFactory.createVerifierGeneralizedSchnorrProtocol();
+    }
+
+    /**
+     * Creates the second and third equation of the protocol, which link the review to the user's secret:
+     * L1 = H(rpk, item)^zeta * H(rpk, item)^usk and L2 = b^zeta. In contrast to the first and fourth equation, these
+     * do not require any pairings.
+     *
+     * @return the second and third problem equation of the protocol
+     */
+    private ArithComparisonExpression[] createLinkingProblems() {
+        ArithGroupElementExpression hashExpr = new NumberGroupElementLiteral(hash);
+        ArithZnElementExpression userSecret = new ZnVariable(USK);
+        ArithZnElementExpression zetaExpr = new ZnVariable(ZETA);
+
         // second equation
         ArithGroupElementExpression leftSide2Expr = new NumberGroupElementLiteral(L1);
         ArithGroupElementExpression rightSide2First = new PowerGroupElementExpression(hashExpr, zetaExpr);
@@ -95,41 +179,93 @@ public class RateVerifyProtocolFactory implements ProtocolFactory {
         ArithGroupElementExpression rightSide3Final = new ProductGroupElementExpression(rightSide3List);
         ArithComparisonExpression equality3 = new GroupElementEqualityExpression(leftSide3Expr, rightSide3Final);
 
-        // fourth equation
-        HashIntoZp hashIntoZp = new HashIntoZp(zp);
-        GroupElement leftSide4First = map.apply(blindedToken.getSignature().getGroup1ElementSigma1(),
-                blindedToken.getRatingIssuerPublicKey().getGroup2ElementTildeG());
-        ArithGroupElementExpression leftSide4FirstWithoutR = new NumberGroupElementLiteral(leftSide4First);
-        ArithGroupElementExpression leftSide4FirstExpr = new PowerGroupElementExpression(leftSide4FirstWithoutR, rExpr);
-        GroupElement leftSide4Second = map.apply(blindedToken.getSignature().getGroup1ElementSigma1(),
-                blindedToken.getRatingIssuerPublicKey().getGroup2ElementsTildeYi()[0]);
-        ArithGroupElementExpression leftSide4SecondWithoutUsk = new NumberGroupElementLiteral(leftSide4Second);
-        ArithGroupElementExpression leftSide4SecondExpr =
-                new PowerGroupElementExpression(leftSide4SecondWithoutUsk, userSecret);
-        GroupElement rightSide4Top = map.apply(blindedToken.getSignature().getGroup1ElementSigma2(),
-                blindedToken.getRatingIssuerPublicKey().getGroup2ElementTildeG());
-
-        GroupElement rightSide4BottomFirstPart = map.apply(blindedToken.getSignature().getGroup1ElementSigma1(),
-                blindedToken.getRatingIssuerPublicKey().getGroup2ElementTildeX());
-        GroupElement rightSide4BottomSecondPart = map.apply(blindedToken.getSignature().getGroup1ElementSigma1(),
-                blindedToken.getRatingIssuerPublicKey()
-                        .getGroup2ElementsTildeYi()[1]).pow(hashIntoZp.hashIntoStructure
-                (blindedToken.getItem().getData().getUniqueByteRepresentation()));
-        GroupElement rightSide4Bottom = rightSide4BottomFirstPart.op(rightSide4BottomSecondPart);
-        GroupElement rightSide4 = rightSide4Top.op(rightSide4Bottom.inv());
-        List<ArithGroupElementExpression> leftSide4 = new ArrayList<>();
-        leftSide4.add(leftSide4FirstExpr);
-        leftSide4.add(leftSide4SecondExpr);
-        ArithGroupElementExpression leftSide4Expr = new ProductGroupElementExpression(leftSide4);
-        ArithGroupElementExpression rightSide4Expr = new NumberGroupElementLiteral(rightSide4);
-        ArithComparisonExpression equality4 = new GroupElementEqualityExpression(rightSide4Expr, leftSide4Expr);
+        return new ArithComparisonExpression[]{equality2, equality3};
+    }
 
-        ArithComparisonExpression[] listOfProblems = {equality1, equality2, equality3, equality4};
-        GeneralizedSchnorrProtocolFactory generalizedSchnorrProtocolFactory = new GeneralizedSchnorrProtocolFactory
-                (listOfProblems, pp.getZp());
+    /**
+     * Generates a protocol consisting of the second and third equation of the protocol returned by
+     * {@link #getProtocol()} only. Since it does not contain the pairing based equations, it is cheap to set up.
+     * It can be used to recreate announcements and responses of transcripts of the full protocol as well as challenges
+     * for them, and is used by {@link #verifyDeferringPairingEquations} to check the transcripts' linking equations.
+     *
+     * @return a generalized Schnorr protocol for a verifier containing the second and third equation only
+     */
+    public GeneralizedSchnorrProtocol getLinkingProtocol() {
+        return new GeneralizedSchnorrProtocolFactory(createLinkingProblems(), pp.getZp())
+                .createVerifierGeneralizedSchnorrProtocol();
+    }
 
-        return generalizedSchnorrProtocolFactory.createVerifierGeneralizedSchnorrProtocol();
+    /**
+     * Verifies a transcript of the protocol returned by {@link #getProtocol()}, but instead of checking the pairing
+     * based equations (the first and fourth one, i.e. the signature equations of the blinded registration information
+     * and the blinded token) directly, they are added to the given {@link PSSignatureBatch}. The other equations are
+     * checked as usual.
+     * <p>
+     * Since the pairing based equations are not checked, a return value of true only states that the transcript is
+     * valid if all equations of the given batch hold, which needs to be checked using {@link PSSignatureBatch#verify}.
+     * </p>
+     *
+     * @param signatureBatch batch the pairing based equations are added to
+     * @param announcements  announcements of the transcript
+     * @param challenge      challenge of the transcript
+     * @param responses      responses of the transcript
+     * @return false, if the transcript is invalid, true if it is valid, given the pairing based equations hold
+     */
+    public boolean verifyDeferringPairingEquations(PSSignatureBatch signatureBatch, Announcement[] announcements,
+                                                   Challenge challenge, Response[] responses) {
+        if (announcements == null || announcements.length != 4 ||
+                Arrays.stream(announcements).anyMatch(a -> !(a instanceof GeneralizedSchnorrAnnouncement))) {
+            throw new IllegalArgumentException("The number of given announcements is incorrect!");
+        }
+        if (!(challenge instanceof GeneralizedSchnorrChallenge)) {
+            throw new IllegalArgumentException("The given challenge is not valid to call this verify method");
+        }
+        if (responses == null ||
+                Arrays.stream(responses).anyMatch(response -> !(response instanceof GeneralizedSchnorrResponse))) {
+            throw new IllegalArgumentException("The given responses are not valid to call this verify method");
+        }
+
+        if (!getLinkingProtocol().verify(Arrays.copyOfRange(announcements, 1, 3), challenge, responses)) {
+            return false;
+        }
+
+        Map<String, Zp.ZpElement> responseMap = new HashMap<>();
+        for (Response response : responses) {
+            responseMap.put(((GeneralizedSchnorrResponse) response).getVariableName(),
+                    ((GeneralizedSchnorrResponse) response).getResponse());
+        }
+        if (!responseMap.containsKey(USK) || !responseMap.containsKey(TOKEN_RANDOM)) {
+            return false;
+        }
+        Zp.ZpElement c = ((GeneralizedSchnorrChallenge) challenge).getChallenge();
+        BigInteger uskResponse = responseMap.get(USK).getInteger();
+
+        // The generalized Schnorr protocol checks t = RHS(responses) * A^-c, for the first equation this is:
+        // t = e(sigma1^s_usk, Y0~) * e(sigma2^-c, g~) * e(sigma1^c, X~)
+        PSSignature registration = blindedRegistrationInformation;
+        signatureBatch.add(((GeneralizedSchnorrAnnouncement) announcements[0]).getAnnouncement(),
+                Arrays.asList(registration.getGroup1ElementSigma1(), registration.getGroup1ElementSigma2(),
+                        registration.getGroup1ElementSigma1()),
+                Arrays.asList(uskResponse, c.neg().getInteger(), c.getInteger()),
+                Arrays.asList(openPublicKey.getGroup2ElementsTildeYi()[0], openPublicKey.getGroup2ElementTildeG(),
+                        openPublicKey.getGroup2ElementTildeX()));
+
+        // and for the fourth equation:
+        // t = e(sigma1^s_r * sigma2^-c, g~) * e(sigma1^s_usk, Y0~) * e(sigma1^c, X~) * e(sigma1^(c * H(item)), Y1~)
+        PSSignature token = blindedToken.getSignature();
+        PSExtendedVerificationKey tokenKey = blindedToken.getRatingIssuerPublicKey();
+        Zp.ZpElement hashedItem = new HashIntoZp(pp.getZp())
+                .hashIntoStructure(blindedToken.getItem().getData().getUniqueByteRepresentation());
+        signatureBatch.add(((GeneralizedSchnorrAnnouncement) announcements[3]).getAnnouncement(),
+                Arrays.asList(token.getGroup1ElementSigma1(), token.getGroup1ElementSigma2(),
+                        token.getGroup1ElementSigma1(), token.getGroup1ElementSigma1(),
+                        token.getGroup1ElementSigma1()),
+                Arrays.asList(responseMap.get(TOKEN_RANDOM).getInteger(), c.neg().getInteger(), uskResponse,
+                        c.getInteger(), c.mul(hashedItem).getInteger()),
+                Arrays.asList(tokenKey.getGroup2ElementTildeG(), tokenKey.getGroup2ElementTildeG(),
+                        tokenKey.getGroup2ElementsTildeYi()[0], tokenKey.getGroup2ElementTildeX(),
+                        tokenKey.getGroup2ElementsTildeYi()[1]));
+        return true;
     }
 
 }
-
@@ -13,7 +13,6 @@ import de.upb.crypto.craco.sig.ps.PSSignature;
 import de.upb.crypto.math.interfaces.mappings.BilinearMap;
 import de.upb.crypto.math.interfaces.structures.GroupElement;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -51,14 +50,12 @@ public class MasterCredentialVerifierProtocolFactory extends MasterCredentialPro
         ArithGroupElementExpression e_left_expr = new NumberGroupElementLiteral(e_left);
         ArithZnElementExpression userSecret = new ZnVariable("usk");
 
-        PairingGroupElementExpression e_left_top = new PairingGroupElementExpression(map,
-                new NumberGroupElementLiteral(masterCredential.getGroup1ElementSigma2()),
-                new NumberGroupElementLiteral(systemManagerPublicKey.getGroup2ElementTildeG()));
-        PairingGroupElementExpression e_left_bottom = new PairingGroupElementExpression(map,
-                new NumberGroupElementLiteral(masterCredential.getGroup1ElementSigma1()),
-                new NumberGroupElementLiteral(systemManagerPublicKey.getGroup2ElementTildeX()),
-                BigInteger.ONE.negate());
-        ProductGroupElementExpression leftSide = new ProductGroupElementExpression(e_left_top, e_left_bottom);
+        // e(sigma2, g~) * e(sigma1, X~)^-1, evaluated as a multi-pairing with a single final exponentiation
+        GroupElement e_left_product = map.pairingProductExpression()
+                .op(masterCredential.getGroup1ElementSigma2(), systemManagerPublicKey.getGroup2ElementTildeG())
+                .op(masterCredential.getGroup1ElementSigma1().inv(), systemManagerPublicKey.getGroup2ElementTildeX())
+                .evaluate();
+        ArithGroupElementExpression leftSide = new NumberGroupElementLiteral(e_left_product);
 
         ArithGroupElementExpression rightSide = new PowerGroupElementExpression(e_left_expr, userSecret);
         List<ArithGroupElementExpression> rightSideList = new ArrayList<>();
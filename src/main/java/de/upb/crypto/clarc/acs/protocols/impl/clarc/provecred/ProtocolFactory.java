@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -42,6 +43,8 @@ public abstract class ProtocolFactory implements de.upb.crypto.clarc.acs.protoco
 
     protected final ThresholdPolicy policy;
 
+    protected Executor executor;
+
     /**
      * Instantiates a ProtocolFactory with given public and protocol parameters.
      * The currently available attribute spaces are needed to correctly parse the policy to be fulfilled.
@@ -72,34 +75,70 @@ public abstract class ProtocolFactory implements de.upb.crypto.clarc.acs.protoco
         this.protocolParameters = protocolParameters;
         this.publicParameters = publicParameters;
         this.signatureScheme = PublicParametersFactory.getSignatureScheme(publicParameters);
+        this.attributespaceMapping = mapAttributeSpaces(attributeSpaces);
+        this.policy = toThresholdPolicy(policy);
+        this.disclosures = checkDisclosures(disclosures, this.policy);
+    }
+
+    /**
+     * Instantiates a ProtocolFactory with given protocol parameters, taking all proof independent state from the given
+     * {@link VerifierPlan} instead of deriving it again.
+     *
+     * @param protocolParameters shared input for all protocol instances (prover and verifier)
+     * @param plan               the proof independent state for the policy of which the fulfillment is to be proven
+     */
+    public ProtocolFactory(ProtocolParameters protocolParameters, VerifierPlan plan) {
+        this.protocolParameters = protocolParameters;
+        this.publicParameters = plan.getPublicParameters();
+        this.signatureScheme = plan.getSignatureScheme();
+        this.attributespaceMapping = plan.getAttributeSpaces();
+        this.policy = plan.getPolicy();
+        this.disclosures = plan.getDisclosures();
+    }
 
-        this.attributespaceMapping =
-                attributeSpaces.stream()
-                        .collect(Collectors.toMap(
-                                AttributeSpace::getIssuerPublicKey,
-                                Function.identity(),
-                                (a1, a2) -> a1));
+    /**
+     * Sets the executor which is used to create and run the protocols for the sub policies and their predicates in
+     * parallel, both for proving and verifying. Only one level is run in parallel, i.e. the predicates of a sub policy
+     * are only handled in parallel if there is a single sub policy, see
+     * {@link de.upb.crypto.clarc.parallel.ParallelExecution}. The created protocols, and hence the resulting proofs,
+     * are the same as without an executor.
+     *
+     * @param executor the executor to use, or null to do everything sequentially in the calling thread (default)
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
 
+    static Map<Representation, AttributeSpace> mapAttributeSpaces(List<AttributeSpace> attributeSpaces) {
+        return attributeSpaces.stream()
+                .collect(Collectors.toMap(
+                        AttributeSpace::getIssuerPublicKey,
+                        Function.identity(),
+                        (a1, a2) -> a1));
+    }
+
+    static ThresholdPolicy toThresholdPolicy(Policy policy) {
         if (policy instanceof ThresholdPolicy) {
-            this.policy = (ThresholdPolicy) policy;
+            return (ThresholdPolicy) policy;
         } else if (policy instanceof SubPolicyPolicyFact) {
-            this.policy = new ThresholdPolicy(1, policy);
+            return new ThresholdPolicy(1, policy);
         } else {
             throw new IllegalArgumentException("Unsupported policy: " + policy.getClass().getName());
         }
+    }
 
-        int numberOfSubPolicies = collectSubPolicis(this.policy).size();
+    static SelectiveDisclosure[] checkDisclosures(SelectiveDisclosure[] disclosures, ThresholdPolicy policy) {
+        int numberOfSubPolicies = collectSubPolicis(policy).size();
 
         if (disclosures != null) {
             if (disclosures.length != numberOfSubPolicies) {
                 throw new IllegalArgumentException("The number of provided disclosures does not match the number of" +
                         " sub policies");
             }
-            this.disclosures = disclosures;
+            return disclosures;
         } else {
-            this.disclosures = new SelectiveDisclosure[numberOfSubPolicies];
+            return new SelectiveDisclosure[numberOfSubPolicies];
         }
-
     }
 
     /**
@@ -168,6 +207,7 @@ public abstract class ProtocolFactory implements de.upb.crypto.clarc.acs.protoco
                         attributespaceMapping.get(subPolicy.getIssuerPublicKeyRepresentation()),
                         new HashMap<>(), subPolicy.getSubPolicy(), publicParameters.getHashIntoZp(),
                         publicParameters.getBilinearMap());
+        factory.setExecutor(executor);
 
         if (witness instanceof Witness) {
             Witness clarcWitness = (Witness) witness;
@@ -180,12 +220,17 @@ public abstract class ProtocolFactory implements de.upb.crypto.clarc.acs.protoco
                             clarcWitness.getDisclosedElements(), subPolicy.getSubPolicy(),
                             publicParameters.getHashIntoZp(),
                             publicParameters.getBilinearMap());
+            factory.setExecutor(executor);
 
             if (credential != null && !credential.getIssuerPublicKeyRepresentation()
                     .equals(subPolicy.getIssuerPublicKeyRepresentation())) {
                 throw new IllegalArgumentException("The given credential's ipk does not match the one required by" +
                         " the policy.");
             }
+            if (credential != null && clarcWitness.getCredentialPrecomputation() != null) {
+                return factory.getProverProtocol(clarcWitness.getCredentialPrecomputation(),
+                        clarcWitness.getUsk().getUsk(), clarcWitness.getNymRandom());
+            }
             if (credential != null) {
                 return factory
                         .getProverProtocol(credential, clarcWitness.getUsk().getUsk(), clarcWitness.getNymRandom());
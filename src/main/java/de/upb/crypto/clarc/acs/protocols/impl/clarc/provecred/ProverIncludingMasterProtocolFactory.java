@@ -3,6 +3,7 @@ package de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred;
 import de.upb.crypto.clarc.acs.attributes.AttributeSpace;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.mastercred.MasterCredentialProverProtocolFactory;
 import de.upb.crypto.clarc.acs.pseudonym.Pseudonym;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSCredentialPrecomputation;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.systemmanager.SystemManager;
 import de.upb.crypto.clarc.acs.user.credentials.PSCredential;
@@ -33,6 +34,7 @@ public class ProverIncludingMasterProtocolFactory extends ProtocolFactory {
 
     private final PSExtendedVerificationKey systemManagerPublicKey;
     private final PSSignature masterCredential;
+    private PSCredentialPrecomputation[] credentialPrecomputations;
 
     /**
      * Instantiates a {@link de.upb.crypto.clarc.acs.protocols.ProtocolFactory} with given public and protocol parameters.
@@ -105,12 +107,25 @@ public class ProverIncludingMasterProtocolFactory extends ProtocolFactory {
         this.masterCredential = masterCredential;
     }
 
+    /**
+     * Sets the precomputed values of the credentials, see
+     * {@link ProverProtocolFactory#setCredentialPrecomputations(PSCredentialPrecomputation[])}.
+     *
+     * @param credentialPrecomputations the precomputations in the same order as the credentials, or null to compute
+     *                                  everything for the proof (default)
+     */
+    public void setCredentialPrecomputations(PSCredentialPrecomputation[] credentialPrecomputations) {
+        this.credentialPrecomputations = credentialPrecomputations;
+    }
+
     @Override
     public SigmaProtocol getProtocol() {
         ProverProtocolFactory clarcProverProtocolFactory =
                 new ProverProtocolFactory(protocolParameters, publicParameters,
                         new ArrayList<>(attributespaceMapping.values()),
                         credentials, usk, pseudonymSecret, policy, disclosures);
+        clarcProverProtocolFactory.setExecutor(executor);
+        clarcProverProtocolFactory.setCredentialPrecomputations(credentialPrecomputations);
 
         MasterCredentialProverProtocolFactory masterCredentialProverProtocolFactory =
                 new MasterCredentialProverProtocolFactory(publicParameters, systemManagerPublicKey,
@@ -2,9 +2,11 @@ package de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred;
 
 import de.upb.crypto.clarc.acs.attributes.AttributeSpace;
 import de.upb.crypto.clarc.acs.pseudonym.Pseudonym;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSCredentialPrecomputation;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.user.credentials.PSCredential;
 import de.upb.crypto.clarc.acs.user.impl.clarc.UserSecret;
+import de.upb.crypto.clarc.parallel.ParallelExecution;
 import de.upb.crypto.clarc.predicategeneration.fixedprotocols.popk.ProofOfPartialKnowledgeProtocol;
 import de.upb.crypto.clarc.predicategeneration.fixedprotocols.popk.ProofOfPartialKnowledgePublicParameters;
 import de.upb.crypto.clarc.predicategeneration.policies.SigmaProtocolPolicyFact;
@@ -29,6 +31,7 @@ public class ProverProtocolFactory extends ProtocolFactory {
     private final PSCredential[] credentials;
     private final PedersenOpenValue pseudonymSecret;
     protected final UserSecret usk;
+    private PSCredentialPrecomputation[] credentialPrecomputations;
 
 
     /**
@@ -95,10 +98,34 @@ public class ProverProtocolFactory extends ProtocolFactory {
         this.pseudonymSecret = pseudonymSecret;
     }
 
+    /**
+     * Sets the precomputed values of the credentials, which are used instead of computing the pairings on the
+     * randomized signatures for every proof, see {@link PSCredentialPrecomputation}.
+     *
+     * @param credentialPrecomputations the precomputations in the same order as the credentials, where an entry may be
+     *                                  null if there is no precomputation for the credential, or null to compute
+     *                                  everything for the proof (default)
+     */
+    public void setCredentialPrecomputations(PSCredentialPrecomputation[] credentialPrecomputations) {
+        if (credentialPrecomputations != null && credentialPrecomputations.length != credentials.length) {
+            throw new IllegalArgumentException("The number of provided precomputations does not match the number" +
+                    " of credentials");
+        }
+        this.credentialPrecomputations = credentialPrecomputations;
+    }
+
     @Override
     public PolicyProvingProtocol getProtocol() {
         List<Witness> witnesses = new ArrayList<>();
-        ThresholdPolicy transformedPolicy = transformPolicy(policy, witnesses, new AtomicInteger(0));
+        List<SubPolicyPolicyFact> subPolicies = new ArrayList<>();
+        collectWitnesses(policy, subPolicies, witnesses);
+
+        // The protocols for the sub policies are independent of each other, hence they may be created in parallel
+        SigmaProtocol[] protocols = new SigmaProtocol[subPolicies.size()];
+        ParallelExecution.forEachIndex(executor, 0, protocols.length,
+                leafId -> protocols[leafId] = createProtocolForSubpolicy(subPolicies.get(leafId),
+                        witnesses.get(leafId)));
+        ThresholdPolicy transformedPolicy = transformPolicy(policy, protocols, new AtomicInteger(0));
 
         List<DisclosedAttributes> disclosedAttributes =
                 witnesses.stream()
@@ -115,45 +142,68 @@ public class ProverProtocolFactory extends ProtocolFactory {
         //Since the witnesses are already set by the internal protocols we can use the verifier constructor
         ProofOfPartialKnowledgeProtocol innerProtocol =
                 new ProofOfPartialKnowledgeProtocol(popkPublicParameters, transformedPolicy);
+        innerProtocol.setExecutor(executor);
         return new PolicyProvingProtocol(innerProtocol, disclosedAttributes);
     }
 
+    /**
+     * Collects the sub policies of the given {@link ThresholdPolicy} and creates a {@link Witness} for each of them.
+     * The position of a sub policy (and its witness) in the lists is the id of the corresponding leaf.
+     *
+     * @param policy      the policy which contains {@link SubPolicyPolicyFact} as leaves
+     * @param subPolicies list of the sub policies contained in the policy
+     * @param witnesses   list of witnesses created for the proof
+     */
+    private void collectWitnesses(ThresholdPolicy policy, List<SubPolicyPolicyFact> subPolicies,
+                                  List<Witness> witnesses) {
+        for (Policy childPolicy : policy.getChildren()) {
+            if (childPolicy instanceof SubPolicyPolicyFact) {
+                int leafId = subPolicies.size();
+                SubPolicyPolicyFact subPolicy = (SubPolicyPolicyFact) childPolicy;
+                PSCredential credential = credentials[leafId];
+                Zp.ZpElement nymRandom = pseudonymSecret.getRandomValue();
+
+                SelectiveDisclosure disclosure = (disclosures[leafId] != null) ? disclosures[leafId] :
+                        new SelectiveDisclosure(subPolicy.getIssuerPublicKeyRepresentation(), Collections.emptyList());
+
+                Witness witness = new Witness(credential, nymRandom, usk, leafId, disclosure);
+                if (credentialPrecomputations != null) {
+                    witness.setCredentialPrecomputation(credentialPrecomputations[leafId]);
+                }
+                subPolicies.add(subPolicy);
+                witnesses.add(witness);
+            } else if (childPolicy instanceof ThresholdPolicy) {
+                collectWitnesses((ThresholdPolicy) childPolicy, subPolicies, witnesses);
+            } else {
+                throw new IllegalArgumentException("Malformed Policy!");
+            }
+        }
+    }
+
     /**
      * Transforms the given {@link ThresholdPolicy} with contains {@link SubPolicyPolicyFact} as leaves into a
      * {@link ThresholdPolicy} which contains {@link SigmaProtocolPolicyFact} as leaves as required by the
      * {@link ProofOfPartialKnowledgeProtocol}.
      * <br>
-     * For this transformation {@link ProtocolFactory#createProtocolForSubpolicy} is called for every contained
-     * sub policy.
+     * The protocols for the sub policies have been created by {@link ProtocolFactory#createProtocolForSubpolicy}
+     * beforehand, ordered by the ids of the leaves.
      *
      * @param policy      the policy to transform
-     * @param witnesses   list of witnesses created for the proof
+     * @param protocols   the protocols for the sub policies
      * @param leafCounter stateful counter to ensure unique ids provided to every created
      *                    {@link SigmaProtocolPolicyFact}
      * @return {@link ThresholdPolicy} which contains {@link SigmaProtocolPolicyFact} as leaves
      */
-    private ThresholdPolicy transformPolicy(ThresholdPolicy policy, List<Witness> witnesses,
+    private ThresholdPolicy transformPolicy(ThresholdPolicy policy, SigmaProtocol[] protocols,
                                             AtomicInteger leafCounter) {
         List<Policy> children = policy.getChildren();
         List<Policy> transformedChildren = new ArrayList<>(children.size());
         for (Policy childPolicy : children) {
             if (childPolicy instanceof SubPolicyPolicyFact) {
                 int leafId = leafCounter.getAndIncrement();
-                SubPolicyPolicyFact subPolicy = (SubPolicyPolicyFact) childPolicy;
-                PSCredential credential = credentials[leafId];
-                Zp.ZpElement nymRandom = pseudonymSecret.getRandomValue();
-
-                SelectiveDisclosure disclosure = (disclosures[leafId] != null) ? disclosures[leafId] :
-                        new SelectiveDisclosure(subPolicy.getIssuerPublicKeyRepresentation(), Collections.emptyList());
-
-                Witness witness = new Witness(credential, nymRandom, usk, leafId, disclosure);
-                witnesses.add(witness);
-
-                SigmaProtocol protocol = createProtocolForSubpolicy(subPolicy, witness);
-
-                transformedChildren.add(new SigmaProtocolPolicyFact(protocol, leafId));
+                transformedChildren.add(new SigmaProtocolPolicyFact(protocols[leafId], leafId));
             } else if (childPolicy instanceof ThresholdPolicy) {
-                transformedChildren.add(transformPolicy((ThresholdPolicy) childPolicy, witnesses, leafCounter));
+                transformedChildren.add(transformPolicy((ThresholdPolicy) childPolicy, protocols, leafCounter));
             } else {
                 throw new IllegalArgumentException("Malformed Policy!");
             }
@@ -2,6 +2,7 @@ package de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred;
 
 import de.upb.crypto.clarc.acs.attributes.AttributeSpace;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.mastercred.MasterCredentialVerifierProtocolFactory;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSSignatureBatch;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.systemmanager.SystemManager;
 import de.upb.crypto.clarc.acs.verifier.credentials.RepresentableSignature;
@@ -25,6 +26,8 @@ public class VerifierIncludingMasterProtocolFactory extends ProtocolFactory {
 
     private final PSExtendedVerificationKey systemManagerPublicKey;
     private final PSSignature masterCredential;
+    private final PSSignatureBatch signatureBatch;
+    private final VerifierPlan plan;
 
     /**
      * Instantiates a ProtocolFactory with given public and protocol parameters.
@@ -71,17 +74,68 @@ public class VerifierIncludingMasterProtocolFactory extends ProtocolFactory {
             List<AttributeSpace> attributeSpaces,
             Policy policy, SelectiveDisclosure[] disclosures,
             PSExtendedVerificationKey systemManagerPublicKey, PSSignature masterCredential) {
+        this(protocolParameters, publicParameters, attributeSpaces, policy, disclosures, systemManagerPublicKey,
+                masterCredential, null);
+    }
+
+    /**
+     * Instantiates a ProtocolFactory with given public and protocol parameters, whose generated protocol adds the
+     * signature equations of the used credentials to the given {@link PSSignatureBatch} instead of checking them.
+     * See {@link VerifierProtocolFactory#VerifierProtocolFactory(ProtocolParameters, PublicParameters, List, Policy,
+     * SelectiveDisclosure[], PSSignatureBatch)}.
+     *
+     * @param protocolParameters     shared input for all protocol instances (prover and verifier)
+     * @param publicParameters       the system's public parameters
+     * @param attributeSpaces        currently available attribute spaces
+     * @param policy                 the policy which fulfillment is to be proven
+     * @param disclosures            attributes to be disclosed
+     * @param systemManagerPublicKey public key of the {@link SystemManager}
+     * @param masterCredential       master credential of the user
+     * @param signatureBatch         batch the signature equations are deferred to, null to check them directly
+     */
+    public VerifierIncludingMasterProtocolFactory(
+            ProtocolParameters protocolParameters,
+            PublicParameters publicParameters,
+            List<AttributeSpace> attributeSpaces,
+            Policy policy, SelectiveDisclosure[] disclosures,
+            PSExtendedVerificationKey systemManagerPublicKey, PSSignature masterCredential,
+            PSSignatureBatch signatureBatch) {
         super(protocolParameters, publicParameters, attributeSpaces, policy, disclosures);
         this.systemManagerPublicKey = systemManagerPublicKey;
         this.masterCredential = masterCredential;
+        this.signatureBatch = signatureBatch;
+        this.plan = null;
+    }
+
+    /**
+     * Instantiates a ProtocolFactory with given protocol parameters, which takes all proof independent state from the
+     * given {@link VerifierPlan}. See
+     * {@link VerifierProtocolFactory#VerifierProtocolFactory(ProtocolParameters, VerifierPlan, PSSignatureBatch)}.
+     *
+     * @param protocolParameters     shared input for all protocol instances (prover and verifier)
+     * @param plan                   the proof independent state for the policy which fulfillment is to be proven
+     * @param systemManagerPublicKey public key of the {@link SystemManager}
+     * @param masterCredential       master credential of the user
+     * @param signatureBatch         batch the signature equations are deferred to, null to check them directly
+     */
+    public VerifierIncludingMasterProtocolFactory(ProtocolParameters protocolParameters, VerifierPlan plan,
+                                                  PSExtendedVerificationKey systemManagerPublicKey,
+                                                  PSSignature masterCredential, PSSignatureBatch signatureBatch) {
+        super(protocolParameters, plan);
+        this.systemManagerPublicKey = systemManagerPublicKey;
+        this.masterCredential = masterCredential;
+        this.signatureBatch = signatureBatch;
+        this.plan = plan;
     }
 
 
     @Override
     public PolicyProvingWithMasterCredProtocol getProtocol() {
-        VerifierProtocolFactory clarcVerifierProtocolFactory =
-                new VerifierProtocolFactory(protocolParameters, publicParameters,
-                        new ArrayList<>(attributespaceMapping.values()), policy);
+        VerifierProtocolFactory clarcVerifierProtocolFactory = plan != null
+                ? new VerifierProtocolFactory(protocolParameters, plan, signatureBatch)
+                : new VerifierProtocolFactory(protocolParameters, publicParameters,
+                new ArrayList<>(attributespaceMapping.values()), policy, null, signatureBatch);
+        clarcVerifierProtocolFactory.setExecutor(executor);
 
         MasterCredentialVerifierProtocolFactory credentialVerifierProtocolFactory =
                 new MasterCredentialVerifierProtocolFactory(publicParameters, systemManagerPublicKey,
@@ -0,0 +1,160 @@
+package de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred;
+
+import de.upb.crypto.clarc.acs.attributes.AttributeSpace;
+import de.upb.crypto.clarc.acs.policy.PolicyInformation;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSSignatureBatch;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.VerificationKeyCache;
+import de.upb.crypto.clarc.predicategeneration.fixedprotocols.SecretSharingSchemeProviders;
+import de.upb.crypto.clarc.predicategeneration.fixedprotocols.popk.ProofOfPartialKnowledgeProtocol;
+import de.upb.crypto.clarc.predicategeneration.fixedprotocols.popk.ThresholdPolicyInverter;
+import de.upb.crypto.clarc.predicategeneration.policies.PredicatePolicyFact;
+import de.upb.crypto.clarc.predicategeneration.policies.SigmaProtocolPolicyFact;
+import de.upb.crypto.clarc.predicategeneration.policies.SubPolicyPolicyFact;
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
+import de.upb.crypto.craco.interfaces.policy.Policy;
+import de.upb.crypto.craco.interfaces.policy.ThresholdPolicy;
+import de.upb.crypto.craco.secretsharing.SecretSharingSchemeProvider;
+import de.upb.crypto.craco.secretsharing.ThresholdTreeSecretSharing;
+import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
+import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
+import de.upb.crypto.math.serialization.Representation;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * All state needed to verify the fulfillment of the policy of a {@link PolicyInformation} which does not depend on
+ * the proof to verify.
+ * <p>
+ * Setting up the verifier protocol for a proof includes normalizing the policy, restoring the verification keys of
+ * the issuers from their representation and setting up the {@link ThresholdTreeSecretSharing}s of all contained
+ * {@link ProofOfPartialKnowledgeProtocol}s. This is done once when creating a plan, such that verifier protocols
+ * created via {@link VerifierProtocolFactory#VerifierProtocolFactory(ProtocolParameters, VerifierPlan,
+ * PSSignatureBatch)} only need to bind the values chosen by the prover.
+ * </p>
+ * <p>
+ * A plan is immutable and can be shared by any number of verifications.
+ * </p>
+ */
+public class VerifierPlan {
+    private final PublicParameters publicParameters;
+    private final PSExtendedSignatureScheme signatureScheme;
+    private final PedersenCommitmentScheme commitmentScheme;
+    private final ThresholdPolicy policy;
+    private final Map<Representation, AttributeSpace> attributeSpaces;
+    private final SelectiveDisclosure[] disclosures;
+    private final Map<Representation, PSExtendedVerificationKey> verificationKeys;
+    private final SecretSharingSchemeProvider lsssProvider;
+    private final ThresholdTreeSecretSharing secretSharing;
+    private final List<ThresholdTreeSecretSharing> predicateSecretSharings;
+
+    /**
+     * Creates the plan to verify proofs for the given policy.
+     *
+     * @param publicParameters  the system's public parameters
+     * @param policyInformation all information related to the policy to be fulfilled
+     */
+    public VerifierPlan(PublicParameters publicParameters, PolicyInformation policyInformation) {
+        this.publicParameters = publicParameters;
+        this.signatureScheme = PublicParametersFactory.getSignatureScheme(publicParameters);
+        this.commitmentScheme = PublicParametersFactory.getSingleMessageCommitmentScheme(publicParameters);
+        this.policy = ProtocolFactory.toThresholdPolicy(policyInformation.getPolicy());
+        this.attributeSpaces = Collections.unmodifiableMap(
+                ProtocolFactory.mapAttributeSpaces(policyInformation.getUsedAttributeSpaces()));
+        // Disclosures are only relevant for the prover
+        this.disclosures = ProtocolFactory.checkDisclosures(null, policy);
+
+        Map<Representation, PSExtendedVerificationKey> keys = new HashMap<>();
+        attributeSpaces.forEach((issuerPublicKey, attributeSpace) ->
+                keys.put(issuerPublicKey, VerificationKeyCache.getVerificationKey(signatureScheme, issuerPublicKey)));
+        this.verificationKeys = Collections.unmodifiableMap(keys);
+
+        // Only the structure of the policies is relevant for the secret sharings, the protocols in the leaves are
+        // bound when creating the actual verifier protocols
+        this.lsssProvider = SecretSharingSchemeProviders.SHAMIR;
+        this.secretSharing = createSecretSharing(policy, SubPolicyPolicyFact.class);
+        List<ThresholdTreeSecretSharing> predicateSharings = new ArrayList<>();
+        for (SubPolicyPolicyFact subPolicy : ProtocolFactory.getSubPolicies(policy)) {
+            predicateSharings.add(createSecretSharing(subPolicy.getSubPolicy(), PredicatePolicyFact.class));
+        }
+        this.predicateSecretSharings = Collections.unmodifiableList(predicateSharings);
+    }
+
+    private ThresholdTreeSecretSharing createSecretSharing(ThresholdPolicy policy, Class<? extends Policy> leafType) {
+        ThresholdPolicy template = createTemplate(policy, leafType, new AtomicInteger());
+        return new ThresholdTreeSecretSharing(ThresholdPolicyInverter.invertThresholdPolicy(template),
+                publicParameters.getZp(), lsssProvider);
+    }
+
+    /**
+     * Copies the given {@link ThresholdPolicy} whereby all leaves of the given type are replaced by
+     * {@link SigmaProtocolPolicyFact}s without protocol. The leaves are numbered in the same way as done by
+     * {@link VerifierProtocolFactory} and the sub policy protocols, respectively.
+     *
+     * @param policy      the policy to copy
+     * @param leafType    the type of the leaves
+     * @param leafCounter counter to determine unique index for each visited leaf
+     * @return a policy with the same structure as the given one
+     */
+    private static ThresholdPolicy createTemplate(ThresholdPolicy policy, Class<? extends Policy> leafType,
+                                                  AtomicInteger leafCounter) {
+        List<Policy> children = policy.getChildren();
+        List<Policy> templateChildren = new ArrayList<>(children.size());
+        for (Policy childPolicy : children) {
+            if (leafType.isInstance(childPolicy)) {
+                templateChildren.add(new SigmaProtocolPolicyFact(null, leafCounter.getAndIncrement()));
+            } else if (childPolicy instanceof ThresholdPolicy) {
+                templateChildren.add(createTemplate((ThresholdPolicy) childPolicy, leafType, leafCounter));
+            } else {
+                throw new IllegalArgumentException("Malformed Policy!");
+            }
+        }
+        return new ThresholdPolicy(policy.getThreshold(), templateChildren);
+    }
+
+    PublicParameters getPublicParameters() {
+        return publicParameters;
+    }
+
+    PSExtendedSignatureScheme getSignatureScheme() {
+        return signatureScheme;
+    }
+
+    PedersenCommitmentScheme getCommitmentScheme() {
+        return commitmentScheme;
+    }
+
+    ThresholdPolicy getPolicy() {
+        return policy;
+    }
+
+    Map<Representation, AttributeSpace> getAttributeSpaces() {
+        return attributeSpaces;
+    }
+
+    SelectiveDisclosure[] getDisclosures() {
+        return disclosures;
+    }
+
+    PSExtendedVerificationKey getVerificationKey(Representation issuerPublicKey) {
+        return verificationKeys.get(issuerPublicKey);
+    }
+
+    SecretSharingSchemeProvider getLsssProvider() {
+        return lsssProvider;
+    }
+
+    ThresholdTreeSecretSharing getSecretSharing() {
+        return secretSharing;
+    }
+
+    /**
+     * @param leafId the id of the sub policy, i.e. its position in {@link ProtocolFactory#getSubPolicies}
+     * @return the secret sharing for the predicates of the sub policy
+     */
+    ThresholdTreeSecretSharing getPredicateSecretSharing(int leafId) {
+        return predicateSecretSharings.get(leafId);
+    }
+}
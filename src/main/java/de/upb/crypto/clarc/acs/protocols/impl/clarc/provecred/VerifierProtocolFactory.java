@@ -1,16 +1,21 @@
 package de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred;
 
 import de.upb.crypto.clarc.acs.attributes.AttributeSpace;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSSignatureBatch;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.clarc.acs.subpolicyproving.SubPolicyProvingProtocolFactory;
 import de.upb.crypto.clarc.predicategeneration.fixedprotocols.popk.ProofOfPartialKnowledgeProtocol;
 import de.upb.crypto.clarc.predicategeneration.fixedprotocols.popk.ProofOfPartialKnowledgePublicParameters;
 import de.upb.crypto.clarc.predicategeneration.policies.SigmaProtocolPolicyFact;
 import de.upb.crypto.clarc.predicategeneration.policies.SubPolicyPolicyFact;
 import de.upb.crypto.clarc.protocols.arguments.SigmaProtocol;
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
 import de.upb.crypto.craco.interfaces.policy.Policy;
 import de.upb.crypto.craco.interfaces.policy.ThresholdPolicy;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -19,6 +24,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class VerifierProtocolFactory extends ProtocolFactory {
 
+    private final PSSignatureBatch signatureBatch;
+    private final VerifierPlan plan;
+
     /**
      * Instantiates a {@link de.upb.crypto.clarc.acs.protocols.ProtocolFactory} with given public and protocol parameters.
      * It is able to generate a protocol to verify the fulfillment of a {@link Policy}.
@@ -56,7 +64,48 @@ public class VerifierProtocolFactory extends ProtocolFactory {
                                    PublicParameters publicParameters,
                                    List<AttributeSpace> attributeSpaces, Policy policy,
                                    SelectiveDisclosure[] disclosures) {
+        this(protocolParameters, publicParameters, attributeSpaces, policy, disclosures, null);
+    }
+
+    /**
+     * Instantiates a {@link de.upb.crypto.clarc.acs.protocols.ProtocolFactory} with given public and protocol parameters.
+     * It is able to generate a protocol to verify the fulfillment of a {@link Policy}, which does not check the
+     * signature equations of the used credentials itself but adds them to the given {@link PSSignatureBatch}.
+     * <p>
+     * A successful verification of the generated protocol is only meaningful after checking the equations of the
+     * batch via {@link PSSignatureBatch#verify}.
+     * </p>
+     *
+     * @param protocolParameters shared input for all protocol instances (prover and verifier)
+     * @param publicParameters   the system's public parameters
+     * @param attributeSpaces    currently available attribute spaces
+     * @param policy             the policy which fulfillment is to be proven
+     * @param disclosures        attributes to be disclosed
+     * @param signatureBatch     batch the signature equations are deferred to, null to check them directly
+     */
+    public VerifierProtocolFactory(ProtocolParameters protocolParameters,
+                                   PublicParameters publicParameters,
+                                   List<AttributeSpace> attributeSpaces, Policy policy,
+                                   SelectiveDisclosure[] disclosures, PSSignatureBatch signatureBatch) {
         super(protocolParameters, publicParameters, attributeSpaces, policy, disclosures);
+        this.signatureBatch = signatureBatch;
+        this.plan = null;
+    }
+
+    /**
+     * Instantiates a {@link de.upb.crypto.clarc.acs.protocols.ProtocolFactory} with given protocol parameters, which
+     * takes all proof independent state (parsed policy, verification keys of the issuers and secret sharings) from the
+     * given {@link VerifierPlan}.
+     *
+     * @param protocolParameters shared input for all protocol instances (prover and verifier)
+     * @param plan               the proof independent state for the policy which fulfillment is to be proven
+     * @param signatureBatch     batch the signature equations are deferred to, null to check them directly
+     */
+    public VerifierProtocolFactory(ProtocolParameters protocolParameters, VerifierPlan plan,
+                                   PSSignatureBatch signatureBatch) {
+        super(protocolParameters, plan);
+        this.signatureBatch = signatureBatch;
+        this.plan = plan;
     }
 
     @Override
@@ -66,8 +115,14 @@ public class VerifierProtocolFactory extends ProtocolFactory {
         ProofOfPartialKnowledgePublicParameters popkPublicParameters =
                 new ProofOfPartialKnowledgePublicParameters(protocolParameters.getLsssProvider(),
                         publicParameters.getZp());
-        ProofOfPartialKnowledgeProtocol innerProtocol =
-                new ProofOfPartialKnowledgeProtocol(popkPublicParameters, transformedPolicy);
+        ProofOfPartialKnowledgeProtocol innerProtocol;
+        if (plan != null && plan.getLsssProvider().equals(protocolParameters.getLsssProvider())) {
+            innerProtocol = new ProofOfPartialKnowledgeProtocol(popkPublicParameters, transformedPolicy,
+                    plan.getSecretSharing());
+        } else {
+            innerProtocol = new ProofOfPartialKnowledgeProtocol(popkPublicParameters, transformedPolicy);
+        }
+        innerProtocol.setExecutor(executor);
         return new PolicyProvingProtocol(innerProtocol);
     }
 
@@ -92,7 +147,7 @@ public class VerifierProtocolFactory extends ProtocolFactory {
                 SubPolicyPolicyFact subPolicy = (SubPolicyPolicyFact) childPolicy;
                 int leafId = leafCounter.getAndIncrement();
 
-                SigmaProtocol protocol = createProtocolForSubpolicy(subPolicy);
+                SigmaProtocol protocol = createProtocolForSubpolicy(subPolicy, leafId);
 
                 transformedChildren.add(new SigmaProtocolPolicyFact(protocol, leafId));
             } else if (childPolicy instanceof ThresholdPolicy) {
@@ -104,4 +159,30 @@ public class VerifierProtocolFactory extends ProtocolFactory {
         return new ThresholdPolicy(policy.getThreshold(), transformedChildren);
     }
 
+    /**
+     * Creates the verifier protocol for the given sub policy, which defers its signature equation to the batch of
+     * this factory, if any. If a {@link VerifierPlan} is given, its verification key and secret sharing are reused.
+     *
+     * @param subPolicy the sub policy to create the protocol for
+     * @param leafId    the position of the sub policy in {@link ProtocolFactory#getSubPolicies}
+     * @return the verifier protocol for the sub policy
+     */
+    private SigmaProtocol createProtocolForSubpolicy(SubPolicyPolicyFact subPolicy, int leafId) {
+        PedersenCommitmentScheme commitmentScheme = plan != null
+                ? plan.getCommitmentScheme()
+                : PublicParametersFactory.getSingleMessageCommitmentScheme(publicParameters);
+        SubPolicyProvingProtocolFactory factory =
+                new SubPolicyProvingProtocolFactory(commitmentScheme, signatureScheme,
+                        protocolParameters.getPseudonym().getCommitmentValue(),
+                        attributespaceMapping.get(subPolicy.getIssuerPublicKeyRepresentation()),
+                        new HashMap<>(), subPolicy.getSubPolicy(), publicParameters.getHashIntoZp(),
+                        publicParameters.getBilinearMap());
+        factory.setExecutor(executor);
+        if (plan == null) {
+            return factory.getVerifieryProtocol(signatureBatch);
+        }
+        return factory.getVerifieryProtocol(plan.getVerificationKey(subPolicy.getIssuerPublicKeyRepresentation()),
+                plan.getPredicateSecretSharing(leafId), signatureBatch);
+    }
+
 }
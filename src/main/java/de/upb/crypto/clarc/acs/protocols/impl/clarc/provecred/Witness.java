@@ -1,6 +1,7 @@
 package de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred;
 
 import de.upb.crypto.clarc.acs.attributes.AttributeNameValuePair;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSCredentialPrecomputation;
 import de.upb.crypto.clarc.acs.user.credentials.PSCredential;
 import de.upb.crypto.clarc.acs.user.impl.clarc.UserSecret;
 import de.upb.crypto.math.serialization.ObjectRepresentation;
@@ -32,6 +33,8 @@ public class Witness implements de.upb.crypto.clarc.protocols.parameters.Witness
 
     private Representation issuerPublicKey;
 
+    private PSCredentialPrecomputation credentialPrecomputation;
+
 
     Witness(PSCredential credential, Zp.ZpElement nymRandom,
             UserSecret usk, int subPolicyId, SelectiveDisclosure disclosure) {
@@ -57,6 +60,17 @@ public class Witness implements de.upb.crypto.clarc.protocols.parameters.Witness
         return credential;
     }
 
+    /**
+     * @return the precomputed values of the credential, or null if they are computed for the proof
+     */
+    public PSCredentialPrecomputation getCredentialPrecomputation() {
+        return credentialPrecomputation;
+    }
+
+    void setCredentialPrecomputation(PSCredentialPrecomputation credentialPrecomputation) {
+        this.credentialPrecomputation = credentialPrecomputation;
+    }
+
     public Zp.ZpElement getNymRandom() {
         return nymRandom;
     }
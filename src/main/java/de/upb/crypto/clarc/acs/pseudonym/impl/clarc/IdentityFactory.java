@@ -3,10 +3,9 @@ package de.upb.crypto.clarc.acs.pseudonym.impl.clarc;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
 import de.upb.crypto.clarc.acs.user.impl.clarc.UserSecret;
+import de.upb.crypto.clarc.exponentiation.FixedBasePedersenCommitment;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentPair;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
-import de.upb.crypto.craco.common.MessageBlock;
-import de.upb.crypto.craco.common.RingElementPlainText;
 
 public class IdentityFactory implements de.upb.crypto.clarc.acs.pseudonym.IdentityFactory {
     @Override
@@ -24,7 +23,7 @@ public class IdentityFactory implements de.upb.crypto.clarc.acs.pseudonym.Identi
                 PublicParametersFactory.getSingleMessageCommitmentScheme(clarcPP);
 
         PedersenCommitmentPair commitment =
-                commitmentScheme.commit(new MessageBlock(new RingElementPlainText(clarcUsk.getUsk())));
+                FixedBasePedersenCommitment.commit(commitmentScheme.getPp(), clarcUsk.getUsk());
         return new Identity(commitment);
     }
 }
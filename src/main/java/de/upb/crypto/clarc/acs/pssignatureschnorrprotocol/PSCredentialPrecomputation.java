@@ -0,0 +1,148 @@
+package de.upb.crypto.clarc.acs.pssignatureschnorrprotocol;
+
+import de.upb.crypto.clarc.acs.setup.impl.clarc.VerificationKeyCache;
+import de.upb.crypto.clarc.acs.user.credentials.PSCredential;
+import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
+import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
+import de.upb.crypto.craco.sig.ps.PSSignature;
+import de.upb.crypto.math.interfaces.mappings.BilinearMap;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.structures.zn.HashIntoZp;
+import de.upb.crypto.math.structures.zn.Zp;
+
+import java.util.Arrays;
+
+/**
+ * The values a prover needs for every proof of possession of a {@link PSCredential}, which only depend on the
+ * credential and are hence computed once per credential: the parsed signature (sigma1, sigma2) and verification key,
+ * the Zp representations of the attributes and the pairings e(sigma1, g~), e(sigma1, X~), e(sigma1, Yi~) and
+ * e(sigma2, g~).
+ * <p>
+ * The randomized signature (sigma1', sigma2') = (sigma1^u, (sigma2 * sigma1^r)^u) is distributed like the one created
+ * by {@link PSExtendedSignatureScheme#randomizeExistingSignature}, and all pairings of the proof follow from the
+ * precomputed ones by exponentiations in GT, e.g. e(sigma1', Yi~) = e(sigma1, Yi~)^u and
+ * e(sigma2', g~) = (e(sigma2, g~) * e(sigma1, g~)^r)^u, see {@link #randomize}. Hence, the l + 3 pairings per
+ * credential and proof are replaced by l + 4 exponentiations in GT.
+ * </p>
+ * <p>
+ * Instances are immutable and may be shared between threads.
+ * </p>
+ */
+public class PSCredentialPrecomputation {
+    private final PSCredential credential;
+    private final PSSignature signature;
+    private final PSExtendedVerificationKey verificationKey;
+    private final Zp.ZpElement[] attributeZpRepresentations;
+    private final Zp zp;
+
+    private final GroupElement sigma1PairingG;
+    private final GroupElement sigma1PairingX;
+    private final GroupElement[] sigma1PairingY;
+    private final GroupElement sigma2PairingG;
+
+    /**
+     * Computes the values which only depend on the given credential.
+     *
+     * @param credential      the credential to precompute the values for
+     * @param signatureScheme signature scheme used in the system
+     * @param hashIntoZp      hash function which is used to represent the attributes in Zp
+     * @param bilinearMap     bilinear map used by the system
+     */
+    public PSCredentialPrecomputation(PSCredential credential, PSExtendedSignatureScheme signatureScheme,
+                                      HashIntoZp hashIntoZp, BilinearMap bilinearMap) {
+        this.credential = credential;
+        this.signature = signatureScheme.getSignature(credential.getSignatureRepresentation());
+        this.verificationKey = VerificationKeyCache.getVerificationKey(signatureScheme,
+                credential.getIssuerPublicKeyRepresentation());
+        this.attributeZpRepresentations = Arrays.stream(credential.getAttributes())
+                .map(attribute -> attribute.getZpRepresentation(hashIntoZp))
+                .toArray(Zp.ZpElement[]::new);
+        this.zp = hashIntoZp.getTargetStructure();
+
+        GroupElement sigma1 = signature.getGroup1ElementSigma1();
+        this.sigma1PairingG = bilinearMap.apply(sigma1, verificationKey.getGroup2ElementTildeG());
+        this.sigma1PairingX = bilinearMap.apply(sigma1, verificationKey.getGroup2ElementTildeX());
+        this.sigma1PairingY = Arrays.stream(verificationKey.getGroup2ElementsTildeYi())
+                .map(y -> bilinearMap.apply(sigma1, y))
+                .toArray(GroupElement[]::new);
+        this.sigma2PairingG = bilinearMap.apply(signature.getGroup1ElementSigma2(),
+                verificationKey.getGroup2ElementTildeG());
+    }
+
+    /**
+     * Randomizes the signature of the credential.
+     *
+     * @param signatureRandom the value r used to randomize the signature, which is the witness
+     *                        {@link PSSignatureSchnorrProtocolFactory#SIGNATURE_RANDOM} of the proof
+     * @return the randomized signature together with the pairings of the proof
+     */
+    public Randomization randomize(Zp.ZpElement signatureRandom) {
+        return new Randomization(zp.getUniformlyRandomUnit(), signatureRandom);
+    }
+
+    public PSCredential getCredential() {
+        return credential;
+    }
+
+    public PSExtendedVerificationKey getVerificationKey() {
+        return verificationKey;
+    }
+
+    /**
+     * @param index index of the attribute in the credential
+     * @return the Zp representation of the attribute, see
+     * {@link de.upb.crypto.clarc.acs.attributes.AttributeNameValuePair#getZpRepresentation}
+     */
+    public Zp.ZpElement getAttributeZpRepresentation(int index) {
+        return attributeZpRepresentations[index];
+    }
+
+    /**
+     * A randomized signature of the credential with the pairings of the randomized signature which are needed by the
+     * prover.
+     */
+    public class Randomization {
+        private final Zp.ZpElement u;
+        private final PSSignature randomizedSignature;
+        private final GroupElement a;
+
+        private Randomization(Zp.ZpElement u, Zp.ZpElement signatureRandom) {
+            this.u = u;
+            GroupElement sigma1 = signature.getGroup1ElementSigma1();
+            this.randomizedSignature = new PSSignature(sigma1.pow(u),
+                    signature.getGroup1ElementSigma2().op(sigma1.pow(signatureRandom)).pow(u));
+            // A = e(sigma2', g~) / e(sigma1', X~) = (e(sigma2, g~) * e(sigma1, g~)^r / e(sigma1, X~))^u
+            this.a = sigma2PairingG.op(sigma1PairingG.pow(signatureRandom)).op(sigma1PairingX.inv()).pow(u);
+        }
+
+        public PSCredentialPrecomputation getPrecomputation() {
+            return PSCredentialPrecomputation.this;
+        }
+
+        public PSSignature getRandomizedSignature() {
+            return randomizedSignature;
+        }
+
+        /**
+         * @return e(sigma2', g~) / e(sigma1', X~)
+         */
+        public GroupElement getA() {
+            return a;
+        }
+
+        /**
+         * @return e(sigma1', g~)
+         */
+        public GroupElement getSigma1PairingG() {
+            return sigma1PairingG.pow(u);
+        }
+
+        /**
+         * @param index index of the element of {@link PSExtendedVerificationKey#getGroup2ElementsTildeYi()}
+         * @return e(sigma1', Yi~)
+         */
+        public GroupElement getSigma1PairingY(int index) {
+            return sigma1PairingY[index].pow(u);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package de.upb.crypto.clarc.acs.pssignatureschnorrprotocol;
+
+import de.upb.crypto.math.interfaces.mappings.BilinearMap;
+import de.upb.crypto.math.interfaces.mappings.PairingProductExpression;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.interfaces.structures.PowProductExpression;
+import de.upb.crypto.math.random.interfaces.RandomGeneratorSupplier;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the signature equations of {@link PSSignatureSchnorrProtocolFactory} protocols whose check has been
+ * deferred, see {@link PSSignatureSchnorrProtocolFactory#verifyDeferringSignatureEquation}, and other protocols proving
+ * knowledge of a PS signature, e.g.
+ * {@link de.upb.crypto.clarc.acs.protocols.impl.clarc.RateVerifyProtocolFactory#verifyDeferringPairingEquations}.
+ * <p>
+ * Every collected equation has the form t = \prod_j e(g_j, h_j) with g_j in G1 and h_j being one of the fixed
+ * elements g~, X~, Y0~, ..., Yl~ of a verification key. Hence all equations collected by a number of batches
+ * can be checked at once using a random linear combination (small exponent test): the equations are raised to
+ * independent random exponents and multiplied, such that only a single pairing per distinct G2 element needs to be
+ * computed. If any of the equations does not hold, the combined check fails with overwhelming probability.
+ * </p>
+ */
+public class PSSignatureBatch {
+    /**
+     * Bit length of the random exponents used to combine the equations. The probability of accepting a batch which
+     * contains an invalid equation is at most 2^-SECURITY_PARAMETER.
+     */
+    private static final int SECURITY_PARAMETER = 128;
+
+    private final List<Equation> equations = new ArrayList<>();
+
+    /**
+     * Adds the equation announcement = \prod_j e(g1Elements_j, g2Elements_j)^exponents_j to this batch.
+     *
+     * @param announcement the expected result in GT
+     * @param g1Elements   the G1 arguments of the pairings
+     * @param exponents    the exponents of the pairings
+     * @param g2Elements   the (fixed) G2 arguments of the pairings
+     */
+    public synchronized void add(GroupElement announcement, List<GroupElement> g1Elements, List<BigInteger> exponents,
+                                 List<GroupElement> g2Elements) {
+        equations.add(new Equation(announcement, g1Elements, exponents, g2Elements));
+    }
+
+    /**
+     * @return the number of equations in this batch
+     */
+    public synchronized int size() {
+        return equations.size();
+    }
+
+    /**
+     * Checks all equations collected by the given batches using a single random linear combination.
+     *
+     * @param bilinearMap the bilinear map all equations are defined over
+     * @param batches     the batches to check
+     * @return true if all equations hold, false if (with overwhelming probability) at least one of them does not hold
+     */
+    public static boolean verify(BilinearMap bilinearMap, Collection<PSSignatureBatch> batches) {
+        BigInteger bound = BigInteger.ONE.shiftLeft(SECURITY_PARAMETER);
+        PowProductExpression lhs = new PowProductExpression(bilinearMap.getGT());
+        // One accumulator in G1 for every distinct G2 element, insertion order is kept to be deterministic
+        Map<GroupElement, PowProductExpression> accumulators = new LinkedHashMap<>();
+
+        for (PSSignatureBatch batch : batches) {
+            for (Equation equation : batch.getEquations()) {
+                BigInteger delta = RandomGeneratorSupplier.getRnd().getRandomElement(bound);
+                lhs.op(equation.announcement, delta);
+                for (int i = 0; i < equation.g1Elements.size(); i++) {
+                    accumulators.computeIfAbsent(equation.g2Elements.get(i),
+                            g2 -> new PowProductExpression(bilinearMap.getG1()))
+                            .op(equation.g1Elements.get(i), equation.exponents.get(i).multiply(delta));
+                }
+            }
+        }
+        if (accumulators.isEmpty()) {
+            return true;
+        }
+
+        PairingProductExpression rhs = bilinearMap.pairingProductExpression();
+        accumulators.forEach((g2, g1) -> rhs.op(g1.evaluate(), g2));
+        return lhs.evaluate().equals(rhs.evaluate());
+    }
+
+    private synchronized List<Equation> getEquations() {
+        return new ArrayList<>(equations);
+    }
+
+    private static class Equation {
+        private final GroupElement announcement;
+        private final List<GroupElement> g1Elements;
+        private final List<BigInteger> exponents;
+        private final List<GroupElement> g2Elements;
+
+        private Equation(GroupElement announcement, List<GroupElement> g1Elements, List<BigInteger> exponents,
+                         List<GroupElement> g2Elements) {
+            this.announcement = announcement;
+            this.g1Elements = g1Elements;
+            this.exponents = exponents;
+            this.g2Elements = g2Elements;
+        }
+    }
+}
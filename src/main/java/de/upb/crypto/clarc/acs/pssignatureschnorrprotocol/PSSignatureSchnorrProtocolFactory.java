@@ -2,11 +2,19 @@ package de.upb.crypto.clarc.acs.pssignatureschnorrprotocol;
 
 import de.upb.crypto.clarc.acs.attributes.AttributeNameValuePair;
 import de.upb.crypto.clarc.acs.attributes.AttributeSpace;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.VerificationKeyCache;
 import de.upb.crypto.clarc.acs.subpolicyproving.SubPolicyProvingProtocolPublicParameters;
 import de.upb.crypto.clarc.acs.user.credentials.PSCredential;
+import de.upb.crypto.clarc.exponentiation.FixedBaseExponentiation;
 import de.upb.crypto.clarc.protocols.expressions.arith.*;
 import de.upb.crypto.clarc.protocols.expressions.comparison.GroupElementEqualityExpression;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrAnnouncement;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrChallenge;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocol;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrResponse;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.Response;
 import de.upb.crypto.clarc.protocols.protocolfactory.GeneralizedSchnorrProtocolFactory;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentPair;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentValue;
@@ -83,6 +91,19 @@ public class PSSignatureSchnorrProtocolFactory {
                                              List<PedersenCommitmentValue> commitmentsOnAttributes,
                                              BilinearMap bilinearMap,
                                              PedersenPublicParameters singleMessageCommitmentPP) {
+        this(nym, randomizedSignature,
+                VerificationKeyCache.getVerificationKey(signatureScheme, attributeSpace.getIssuerPublicKey()),
+                hashIntoZp, disclosedElements, attributeSpace, commitmentsOnAttributes, bilinearMap,
+                singleMessageCommitmentPP);
+    }
+
+    private PSSignatureSchnorrProtocolFactory(PedersenCommitmentValue nym, PSSignature randomizedSignature,
+                                              PSExtendedVerificationKey key, HashIntoZp hashIntoZp,
+                                              Map<Integer, AttributeNameValuePair> disclosedElements,
+                                              AttributeSpace attributeSpace,
+                                              List<PedersenCommitmentValue> commitmentsOnAttributes,
+                                              BilinearMap bilinearMap,
+                                              PedersenPublicParameters singleMessageCommitmentPP) {
         this.nym = nym;
         this.randomizedSignature = randomizedSignature;
         this.disclosedElements = disclosedElements;
@@ -92,12 +113,11 @@ public class PSSignatureSchnorrProtocolFactory {
         this.hashIntoZp = hashIntoZp;
         this.bilinearMap = bilinearMap;
         this.singleMessageCommitmentPP = singleMessageCommitmentPP;
-
-        this.key = signatureScheme.getVerificationKey(attributeSpace.getIssuerPublicKey());
+        this.key = key;
     }
 
     public PSSignatureSchnorrProtocolFactory(SubPolicyProvingProtocolPublicParameters subPolPP) {
-        this(subPolPP.getPseudonym(), subPolPP.getRandomizedSignature(), subPolPP.getPsSignatureScheme(),
+        this(subPolPP.getPseudonym(), subPolPP.getRandomizedSignature(), subPolPP.getVerificationKey(),
                 subPolPP.getHashIntoZp(), subPolPP.getDisclosedElements(), subPolPP.getAttributeSpace(),
                 subPolPP.getCommitmentsOnAttributes(), subPolPP.getBilinearMap(),
                 subPolPP.getCommitmentScheme().getPp());
@@ -120,11 +140,42 @@ public class PSSignatureSchnorrProtocolFactory {
                 (AttributeNameValuePair::getAttributeName)
                 .collect(Collectors.toList());
         // the "+2" is used, since the equations for the pseudonym and the signature are needed aswell
-        GroupElementEqualityExpression[] problem = createProblem(attributeNames, attributeNames.size() + 2);
+        GroupElementEqualityExpression[] problem = createProblem(attributeNames, attributeNames.size() + 2, null);
         // Additional elements in the wintess map (wintesses for disclosed elements) are ignored in the protocol
         // generation
         Map<String, Zp.ZpElement> witnessMap = createWitnessMap(credential, usk, nymRandom, signatureRandom,
-                commitmentPairs);
+                commitmentPairs, null);
+
+        GeneralizedSchnorrProtocolFactory factory = new GeneralizedSchnorrProtocolFactory(problem, zp);
+        return factory.createProverGeneralizedSchnorrProtocol(witnessMap);
+    }
+
+    /**
+     * Generates a Schnorr Protocol for a Prover like {@link #getProverProtocol(PSCredential, Zp.ZpElement,
+     * Zp.ZpElement, Zp.ZpElement, List)}, but takes the pairings on the randomized signature and the Zp
+     * representations of the attributes from the given {@link PSCredentialPrecomputation.Randomization} instead of
+     * computing them. The randomized signature of the public parameters needs to be the one of the given
+     * randomization.
+     *
+     * @param randomization   the randomization of the used credential's signature
+     * @param usk             usk of the user
+     * @param nymRandom       the randomness used to create the pseudonym
+     * @param signatureRandom the random value used to create the randomized signature
+     * @param commitmentPairs for the commitments on the attributes
+     * @return a generalizedSchnorrProtocol for a prover, containing the witnesses
+     */
+    public GeneralizedSchnorrProtocol getProverProtocol(PSCredentialPrecomputation.Randomization randomization,
+                                                        Zp.ZpElement usk, Zp.ZpElement nymRandom,
+                                                        Zp.ZpElement signatureRandom,
+                                                        List<PedersenCommitmentPair> commitmentPairs) {
+        PSCredential credential = randomization.getPrecomputation().getCredential();
+        List<String> attributeNames = Arrays.stream(credential.getAttributes())
+                .map(AttributeNameValuePair::getAttributeName)
+                .collect(Collectors.toList());
+        GroupElementEqualityExpression[] problem =
+                createProblem(attributeNames, attributeNames.size() + 2, randomization);
+        Map<String, Zp.ZpElement> witnessMap = createWitnessMap(credential, usk, nymRandom, signatureRandom,
+                commitmentPairs, randomization.getPrecomputation());
 
         GeneralizedSchnorrProtocolFactory factory = new GeneralizedSchnorrProtocolFactory(problem, zp);
         return factory.createProverGeneralizedSchnorrProtocol(witnessMap);
@@ -142,19 +193,21 @@ public class PSSignatureSchnorrProtocolFactory {
      * @param nymRandom       random used to create the pseudonym
      * @param signatureRandom used to randomize the credential-signature
      * @param commitmentPairs used for the other euqations
+     * @param precomputation  precomputed Zp representations of the attributes, or null to compute them
      * @return a generalized Schnorr Witness containing all not disclosed elements
      */
     private Map<String, Zp.ZpElement> createWitnessMap(PSCredential credential, Zp.ZpElement usk,
                                                        Zp.ZpElement nymRandom,
                                                        Zp.ZpElement signatureRandom,
-                                                       List<PedersenCommitmentPair> commitmentPairs) {
+                                                       List<PedersenCommitmentPair> commitmentPairs,
+                                                       PSCredentialPrecomputation precomputation) {
         Map<String, Zp.ZpElement> mapping = new HashMap<>();
         mapping.put(NYM_RANDOM, nymRandom);
         mapping.put(USK, usk);
         mapping.put(SIGNATURE_RANDOM, signatureRandom);
         for (int i = 0; i < commitmentPairs.size(); i++) {
             String name = credential.getAttributes()[i].getAttributeName();
-            Zp.ZpElement valueInCred =
+            Zp.ZpElement valueInCred = precomputation != null ? precomputation.getAttributeZpRepresentation(i) :
                     credential.getAttributes()[i].getZpRepresentation(hashIntoZp);
             boolean isCorrespondingPair = valueInCred.equals(commitmentPairs.get(i).getOpenValue().getMessages()[0]);
             if (!isCorrespondingPair) {
@@ -181,13 +234,109 @@ public class PSSignatureSchnorrProtocolFactory {
                 ).collect(Collectors.toList());
 
         //the "+2" is used, since the equations for the pseudonym and the signature are needed aswell
-        GroupElementEqualityExpression[] problem = createProblem(attributeNames, attributeNames.size() + 2);
+        GroupElementEqualityExpression[] problem = createProblem(attributeNames, attributeNames.size() + 2, null);
 
         GeneralizedSchnorrProtocolFactory factory = new GeneralizedSchnorrProtocolFactory(problem, zp);
         return factory.createVerifierGeneralizedSchnorrProtocol();
     }
 
 
+    /**
+     * Verifies a transcript of the protocol returned by {@link #getVerifierProtocol()}, but instead of checking the
+     * signature equation (the first problem, see {@link #createProblem}) directly, it is added to the given
+     * {@link PSSignatureBatch}. All other equations are checked as usual.
+     * <p>
+     * Since the signature equation is not checked, a return value of true only states that the transcript is valid
+     * if all equations of the given batch hold, which needs to be checked using
+     * {@link PSSignatureBatch#verify}.
+     * </p>
+     *
+     * @param signatureBatch batch the signature equation is added to
+     * @param announcements  announcements of the transcript
+     * @param challenge      challenge of the transcript
+     * @param responses      responses of the transcript
+     * @return false, if the transcript is invalid, true if it is valid, given the signature equation holds
+     */
+    public boolean verifyDeferringSignatureEquation(PSSignatureBatch signatureBatch, Announcement[] announcements,
+                                                    Challenge challenge, Response[] responses) {
+        List<String> attributeNames = attributeSpace.getDefinitions().stream().map
+                (def -> def.getSuffixedAttributeName(key)
+                ).collect(Collectors.toList());
+        int numberOfProblems = attributeNames.size() + 2;
+        if (announcements == null || announcements.length != numberOfProblems ||
+                !(announcements[0] instanceof GeneralizedSchnorrAnnouncement)) {
+            throw new IllegalArgumentException("The number of given announcements is incorrect!");
+        }
+        if (!(challenge instanceof GeneralizedSchnorrChallenge)) {
+            throw new IllegalArgumentException("The given challenge is not valid to call this verify method");
+        }
+        if (responses == null ||
+                Arrays.stream(responses).anyMatch(response -> !(response instanceof GeneralizedSchnorrResponse))) {
+            throw new IllegalArgumentException("The given responses are not valid to call this verify method");
+        }
+
+        // Check all equations not involving the signature as usual
+        GroupElementEqualityExpression[] problem = new GroupElementEqualityExpression[numberOfProblems];
+        addPseudonymAndCommitmentProblems(problem, attributeNames);
+        GeneralizedSchnorrProtocol protocolWithoutSignature = new GeneralizedSchnorrProtocolFactory(
+                Arrays.copyOfRange(problem, 1, numberOfProblems), zp).createVerifierGeneralizedSchnorrProtocol();
+        if (!protocolWithoutSignature.verify(Arrays.copyOfRange(announcements, 1, numberOfProblems), challenge,
+                responses)) {
+            return false;
+        }
+
+        Map<String, Zp.ZpElement> responseMap = new HashMap<>();
+        for (Response response : responses) {
+            responseMap.put(((GeneralizedSchnorrResponse) response).getVariableName(),
+                    ((GeneralizedSchnorrResponse) response).getResponse());
+        }
+        if (!responseMap.containsKey(SIGNATURE_RANDOM) || !responseMap.containsKey(USK)) {
+            return false;
+        }
+
+        // The generalized Schnorr protocol checks t = RHS(responses) * A^-c, rewritten to pairings with G2 elements of
+        // the verification key this is:
+        // t = e(sigma1'^s_r * sigma2'^-c, g~) * e(sigma1'^c, X~) * e(sigma1'^s_usk, Y0~) * \prod_i e(sigma1'^x_i, Yi~)
+        // where x_i = s_i for hidden attributes and x_i = c * a_i for disclosed attributes.
+        Zp.ZpElement c = ((GeneralizedSchnorrChallenge) challenge).getChallenge();
+        GroupElement sigma1 = randomizedSignature.getGroup1ElementSigma1();
+        GroupElement sigma2 = randomizedSignature.getGroup1ElementSigma2();
+        List<GroupElement> g1Elements = new ArrayList<>();
+        List<BigInteger> exponents = new ArrayList<>();
+        List<GroupElement> g2Elements = new ArrayList<>();
+
+        g1Elements.add(sigma1);
+        exponents.add(responseMap.get(SIGNATURE_RANDOM).getInteger());
+        g2Elements.add(key.getGroup2ElementTildeG());
+        g1Elements.add(sigma2);
+        exponents.add(c.neg().getInteger());
+        g2Elements.add(key.getGroup2ElementTildeG());
+        g1Elements.add(sigma1);
+        exponents.add(c.getInteger());
+        g2Elements.add(key.getGroup2ElementTildeX());
+        g1Elements.add(sigma1);
+        exponents.add(responseMap.get(USK).getInteger());
+        g2Elements.add(key.getGroup2ElementsTildeYi()[0]);
+        for (int i = 0; i < attributeNames.size(); i++) {
+            Zp.ZpElement exponent;
+            if (isDisclosed(i, disclosedElements)) {
+                exponent = c.mul(disclosedElements.get(i).getZpRepresentation(hashIntoZp));
+            } else if (responseMap.containsKey(attributeNames.get(i))) {
+                exponent = responseMap.get(attributeNames.get(i));
+            } else {
+                return false;
+            }
+            g1Elements.add(sigma1);
+            exponents.add(exponent.getInteger());
+            //Index shift at getGroup2ElementsTildeYi, since the first element is for the usk
+            g2Elements.add(key.getGroup2ElementsTildeYi()[i + 1]);
+        }
+
+        signatureBatch.add(((GeneralizedSchnorrAnnouncement) announcements[0]).getAnnouncement(), g1Elements,
+                exponents, g2Elements);
+        return true;
+    }
+
     /**
      * Generates two problems:
      * 1. A :=  e(sigma2',g~) / e(sigma1',X~) = e(sigma1',g~}^r * e(sigma1',Y0~)^usk * \prod_i=1}^{l} (e(sigma1',Yi~)
@@ -198,23 +347,45 @@ public class PSSignatureSchnorrProtocolFactory {
      *
      * @param attributeName    List of names of the attributes used in the credential
      * @param numberOfProblems number of problem equations used
+     * @param randomization    the randomization providing the pairings on the randomized signature, or null to
+     *                         compute them
      * @return an Array with a single problem, computed as described above.
      */
-    private GroupElementEqualityExpression[] createProblem(List<String> attributeName, int numberOfProblems) {
+    private GroupElementEqualityExpression[] createProblem(List<String> attributeName, int numberOfProblems,
+                                                           PSCredentialPrecomputation.Randomization randomization) {
         GroupElementEqualityExpression[] problemArray = new GroupElementEqualityExpression[numberOfProblems];
 
-        //Compute e(sigma2',g~)
-        GroupElement denominator =
-                bilinearMap.apply(randomizedSignature.getGroup1ElementSigma2(), key.getGroup2ElementTildeG());
-        //Compute   e(sigma1',X~)
-        GroupElement nominator =
-                bilinearMap.apply(randomizedSignature.getGroup1ElementSigma1(), key.getGroup2ElementTildeX());
-        GroupElement nominatorInv = nominator.inv();
-        //Set A = e(sigma2',g~) * (e(sigma1',X~))^-1
-        GroupElement a1 = denominator.op(nominatorInv);
+        GroupElement a1;
+        if (randomization != null) {
+            a1 = randomization.getA();
+        } else {
+            //Compute e(sigma2',g~)
+            GroupElement denominator = bilinearMap.apply(randomizedSignature.getGroup1ElementSigma2(),
+                    key.getGroup2ElementTildeG());
+            //Compute   e(sigma1',X~)
+            GroupElement nominator = bilinearMap.apply(randomizedSignature.getGroup1ElementSigma1(),
+                    key.getGroup2ElementTildeX());
+            GroupElement nominatorInv = nominator.inv();
+            //Set A = e(sigma2',g~) * (e(sigma1',X~))^-1
+            a1 = denominator.op(nominatorInv);
+        }
 
         //Create the first problem equation:
-        problemArray[0] = createFirstProblemEquation(attributeName, a1);
+        problemArray[0] = createFirstProblemEquation(attributeName, a1, randomization);
+        addPseudonymAndCommitmentProblems(problemArray, attributeName);
+        return problemArray;
+    }
+
+    /**
+     * Fills all but the first entry of the given array with the problems for the pseudonym and the commitments on the
+     * attributes, see {@link #createProblem}. In contrast to the first problem, these do not require any pairings.
+     *
+     * @param problemArray  the array to fill, its length is the number of problem equations used
+     * @param attributeName List of names of the attributes used in the credential
+     */
+    private void addPseudonymAndCommitmentProblems(GroupElementEqualityExpression[] problemArray,
+                                                   List<String> attributeName) {
+        int numberOfProblems = problemArray.length;
         problemArray[1] = new GroupElementEqualityExpression(new NumberGroupElementLiteral(nym.getCommitmentElement()),
                 createSecondProblemEquation());
 
@@ -230,8 +401,6 @@ public class PSSignatureSchnorrProtocolFactory {
                 problemArray[i] = createCommitmentProblem(attributeName.get(i - 2), commitmentsOnAttributes.get(i - 2));
             }
         }
-
-        return problemArray;
     }
 
     /**
@@ -241,39 +410,64 @@ public class PSSignatureSchnorrProtocolFactory {
      *
      * @param attributeName list of attribute names
      * @param a1            :=  e(sigma2',g~) / e(sigma1',X~)
+     * @param randomization the randomization providing the pairings on the randomized signature, or null to compute
+     *                      them
      * @return the equation
      */
-    private GroupElementEqualityExpression createFirstProblemEquation(List<String> attributeName, GroupElement a1) {
+    private GroupElementEqualityExpression createFirstProblemEquation(List<String> attributeName, GroupElement a1,
+                                                                      PSCredentialPrecomputation.Randomization
+                                                                              randomization) {
         ProductGroupElementExpression rhs = new ProductGroupElementExpression();
         ArithGroupElementExpression sigma1Prime = new NumberGroupElementLiteral(randomizedSignature
                 .getGroup1ElementSigma1());
 
-        ArithGroupElementExpression gTilde = new NumberGroupElementLiteral(key.getGroup2ElementTildeG());
-        rhs.addElement(
-                new PowerGroupElementExpression(new PairingGroupElementExpression(bilinearMap, sigma1Prime, gTilde),
-                        new ZnVariable(SIGNATURE_RANDOM)));
-        ArithGroupElementExpression yiTilde0 = new NumberGroupElementLiteral(key.getGroup2ElementsTildeYi()[0]);
-        rhs.addElement(new PowerGroupElementExpression(new PairingGroupElementExpression(bilinearMap, sigma1Prime,
-                yiTilde0), new ZnVariable(USK)));
+        rhs.addElement(new PowerGroupElementExpression(createSigma1PrimePairing(sigma1Prime,
+                key.getGroup2ElementTildeG(), randomization == null ? null : randomization.getSigma1PairingG()),
+                new ZnVariable(SIGNATURE_RANDOM)));
+        rhs.addElement(new PowerGroupElementExpression(createSigma1PrimePairing(sigma1Prime,
+                key.getGroup2ElementsTildeYi()[0], randomization == null ? null : randomization.getSigma1PairingY(0)),
+                new ZnVariable(USK)));
 
         for (int i = 0; i <= attributeName.size() - 1; i++) {
-            //Index shift at getGroup2ElementsTildeYi, since the first element is for the usk
-            ArithGroupElementExpression yiTildeI = new NumberGroupElementLiteral(key.getGroup2ElementsTildeYi()[i + 1]);
             if (isDisclosed(i, disclosedElements)) {
                 //Modify A1 as follows: (e(sigma1',Yi~)^a_i)^-1 is added to A
                 //Index shift at getGroup2ElementsTildeYi, since the first element is for the usk
-                a1 = modifyA(randomizedSignature, key.getGroup2ElementsTildeYi()[i + 1],
-                        disclosedElements.get(i).getZpRepresentation(hashIntoZp).getInteger(), a1);
+                if (randomization != null) {
+                    a1 = a1.op(randomization.getSigma1PairingY(i + 1)
+                            .pow(randomization.getPrecomputation().getAttributeZpRepresentation(i)).inv());
+                } else {
+                    a1 = modifyA(randomizedSignature, key.getGroup2ElementsTildeYi()[i + 1],
+                            disclosedElements.get(i).getZpRepresentation(hashIntoZp).getInteger(), a1);
+                }
             } else {
-                rhs.addElement(new PowerGroupElementExpression(new PairingGroupElementExpression(bilinearMap,
-                        sigma1Prime, yiTildeI), new ZnVariable(attributeName.get(i))));
-
+                //Index shift at getGroup2ElementsTildeYi, since the first element is for the usk
+                rhs.addElement(new PowerGroupElementExpression(createSigma1PrimePairing(sigma1Prime,
+                        key.getGroup2ElementsTildeYi()[i + 1],
+                        randomization == null ? null : randomization.getSigma1PairingY(i + 1)),
+                        new ZnVariable(attributeName.get(i))));
             }
         }
         return new GroupElementEqualityExpression(new NumberGroupElementLiteral(a1), rhs); //TODO replace a1 with an appropriate expression that is more efficient to evaluate
     }
 
 
+    /**
+     * Creates the expression for e(sigma1', Q).
+     *
+     * @param sigma1Prime        the first element of the randomized signature
+     * @param g2Element          the element Q of the verification key
+     * @param precomputedPairing the value of e(sigma1', Q) if it is already known, or null
+     * @return the precomputed pairing as literal, or the pairing expression if it is not known
+     */
+    private ArithGroupElementExpression createSigma1PrimePairing(ArithGroupElementExpression sigma1Prime,
+                                                                 GroupElement g2Element,
+                                                                 GroupElement precomputedPairing) {
+        if (precomputedPairing != null) {
+            return new NumberGroupElementLiteral(precomputedPairing);
+        }
+        return new PairingGroupElementExpression(bilinearMap, sigma1Prime, new NumberGroupElementLiteral(g2Element));
+    }
+
     /**
      * Computes A' = A * (e(sigma1',Yi~) ^a_i) ^-1 for a publicly known value of a_i
      *
@@ -286,8 +480,7 @@ public class PSSignatureSchnorrProtocolFactory {
     private GroupElement modifyA(PSSignature signature, GroupElement yi,
                                  BigInteger hashOfAi, GroupElement a) {
         //element = e(sigma1',Yi~) ^a_i
-        GroupElement element = bilinearMap.apply(signature.getGroup1ElementSigma1(), yi,
-                hashOfAi);
+        GroupElement element = bilinearMap.apply(signature.getGroup1ElementSigma1(), yi, hashOfAi);
         //Compute A' = A * (e(sigma1',Yi~) ^a_i) ^-1 =  A * (element) ^-1
         a = a.op(element.inv());
         return a;
@@ -337,7 +530,7 @@ public class PSSignatureSchnorrProtocolFactory {
                 new ZnVariable(getNameForRandomOfAttribute(nameOfattribute))));
 
         GroupElement hPowAlphaInv =
-                h.pow(disclosedElement.getZpRepresentation(hashIntoZp)).inv();
+                FixedBaseExponentiation.of(h).pow(disclosedElement.getZpRepresentation(hashIntoZp)).inv();
         GroupElement lhs = c_i.getCommitmentElement().op(hPowAlphaInv);
         return new GroupElementEqualityExpression(new NumberGroupElementLiteral(lhs), rhs);
     }
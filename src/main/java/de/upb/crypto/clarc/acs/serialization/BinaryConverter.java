@@ -0,0 +1,253 @@
+package de.upb.crypto.clarc.acs.serialization;
+
+import de.upb.crypto.clarc.serialization.RepresentationEncoder;
+import de.upb.crypto.math.serialization.*;
+import de.upb.crypto.math.serialization.converter.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static de.upb.crypto.clarc.serialization.RepresentationEncoder.*;
+
+/**
+ * Converts {@link Representation}s into a compact, versioned binary format and back.
+ * <p>
+ * In contrast to the {@link de.upb.crypto.math.serialization.converter.JSONConverter}, big integers (and hence the
+ * coordinates of group elements) are stored as two's complement bytes instead of decimal strings, and every string
+ * (field names, type names and string values) is written only once per message and afterwards referenced by its index.
+ * All lengths are prefixed as unsigned varints, such that a message can be read directly from a {@link ByteBuffer}
+ * without any intermediate text.
+ * </p>
+ * <p>
+ * A message consists of the {@link #FORMAT_VERSION} byte followed by the root representation encoded by a
+ * {@link RepresentationEncoder}. Deserializing a serialized representation yields an equal representation. Messages
+ * in which representations are nested deeper than {@link #MAXIMUM_NESTING_DEPTH} are rejected, as reading them would
+ * overflow the stack.
+ * </p>
+ */
+public class BinaryConverter extends Converter<byte[]> {
+    /**
+     * Version of the binary format, which is written as the first byte of every message
+     */
+    public static final byte FORMAT_VERSION = 1;
+    /**
+     * Maximum number of nested representations, including the root representation, which are accepted when reading
+     */
+    public static final int MAXIMUM_NESTING_DEPTH = 256;
+
+    @Override
+    public byte[] serialize(Representation representation) {
+        Writer writer = new Writer();
+        writer.out.write(FORMAT_VERSION);
+        writer.write(representation);
+        return writer.out.toByteArray();
+    }
+
+    @Override
+    public Representation deserialize(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Representation representation = deserialize(buffer);
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Found " + buffer.remaining() + " trailing bytes after the message");
+        }
+        return representation;
+    }
+
+    /**
+     * Reads a single message starting at the position of the given buffer. Afterwards, the position of the buffer
+     * points to the first byte after the message.
+     *
+     * @param buffer buffer containing the message
+     * @return the representation contained in the message
+     * @throws IllegalArgumentException if the message has an unknown version, is malformed or nested too deeply
+     */
+    public Representation deserialize(ByteBuffer buffer) {
+        try {
+            byte version = buffer.get();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported format version " + version);
+            }
+            return new Reader(buffer).read();
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("The message is truncated", e);
+        }
+    }
+
+    private static class Writer extends RepresentationEncoder {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final Map<String, Integer> stringIndices = new HashMap<>();
+
+        @Override
+        protected void writeTag(byte tag) {
+            out.write(tag);
+        }
+
+        /**
+         * Writes 0 followed by the string for the first occurrence of a string and its index + 1 afterwards.
+         */
+        @Override
+        protected void writeString(String string) {
+            Integer index = stringIndices.get(string);
+            if (index != null) {
+                writeLength(index + 1);
+            } else {
+                stringIndices.put(string, stringIndices.size());
+                writeLength(0);
+                writeBytes(string.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        @Override
+        protected void writeBytes(byte[] bytes) {
+            writeLength(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        @Override
+        protected void writeLength(int length) {
+            writeVarLong(length);
+        }
+
+        /**
+         * Writes the value zigzag encoded, such that small negative values result in few bytes as well.
+         */
+        @Override
+        protected void writeLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+
+    private static class Reader {
+        private final ByteBuffer buffer;
+        private final List<String> strings = new ArrayList<>();
+        private int depth;
+
+        private Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private Representation read() {
+            if (depth == MAXIMUM_NESTING_DEPTH) {
+                throw new IllegalArgumentException("The message is nested deeper than " + MAXIMUM_NESTING_DEPTH);
+            }
+            depth++;
+            try {
+                return readValue();
+            } finally {
+                depth--;
+            }
+        }
+
+        private Representation readValue() {
+            byte tag = buffer.get();
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_OBJECT: {
+                    ObjectRepresentation object = new ObjectRepresentation();
+                    int size = readLength();
+                    for (int i = 0; i < size; i++) {
+                        String key = readString();
+                        object.put(key, read());
+                    }
+                    return object;
+                }
+                case TAG_MAP: {
+                    MapRepresentation map = new MapRepresentation();
+                    int size = readLength();
+                    for (int i = 0; i < size; i++) {
+                        Representation key = read();
+                        map.put(key, read());
+                    }
+                    return map;
+                }
+                case TAG_LIST: {
+                    int size = readLength();
+                    List<Representation> list = new ArrayList<>(Math.min(size, buffer.remaining()));
+                    for (int i = 0; i < size; i++) {
+                        list.add(read());
+                    }
+                    return new ListRepresentation(list);
+                }
+                case TAG_REPRESENTABLE: {
+                    String typeName = readString();
+                    return new RepresentableRepresentation(typeName, read());
+                }
+                case TAG_STRING:
+                    return new StringRepresentation(readString());
+                case TAG_BIG_INTEGER:
+                    return new BigIntegerRepresentation(new BigInteger(readBytes()));
+                case TAG_INTEGER: {
+                    long value = readVarLong();
+                    return new IntegerRepresentation((value >>> 1) ^ -(value & 1));
+                }
+                case TAG_TRUE:
+                    return new BooleanRepresentation(true);
+                case TAG_FALSE:
+                    return new BooleanRepresentation(false);
+                case TAG_BYTES:
+                    return new ByteArrayRepresentation(readBytes());
+                default:
+                    throw new IllegalArgumentException("Unknown tag " + tag);
+            }
+        }
+
+        private String readString() {
+            int reference = readLength();
+            if (reference == 0) {
+                String string = new String(readBytes(), StandardCharsets.UTF_8);
+                strings.add(string);
+                return string;
+            }
+            if (reference > strings.size()) {
+                throw new IllegalArgumentException("Unknown string reference " + reference);
+            }
+            return strings.get(reference - 1);
+        }
+
+        private byte[] readBytes() {
+            int length = readLength();
+            if (length > buffer.remaining()) {
+                throw new IllegalArgumentException("The message is truncated");
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        private int readLength() {
+            long length = readVarLong();
+            if (length < 0 || length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid length " + length);
+            }
+            return (int) length;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+    }
+}
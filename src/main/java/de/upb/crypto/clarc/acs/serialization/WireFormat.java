@@ -0,0 +1,51 @@
+package de.upb.crypto.clarc.acs.serialization;
+
+import de.upb.crypto.clarc.acs.review.impl.clarc.Review;
+import de.upb.crypto.clarc.acs.user.impl.clarc.NonInteractivePolicyProof;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirProof;
+import de.upb.crypto.craco.interfaces.PublicParameters;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes the messages which are sent to verifiers using the {@link BinaryConverter}.
+ * <p>
+ * Decoding an encoded message yields an object which is equal to the original one, i.e. the encoding carries exactly
+ * the information of the messages' {@link de.upb.crypto.math.serialization.Representation}s.
+ * </p>
+ */
+public class WireFormat {
+    private static final BinaryConverter converter = new BinaryConverter();
+
+    private WireFormat() {
+    }
+
+    public static byte[] encode(NonInteractivePolicyProof proof) {
+        return converter.serialize(proof.getRepresentation());
+    }
+
+    public static NonInteractivePolicyProof decodeNonInteractivePolicyProof(ByteBuffer buffer) {
+        return new NonInteractivePolicyProof(converter.deserialize(buffer));
+    }
+
+    public static byte[] encode(Review review) {
+        return converter.serialize(review.getRepresentation());
+    }
+
+    /**
+     * @param buffer buffer containing the encoded review
+     * @param pp     public parameters of the system the review was created in
+     * @return the decoded review
+     */
+    public static Review decodeReview(ByteBuffer buffer, PublicParameters pp) {
+        return new Review(converter.deserialize(buffer), pp);
+    }
+
+    public static byte[] encode(FiatShamirProof proof) {
+        return converter.serialize(proof.getRepresentation());
+    }
+
+    public static FiatShamirProof decodeFiatShamirProof(ByteBuffer buffer) {
+        return new FiatShamirProof(converter.deserialize(buffer));
+    }
+}
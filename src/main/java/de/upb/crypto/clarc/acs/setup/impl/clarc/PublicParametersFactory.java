@@ -14,7 +14,6 @@ import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
 import de.upb.crypto.craco.commitment.pedersen.PedersenPublicParameters;
 import de.upb.crypto.craco.interfaces.signature.Signature;
 import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
-import de.upb.crypto.craco.sig.ps.PSPublicParameters;
 import de.upb.crypto.math.factory.BilinearGroup;
 import de.upb.crypto.math.factory.BilinearGroupFactory;
 import de.upb.crypto.math.hash.impl.VariableOutputLengthHashFunction;
@@ -112,7 +111,7 @@ public class PublicParametersFactory implements de.upb.crypto.clarc.acs.PublicPa
     }
 
     /**
-     * Creates a {@link PSExtendedSignatureScheme} whose parameters are defined by the systems
+     * Returns the {@link PSExtendedSignatureScheme} whose parameters are defined by the systems
      * {@link PublicParameters}.
      * <br>
      * This {@link PSExtendedSignatureScheme} is expected to be used during every process which requires a
@@ -120,11 +119,10 @@ public class PublicParametersFactory implements de.upb.crypto.clarc.acs.PublicPa
      *
      * @param clarcPublicParameters the public parameters of the system
      * @return {@link PSExtendedSignatureScheme} to be used to create a {@link Signature} to be used during the
-     * interactions with the ACS
+     * interactions with the ACS, which is shared by all callers, see {@link VerificationKeyCache#getSignatureScheme}
      */
     public static PSExtendedSignatureScheme getSignatureScheme(PublicParameters clarcPublicParameters) {
-        PSPublicParameters psPublicParameters = new PSPublicParameters(clarcPublicParameters.getBilinearMap());
-        return new PSExtendedSignatureScheme(psPublicParameters);
+        return VerificationKeyCache.getSignatureScheme(clarcPublicParameters.getBilinearMap());
     }
 
     @Override
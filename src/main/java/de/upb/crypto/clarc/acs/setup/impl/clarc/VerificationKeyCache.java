@@ -0,0 +1,215 @@
+package de.upb.crypto.clarc.acs.setup.impl.clarc;
+
+import de.upb.crypto.craco.enc.sym.streaming.aes.ByteArrayImplementation;
+import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
+import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
+import de.upb.crypto.craco.sig.ps.PSPublicParameters;
+import de.upb.crypto.math.hash.impl.SHA256HashFunction;
+import de.upb.crypto.math.interfaces.mappings.BilinearMap;
+import de.upb.crypto.math.serialization.Representation;
+import de.upb.crypto.math.serialization.converter.JSONConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares the {@link PSExtendedSignatureScheme} of a system and the {@link PSExtendedVerificationKey}s restored from
+ * their representations between all users of the process.
+ * <p>
+ * Restoring a verification key from its representation decodes all of its group elements, which is expensive compared
+ * to the protocols using the key, and the keys of the issuers are restored again for every credential, review token and
+ * proof. Hence, the restored keys are kept in a bounded cache which evicts the least recently used entry if it is full.
+ * Keys are identified by the SHA-256 digest of their serialized representation, such that the cache only holds the
+ * digests instead of the representations. There is a single scheme per bilinear map, see {@link #getSignatureScheme}.
+ * </p>
+ * <p>
+ * The returned schemes and keys are shared, hence they must not be modified, e.g. by changing the arrays returned by
+ * {@link PSExtendedVerificationKey#getGroup1ElementsYi()}. All methods are thread-safe.
+ * </p>
+ */
+public class VerificationKeyCache {
+    /**
+     * Default maximum number of cached verification keys
+     */
+    public static final int DEFAULT_MAXIMUM_CACHE_SIZE = 1000;
+    private static final int MAXIMUM_NUMBER_OF_SCHEMES = 16;
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+
+    private static final Map<BilinearMap, PSExtendedSignatureScheme> schemes =
+            new LinkedHashMap<BilinearMap, PSExtendedSignatureScheme>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<BilinearMap, PSExtendedSignatureScheme> eldest) {
+                    return size() > MAXIMUM_NUMBER_OF_SCHEMES;
+                }
+            };
+
+    private static int maximumCacheSize = DEFAULT_MAXIMUM_CACHE_SIZE;
+    private static final Map<CacheKey, PSExtendedVerificationKey> cache =
+            new LinkedHashMap<CacheKey, PSExtendedVerificationKey>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, PSExtendedVerificationKey> eldest) {
+                    if (size() > maximumCacheSize) {
+                        evictions.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
+    /**
+     * Returns the shared signature scheme for the given bilinear map, which is created if necessary.
+     *
+     * @param bilinearMap the bilinear map of the system
+     * @return the signature scheme for the given bilinear map
+     */
+    public static PSExtendedSignatureScheme getSignatureScheme(BilinearMap bilinearMap) {
+        synchronized (schemes) {
+            return schemes.computeIfAbsent(bilinearMap,
+                    map -> new PSExtendedSignatureScheme(new PSPublicParameters(map)));
+        }
+    }
+
+    /**
+     * Returns the shared verification key for the given representation, which is restored if it is not cached.
+     *
+     * @param pp                            the public parameters of the system
+     * @param verificationKeyRepresentation the representation of the verification key
+     * @return the verification key
+     */
+    public static PSExtendedVerificationKey getVerificationKey(PublicParameters pp,
+                                                               Representation verificationKeyRepresentation) {
+        return getVerificationKey(getSignatureScheme(pp.getBilinearMap()), verificationKeyRepresentation);
+    }
+
+    /**
+     * Returns the shared verification key for the given representation, which is restored using the given scheme if
+     * it is not cached.
+     *
+     * @param signatureScheme               the signature scheme of the system
+     * @param verificationKeyRepresentation the representation of the verification key
+     * @return the verification key
+     */
+    public static PSExtendedVerificationKey getVerificationKey(PSExtendedSignatureScheme signatureScheme,
+                                                               Representation verificationKeyRepresentation) {
+        CacheKey key = new CacheKey(signatureScheme.getPp().getBilinearMap(), digest(verificationKeyRepresentation));
+        synchronized (cache) {
+            PSExtendedVerificationKey verificationKey = cache.get(key);
+            if (verificationKey != null) {
+                hits.incrementAndGet();
+                return verificationKey;
+            }
+        }
+        misses.incrementAndGet();
+
+        // Restore outside of the lock, restoring the same key concurrently at worst results in redundant work
+        PSExtendedVerificationKey verificationKey = signatureScheme.getVerificationKey(verificationKeyRepresentation);
+        synchronized (cache) {
+            if (maximumCacheSize > 0) {
+                PSExtendedVerificationKey cached = cache.putIfAbsent(key, verificationKey);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+        return verificationKey;
+    }
+
+    private static ByteArrayImplementation digest(Representation representation) {
+        byte[] serialized = new JSONConverter().serialize(representation).getBytes(StandardCharsets.UTF_8);
+        return new ByteArrayImplementation(new SHA256HashFunction().hash(serialized));
+    }
+
+    /**
+     * Sets the maximum number of cached verification keys, evicting the least recently used ones if there are more.
+     * A size of 0 disables the cache.
+     *
+     * @param maximumSize the maximum number of cached verification keys
+     */
+    public static void setMaximumCacheSize(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("The maximum cache size must not be negative");
+        }
+        synchronized (cache) {
+            maximumCacheSize = maximumSize;
+            Iterator<CacheKey> iterator = cache.keySet().iterator();
+            while (cache.size() > maximumSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes all cached verification keys.
+     */
+    public static void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return the number of verification keys which have been taken from the cache
+     */
+    public static long getCacheHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of verification keys which have been restored since they were not cached
+     */
+    public static long getCacheMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of verification keys which have been removed from the cache since it was full
+     */
+    public static long getCacheEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the number of currently cached verification keys
+     */
+    public static int getCacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static final class CacheKey {
+        private final BilinearMap bilinearMap;
+        private final ByteArrayImplementation digest;
+        private final int hashCode;
+
+        private CacheKey(BilinearMap bilinearMap, ByteArrayImplementation digest) {
+            this.bilinearMap = bilinearMap;
+            this.digest = digest;
+            this.hashCode = Objects.hash(bilinearMap, digest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CacheKey that = (CacheKey) o;
+            return hashCode == that.hashCode &&
+                    Objects.equals(digest, that.digest) &&
+                    Objects.equals(bilinearMap, that.bilinearMap);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package de.upb.crypto.clarc.acs.subpolicyproving;
 
 import de.upb.crypto.clarc.acs.attributes.AttributeNameValuePair;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSCredentialPrecomputation;
 import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSSignatureSchnorrProtocolFactory;
 import de.upb.crypto.clarc.acs.transformation.PredicateToRecreationProtocolTransformation;
 import de.upb.crypto.clarc.acs.transformation.PredicateToSigmaProtocolTransformation;
 import de.upb.crypto.clarc.acs.user.credentials.PSCredential;
 import de.upb.crypto.clarc.acs.user.credentials.SignatureCredential;
+import de.upb.crypto.clarc.exponentiation.FixedBasePedersenCommitment;
 import de.upb.crypto.clarc.predicategeneration.fixedprotocols.popk.ProofOfPartialKnowledgeProtocol;
 import de.upb.crypto.clarc.predicategeneration.fixedprotocols.popk.ProofOfPartialKnowledgePublicParameters;
 import de.upb.crypto.clarc.predicategeneration.policies.PredicatePolicyFact;
@@ -20,7 +22,6 @@ import de.upb.crypto.clarc.protocols.simulator.SpecialHonestVerifierSimulator;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentPair;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentValue;
-import de.upb.crypto.craco.common.RingElementPlainText;
 import de.upb.crypto.craco.interfaces.policy.Policy;
 import de.upb.crypto.craco.interfaces.policy.ThresholdPolicy;
 import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
@@ -92,11 +93,15 @@ public class SubPolicyProvingProtocol extends SigmaProtocol {
 
         // First of all, commitments on the attributes are created.
         SignatureCredential credential = witness.getCredential();
+        PSCredentialPrecomputation precomputation = witness.getCredentialPrecomputation();
         PedersenCommitmentScheme scheme = publicParameters.getCommitmentScheme();
         List<PedersenCommitmentPair> commitmentsOnAttributes = new ArrayList<>();
 
-        Arrays.stream(credential.getAttributes()).forEach(attr -> commitmentsOnAttributes.add(
-                scheme.commit(new RingElementPlainText(attr.getZpRepresentation(publicParameters.getHashIntoZp())))));
+        for (int i = 0; i < credential.getAttributes().length; i++) {
+            Zp.ZpElement attributeValue = precomputation != null ? precomputation.getAttributeZpRepresentation(i) :
+                    credential.getAttributes()[i].getZpRepresentation(publicParameters.getHashIntoZp());
+            commitmentsOnAttributes.add(FixedBasePedersenCommitment.commit(scheme.getPp(), attributeValue));
+        }
 
         // Store the newly created commitments and the random values in the witness for this protocol
         witness.setCommitmentsOnAttributes(commitmentsOnAttributes);
@@ -111,10 +116,18 @@ public class SubPolicyProvingProtocol extends SigmaProtocol {
 
         // Create a randomized signature
         Zp.ZpElement signatureRandom = witness.getSignatureRandom();
-        final PSExtendedSignatureScheme psSignatureScheme = publicParameters.getPsSignatureScheme();
-        PSSignature signature =
-                psSignatureScheme.getSignature(witness.getCredential().getSignatureRepresentation());
-        PSSignature randomizedSignature = psSignatureScheme.randomizeExistingSignature(signature, signatureRandom);
+        PSCredentialPrecomputation.Randomization randomization = null;
+        PSSignature randomizedSignature;
+        if (precomputation != null) {
+            // The pairings on the randomized signature follow from the precomputed ones
+            randomization = precomputation.randomize(signatureRandom);
+            randomizedSignature = randomization.getRandomizedSignature();
+        } else {
+            final PSExtendedSignatureScheme psSignatureScheme = publicParameters.getPsSignatureScheme();
+            PSSignature signature =
+                    psSignatureScheme.getSignature(witness.getCredential().getSignatureRepresentation());
+            randomizedSignature = psSignatureScheme.randomizeExistingSignature(signature, signatureRandom);
+        }
 
         //Update public parameters
         publicParameters.setRandomizedSignature(randomizedSignature);
@@ -123,9 +136,14 @@ public class SubPolicyProvingProtocol extends SigmaProtocol {
 
         //Afterwards, set up the protocol for proving the correctness of the signature
         PSSignatureSchnorrProtocolFactory factory = new PSSignatureSchnorrProtocolFactory(publicParameters);
-        this.protocolForSignature = factory.getProverProtocol(witness.getCredential(),
-                witness.getUsk(), witness.getNymRandom(),
-                signatureRandom, witness.getCommitmentsOnAttributes());
+        if (randomization != null) {
+            this.protocolForSignature = factory.getProverProtocol(randomization, witness.getUsk(),
+                    witness.getNymRandom(), signatureRandom, witness.getCommitmentsOnAttributes());
+        } else {
+            this.protocolForSignature = factory.getProverProtocol(witness.getCredential(),
+                    witness.getUsk(), witness.getNymRandom(),
+                    signatureRandom, witness.getCommitmentsOnAttributes());
+        }
 
         ThresholdPolicy transformedPolicy = transformPolicyForVerification(publicParameters.getPolicy(),
                 witness, publicParameters, new AtomicInteger());
@@ -134,6 +152,7 @@ public class SubPolicyProvingProtocol extends SigmaProtocol {
                         publicParameters.getZp());
         this.predicateProvingProtocol = new ProofOfPartialKnowledgeProtocol(
                 witness, predProofPublicParameters, transformedPolicy);
+        this.predicateProvingProtocol.setExecutor(publicParameters.getExecutor());
     }
 
     /**
@@ -165,7 +184,8 @@ public class SubPolicyProvingProtocol extends SigmaProtocol {
                         .getLinearSecretSharingSchemeProvider(),
                         subPolicyProvingProtocolPublicParameters.getZp());
         this.predicateProvingProtocol =
-                new ProofOfPartialKnowledgeProtocol(predProofPublicParameters, transformedPolicy);
+                createVerifierPoPKProtocol(predProofPublicParameters, transformedPolicy,
+                        subPolicyProvingProtocolPublicParameters);
     }
 
     /**
@@ -197,6 +217,31 @@ public class SubPolicyProvingProtocol extends SigmaProtocol {
                 subPolPP.getLinearSecretSharingSchemeProvider(), subPolPP.getZp());
         this.predicateProvingProtocol =
                 new ProofOfPartialKnowledgeProtocol(witness, poPKPublicParameters, transformedPolicy);
+        this.predicateProvingProtocol.setExecutor(subPolPP.getExecutor());
+    }
+
+    /**
+     * Creates the verifier {@link ProofOfPartialKnowledgeProtocol} for the predicates, reusing the secret sharing
+     * given by {@link SubPolicyProvingProtocolPublicParameters#getPredicateSecretSharing()} if available. It uses the
+     * executor given by {@link SubPolicyProvingProtocolPublicParameters#getExecutor()}.
+     *
+     * @param poPKPublicParameters public parameters of the proof of partial knowledge
+     * @param transformedPolicy    policy which leaves are {@link SigmaProtocolPolicyFact}
+     * @param subPolPP             public parameters of the enclosing protocol
+     * @return the verifier protocol
+     */
+    private static ProofOfPartialKnowledgeProtocol createVerifierPoPKProtocol(
+            ProofOfPartialKnowledgePublicParameters poPKPublicParameters, ThresholdPolicy transformedPolicy,
+            SubPolicyProvingProtocolPublicParameters subPolPP) {
+        ProofOfPartialKnowledgeProtocol protocol;
+        if (subPolPP.getPredicateSecretSharing() != null) {
+            protocol = new ProofOfPartialKnowledgeProtocol(poPKPublicParameters, transformedPolicy,
+                    subPolPP.getPredicateSecretSharing());
+        } else {
+            protocol = new ProofOfPartialKnowledgeProtocol(poPKPublicParameters, transformedPolicy);
+        }
+        protocol.setExecutor(subPolPP.getExecutor());
+        return protocol;
     }
 
     /**
@@ -354,31 +399,28 @@ public class SubPolicyProvingProtocol extends SigmaProtocol {
                 .getResponsesPSSignatureSchnorrProtocol();
         Response[] responsesP2Protocol = ((SubPolicyProvingProtocolResponse) responses[0]).getResponsesPoPKProtocol();
         SubPolicyProvingProtocolPublicParameters subPolPP =
-                (SubPolicyProvingProtocolPublicParameters) this.publicParameters;
-
-        //set randomized signature created by the prover and send in the announcement
-        subPolPP.setRandomizedSignature(subPolicyProvingProtocolAnnouncement.getRandomizedSignature());
-        subPolPP.setCommitmentsOnAttributes(subPolicyProvingProtocolAnnouncement.getCommitmentsOnAttributes());
-        subPolPP.setDisclosedElements(subPolicyProvingProtocolAnnouncement.getDisclosedElements());
-
-        PSSignatureSchnorrProtocolFactory factory = new PSSignatureSchnorrProtocolFactory(subPolPP);
-
-        ThresholdPolicy transformedPolicy =
-                transformPolicyForVerification(subPolPP.getPolicy(), new EmptyWitness(), subPolPP, new AtomicInteger());
+                getVerificationPublicParameters(subPolicyProvingProtocolAnnouncement);
 
         //Recreate P2Protocol and PSSignatureSchnorrProtocol
-        ProofOfPartialKnowledgePublicParameters poPKPublicParameters = new ProofOfPartialKnowledgePublicParameters(
-                subPolPP.getLinearSecretSharingSchemeProvider(), subPolPP.getZp());
-        ProofOfPartialKnowledgeProtocol poPKProtocol =
-                new ProofOfPartialKnowledgeProtocol(poPKPublicParameters, transformedPolicy);
-        GeneralizedSchnorrProtocol psSignatureSchnorrProtocol = factory.getVerifierProtocol();
+        PSSignatureSchnorrProtocolFactory factory = new PSSignatureSchnorrProtocolFactory(subPolPP);
+        ProofOfPartialKnowledgeProtocol poPKProtocol = createPredicateVerifierProtocol(subPolPP);
 
         boolean p2Verified =
                 poPKProtocol.verify(subPolicyProvingProtocolAnnouncement.getAnnouncementsOfPredicateProvingProtocol(),
                         challenge, responsesP2Protocol);
-        boolean pSSignatureSchnorrProtocolVerified =
-                psSignatureSchnorrProtocol.verify(subPolicyProvingProtocolAnnouncement
-                        .getAnnouncementsOfSignatureProtocol(), challenge, responsesPSSignatureSchnorrProtocol);
+        boolean pSSignatureSchnorrProtocolVerified;
+        if (subPolPP.getSignatureBatch() != null) {
+            // The pairing based signature equation is checked later on together with other ones
+            pSSignatureSchnorrProtocolVerified = factory.verifyDeferringSignatureEquation(
+                    subPolPP.getSignatureBatch(),
+                    subPolicyProvingProtocolAnnouncement.getAnnouncementsOfSignatureProtocol(), challenge,
+                    responsesPSSignatureSchnorrProtocol);
+        } else {
+            GeneralizedSchnorrProtocol psSignatureSchnorrProtocol = factory.getVerifierProtocol();
+            pSSignatureSchnorrProtocolVerified =
+                    psSignatureSchnorrProtocol.verify(subPolicyProvingProtocolAnnouncement
+                            .getAnnouncementsOfSignatureProtocol(), challenge, responsesPSSignatureSchnorrProtocol);
+        }
 
         return p2Verified && pSSignatureSchnorrProtocolVerified;
     }
@@ -404,6 +446,43 @@ public class SubPolicyProvingProtocol extends SigmaProtocol {
         return predicateProvingProtocol;
     }
 
+    /**
+     * Creates the verifier {@link ProofOfPartialKnowledgeProtocol} for the predicates which is bound to the
+     * commitments on the attributes (and the disclosed elements) sent by the prover in the given announcement.
+     * In contrast to {@link #getPredicateProvingProtocol()} of a verifier protocol, which only holds placeholder
+     * commitments, it can verify the predicate part of a transcript on its own.
+     *
+     * @param announcement announcement sent by the prover
+     * @return the verifier protocol for the predicates
+     */
+    public ProofOfPartialKnowledgeProtocol getPredicateVerifierProtocol(
+            SubPolicyProvingProtocolAnnouncement announcement) {
+        return createPredicateVerifierProtocol(getVerificationPublicParameters(announcement));
+    }
+
+    /**
+     * Uses the randomized signature and the commitments created by the prover and sent in the announcement. The
+     * public parameters of this protocol are not modified, such that it can verify several announcements
+     * concurrently.
+     */
+    private SubPolicyProvingProtocolPublicParameters getVerificationPublicParameters(
+            SubPolicyProvingProtocolAnnouncement announcement) {
+        return new SubPolicyProvingProtocolPublicParameters(
+                (SubPolicyProvingProtocolPublicParameters) this.publicParameters,
+                announcement.getRandomizedSignature(),
+                announcement.getCommitmentsOnAttributes(),
+                announcement.getDisclosedElements());
+    }
+
+    private ProofOfPartialKnowledgeProtocol createPredicateVerifierProtocol(
+            SubPolicyProvingProtocolPublicParameters subPolPP) {
+        ThresholdPolicy transformedPolicy =
+                transformPolicyForVerification(subPolPP.getPolicy(), new EmptyWitness(), subPolPP, new AtomicInteger());
+        ProofOfPartialKnowledgePublicParameters poPKPublicParameters = new ProofOfPartialKnowledgePublicParameters(
+                subPolPP.getLinearSecretSharingSchemeProvider(), subPolPP.getZp());
+        return createVerifierPoPKProtocol(poPKPublicParameters, transformedPolicy, subPolPP);
+    }
+
     public GeneralizedSchnorrProtocol getProtocolForSignature() {
         return protocolForSignature;
     }
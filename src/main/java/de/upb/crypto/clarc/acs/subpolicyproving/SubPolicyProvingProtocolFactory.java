@@ -2,19 +2,25 @@ package de.upb.crypto.clarc.acs.subpolicyproving;
 
 import de.upb.crypto.clarc.acs.attributes.AttributeNameValuePair;
 import de.upb.crypto.clarc.acs.attributes.AttributeSpace;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSCredentialPrecomputation;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSSignatureBatch;
 import de.upb.crypto.clarc.acs.user.credentials.PSCredential;
 import de.upb.crypto.clarc.predicategeneration.fixedprotocols.SecretSharingSchemeProviders;
+import de.upb.crypto.clarc.predicategeneration.fixedprotocols.popk.ProofOfPartialKnowledgeProtocol;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentValue;
 import de.upb.crypto.craco.interfaces.policy.ThresholdPolicy;
 import de.upb.crypto.craco.secretsharing.SecretSharingSchemeProvider;
+import de.upb.crypto.craco.secretsharing.ThresholdTreeSecretSharing;
 import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
+import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
 import de.upb.crypto.math.interfaces.mappings.BilinearMap;
 import de.upb.crypto.math.structures.zn.HashIntoZp;
 import de.upb.crypto.math.structures.zn.Zp;
 
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * A factory creating SubPolicyProvingProtocol protocols
@@ -92,6 +98,30 @@ public class SubPolicyProvingProtocolFactory {
                 this.subPolicyProvingProtocolPublicParameters);
     }
 
+    /**
+     * Returns a SubPolicyProvingProtocol Protocol for the prover, which takes the values only depending on the
+     * credential from the given {@link PSCredentialPrecomputation} instead of computing them again.
+     *
+     * @param precomputation precomputed values of the credential used to prove the policy
+     * @param usk            of the user
+     * @param nymRandom      used to randomize the usk
+     * @return Protocol instance for the prover side including all witnesses needed to prove fulfillment of the given
+     * {@link ThresholdPolicy}
+     */
+    public SubPolicyProvingProtocol getProverProtocol(PSCredentialPrecomputation precomputation, Zp.ZpElement usk,
+                                                      Zp.ZpElement nymRandom) {
+        Zp.ZpElement signatureRandom = subPolicyProvingProtocolPublicParameters.getZp().getUniformlyRandomElement();
+        SubPolicyProvingProtocolWitness subPolicyProvingProtocolWitness =
+                new SubPolicyProvingProtocolWitness(signatureRandom, new ArrayList<>(),
+                        precomputation.getCredential(), usk, nymRandom,
+                        SubPolicyProvingProtocol.getNameForWitnesses(this.subPolicyProvingProtocolPublicParameters
+                                .getPolicy()), this.subPolicyProvingProtocolPublicParameters.getPsSignatureScheme());
+        subPolicyProvingProtocolWitness.setCredentialPrecomputation(precomputation);
+
+        return new SubPolicyProvingProtocol(subPolicyProvingProtocolWitness,
+                this.subPolicyProvingProtocolPublicParameters);
+    }
+
     /**
      * Return new SubPolicyProvingProtocol Protocol for the verifier
      *
@@ -102,4 +132,65 @@ public class SubPolicyProvingProtocolFactory {
         return new SubPolicyProvingProtocol(SubPolicyProvingProtocol.getNameForWitnesses(
                 this.subPolicyProvingProtocolPublicParameters.getPolicy()), subPolicyProvingProtocolPublicParameters);
     }
+
+    /**
+     * Return new SubPolicyProvingProtocol Protocol for the verifier, which reuses the given proof independent state
+     * instead of deriving it again.
+     *
+     * @param verificationKey        verification key of the issuer of the used credential
+     * @param predicateSecretSharing secret sharing for the proof of partial knowledge of the predicates, see
+     *                               {@link SubPolicyProvingProtocolPublicParameters#setPredicateSecretSharing}
+     * @return Protocol instance for the verifier side with all information needed to verify fulfillment of the given
+     * {@link ThresholdPolicy}
+     */
+    public SubPolicyProvingProtocol getVerifieryProtocol(PSExtendedVerificationKey verificationKey,
+                                                         ThresholdTreeSecretSharing predicateSecretSharing) {
+        return getVerifieryProtocol(verificationKey, predicateSecretSharing, null);
+    }
+
+    /**
+     * Return new SubPolicyProvingProtocol Protocol for the verifier, which defers the check of the signature equation
+     * to the given batch.
+     *
+     * @param signatureBatch batch the signature equation is deferred to, null to check it directly
+     * @return Protocol instance for the verifier side with all information needed to verify fulfillment of the given
+     * {@link ThresholdPolicy}, given the equations of the batch hold
+     */
+    public SubPolicyProvingProtocol getVerifieryProtocol(PSSignatureBatch signatureBatch) {
+        SubPolicyProvingProtocolPublicParameters publicParameters = signatureBatch == null
+                ? subPolicyProvingProtocolPublicParameters
+                : new SubPolicyProvingProtocolPublicParameters(subPolicyProvingProtocolPublicParameters,
+                signatureBatch);
+        return new SubPolicyProvingProtocol(SubPolicyProvingProtocol.getNameForWitnesses(
+                publicParameters.getPolicy()), publicParameters);
+    }
+
+    /**
+     * Return new SubPolicyProvingProtocol Protocol for the verifier like
+     * {@link #getVerifieryProtocol(PSExtendedVerificationKey, ThresholdTreeSecretSharing)}, which defers the check of
+     * the signature equation to the given batch.
+     *
+     * @param verificationKey        verification key of the issuer of the used credential
+     * @param predicateSecretSharing secret sharing for the proof of partial knowledge of the predicates
+     * @param signatureBatch         batch the signature equation is deferred to, null to check it directly
+     * @return Protocol instance for the verifier side with all information needed to verify fulfillment of the given
+     * {@link ThresholdPolicy}, given the equations of the batch hold
+     */
+    public SubPolicyProvingProtocol getVerifieryProtocol(PSExtendedVerificationKey verificationKey,
+                                                         ThresholdTreeSecretSharing predicateSecretSharing,
+                                                         PSSignatureBatch signatureBatch) {
+        subPolicyProvingProtocolPublicParameters.setVerificationKey(verificationKey);
+        subPolicyProvingProtocolPublicParameters.setPredicateSecretSharing(predicateSecretSharing);
+        return getVerifieryProtocol(signatureBatch);
+    }
+
+    /**
+     * Sets the executor which is used to prove and verify the predicates of the created protocols in parallel, see
+     * {@link ProofOfPartialKnowledgeProtocol#setExecutor}.
+     *
+     * @param executor the executor to use, or null to do everything sequentially in the calling thread (default)
+     */
+    public void setExecutor(Executor executor) {
+        subPolicyProvingProtocolPublicParameters.setExecutor(executor);
+    }
 }
@@ -2,6 +2,8 @@ package de.upb.crypto.clarc.acs.subpolicyproving;
 
 import de.upb.crypto.clarc.acs.attributes.AttributeNameValuePair;
 import de.upb.crypto.clarc.acs.attributes.AttributeSpace;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSSignatureBatch;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.VerificationKeyCache;
 import de.upb.crypto.clarc.predicategeneration.fixedprotocols.SecretSharingSchemeProviders;
 import de.upb.crypto.craco.commitment.interfaces.CommitmentValue;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
@@ -9,7 +11,9 @@ import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentValue;
 import de.upb.crypto.craco.interfaces.PublicParameters;
 import de.upb.crypto.craco.interfaces.policy.ThresholdPolicy;
 import de.upb.crypto.craco.secretsharing.SecretSharingSchemeProvider;
+import de.upb.crypto.craco.secretsharing.ThresholdTreeSecretSharing;
 import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
+import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
 import de.upb.crypto.craco.sig.ps.PSSignature;
 import de.upb.crypto.craco.sig.ps.PSSignatureScheme;
 import de.upb.crypto.math.interfaces.mappings.BilinearMap;
@@ -25,6 +29,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 /**
  * Public parameter that works for {@link SubPolicyProvingProtocol}.
@@ -63,6 +68,24 @@ public class SubPolicyProvingProtocolPublicParameters implements PublicParameter
     @Represented
     private BilinearMap bilinearMap;
 
+    /**
+     * If set, the check of the signature equation is deferred to this batch during verification
+     */
+    private PSSignatureBatch signatureBatch;
+    /**
+     * Verification key of the issuer, derived from the attribute space when needed
+     */
+    private PSExtendedVerificationKey verificationKey;
+    /**
+     * If set, this secret sharing is used for the proof of partial knowledge of the predicates instead of setting up
+     * a new one
+     */
+    private ThresholdTreeSecretSharing predicateSecretSharing;
+    /**
+     * If set, the leaves of the proof of partial knowledge of the predicates are proven and verified on this executor
+     */
+    private Executor executor;
+
     public SubPolicyProvingProtocolPublicParameters(Representation representation) {
         AnnotatedRepresentationUtil.restoreAnnotatedRepresentation(representation, this);
     }
@@ -123,6 +146,51 @@ public class SubPolicyProvingProtocolPublicParameters implements PublicParameter
         this.hashIntoZp = hashIntoZp;
     }
 
+    /**
+     * Creates a copy of the given public parameters with the values sent by the prover, leaving the given public
+     * parameters unchanged. This allows verifying several announcements against the same public parameters
+     * concurrently.
+     *
+     * @param pp                      the public parameters to copy
+     * @param randomizedSignature     the randomized signature sent by the prover
+     * @param commitmentsOnAttributes the commitments on the attributes sent by the prover
+     * @param disclosedElements       the disclosed elements sent by the prover
+     */
+    public SubPolicyProvingProtocolPublicParameters(SubPolicyProvingProtocolPublicParameters pp,
+                                                    PSSignature randomizedSignature,
+                                                    List<PedersenCommitmentValue> commitmentsOnAttributes,
+                                                    Map<Integer, AttributeNameValuePair> disclosedElements) {
+        this.policy = pp.policy;
+        this.zp = pp.zp;
+        this.psSignatureScheme = pp.psSignatureScheme;
+        this.commitmentScheme = pp.commitmentScheme;
+        this.hashIntoZp = pp.hashIntoZp;
+        this.pseudonym = pp.pseudonym;
+        this.linearSecretSharingSchemeProvider = pp.linearSecretSharingSchemeProvider;
+        this.disclosedElements = disclosedElements;
+        this.attributeSpace = pp.attributeSpace;
+        this.commitmentsOnAttributes = commitmentsOnAttributes;
+        this.randomizedSignature = randomizedSignature;
+        this.bilinearMap = pp.bilinearMap;
+        this.signatureBatch = pp.signatureBatch;
+        this.verificationKey = pp.verificationKey;
+        this.predicateSecretSharing = pp.predicateSecretSharing;
+        this.executor = pp.executor;
+    }
+
+    /**
+     * Creates a copy of the given public parameters which defers the check of the signature equation to the given
+     * batch during verification, leaving the given public parameters unchanged.
+     *
+     * @param pp             the public parameters to copy
+     * @param signatureBatch the batch the signature equation is deferred to
+     */
+    public SubPolicyProvingProtocolPublicParameters(SubPolicyProvingProtocolPublicParameters pp,
+                                                    PSSignatureBatch signatureBatch) {
+        this(pp, pp.randomizedSignature, pp.commitmentsOnAttributes, pp.disclosedElements);
+        this.signatureBatch = signatureBatch;
+    }
+
     public Zp getZp() {
         return zp;
     }
@@ -208,4 +276,36 @@ public class SubPolicyProvingProtocolPublicParameters implements PublicParameter
     public BilinearMap getBilinearMap() {
         return bilinearMap;
     }
+
+    public PSExtendedVerificationKey getVerificationKey() {
+        if (verificationKey == null) {
+            verificationKey = VerificationKeyCache.getVerificationKey(psSignatureScheme,
+                    attributeSpace.getIssuerPublicKey());
+        }
+        return verificationKey;
+    }
+
+    public void setVerificationKey(PSExtendedVerificationKey verificationKey) {
+        this.verificationKey = verificationKey;
+    }
+
+    public ThresholdTreeSecretSharing getPredicateSecretSharing() {
+        return predicateSecretSharing;
+    }
+
+    public void setPredicateSecretSharing(ThresholdTreeSecretSharing predicateSecretSharing) {
+        this.predicateSecretSharing = predicateSecretSharing;
+    }
+
+    public PSSignatureBatch getSignatureBatch() {
+        return signatureBatch;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
 }
@@ -27,26 +27,28 @@ public class SubPolicyProvingProtocolSimulator extends SpecialHonestVerifierSimu
 
         SubPolicyProvingProtocol proveCredAndPredicateProtocol =
                 (SubPolicyProvingProtocol) this.protocolInstance;
-        SubPolicyProvingProtocolPublicParameters subPolPP =
+        SubPolicyProvingProtocolPublicParameters protocolPP =
                 (SubPolicyProvingProtocolPublicParameters) subPolicyProvingProtocol.getPublicParameters();
 
 
         // Choose commitments randomly. Number is extracted from attribute space.
-        Group group = subPolPP.getCommitmentScheme().getPp().getGroup();
+        Group group = protocolPP.getCommitmentScheme().getPp().getGroup();
         List<PedersenCommitmentValue> randomCommitments = new ArrayList<>();
-        for (int i = 0; i < subPolPP.getAttributeSpace().getDefinitions().size(); i++) {
+        for (int i = 0; i < protocolPP.getAttributeSpace().getDefinitions().size(); i++) {
             randomCommitments.add(new PedersenCommitmentValue(group.getUniformlyRandomElement()));
         }
-        subPolPP.setCommitmentsOnAttributes(randomCommitments);
-        subPolicyProvingProtocol.setPublicParameters(subPolPP);
 
         // Choose randomized signature
-        PSPublicParameters pspp = subPolPP.getPsSignatureScheme().getPp();
+        PSPublicParameters pspp = protocolPP.getPsSignatureScheme().getPp();
         GroupElement sigma1 = pspp.getBilinearMap().getG1().getUniformlyRandomNonNeutral();
         GroupElement sigma2 = pspp.getBilinearMap().getG1().getUniformlyRandomElement();
 
         PSSignature signature = new PSSignature(sigma1, sigma2);
-        subPolPP.setRandomizedSignature(signature);
+
+        // The simulated values are only used for this transcript, the public parameters of the protocol (which may
+        // be shared with the prover) are not modified
+        SubPolicyProvingProtocolPublicParameters subPolPP = new SubPolicyProvingProtocolPublicParameters(protocolPP,
+                signature, randomCommitments, protocolPP.getDisclosedElements());
 
         // Since the randomized signature is needed to create the underlying protocols, the P1 instance need to be reset
         SubPolicyProvingProtocol fullInstance = new SubPolicyProvingProtocol(new EmptyWitness(), subPolPP);
@@ -1,5 +1,6 @@
 package de.upb.crypto.clarc.acs.subpolicyproving;
 
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSCredentialPrecomputation;
 import de.upb.crypto.clarc.acs.user.credentials.PSCredential;
 import de.upb.crypto.clarc.protocols.parameters.Witness;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentPair;
@@ -32,6 +33,7 @@ public class SubPolicyProvingProtocolWitness implements Witness {
     @Represented(structure = "zp", recoveryMethod = Zp.ZpElement.RECOVERY_METHOD)
     private Zp.ZpElement usk;
 
+    private PSCredentialPrecomputation credentialPrecomputation;
 
     public SubPolicyProvingProtocolWitness(Representation representation) {
         AnnotatedRepresentationUtil.restoreAnnotatedRepresentation(representation, this);
@@ -96,6 +98,21 @@ public class SubPolicyProvingProtocolWitness implements Witness {
         this.name = name;
     }
 
+    /**
+     * @return the precomputed values of the credential, or null if they are computed for the proof
+     */
+    public PSCredentialPrecomputation getCredentialPrecomputation() {
+        return credentialPrecomputation;
+    }
+
+    /**
+     * @param credentialPrecomputation the precomputed values of the credential, which is used instead of computing
+     *                                 them again. It needs to be computed for the credential of this witness.
+     */
+    public void setCredentialPrecomputation(PSCredentialPrecomputation credentialPrecomputation) {
+        this.credentialPrecomputation = credentialPrecomputation;
+    }
+
     public Zp.ZpElement getSignatureRandom() {
         return signatureRandom;
     }
@@ -2,40 +2,57 @@ package de.upb.crypto.clarc.acs.systemmanager.impl.clarc;
 
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.user.impl.clarc.UserPublicKey;
+import de.upb.crypto.clarc.exponentiation.FixedBaseExponentiation;
 import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
 import de.upb.crypto.craco.sig.ps.PSSignature;
 import de.upb.crypto.math.interfaces.structures.GroupElement;
 import de.upb.crypto.math.serialization.Representation;
 import de.upb.crypto.math.structures.zn.Zp;
 
-import java.util.List;
-
 import static de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory.getSignatureScheme;
 
 public class CreateSignatureHelper {
-    public static PSSignature computeSignature(List<RegistrationEntry> registry,
+    public static PSSignature computeSignature(RegistrationStore registry,
                                                UserPublicKey userPublicKey,
                                                PublicParameters pp,
                                                SystemManagerKeyPair clarcSystemManagerKeyPair,
                                                Representation tau) {
         PSExtendedSignatureScheme signatureScheme = getSignatureScheme(pp);
-        for (RegistrationEntry entry : registry) {
-            if (entry.getUserPublicKey().equals(userPublicKey)) {
-                return signatureScheme.getSignature(entry.getSignature());
-            }
+        RegistrationEntry existingEntry = registry.get(userPublicKey);
+        if (existingEntry != null) {
+            return signatureScheme.getSignature(existingEntry.getSignature());
         }
         GroupElement tauElement = pp.getBilinearMap().getG2().getElement(tau);
         GroupElement upk = pp.getBilinearMap().getG1().getElement(userPublicKey.getUpk());
-        GroupElement g = clarcSystemManagerKeyPair.getPublicIdentity().getOpk().getGroup1ElementG();
+        PSSignature signature = createSignature(upk, pp, clarcSystemManagerKeyPair);
+        existingEntry = registry.putIfAbsent(new RegistrationEntry(userPublicKey, signature, tauElement));
+        if (existingEntry != null) {
+            // The same user has been registered concurrently, hence the stored signature is returned
+            return signatureScheme.getSignature(existingEntry.getSignature());
+        }
+        return signature;
+    }
+
+    /**
+     * Signs the given user public key without registering the user.
+     *
+     * @param upk                       the user public key as an element of G1
+     * @param pp                        the public parameters of the system
+     * @param clarcSystemManagerKeyPair the key pair of the system manager
+     * @return the signature (g^u, (g^x * upk^y)^u) for a random u
+     */
+    static PSSignature createSignature(GroupElement upk, PublicParameters pp,
+                                       SystemManagerKeyPair clarcSystemManagerKeyPair) {
+        FixedBaseExponentiation g =
+                FixedBaseExponentiation.of(clarcSystemManagerKeyPair.getPublicIdentity().getOpk().getGroup1ElementG());
         Zp zp = pp.getZp();
         Zp.ZpElement u = zp.getUniformlyRandomUnit();
         GroupElement g_u = g.pow(u);
         Zp.ZpElement x = clarcSystemManagerKeyPair.getSystemManagerSecretKey().getExponentX();
         Zp.ZpElement y = clarcSystemManagerKeyPair.getSystemManagerSecretKey().getExponentsYi()[0];
-        GroupElement g_pow_x = g.pow(x);
-        GroupElement upk_pow_y = upk.pow(y);
-        PSSignature signature = new PSSignature(g_u, (g_pow_x.op(upk_pow_y)).pow(u));
-        registry.add(new RegistrationEntry(userPublicKey, signature, tauElement));
-        return signature;
+        // (g^x * upk^y)^u = g^(x * u) * upk^(y * u), such that only upk is raised to a power without a table
+        GroupElement g_pow_xu = g.pow(x.mul(u));
+        GroupElement upk_pow_yu = upk.pow(y.mul(u));
+        return new PSSignature(g_u, g_pow_xu.op(upk_pow_yu));
     }
 }
@@ -0,0 +1,137 @@
+package de.upb.crypto.clarc.acs.systemmanager.impl.clarc;
+
+import de.upb.crypto.clarc.acs.user.impl.clarc.UserPublicKey;
+import de.upb.crypto.clarc.storage.AppendOnlyLog;
+import de.upb.crypto.math.serialization.converter.JSONConverter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * {@link RegistrationStore} which persists every entry to an {@link AppendOnlyLog}.
+ * <p>
+ * The payload of each record of the log is the UTF-8 encoded JSON serialization of a {@link RegistrationEntry}. When
+ * the store is opened, the in-memory index is rebuilt from the log. A record that was only partially written (e.g. due
+ * to a crash during a join) is cut off, a record which can not be restored is skipped.
+ * </p>
+ * <p>
+ * New entries are written to the log before they are added to the index, hence other threads only see entries which
+ * have been persisted. Lookups do not block, while new entries are written one after another.
+ * </p>
+ * <p>
+ * Entries of this store are not part of the representation of the {@link SystemManager}, they survive restarts by
+ * opening the store on the same file again.
+ * </p>
+ */
+public class FileRegistrationStore implements RegistrationStore, Closeable {
+    private final Map<UserPublicKey, RegistrationEntry> entries = new ConcurrentHashMap<>();
+    private final JSONConverter converter = new JSONConverter();
+    private final AppendOnlyLog log;
+
+    /**
+     * Opens the store backed by the given file, creating the file if it does not exist yet.
+     *
+     * @param file the log file of the store
+     * @throws UncheckedIOException if the file can not be opened or read
+     */
+    public FileRegistrationStore(Path file) {
+        try {
+            log = new AppendOnlyLog(file, record -> {
+                RegistrationEntry entry =
+                        new RegistrationEntry(converter.deserialize(new String(record, StandardCharsets.UTF_8)));
+                entries.putIfAbsent(entry.getUserPublicKey(), entry);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open registration store " + file, e);
+        }
+    }
+
+    @Override
+    public RegistrationEntry get(UserPublicKey userPublicKey) {
+        return entries.get(userPublicKey);
+    }
+
+    @Override
+    public RegistrationEntry putIfAbsent(RegistrationEntry entry) {
+        RegistrationEntry existing = entries.get(entry.getUserPublicKey());
+        if (existing != null) {
+            return existing;
+        }
+        byte[] record = serialize(entry);
+        synchronized (log) {
+            existing = entries.get(entry.getUserPublicKey());
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                log.append(record);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to persist registration entry", e);
+            }
+            entries.put(entry.getUserPublicKey(), entry);
+        }
+        return null;
+    }
+
+    /**
+     * Stores the given entries like {@link #putIfAbsent}, but appends all new entries to the log with a single write.
+     */
+    @Override
+    public List<RegistrationEntry> putAllIfAbsent(List<RegistrationEntry> entries) {
+        List<byte[]> records = new ArrayList<>(entries.size());
+        for (RegistrationEntry entry : entries) {
+            records.add(this.entries.containsKey(entry.getUserPublicKey()) ? null : serialize(entry));
+        }
+        List<RegistrationEntry> existingEntries = new ArrayList<>(entries.size());
+        synchronized (log) {
+            Map<UserPublicKey, RegistrationEntry> newEntries = new HashMap<>();
+            List<byte[]> newRecords = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                RegistrationEntry entry = entries.get(i);
+                RegistrationEntry existing = this.entries.get(entry.getUserPublicKey());
+                if (existing == null) {
+                    existing = newEntries.putIfAbsent(entry.getUserPublicKey(), entry);
+                    if (existing == null) {
+                        newRecords.add(records.get(i) == null ? serialize(entry) : records.get(i));
+                    }
+                }
+                existingEntries.add(existing);
+            }
+            try {
+                log.append(newRecords);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to persist registration entries", e);
+            }
+            this.entries.putAll(newEntries);
+        }
+        return existingEntries;
+    }
+
+    private byte[] serialize(RegistrationEntry entry) {
+        return converter.serialize(entry.getRepresentation()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public Stream<RegistrationEntry> stream() {
+        return entries.values().stream();
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+}
@@ -0,0 +1,52 @@
+package de.upb.crypto.clarc.acs.systemmanager.impl.clarc;
+
+import de.upb.crypto.clarc.acs.user.impl.clarc.UserPublicKey;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * {@link RegistrationStore} keeping all entries in a concurrent hash map indexed by the {@link UserPublicKey}.
+ * <p>
+ * This is the default store of the {@link SystemManager}. Its entries are part of the representation of the
+ * {@link SystemManager}.
+ * </p>
+ */
+public class InMemoryRegistrationStore implements RegistrationStore {
+    private final Map<UserPublicKey, RegistrationEntry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public RegistrationEntry get(UserPublicKey userPublicKey) {
+        return entries.get(userPublicKey);
+    }
+
+    @Override
+    public RegistrationEntry putIfAbsent(RegistrationEntry entry) {
+        return entries.putIfAbsent(entry.getUserPublicKey(), entry);
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public Stream<RegistrationEntry> stream() {
+        return entries.values().stream();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InMemoryRegistrationStore that = (InMemoryRegistrationStore) o;
+        return Objects.equals(entries, that.entries);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(entries);
+    }
+}
@@ -14,21 +14,19 @@ import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
 import de.upb.crypto.math.interfaces.mappings.BilinearMap;
 import de.upb.crypto.math.interfaces.structures.GroupElement;
 
-import java.util.List;
-
 public class InteractiveJoinVerifyProcess extends InteractiveVerificationProcess {
 
     private final PublicParameters pp;
     private final GroupElement tau;
     private SystemManagerKeyPair clarcSystemManagerKeyPair;
-    private List<RegistrationEntry> registry;
+    private RegistrationStore registry;
     private UserPublicKey userPublicKey;
 
     private JoinResponse response;
 
     InteractiveJoinVerifyProcess(PublicParameters pp, UserPublicKey userPublicKey,
                                  SystemManagerKeyPair clarcSystemManagerKeyPair, Announcement[] announcements,
-                                 List<RegistrationEntry> registry,
+                                 RegistrationStore registry,
                                  RegistrationInformation registrationInformation) {
         super(generateProtocol(pp, userPublicKey, clarcSystemManagerKeyPair), announcements);
         this.pp = pp;
@@ -72,9 +70,12 @@ public class InteractiveJoinVerifyProcess extends InteractiveVerificationProcess
         GroupElement upk = pp.getBilinearMap().getG1().getElement(userPublicKey.getUpk());
         BilinearMap map = pp.getBilinearMap();
         final PSExtendedVerificationKey verificationKey = clarcSystemManagerKeyPair.getPublicIdentity().getOpk();
-        GroupElement upk_Y = map.apply(upk, verificationKey.getGroup2ElementsTildeYi()[0]);
-        GroupElement g_tau = map.apply(verificationKey.getGroup1ElementG(), tau);
-        return upk_Y.equals(g_tau);
+        // e(upk, Y~) = e(g, tau) iff e(upk, Y~) * e(g^-1, tau) = 1, which only needs a single final exponentiation
+        return map.pairingProductExpression()
+                .op(upk, verificationKey.getGroup2ElementsTildeYi()[0])
+                .op(verificationKey.getGroup1ElementG().inv(), tau)
+                .evaluate()
+                .isNeutralElement();
     }
 
     public JoinResponse getResponse() {
@@ -0,0 +1,162 @@
+package de.upb.crypto.clarc.acs.systemmanager.impl.clarc;
+
+import de.upb.crypto.clarc.acs.protocols.impl.clarc.JoinVerifyProtocolFactory;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.user.impl.clarc.NonInteractiveJoinRequest;
+import de.upb.crypto.clarc.acs.user.impl.clarc.UserPublicKey;
+import de.upb.crypto.clarc.exponentiation.FixedBaseExponentiation;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.FiatShamirHeuristic;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirProof;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrAnnouncement;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrChallenge;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocol;
+import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrResponse;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
+import de.upb.crypto.math.hash.impl.SHA256HashFunction;
+import de.upb.crypto.math.interfaces.hash.HashFunction;
+import de.upb.crypto.math.interfaces.mappings.BilinearMap;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.interfaces.structures.PowProductExpression;
+import de.upb.crypto.math.random.interfaces.RandomGeneratorSupplier;
+import de.upb.crypto.math.structures.zn.Zp;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The equations a non-interactive join request has to fulfill, which are collected such that the requests of a bulk
+ * join can be checked at once, see {@link SystemManager#joinBatch}.
+ * <p>
+ * For a user with public key upk = g^usk, the request contains the Fiat-Shamir proof of knowledge of usk, consisting
+ * of the announcement t and the response s, which has to fulfill t * upk^c = g^s for the challenge c. Furthermore, the
+ * registration information tau has to fulfill e(upk, Y0~) = e(g, tau), like it is checked by
+ * {@link InteractiveJoinVerifyProcess}. The equations of a number of requests are raised to independent random
+ * exponents d_i and e_i and multiplied (small exponent test):
+ * \prod_i t_i^d_i * upk_i^(c_i * d_i) = g^(\sum_i d_i * s_i) and
+ * e(\prod_i upk_i^e_i, Y0~) * e(g^-1, \prod_i tau_i^e_i) = 1,
+ * such that only a single exponentiation of g and two pairings are needed for all requests. If any of the equations
+ * does not hold, the combined check fails with overwhelming probability.
+ * </p>
+ */
+class JoinEquations {
+    /**
+     * Bit length of the random exponents used to combine the equations. The probability of accepting a batch which
+     * contains an invalid equation is at most 2^-SECURITY_PARAMETER.
+     */
+    private static final int SECURITY_PARAMETER = 128;
+    private static final String USK = "usk";
+
+    private final UserPublicKey userPublicKey;
+    private final GroupElement upk;
+    private final GroupElement tau;
+    private final GroupElement announcement;
+    private final Zp.ZpElement challenge;
+    private final Zp.ZpElement response;
+
+    private JoinEquations(UserPublicKey userPublicKey, GroupElement upk, GroupElement tau, GroupElement announcement,
+                          Zp.ZpElement challenge, Zp.ZpElement response) {
+        this.userPublicKey = userPublicKey;
+        this.upk = upk;
+        this.tau = tau;
+        this.announcement = announcement;
+        this.challenge = challenge;
+        this.response = response;
+    }
+
+    /**
+     * Restores the elements of the given request and computes the Fiat-Shamir challenge of its proof.
+     *
+     * @param pp      the public parameters of the system
+     * @param opk     the verification key of the system manager
+     * @param request the request to check
+     * @return the equations of the given request or null, if the request is malformed
+     */
+    static JoinEquations of(PublicParameters pp, PSExtendedVerificationKey opk, NonInteractiveJoinRequest request) {
+        try {
+            HashFunction hashFunction = new SHA256HashFunction();
+            GeneralizedSchnorrProtocol protocol =
+                    new JoinVerifyProtocolFactory(pp, request.getUpk(), opk).getProtocol();
+            FiatShamirProof proof = (FiatShamirProof) request.getProof();
+            Announcement[] announcements = Arrays.stream(proof.getAnnouncementRepresentations())
+                    .map(protocol::recreateAnnouncement)
+                    .toArray(Announcement[]::new);
+            Response[] responses = Arrays.stream(proof.getResponseRepresentations())
+                    .map(protocol::recreateResponse)
+                    .toArray(Response[]::new);
+            if (announcements.length != 1 || responses.length != 1
+                    || !USK.equals(((GeneralizedSchnorrResponse) responses[0]).getVariableName())) {
+                return null;
+            }
+            byte[] hash = new FiatShamirHeuristic(protocol, hashFunction)
+                    .getHashForAnnouncementAndAuxData(announcements, proof.getAuxData(), hashFunction);
+            GeneralizedSchnorrChallenge challenge =
+                    (GeneralizedSchnorrChallenge) protocol.createChallengeFromByteArray(hash);
+            return new JoinEquations(request.getUpk(),
+                    pp.getBilinearMap().getG1().getElement(request.getUpk().getUpk()),
+                    pp.getBilinearMap().getG2().getElement(request.getTau()),
+                    ((GeneralizedSchnorrAnnouncement) announcements[0]).getAnnouncement(),
+                    challenge.getChallenge(),
+                    ((GeneralizedSchnorrResponse) responses[0]).getResponse());
+        } catch (RuntimeException e) {
+            // Malformed requests are considered invalid
+            return null;
+        }
+    }
+
+    /**
+     * Checks the equations of all given requests using random linear combinations.
+     *
+     * @param bilinearMap the bilinear map of the system
+     * @param opk         the verification key of the system manager
+     * @param equations   the equations of the requests to check
+     * @return true if all equations hold, false if (with overwhelming probability) at least one of them does not hold
+     */
+    static boolean verify(BilinearMap bilinearMap, PSExtendedVerificationKey opk,
+                          Collection<JoinEquations> equations) {
+        if (equations.isEmpty()) {
+            return true;
+        }
+        BigInteger bound = BigInteger.ONE.shiftLeft(SECURITY_PARAMETER);
+        BigInteger order = bilinearMap.getG1().size();
+        PowProductExpression proofs = new PowProductExpression(bilinearMap.getG1());
+        BigInteger responses = BigInteger.ZERO;
+        PowProductExpression upks = new PowProductExpression(bilinearMap.getG1());
+        PowProductExpression taus = new PowProductExpression(bilinearMap.getG2());
+
+        for (JoinEquations equation : equations) {
+            BigInteger d = RandomGeneratorSupplier.getRnd().getRandomElement(bound);
+            proofs.op(equation.announcement, d);
+            proofs.op(equation.upk, equation.challenge.getInteger().multiply(d).mod(order));
+            responses = responses.add(equation.response.getInteger().multiply(d)).mod(order);
+
+            BigInteger e = RandomGeneratorSupplier.getRnd().getRandomElement(bound);
+            upks.op(equation.upk, e);
+            taus.op(equation.tau, e);
+        }
+
+        GroupElement g = opk.getGroup1ElementG();
+        if (!proofs.evaluate().equals(FixedBaseExponentiation.of(g).pow(responses))) {
+            return false;
+        }
+        return bilinearMap.pairingProductExpression()
+                .op(upks.evaluate(), opk.getGroup2ElementsTildeYi()[0])
+                .op(g.inv(), taus.evaluate())
+                .evaluate()
+                .isNeutralElement();
+    }
+
+    UserPublicKey getUserPublicKey() {
+        return userPublicKey;
+    }
+
+    GroupElement getUpk() {
+        return upk;
+    }
+
+    GroupElement getTau() {
+        return tau;
+    }
+}
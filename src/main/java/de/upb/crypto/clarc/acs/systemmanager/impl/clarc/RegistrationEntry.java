@@ -1,5 +1,6 @@
 package de.upb.crypto.clarc.acs.systemmanager.impl.clarc;
 
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.user.impl.clarc.UserPublicKey;
 import de.upb.crypto.craco.sig.ps.PSSignature;
 import de.upb.crypto.math.interfaces.structures.GroupElement;
@@ -16,11 +17,16 @@ public class RegistrationEntry implements StandaloneRepresentable {
     private UserPublicKey clarcUserPublicKey;
     private Representation psSignature;
     private Representation tau;
+    /**
+     * Restored version of {@link #tau}, kept such that opening does not need to parse it for every lookup
+     */
+    private GroupElement tauElement;
 
     public RegistrationEntry(UserPublicKey clarcUserPublicKey, PSSignature psSignature, GroupElement tau) {
         this.clarcUserPublicKey = clarcUserPublicKey;
         this.psSignature = psSignature.getRepresentation();
         this.tau = tau.getRepresentation();
+        this.tauElement = tau;
     }
 
     @SuppressWarnings("unused")
@@ -43,6 +49,20 @@ public class RegistrationEntry implements StandaloneRepresentable {
         return tau;
     }
 
+    /**
+     * Returns tau as an element of G2. The element is restored from its representation only once and reused for all
+     * subsequent calls.
+     *
+     * @param pp the public parameters of the system
+     * @return tau as an element of G2
+     */
+    public GroupElement getTau(PublicParameters pp) {
+        if (tauElement == null) {
+            tauElement = pp.getBilinearMap().getG2().getElement(tau);
+        }
+        return tauElement;
+    }
+
     @Override
     public Representation getRepresentation() {
         ObjectRepresentation object = AnnotatedRepresentationUtil.putAnnotatedRepresentation(this);
@@ -0,0 +1,58 @@
+package de.upb.crypto.clarc.acs.systemmanager.impl.clarc;
+
+import de.upb.crypto.clarc.acs.user.impl.clarc.UserPublicKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Storage of the {@link RegistrationEntry}s of all users which joined the system via the {@link SystemManager}.
+ * <p>
+ * Implementations are expected to be safe for concurrent use, since joins may be verified by multiple threads at
+ * once. Looking up an entry by its {@link UserPublicKey} is expected to be possible in constant time.
+ * </p>
+ */
+public interface RegistrationStore {
+
+    /**
+     * @param userPublicKey the public key of the user
+     * @return the entry registered for the given user or null, if the user did not join yet
+     */
+    RegistrationEntry get(UserPublicKey userPublicKey);
+
+    /**
+     * Stores the given entry, unless an entry for the same {@link UserPublicKey} is already present. Checking and
+     * inserting is done atomically.
+     *
+     * @param entry the entry to store
+     * @return the entry that was already registered for the user or null, if the given entry has been stored
+     */
+    RegistrationEntry putIfAbsent(RegistrationEntry entry);
+
+    /**
+     * Stores the given entries like {@link #putIfAbsent} in the given order, e.g. the entries of a bulk join. Stores
+     * which persist their entries are expected to write all of them at once.
+     *
+     * @param entries the entries to store
+     * @return for every given entry, the entry that was already registered for the user (which may be an earlier entry
+     * of the given list) or null, if the given entry has been stored
+     */
+    default List<RegistrationEntry> putAllIfAbsent(List<RegistrationEntry> entries) {
+        List<RegistrationEntry> existingEntries = new ArrayList<>(entries.size());
+        for (RegistrationEntry entry : entries) {
+            existingEntries.add(putIfAbsent(entry));
+        }
+        return existingEntries;
+    }
+
+    /**
+     * @return the number of registered users
+     */
+    int size();
+
+    /**
+     * @return a stream of all registered entries, which may be used in parallel
+     */
+    Stream<RegistrationEntry> stream();
+}
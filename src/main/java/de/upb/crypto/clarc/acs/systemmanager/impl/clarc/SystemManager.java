@@ -6,49 +6,91 @@ import de.upb.crypto.clarc.acs.protocols.impl.clarc.JoinVerifyProtocolFactory;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred.ProtocolParameters;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred.VerifierIncludingMasterProtocolFactory;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
 import de.upb.crypto.clarc.acs.user.impl.clarc.NonInteractiveJoinRequest;
 import de.upb.crypto.clarc.acs.user.impl.clarc.UserPublicKey;
 import de.upb.crypto.clarc.acs.verifier.credentials.VerificationResult;
+import de.upb.crypto.clarc.parallel.ParallelExecution;
 import de.upb.crypto.clarc.protocols.arguments.InteractiveThreeWayAoK;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.FiatShamirHeuristic;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirProof;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocol;
 import de.upb.crypto.clarc.protocols.parameters.Announcement;
 import de.upb.crypto.craco.enc.sym.streaming.aes.ByteArrayImplementation;
+import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
 import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
 import de.upb.crypto.craco.sig.ps.PSSignature;
 import de.upb.crypto.math.hash.impl.SHA256HashFunction;
 import de.upb.crypto.math.interfaces.mappings.BilinearMap;
 import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.serialization.ListRepresentation;
 import de.upb.crypto.math.serialization.ObjectRepresentation;
+import de.upb.crypto.math.serialization.RepresentableRepresentation;
 import de.upb.crypto.math.serialization.Representation;
 import de.upb.crypto.math.serialization.annotations.AnnotatedRepresentationUtil;
 import de.upb.crypto.math.serialization.annotations.Represented;
-import de.upb.crypto.math.serialization.annotations.RepresentedList;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 public class SystemManager implements de.upb.crypto.clarc.acs.systemmanager.SystemManager {
+    /**
+     * Number of registration entries which are tested by a single task if {@link #retrievePublicKey} runs in parallel
+     */
+    private static final int OPENING_CHUNK_SIZE = 64;
 
     @Represented
     private PublicParameters pp;
     private SystemManagerKeyPair clarcSystemManagerKeyPair;
-    @RepresentedList(elementRestorer = @Represented)
-    private List<RegistrationEntry> registry = new ArrayList<>();
+    private RegistrationStore registry;
+    private volatile Executor executor;
 
     public SystemManager(PublicParameters pp) {
+        this(pp, new InMemoryRegistrationStore());
+    }
+
+    /**
+     * Creates a new system manager which stores the registered users in the given store.
+     *
+     * @param pp       the public parameters of the system
+     * @param registry the store for the registered users
+     */
+    public SystemManager(PublicParameters pp, RegistrationStore registry) {
         this.pp = pp;
+        this.registry = registry;
         SystemManagerKeyPairFactory factory = new SystemManagerKeyPairFactory();
         this.clarcSystemManagerKeyPair = factory.create(pp);
     }
 
     @SuppressWarnings("unused")
     public SystemManager(Representation representation) {
+        this(representation, new InMemoryRegistrationStore());
+    }
+
+    /**
+     * Restores a system manager which stores the registered users in the given store. Entries contained in the
+     * representation are added to the store.
+     *
+     * @param representation the representation of the system manager
+     * @param registry       the store for the registered users
+     */
+    public SystemManager(Representation representation, RegistrationStore registry) {
         AnnotatedRepresentationUtil.restoreAnnotatedRepresentation(representation, this);
         clarcSystemManagerKeyPair =
                 new SystemManagerKeyPair(representation.obj().get("clarcSystemManagerKeyPair"), pp);
+        this.registry = registry;
+        final Representation registryRepresentation = representation.obj().get("registry");
+        if (registryRepresentation != null) {
+            for (Representation entry : registryRepresentation.list()) {
+                registry.putIfAbsent((RegistrationEntry) entry.repr().recreateRepresentable());
+            }
+        }
     }
 
     public UserPublicKey retrievePublicKey(VerificationResult verificationResult) {
@@ -79,23 +121,46 @@ public class SystemManager implements de.upb.crypto.clarc.acs.systemmanager.Syst
         }
 
         final PSExtendedVerificationKey verificationKey = clarcSystemManagerKeyPair.getPublicIdentity().getOpk();
-        for (RegistrationEntry entry : registry) {
-            BilinearMap map = pp.getBilinearMap();
-            GroupElement firstValue =
-                    map.apply(signature.getGroup1ElementSigma2(),
-                            verificationKey.getGroup2ElementTildeG());
-            GroupElement secondValue =
-                    map.apply(signature.getGroup1ElementSigma1(),
-                            verificationKey.getGroup2ElementTildeX()).inv();
-            GroupElement tau = pp.getBilinearMap().getG2().getElement(entry.getTau());
-            GroupElement expectedResult = map.apply(signature.getGroup1ElementSigma1(), tau);
-            if (firstValue.op(secondValue).equals(expectedResult)) {
-                return entry.getUserPublicKey();
-            }
+        final BilinearMap map = pp.getBilinearMap();
+        final GroupElement sigma1 = signature.getGroup1ElementSigma1();
+        // e(sigma2, g~) * e(sigma1, X~)^-1 does not depend on the registration entry, hence it is computed only once
+        // and each entry only costs the pairing e(sigma1, tau)
+        final GroupElement expectedResult = map.pairingProductExpression()
+                .op(signature.getGroup1ElementSigma2(), verificationKey.getGroup2ElementTildeG())
+                .op(sigma1.inv(), verificationKey.getGroup2ElementTildeX())
+                .evaluate();
+        Predicate<RegistrationEntry> isMatch =
+                entry -> map.apply(sigma1, entry.getTau(pp)).equals(expectedResult);
+        Optional<RegistrationEntry> match = executor == null
+                ? registry.stream().filter(isMatch).findFirst()
+                : findInParallel(isMatch);
+        if (match.isPresent()) {
+            return match.get().getUserPublicKey();
         }
         throw new IllegalArgumentException("No user public key found!");
     }
 
+    /**
+     * Searches the registry for an entry fulfilling the given predicate on the executor, where every task tests
+     * {@link #OPENING_CHUNK_SIZE} entries. The search stops as soon as a matching entry is found.
+     */
+    private Optional<RegistrationEntry> findInParallel(Predicate<RegistrationEntry> predicate) {
+        List<RegistrationEntry> entries = registry.stream().collect(Collectors.toList());
+        AtomicReference<RegistrationEntry> match = new AtomicReference<>();
+        int chunks = (entries.size() + OPENING_CHUNK_SIZE - 1) / OPENING_CHUNK_SIZE;
+        ParallelExecution.allMatch(executor, 0, chunks, chunk -> {
+            int end = Math.min(entries.size(), (chunk + 1) * OPENING_CHUNK_SIZE);
+            for (int i = chunk * OPENING_CHUNK_SIZE; i < end && match.get() == null; i++) {
+                if (predicate.test(entries.get(i))) {
+                    match.compareAndSet(null, entries.get(i));
+                    return false;
+                }
+            }
+            return match.get() == null;
+        });
+        return Optional.ofNullable(match.get());
+    }
+
     public SystemManagerPublicIdentity getPublicIdentity() {
         return clarcSystemManagerKeyPair.getPublicIdentity();
     }
@@ -129,10 +194,125 @@ public class SystemManager implements de.upb.crypto.clarc.acs.systemmanager.Syst
         return new JoinResponse(signature);
     }
 
+    /**
+     * Sets the executor which is used to process the requests of a bulk join in parallel, see {@link #joinBatch}, and
+     * to search the registry for the user of a proof in {@link #retrievePublicKey}.
+     *
+     * @param executor the executor to use, or null to process the requests sequentially in the calling thread
+     *                 (default)
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Verifies a batch of join requests and registers the users, e.g. for migrations or mass enrollment.
+     * <p>
+     * In contrast to {@link #nonInteractiveJoinVerification}, the registration information tau is checked as well, like
+     * by {@link InteractiveJoinVerifyProcess}. The proofs and the tau equations of all requests are checked at once
+     * using random linear combinations, see {@link JoinEquations}. If that check fails, the requests are split in
+     * halves which are checked recursively to find the invalid ones. All new users are then registered with a single
+     * call to {@link RegistrationStore#putAllIfAbsent}. Users which already joined receive their stored signature.
+     * </p>
+     * <p>
+     * If an executor is set, the requests are restored and the signatures are computed in parallel.
+     * </p>
+     *
+     * @param requests the requests to verify
+     * @return the responses in the same order as the given requests, where the response is null if the respective
+     * request is invalid
+     */
+    public List<JoinResponse> joinBatch(
+            List<? extends de.upb.crypto.clarc.acs.user.NonInteractiveJoinRequest> requests) {
+        final PSExtendedVerificationKey opk = clarcSystemManagerKeyPair.getPublicIdentity().getOpk();
+        JoinEquations[] equations = new JoinEquations[requests.size()];
+        ParallelExecution.forEachIndex(executor, 0, requests.size(), i -> equations[i] =
+                JoinEquations.of(pp, opk, (NonInteractiveJoinRequest) requests.get(i)));
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < equations.length; i++) {
+            if (equations[i] != null) {
+                candidates.add(i);
+            }
+        }
+        boolean[] verified = new boolean[requests.size()];
+        verifyJoinEquations(opk, equations, candidates, verified);
+
+        PSExtendedSignatureScheme signatureScheme = PublicParametersFactory.getSignatureScheme(pp);
+        PSSignature[] signatures = new PSSignature[requests.size()];
+        RegistrationEntry[] newEntries = new RegistrationEntry[requests.size()];
+        ParallelExecution.forEachIndex(executor, 0, requests.size(), i -> {
+            if (!verified[i]) {
+                return;
+            }
+            RegistrationEntry existingEntry = registry.get(equations[i].getUserPublicKey());
+            if (existingEntry != null) {
+                signatures[i] = signatureScheme.getSignature(existingEntry.getSignature());
+            } else {
+                signatures[i] = CreateSignatureHelper.createSignature(equations[i].getUpk(), pp,
+                        clarcSystemManagerKeyPair);
+                newEntries[i] = new RegistrationEntry(equations[i].getUserPublicKey(), signatures[i],
+                        equations[i].getTau());
+            }
+        });
+
+        List<Integer> newEntryIndices = new ArrayList<>();
+        List<RegistrationEntry> entriesToStore = new ArrayList<>();
+        for (int i = 0; i < newEntries.length; i++) {
+            if (newEntries[i] != null) {
+                newEntryIndices.add(i);
+                entriesToStore.add(newEntries[i]);
+            }
+        }
+        List<RegistrationEntry> existingEntries = registry.putAllIfAbsent(entriesToStore);
+        for (int j = 0; j < newEntryIndices.size(); j++) {
+            if (existingEntries.get(j) != null) {
+                // The same user has been registered concurrently or earlier in this batch
+                signatures[newEntryIndices.get(j)] =
+                        signatureScheme.getSignature(existingEntries.get(j).getSignature());
+            }
+        }
+
+        List<JoinResponse> responses = new ArrayList<>(requests.size());
+        for (PSSignature signature : signatures) {
+            responses.add(signature == null ? null : new JoinResponse(signature));
+        }
+        return responses;
+    }
+
+    /**
+     * Checks the equations of the given candidates at once and marks them as verified on success. Otherwise the
+     * candidates are split in halves which are checked recursively.
+     *
+     * @param opk        the verification key of the system manager
+     * @param equations  the equations of all requests
+     * @param candidates indices of the requests to check
+     * @param verified   result array, the entries of successfully checked candidates are set to true
+     */
+    private void verifyJoinEquations(PSExtendedVerificationKey opk, JoinEquations[] equations,
+                                     List<Integer> candidates, boolean[] verified) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        List<JoinEquations> batch = candidates.stream().map(i -> equations[i]).collect(Collectors.toList());
+        if (JoinEquations.verify(pp.getBilinearMap(), opk, batch)) {
+            candidates.forEach(i -> verified[i] = true);
+        } else if (candidates.size() > 1) {
+            int middle = candidates.size() / 2;
+            verifyJoinEquations(opk, equations, candidates.subList(0, middle), verified);
+            verifyJoinEquations(opk, equations, candidates.subList(middle, candidates.size()), verified);
+        }
+    }
+
     @Override
     public Representation getRepresentation() {
         ObjectRepresentation object = AnnotatedRepresentationUtil.putAnnotatedRepresentation(this);
         object.put("clarcSystemManagerKeyPair", clarcSystemManagerKeyPair.getRepresentation());
+        // Other stores persist their entries on their own
+        if (registry instanceof InMemoryRegistrationStore) {
+            ListRepresentation registryRepresentation = new ListRepresentation();
+            registry.stream().forEach(entry -> registryRepresentation.put(new RepresentableRepresentation(entry)));
+            object.put("registry", registryRepresentation);
+        }
         return object;
     }
 
@@ -2,6 +2,8 @@ package de.upb.crypto.clarc.acs.systemmanager.impl.clarc;
 
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.VerificationKeyCache;
+import de.upb.crypto.clarc.exponentiation.FixedBaseExponentiation;
 import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
 import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
 import de.upb.crypto.math.interfaces.structures.GroupElement;
@@ -24,7 +26,7 @@ public class SystemManagerPublicIdentity implements de.upb.crypto.clarc.acs.syst
 
     public SystemManagerPublicIdentity(Representation representation, PublicParameters pp) {
         final PSExtendedSignatureScheme signatureScheme = PublicParametersFactory.getSignatureScheme(pp);
-        opk = signatureScheme.getVerificationKey(representation.obj().get("opk"));
+        opk = VerificationKeyCache.getVerificationKey(signatureScheme, representation.obj().get("opk"));
         linkabilityBasis = pp.getBilinearMap().getG2().getElement(representation.obj().get("linkabilityBasis"));
     }
 
@@ -36,6 +38,13 @@ public class SystemManagerPublicIdentity implements de.upb.crypto.clarc.acs.syst
         return linkabilityBasis;
     }
 
+    /**
+     * @return the exponentiation b^x for the linkability basis b, used to create reviews
+     */
+    public FixedBaseExponentiation getLinkabilityBasisExponentiation() {
+        return FixedBaseExponentiation.of(linkabilityBasis);
+    }
+
     @Override
     public Representation getRepresentation() {
         return AnnotatedRepresentationUtil.putAnnotatedRepresentation(this);
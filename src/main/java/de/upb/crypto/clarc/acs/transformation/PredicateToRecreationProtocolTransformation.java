@@ -78,6 +78,11 @@ public class PredicateToRecreationProtocolTransformation {
             throw new IllegalArgumentException("The given public parameters for the protocol do not match");
         }
         ArbitraryRangeProofPublicParameters pp = (ArbitraryRangeProofPublicParameters) predicatePP;
+        if (pp.getCommitment() == null) {
+            // The commitment is only known during the verification, recreating the inner protocols only requires
+            // the group, hence a placeholder is used instead of modifying the public parameters of the policy
+            pp = new ArbitraryRangeProofPublicParameters(pp, pp.getH().getStructure().getNeutralElement());
+        }
         ArbitraryRangeProofProtocolFactory factory = new ArbitraryRangeProofProtocolFactory(pp, "");
         // Ok, since the factory does "Handle" the issue of not existence for the value of w
         return factory.getVerifierProtocol();
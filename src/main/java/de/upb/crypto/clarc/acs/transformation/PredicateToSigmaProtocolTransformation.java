@@ -23,6 +23,11 @@ import de.upb.crypto.math.interfaces.structures.GroupElement;
  * This class provides static helper methods to uses the information available in a
  * {@link PredicatePolicyFact} to build a corresponding {@link SigmaProtocol} instance for the contained
  * {@link PredicateTypePrimitive} and {@link PredicatePublicParameters}.
+ * <p>
+ * The {@link PredicatePublicParameters} contained in the policy are not modified. Instead, the protocols are created
+ * for copies containing the commitments on the attributes, hence a policy can be used by concurrent proofs and
+ * verifications.
+ * </p>
  */
 public class PredicateToSigmaProtocolTransformation {
     public static SigmaProtocol transform(PredicatePolicyFact childPolicy, Witness pcpWitness,
@@ -56,9 +61,9 @@ public class PredicateToSigmaProtocolTransformation {
         if (!(predicatePP instanceof EqualityPublicParameters)) {
             throw new IllegalArgumentException("The given public parameters for the protocol does not match");
         }
-        EqualityPublicParameters pp = (EqualityPublicParameters) predicatePP;
-        pp.setCommitment(subPolPP.getCommitmentsOnAttributes().get(pp.getPositionOfFirstCommitment())
-                .getCommitmentElement());
+        EqualityPublicParameters predicateParameters = (EqualityPublicParameters) predicatePP;
+        EqualityPublicParameters pp = predicateParameters.withCommitment(subPolPP.getCommitmentsOnAttributes()
+                .get(predicateParameters.getPositionOfFirstCommitment()).getCommitmentElement());
         EqualityProtocolFactory factory = new EqualityProtocolFactory(pp, Integer.toString(position));
         if (witness instanceof EmptyWitness) {
             return factory.getVerifierProtocol();
@@ -79,16 +84,16 @@ public class PredicateToSigmaProtocolTransformation {
         if (!(predicatePP instanceof EqualityPublicParameters)) {
             throw new IllegalArgumentException("The given public parameters for the protocol does not match");
         }
-        EqualityPublicParameters pp = (EqualityPublicParameters) predicatePP;
-        if (pp.getPositionOfSecondCommitment() == -1) {
+        EqualityPublicParameters predicateParameters = (EqualityPublicParameters) predicatePP;
+        if (predicateParameters.getPositionOfSecondCommitment() == -1) {
             throw new IllegalArgumentException("The given public parameter are not compatible with this proof type ");
         }
         //Compute com = C1-C2
-        GroupElement com = subPolPP.getCommitmentsOnAttributes().get(pp.getPositionOfFirstCommitment())
+        GroupElement com = subPolPP.getCommitmentsOnAttributes().get(predicateParameters.getPositionOfFirstCommitment())
                 .getCommitmentElement()
-                .op(subPolPP.getCommitmentsOnAttributes().get(pp.getPositionOfSecondCommitment())
+                .op(subPolPP.getCommitmentsOnAttributes().get(predicateParameters.getPositionOfSecondCommitment())
                         .getCommitmentElement().inv());
-        pp.setCommitment(com);
+        EqualityPublicParameters pp = predicateParameters.withCommitment(com);
         EqualityProtocolFactory factory = new EqualityProtocolFactory(pp, Integer.toString(position));
         if (witness instanceof EmptyWitness) {
             return factory.getVerifierProtocol();
@@ -108,9 +113,10 @@ public class PredicateToSigmaProtocolTransformation {
         if (!(predicatePP instanceof InequalityPublicParameters)) {
             throw new IllegalArgumentException("The given public parameters for the protocol does not match");
         }
-        InequalityPublicParameters pp = (InequalityPublicParameters) predicatePP;
-        pp.setCommitment(subPolPP.getCommitmentsOnAttributes().get(pp.getPositionOfFirstCommitment())
-                .getCommitmentElement());
+        InequalityPublicParameters predicateParameters = (InequalityPublicParameters) predicatePP;
+        InequalityPublicParameters pp = new InequalityPublicParameters(predicateParameters,
+                subPolPP.getCommitmentsOnAttributes().get(predicateParameters.getPositionOfFirstCommitment())
+                        .getCommitmentElement());
         InequalityProtocolFactory factory = new InequalityProtocolFactory(pp, Integer.toString(position));
         if (witness instanceof EmptyWitness) {
             return factory.getVerifierProtocol();
@@ -131,16 +137,16 @@ public class PredicateToSigmaProtocolTransformation {
         if (!(predicatePP instanceof InequalityPublicParameters)) {
             throw new IllegalArgumentException("The given public parameters for the protocol does not match");
         }
-        InequalityPublicParameters pp = (InequalityPublicParameters) predicatePP;
-        if (pp.getPositionOfSecondCommitment() == -1) {
+        InequalityPublicParameters predicateParameters = (InequalityPublicParameters) predicatePP;
+        if (predicateParameters.getPositionOfSecondCommitment() == -1) {
             throw new IllegalArgumentException("The given public parameter are not compatible with this proof type ");
         }
         //Compute com = C1-C2
-        GroupElement com = subPolPP.getCommitmentsOnAttributes().get(pp.getPositionOfFirstCommitment())
+        GroupElement com = subPolPP.getCommitmentsOnAttributes().get(predicateParameters.getPositionOfFirstCommitment())
                 .getCommitmentElement()
-                .op(subPolPP.getCommitmentsOnAttributes().get(pp.getPositionOfSecondCommitment())
+                .op(subPolPP.getCommitmentsOnAttributes().get(predicateParameters.getPositionOfSecondCommitment())
                         .getCommitmentElement().inv());
-        pp.setCommitment(com);
+        InequalityPublicParameters pp = new InequalityPublicParameters(predicateParameters, com);
         InequalityProtocolFactory factory = new InequalityProtocolFactory(pp, Integer.toString(position));
         if (witness instanceof EmptyWitness) {
             return factory.getVerifierProtocol();
@@ -163,9 +169,10 @@ public class PredicateToSigmaProtocolTransformation {
         if (!(predicatePP instanceof SetMembershipPublicParameters)) {
             throw new IllegalArgumentException("The given public parameters for the protocol does not match");
         }
-        SetMembershipPublicParameters pp = (SetMembershipPublicParameters) predicatePP;
-        pp.setCommitment(subPolPP.getCommitmentsOnAttributes().get(pp.getPositionOfCommitment())
-                .getCommitmentElement());
+        SetMembershipPublicParameters predicateParameters = (SetMembershipPublicParameters) predicatePP;
+        SetMembershipPublicParameters pp = new SetMembershipPublicParameters(predicateParameters,
+                subPolPP.getCommitmentsOnAttributes().get(predicateParameters.getPositionOfCommitment())
+                        .getCommitmentElement());
         SetMembershipProtocolFactory factory = new SetMembershipProtocolFactory(pp, Integer.toString(position));
         if (witness instanceof EmptyWitness) {
             return factory.getVerifierProtocol();
@@ -186,9 +193,10 @@ public class PredicateToSigmaProtocolTransformation {
         if (!(predicatePP instanceof ArbitraryRangeProofPublicParameters)) {
             throw new IllegalArgumentException("The given public parameters for the protocol does not match");
         }
-        ArbitraryRangeProofPublicParameters pp = (ArbitraryRangeProofPublicParameters) predicatePP;
-        pp.setCommitment(subPolPP.getCommitmentsOnAttributes().get(pp.getPositionOfCommitment())
-                .getCommitmentElement());
+        ArbitraryRangeProofPublicParameters predicateParameters = (ArbitraryRangeProofPublicParameters) predicatePP;
+        ArbitraryRangeProofPublicParameters pp = new ArbitraryRangeProofPublicParameters(predicateParameters,
+                subPolPP.getCommitmentsOnAttributes().get(predicateParameters.getPositionOfCommitment())
+                        .getCommitmentElement());
         ArbitraryRangeProofProtocolFactory factory =
                 new ArbitraryRangeProofProtocolFactory(pp, Integer.toString(position));
         if (witness instanceof EmptyWitness) {
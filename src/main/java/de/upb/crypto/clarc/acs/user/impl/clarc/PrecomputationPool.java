@@ -0,0 +1,90 @@
+package de.upb.crypto.clarc.acs.user.impl.clarc;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of values which are independent of the message or policy they are used for, e.g. randomized signatures
+ * or commitments with fresh randomness. The values are computed offline, i.e. in advance by a background thread, such
+ * that the online phase only needs to take them from the pool.
+ * <p>
+ * Every value is handed out at most once. If the pool is empty, the value is computed in the calling thread instead.
+ * After a value was taken, the pool is refilled on the executor (if any). All methods are thread-safe.
+ * </p>
+ *
+ * @param <T> type of the precomputed values
+ */
+public class PrecomputationPool<T> {
+    private final Supplier<T> supplier;
+    private final BlockingQueue<T> values;
+    private final Executor executor;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    /**
+     * @param supplier computes a fresh value, must be thread-safe
+     * @param capacity maximum number of precomputed values
+     * @param executor executor to refill the pool on, or null to only fill it via {@link #fill()}
+     */
+    public PrecomputationPool(Supplier<T> supplier, int capacity, Executor executor) {
+        this.supplier = supplier;
+        this.values = new ArrayBlockingQueue<>(capacity);
+        this.executor = executor;
+    }
+
+    /**
+     * Takes a precomputed value from the pool, or computes one if the pool is empty.
+     *
+     * @return a value which has not been handed out before
+     */
+    public T take() {
+        T value = values.poll();
+        if (value == null) {
+            value = supplier.get();
+        }
+        refill();
+        return value;
+    }
+
+    /**
+     * Fills the pool up to its capacity in the calling thread.
+     */
+    public void fill() {
+        while (values.remainingCapacity() > 0) {
+            if (!values.offer(supplier.get())) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Fills the pool up to its capacity on the executor, unless the pool is full or is already being filled. Does
+     * nothing if the pool has no executor.
+     */
+    public void refill() {
+        if (executor == null || values.remainingCapacity() == 0 || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    fill();
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refilling.set(false);
+        }
+    }
+
+    /**
+     * @return the number of currently precomputed values
+     */
+    public int size() {
+        return values.size();
+    }
+}
@@ -10,6 +10,7 @@ import de.upb.crypto.clarc.acs.issuer.impl.clarc.credentials.IssuerPublicIdentit
 import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.RepresentableReviewToken;
 import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewToken;
 import de.upb.crypto.clarc.acs.issuer.reviewtokens.HashOfItem;
+import de.upb.crypto.clarc.acs.issuer.reviewtokens.Item;
 import de.upb.crypto.clarc.acs.issuer.reviewtokens.ReviewTokenIssuerPublicIdentity;
 import de.upb.crypto.clarc.acs.issuer.reviewtokens.impl.clarc.HashOfItemHelper;
 import de.upb.crypto.clarc.acs.policy.PolicyInformation;
@@ -17,16 +18,17 @@ import de.upb.crypto.clarc.acs.protocols.impl.clarc.JoinProtocolFactory;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.RateProtocolFactory;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.RequestCredentialProtocolFactory;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.mastercred.MasterCredentialProverProtocolFactory;
-import de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred.ProtocolFactory;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred.ProtocolParameters;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred.ProverIncludingMasterProtocolFactory;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred.ProverProtocolFactory;
 import de.upb.crypto.clarc.acs.pseudonym.impl.clarc.Identity;
 import de.upb.crypto.clarc.acs.pseudonym.impl.clarc.IdentityFactory;
 import de.upb.crypto.clarc.acs.pseudonym.impl.clarc.Pseudonym;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSCredentialPrecomputation;
 import de.upb.crypto.clarc.acs.review.impl.clarc.Review;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.VerificationKeyCache;
 import de.upb.crypto.clarc.acs.systemmanager.JoinResponse;
 import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.SystemManagerPublicIdentity;
 import de.upb.crypto.clarc.acs.user.InteractiveJoinProcess;
@@ -36,13 +38,16 @@ import de.upb.crypto.clarc.acs.user.impl.clarc.credentials.CredentialNonInteract
 import de.upb.crypto.clarc.acs.user.impl.clarc.credentials.CredentialReceiver;
 import de.upb.crypto.clarc.acs.user.impl.clarc.credentials.InteractiveRequestCredentialProcess;
 import de.upb.crypto.clarc.acs.user.impl.clarc.credentials.NonInteractiveCredentialRequest;
+import de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken.InMemoryReviewTokenStore;
 import de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken.InteractiveRequestReviewTokenProcess;
 import de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken.NonInteractiveReviewTokenReceiver;
 import de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken.NonInteractiveReviewTokenRequest;
 import de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken.ReviewTokenNonInteractiveResponseHandler;
+import de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken.ReviewTokenStore;
 import de.upb.crypto.clarc.acs.user.reviewtokens.ReviewTokeIssueanceState;
 import de.upb.crypto.clarc.acs.verifier.credentials.RepresentableSignature;
 import de.upb.crypto.clarc.acs.verifier.impl.clarc.credentials.VerifierPublicIdentity;
+import de.upb.crypto.clarc.exponentiation.FixedBasePedersenCommitment;
 import de.upb.crypto.clarc.protocols.arguments.InteractiveThreeWayAoK;
 import de.upb.crypto.clarc.protocols.arguments.SigmaProtocol;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.FiatShamirHeuristic;
@@ -53,15 +58,14 @@ import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirSigningK
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocol;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocolProvider;
 import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentPair;
-import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
 import de.upb.crypto.craco.commitment.pedersen.PedersenPublicParameters;
-import de.upb.crypto.craco.common.RingElementPlainText;
 import de.upb.crypto.craco.enc.sym.streaming.aes.ByteArrayImplementation;
 import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
 import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
 import de.upb.crypto.craco.sig.ps.PSSignature;
 import de.upb.crypto.math.hash.impl.SHA256HashFunction;
 import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.serialization.ListRepresentation;
 import de.upb.crypto.math.serialization.MapRepresentation;
 import de.upb.crypto.math.serialization.ObjectRepresentation;
 import de.upb.crypto.math.serialization.RepresentableRepresentation;
@@ -72,8 +76,10 @@ import de.upb.crypto.math.serialization.annotations.RepresentedList;
 import de.upb.crypto.math.structures.zn.Zp;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static de.upb.crypto.clarc.acs.protocols.impl.clarc.ComputeRatingPublicKeyAndItemHashHelper.getHashedRatingPublicKeyAndItem;
 import static de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory.getSignatureScheme;
@@ -97,6 +103,26 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
         }
     }
 
+    /**
+     * The message-independent values of a review for a single review token, see {@link #createReview}.
+     */
+    private static class ReviewBlinding {
+        private final ReviewToken blindedToken;
+        private final Zp.ZpElement r;
+        private final Zp.ZpElement zeta;
+        private final GroupElement L1;
+        private final GroupElement L2;
+
+        private ReviewBlinding(ReviewToken blindedToken, Zp.ZpElement r, Zp.ZpElement zeta, GroupElement L1,
+                               GroupElement L2) {
+            this.blindedToken = blindedToken;
+            this.r = r;
+            this.zeta = zeta;
+            this.L1 = L1;
+            this.L2 = L2;
+        }
+    }
+
 
     @Represented
     private PublicParameters pp;
@@ -105,13 +131,21 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
 
 
     private Map<Representation, PSCredential> credentials = new HashMap<>();
-    @RepresentedList(elementRestorer = @Represented)
-    private List<RepresentableReviewToken> reviewTokens = new ArrayList<>();
+    private ReviewTokenStore reviewTokens;
     @RepresentedList(elementRestorer = @Represented)
     private List<Identity> identities = new ArrayList<>();
 
     private PSSignature registrationSignature;
     private SystemManagerPublicIdentity systemManagerPublicIdentity;
+    private Executor provingExecutor;
+
+    private volatile int precomputationPoolSize;
+    private volatile Executor precomputationExecutor;
+    private PrecomputationPool<PSSignature> blindedRegistrationSignatures;
+    private PrecomputationPool<Identity> precomputedIdentities;
+    private final Map<ReviewToken, PrecomputationPool<ReviewBlinding>> reviewBlindings = new ConcurrentHashMap<>();
+    private final Map<Representation, PSCredentialPrecomputation> credentialPrecomputations =
+            new ConcurrentHashMap<>();
 
     /**
      * Constructs a new user for a credential system with the given parameters
@@ -119,12 +153,42 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
      * @param pp The public parameters of the credential system
      */
     public User(PublicParameters pp) {
+        this(pp, new InMemoryReviewTokenStore());
+    }
+
+    /**
+     * Constructs a new user for a credential system with the given parameters, keeping the review tokens in the given
+     * store.
+     *
+     * @param pp           The public parameters of the credential system
+     * @param reviewTokens the store for the review tokens of the user
+     */
+    public User(PublicParameters pp, ReviewTokenStore reviewTokens) {
         this.pp = pp;
+        this.reviewTokens = reviewTokens;
     }
 
 
     public User(Representation representation) {
+        this(representation, new InMemoryReviewTokenStore());
+    }
+
+    /**
+     * Restores a user from its representation, keeping the review tokens in the given store. Review tokens contained
+     * in the representation, i.e. the ones of an {@link InMemoryReviewTokenStore}, are added to the given store.
+     *
+     * @param representation the representation of the user
+     * @param reviewTokens   the store for the review tokens of the user
+     */
+    public User(Representation representation, ReviewTokenStore reviewTokens) {
         AnnotatedRepresentationUtil.restoreAnnotatedRepresentation(representation, this);
+        this.reviewTokens = reviewTokens;
+        final Representation reviewTokensRepresentation = representation.obj().get("reviewTokens");
+        if (reviewTokensRepresentation != null) {
+            for (Representation token : reviewTokensRepresentation.list()) {
+                reviewTokens.add(((RepresentableReviewToken) token.repr().recreateRepresentable()).getReviewToken(pp));
+            }
+        }
         final PSExtendedSignatureScheme signatureScheme = getSignatureScheme(pp);
         final Representation registrationSignature = representation.obj().get("registrationSignature");
         this.registrationSignature =
@@ -144,10 +208,94 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
                         ));
     }
 
-    private void createKeys(SystemManagerPublicIdentity systemManagerPublicIdentity) {
+    /**
+     * Sets the executor which is used to create the proofs for policies covering several issuers in parallel, i.e. by
+     * {@link #createNonInteractivePolicyProof} and the {@link InteractiveProvingProcess}. The proofs are the same as
+     * without an executor.
+     *
+     * @param provingExecutor the executor to use, or null to create proofs sequentially in the calling thread (default)
+     */
+    public void setProvingExecutor(Executor provingExecutor) {
+        this.provingExecutor = provingExecutor;
+    }
+
+    /**
+     * Enables the offline precomputation of the values which are independent of the message or policy, i.e. the
+     * blinded registration signatures used by every proof and review, the identities returned by
+     * {@link #createIdentity()} and the blinded review tokens, pseudonyms (L1, L2) and their randomness used by
+     * {@link #createReview}. Afterwards, only the challenge-dependent part of the proofs is computed online.
+     * <p>
+     * Up to {@code poolSize} values of every kind are precomputed on the given executor, which refills the pools
+     * whenever values have been used. Without an executor, the pools can still be filled explicitly via
+     * {@link #precompute()}, e.g. while the device is idle. If a pool runs empty, values are computed online as before.
+     * </p>
+     *
+     * @param poolSize maximum number of precomputed values of every kind, 0 disables the precomputation (default)
+     * @param executor the executor to precompute values on in the background, or null
+     */
+    public synchronized void enablePrecomputation(int poolSize, Executor executor) {
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("The pool size must not be negative");
+        }
+        this.precomputationPoolSize = poolSize;
+        this.precomputationExecutor = executor;
+        this.blindedRegistrationSignatures = null;
+        this.precomputedIdentities = null;
+        this.reviewBlindings.clear();
+        forEachPrecomputationPool(PrecomputationPool::refill);
+    }
+
+    /**
+     * Fills all precomputation pools in the calling thread, see {@link #enablePrecomputation(int, Executor)}.
+     */
+    public void precompute() {
+        forEachPrecomputationPool(PrecomputationPool::fill);
+    }
+
+    private void forEachPrecomputationPool(Consumer<PrecomputationPool<?>> action) {
+        if (precomputationPoolSize == 0) {
+            return;
+        }
+        if (registrationSignature != null) {
+            action.accept(getBlindedRegistrationSignaturePool());
+        }
+        if (clarcUserKeyPair != null) {
+            action.accept(getIdentityPool());
+            if (systemManagerPublicIdentity != null) {
+                reviewTokens.stream().forEach(token -> action.accept(getReviewBlindingPool(token)));
+            }
+        }
+    }
+
+    private synchronized PrecomputationPool<PSSignature> getBlindedRegistrationSignaturePool() {
+        if (blindedRegistrationSignatures == null) {
+            blindedRegistrationSignatures = new PrecomputationPool<>(this::computeBlindedRegistrationSignature,
+                    precomputationPoolSize, precomputationExecutor);
+        }
+        return blindedRegistrationSignatures;
+    }
+
+    private synchronized PrecomputationPool<Identity> getIdentityPool() {
+        if (precomputedIdentities == null) {
+            final UserSecret usk = clarcUserKeyPair.getUserSecret();
+            precomputedIdentities = new PrecomputationPool<>(() -> new IdentityFactory().create(pp, usk),
+                    precomputationPoolSize, precomputationExecutor);
+        }
+        return precomputedIdentities;
+    }
+
+    private PrecomputationPool<ReviewBlinding> getReviewBlindingPool(ReviewToken token) {
+        return reviewBlindings.computeIfAbsent(token, t -> new PrecomputationPool<>(() -> computeReviewBlinding(t),
+                precomputationPoolSize, precomputationExecutor));
+    }
+
+    private synchronized void createKeys(SystemManagerPublicIdentity systemManagerPublicIdentity) {
         this.systemManagerPublicIdentity = systemManagerPublicIdentity;
         final UserKeyPairFactory uskFactory = new UserKeyPairFactory();
         clarcUserKeyPair = uskFactory.create(pp, systemManagerPublicIdentity);
+        // The precomputed identities and review blindings belong to the previous user secret
+        this.precomputedIdentities = null;
+        this.reviewBlindings.clear();
     }
 
     protected void checkForKeys() {
@@ -161,28 +309,34 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
                                                     PSSignature blindedRegistrationSignature) {
         checkForKeys();
         final PSCredential[] credentialArray = new PSCredential[policyInformation.getUsedAttributeSpaces().size()];
+        final PSCredentialPrecomputation[] precomputations = new PSCredentialPrecomputation[credentialArray.length];
         for (int i = 0; i < credentialArray.length; i++) {
             AttributeSpace space = policyInformation.getUsedAttributeSpaces().get(i);
             credentialArray[i] = this.credentials.get(space.getIssuerPublicKey());
+            precomputations[i] = getCredentialPrecomputation(credentialArray[i]);
         }
 
         final Pseudonym clarcPseudonym = clarcIdentity.getPseudonym();
         final ProtocolParameters parameters = new ProtocolParameters(clarcPseudonym);
         InteractiveThreeWayAoK protocol;
         if (policyInformation.isMasterCredentialRequired()) {
-            final ProtocolFactory protocolFactory =
+            final ProverIncludingMasterProtocolFactory protocolFactory =
                     new ProverIncludingMasterProtocolFactory(parameters, pp, policyInformation.getUsedAttributeSpaces(),
                             credentialArray, clarcUserKeyPair.getUserSecret(),
                             clarcIdentity.getPseudonymSecret(), policyInformation.getPolicy(),
                             policyInformation.getRequiredDisclosures(),
                             systemManagerPublicIdentity.getOpk(), blindedRegistrationSignature);
+            protocolFactory.setExecutor(provingExecutor);
+            protocolFactory.setCredentialPrecomputations(precomputations);
             protocol = protocolFactory.getProtocol();
         } else {
-            final ProtocolFactory protocolFactory =
+            final ProverProtocolFactory protocolFactory =
                     new ProverProtocolFactory(parameters, pp, policyInformation.getUsedAttributeSpaces(),
                             credentialArray, clarcUserKeyPair.getUserSecret(),
                             clarcIdentity.getPseudonymSecret(), policyInformation.getPolicy(),
                             policyInformation.getRequiredDisclosures());
+            protocolFactory.setExecutor(provingExecutor);
+            protocolFactory.setCredentialPrecomputations(precomputations);
             protocol = protocolFactory.getProtocol();
         }
 
@@ -193,6 +347,26 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
         return new ProtocolInformation(parameters, protocol);
     }
 
+    /**
+     * Returns the values of the given credential which are needed for every proof, see
+     * {@link PSCredentialPrecomputation}. They are computed on the first proof using the credential and kept until the
+     * credential of the issuer is replaced.
+     *
+     * @param credential the credential to prove the possession of, or null
+     * @return the precomputed values, or null if the credential is null
+     */
+    private PSCredentialPrecomputation getCredentialPrecomputation(PSCredential credential) {
+        if (credential == null) {
+            return null;
+        }
+        return credentialPrecomputations.compute(credential.getIssuerPublicKeyRepresentation(),
+                (issuerPublicKey, precomputation) ->
+                        precomputation != null && precomputation.getCredential().equals(credential)
+                                ? precomputation
+                                : new PSCredentialPrecomputation(credential, getSignatureScheme(pp),
+                                pp.getHashIntoZp(), pp.getBilinearMap()));
+    }
+
     @Override
     public InteractiveProvingProcess initInteractiveProvingProcess(de.upb.crypto.clarc.acs.pseudonym.Identity identity,
                                                                    PolicyInformation information) {
@@ -228,8 +402,13 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
     @Override
     public Identity createIdentity() {
         checkForKeys();
-        IdentityFactory clarcPseudonymFactory = new IdentityFactory();
-        final Identity newIdentity = clarcPseudonymFactory.create(pp, clarcUserKeyPair.getUserSecret());
+        final Identity newIdentity;
+        if (precomputationPoolSize > 0) {
+            newIdentity = getIdentityPool().take();
+        } else {
+            IdentityFactory clarcPseudonymFactory = new IdentityFactory();
+            newIdentity = clarcPseudonymFactory.create(pp, clarcUserKeyPair.getUserSecret());
+        }
         identities.add(newIdentity);
         return newIdentity;
     }
@@ -248,12 +427,13 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
                 (IssuerPublicIdentity) issuerPublicIdentity;
         PSExtendedSignatureScheme signatureScheme = PublicParametersFactory.getSignatureScheme(pp);
         final PSExtendedVerificationKey verificationKey =
-                signatureScheme.getVerificationKey(clarcReviewTokenIssuerPublicIdentity.getIssuerPublicKey());
+                VerificationKeyCache.getVerificationKey(signatureScheme,
+                        clarcReviewTokenIssuerPublicIdentity.getIssuerPublicKey());
         final PedersenPublicParameters pedersenPublicParameters =
                 IssuerKeyPairFactory.getPedersenPPForSingleValueFromIssuerPK(pp, verificationKey);
         UserSecret usk = clarcUserKeyPair.getUserSecret();
-        PedersenCommitmentScheme commitmentScheme = new PedersenCommitmentScheme(pedersenPublicParameters);
-        final PedersenCommitmentPair commitment = commitmentScheme.commit(new RingElementPlainText(usk.getUsk()));
+        final PedersenCommitmentPair commitment =
+                FixedBasePedersenCommitment.commit(pedersenPublicParameters, usk.getUsk());
 
         if (interactive) {
             return new IssuingContext(pp, pedersenPublicParameters, clarcReviewTokenIssuerPublicIdentity, usk,
@@ -277,7 +457,7 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
                                                  Attributes attributes) {
         PSExtendedSignatureScheme signatureScheme = PublicParametersFactory.getSignatureScheme(pp);
         final PSExtendedVerificationKey verificationKey =
-                signatureScheme.getVerificationKey(issuerPublicIdentity.getIssuerPublicKey());
+                VerificationKeyCache.getVerificationKey(signatureScheme, issuerPublicIdentity.getIssuerPublicKey());
         return new Attributes(
                 Arrays.stream(attributes.getAttributes(issuerPublicIdentity.getAttributeSpace()))
                         .map(a -> AttributeNameValuePair.getAttributeForIssuer(verificationKey, a))
@@ -391,9 +571,13 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
         if (!(requestReviewTokenProcess instanceof InteractiveRequestReviewTokenProcess)) {
             throw new IllegalArgumentException("Unsupported process type");
         }
-        RepresentableReviewToken token =
-                ((InteractiveRequestReviewTokenProcess) requestReviewTokenProcess).receive(issueResponse);
+        ReviewToken token =
+                ((InteractiveRequestReviewTokenProcess) requestReviewTokenProcess).receive(issueResponse)
+                        .getReviewToken(pp);
         this.reviewTokens.add(token);
+        if (precomputationPoolSize > 0) {
+            getReviewBlindingPool(token).refill();
+        }
     }
 
     @Override
@@ -405,10 +589,13 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
         if (!(request instanceof ReviewTokenNonInteractiveResponseHandler)) {
             throw new IllegalArgumentException("Unsupported process type");
         }
-        RepresentableReviewToken token =
-                ((ReviewTokenNonInteractiveResponseHandler) request).getReceiver().receive(issueResponse);
+        ReviewToken token =
+                ((ReviewTokenNonInteractiveResponseHandler) request).getReceiver().receive(issueResponse)
+                        .getReviewToken(pp);
         this.reviewTokens.add(token);
-
+        if (precomputationPoolSize > 0) {
+            getReviewBlindingPool(token).refill();
+        }
     }
 
     public SigmaProtocol createMasterCredProverProtocol() {
@@ -469,17 +656,19 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
         final Representation registrationSignature = joinResponse.getRegistrationSignature();
         final PSExtendedSignatureScheme signatureScheme = getSignatureScheme(pp);
         this.registrationSignature = signatureScheme.getSignature(registrationSignature);
+        forEachPrecomputationPool(PrecomputationPool::refill);
     }
 
     @Override
     public Review createReview(byte[] message,
                                ReviewTokenIssuerPublicIdentity reviewTokenIssuerPublicIdentity,
                                byte[] reviewSubject) {
-        final ReviewToken token =
-                Stream.of(getReviewTokens(reviewTokenIssuerPublicIdentity, reviewSubject))
-                        .findFirst()
-                        .orElseThrow(() -> new IllegalStateException("unable to find matching review token"));
-        return createReview(message, token);
+        final List<ReviewToken> tokens = reviewTokens.get(reviewTokenIssuerPublicIdentity.getIssuerPublicKey(),
+                new Item(new ByteArrayImplementation(reviewSubject)));
+        if (tokens.isEmpty()) {
+            throw new IllegalStateException("unable to find matching review token");
+        }
+        return createReview(message, tokens.get(0));
     }
 
     @Override
@@ -489,34 +678,21 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
         }
         ReviewToken clarcToken = (ReviewToken) token;
 
-        Zp.ZpElement zeta = pp.getZp().getUniformlyRandomElement();
-
-        // Blinding the registration signature
-        Zp.ZpElement s = pp.getZp().getUniformlyRandomUnit();
         PSSignature blindedRegistrationSignature = getBlindedRegistrationSignature();
-
-        // Blinding the token signature
-        Zp.ZpElement u = pp.getZp().getUniformlyRandomUnit();
-        Zp.ZpElement r = pp.getZp().getUniformlyRandomElement();
-        GroupElement tokenSigma1 = clarcToken.getSignature().getGroup1ElementSigma1();
-        GroupElement tokenSigma2 = clarcToken.getSignature().getGroup1ElementSigma2();
-        PSSignature blindedTokenSignature =
-                new PSSignature(tokenSigma1.pow(u), tokenSigma2.op(tokenSigma1.pow(r)).pow(u));
-        ReviewToken blindedToken =
-                new ReviewToken(blindedTokenSignature, clarcToken.getItem(), clarcToken
-                        .getRatingIssuerPublicKey());
+        final ReviewBlinding blinding = precomputationPoolSize > 0
+                ? getReviewBlindingPool(clarcToken).take()
+                : computeReviewBlinding(clarcToken);
+        final ReviewToken blindedToken = blinding.blindedToken;
+        final PSSignature blindedTokenSignature = blindedToken.getSignature();
+        final GroupElement L1 = blinding.L1;
+        final GroupElement L2 = blinding.L2;
         final PSExtendedVerificationKey systemManagerPublicKey = systemManagerPublicIdentity.getOpk();
         final GroupElement linkabilityBasis = systemManagerPublicIdentity.getLinkabilityBasis();
 
-        // Prepare hash values and review values
-        GroupElement hash = getHashedRatingPublicKeyAndItem(blindedToken, pp);
-        GroupElement L1 = hash.pow(zeta).op(hash.pow(clarcUserKeyPair.getUserSecret().getUsk()));
-        GroupElement L2 = linkabilityBasis.pow(zeta);
-
         // Use factory for FiatShamirSignatureScheme
         RateProtocolFactory factory = new RateProtocolFactory(pp, blindedRegistrationSignature,
                 systemManagerPublicKey, linkabilityBasis, blindedToken, L1, L2,
-                clarcUserKeyPair.getUserSecret(), zeta, r);
+                clarcUserKeyPair.getUserSecret(), blinding.zeta, blinding.r);
         GeneralizedSchnorrProtocolProvider protocolProvider = new GeneralizedSchnorrProtocolProvider(pp.getZp());
         FiatShamirSignatureScheme signatureScheme =
                 new FiatShamirSignatureScheme(protocolProvider, new SHA256HashFunction());
@@ -553,11 +729,45 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
      * @return the blinded master credential
      */
     private PSSignature getBlindedRegistrationSignature() {
+        if (precomputationPoolSize > 0) {
+            return getBlindedRegistrationSignaturePool().take();
+        }
+        return computeBlindedRegistrationSignature();
+    }
+
+    private PSSignature computeBlindedRegistrationSignature() {
         Zp.ZpElement s = pp.getZp().getUniformlyRandomUnit();
         return new PSSignature(registrationSignature.getGroup1ElementSigma1().pow(s),
                 registrationSignature.getGroup1ElementSigma2().pow(s));
     }
 
+    /**
+     * Blinds the given review token and computes the values of a review which only depend on the token, i.e. the
+     * pseudonym (L1, L2) of the user for the rated item.
+     *
+     * @param token the review token to blind
+     * @return the blinded token together with the randomness used
+     */
+    private ReviewBlinding computeReviewBlinding(ReviewToken token) {
+        Zp.ZpElement zeta = pp.getZp().getUniformlyRandomElement();
+
+        // Blinding the token signature
+        Zp.ZpElement u = pp.getZp().getUniformlyRandomUnit();
+        Zp.ZpElement r = pp.getZp().getUniformlyRandomElement();
+        GroupElement tokenSigma1 = token.getSignature().getGroup1ElementSigma1();
+        GroupElement tokenSigma2 = token.getSignature().getGroup1ElementSigma2();
+        PSSignature blindedTokenSignature =
+                new PSSignature(tokenSigma1.pow(u), tokenSigma2.op(tokenSigma1.pow(r)).pow(u));
+        ReviewToken blindedToken =
+                new ReviewToken(blindedTokenSignature, token.getItem(), token.getRatingIssuerPublicKey());
+
+        // Prepare hash values and review values
+        GroupElement hash = getHashedRatingPublicKeyAndItem(blindedToken, pp);
+        GroupElement L1 = hash.pow(zeta).op(hash.pow(clarcUserKeyPair.getUserSecret().getUsk()));
+        GroupElement L2 = systemManagerPublicIdentity.getLinkabilityBasisExponentiation().pow(zeta);
+        return new ReviewBlinding(blindedToken, r, zeta, L1, L2);
+    }
+
     @Override
     public List<Identity> getIdentities() {
         return identities;
@@ -570,15 +780,20 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
 
     public ReviewToken[] getReviewTokens(ReviewTokenIssuerPublicIdentity issuerIdentity,
                                          byte[] reviewSubject) {
-        PSExtendedSignatureScheme signatureScheme = getSignatureScheme(pp);
-        final PSExtendedVerificationKey verificationKey =
-                signatureScheme.getVerificationKey(issuerIdentity.getIssuerPublicKey());
-        return reviewTokens.stream()
-                .map(token -> token.getReviewToken(pp))
-                .filter(token -> token.getRatingIssuerPublicKey().equals(verificationKey))
-                .filter(token -> token.getItem().getData()
-                        .equals(new ByteArrayImplementation(reviewSubject)))
-                .toArray(ReviewToken[]::new);
+        final Item item = new Item(new ByteArrayImplementation(reviewSubject));
+        return reviewTokens.get(issuerIdentity.getIssuerPublicKey(), item).toArray(new ReviewToken[0]);
+    }
+
+    /**
+     * Removes the given review token from the user's tokens, e.g. after it has been used to publish a review. Values
+     * precomputed for the token are discarded as well.
+     *
+     * @param token the token to remove
+     * @return true if the token has been removed, false if the user did not own the token
+     */
+    public boolean removeReviewToken(ReviewToken token) {
+        reviewBlindings.remove(token);
+        return reviewTokens.remove(token);
     }
 
     @Override
@@ -595,6 +810,13 @@ public class User implements de.upb.crypto.clarc.acs.user.User<PSCredential, Rep
                     new RepresentableRepresentation(credentialEntry.getValue()));
         }
         object.put("credentials", credentialMap);
+
+        if (reviewTokens instanceof InMemoryReviewTokenStore) {
+            ListRepresentation reviewTokenList = new ListRepresentation();
+            reviewTokens.stream().forEach(token ->
+                    reviewTokenList.put(new RepresentableRepresentation(new RepresentableReviewToken(token))));
+            object.put("reviewTokens", reviewTokenList);
+        }
         return object;
     }
 
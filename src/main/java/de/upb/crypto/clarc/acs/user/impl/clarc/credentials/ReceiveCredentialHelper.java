@@ -6,6 +6,7 @@ import de.upb.crypto.clarc.acs.issuer.credentials.Attributes;
 import de.upb.crypto.clarc.acs.issuer.impl.clarc.credentials.CredentialIssuerPublicIdentity;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.VerificationKeyCache;
 import de.upb.crypto.clarc.acs.user.credentials.PSCredential;
 import de.upb.crypto.clarc.acs.user.impl.clarc.UserSecret;
 import de.upb.crypto.craco.commitment.pedersen.PedersenOpenValue;
@@ -40,7 +41,8 @@ public class ReceiveCredentialHelper {
 
         AttributeNameValuePair[] attributes = issuable.getAttributes(issuerPublicIdentity.getAttributeSpace());
 
-        VerificationKey issuerPK = signatureScheme.getVerificationKey(issuerPublicIdentity.getIssuerPublicKey());
+        VerificationKey issuerPK =
+                VerificationKeyCache.getVerificationKey(signatureScheme, issuerPublicIdentity.getIssuerPublicKey());
 
         final ArrayList<RingElementPlainText> plainText = new ArrayList<>();
         plainText.add(new RingElementPlainText(usk.getUsk()));
@@ -0,0 +1,148 @@
+package de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken;
+
+import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewToken;
+import de.upb.crypto.clarc.acs.issuer.reviewtokens.Item;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.user.impl.clarc.User;
+import de.upb.crypto.clarc.storage.AppendOnlyLog;
+import de.upb.crypto.math.serialization.Representation;
+import de.upb.crypto.math.serialization.converter.JSONConverter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * {@link ReviewTokenStore} which persists every change to an {@link AppendOnlyLog}, such that adding or removing a
+ * token only writes that token instead of the whole wallet.
+ * <p>
+ * The payload of each record of the log consists of the kind of the change (1 byte, {@link #ADD} or {@link #REMOVE})
+ * followed by the UTF-8 encoded JSON serialization of the {@link ReviewToken}. When the store is opened, the changes
+ * are replayed to rebuild the index. A record that was only partially written (e.g. due to a crash) is cut off, a
+ * record which can not be restored is skipped.
+ * </p>
+ * <p>
+ * Changes are written to the log before they are applied to the index, hence other threads only see tokens which
+ * have been persisted. Lookups do not block, while changes are written one after another.
+ * </p>
+ * <p>
+ * Tokens of this store are not part of the representation of the {@link User}, they survive restarts by opening the
+ * store on the same file again.
+ * </p>
+ */
+public class FileReviewTokenStore implements ReviewTokenStore, Closeable {
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+
+    private final ReviewTokenIndex index = new ReviewTokenIndex();
+    private final JSONConverter converter = new JSONConverter();
+    private final PublicParameters pp;
+    private final AppendOnlyLog log;
+
+    /**
+     * Opens the store backed by the given file, creating the file if it does not exist yet.
+     *
+     * @param file the log file of the store
+     * @param pp   the public parameters of the system, which are needed to restore the tokens
+     * @throws UncheckedIOException if the file can not be opened or read
+     */
+    public FileReviewTokenStore(Path file, PublicParameters pp) {
+        this.pp = pp;
+        try {
+            log = new AppendOnlyLog(file, this::replay);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open review token store " + file, e);
+        }
+    }
+
+    /**
+     * Applies the change stored in the given record to the index.
+     *
+     * @throws IllegalArgumentException if the record is malformed
+     */
+    private void replay(byte[] record) {
+        if (record.length == 0 || (record[0] != ADD && record[0] != REMOVE)) {
+            throw new IllegalArgumentException("Unknown kind of change");
+        }
+        String json = new String(Arrays.copyOfRange(record, 1, record.length), StandardCharsets.UTF_8);
+        ReviewToken token = new ReviewToken(converter.deserialize(json), pp);
+        if (record[0] == ADD) {
+            index.add(token);
+        } else {
+            index.remove(token);
+        }
+    }
+
+    @Override
+    public void add(ReviewToken token) {
+        byte[] record = serialize(ADD, token);
+        synchronized (log) {
+            append(record);
+            index.add(token);
+        }
+    }
+
+    @Override
+    public List<ReviewToken> get(Representation issuerPublicKey, Item item) {
+        return index.get(issuerPublicKey, item);
+    }
+
+    @Override
+    public boolean remove(ReviewToken token) {
+        if (!index.contains(token)) {
+            return false;
+        }
+        byte[] record = serialize(REMOVE, token);
+        synchronized (log) {
+            if (!index.contains(token)) {
+                return false;
+            }
+            append(record);
+            index.remove(token);
+        }
+        return true;
+    }
+
+    private byte[] serialize(byte kind, ReviewToken token) {
+        byte[] json = converter.serialize(token.getRepresentation()).getBytes(StandardCharsets.UTF_8);
+        byte[] record = new byte[1 + json.length];
+        record[0] = kind;
+        System.arraycopy(json, 0, record, 1, json.length);
+        return record;
+    }
+
+    private void append(byte[] record) {
+        try {
+            log.append(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to persist change of review tokens", e);
+        }
+    }
+
+    /**
+     * @return the number of records which have been skipped while opening the store since they could not be restored
+     */
+    public long getSkippedRecords() {
+        return log.getSkippedRecords();
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public Stream<ReviewToken> stream() {
+        return index.stream();
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+}
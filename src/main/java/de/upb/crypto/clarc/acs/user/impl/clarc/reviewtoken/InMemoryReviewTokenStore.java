@@ -0,0 +1,58 @@
+package de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken;
+
+import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewToken;
+import de.upb.crypto.clarc.acs.issuer.reviewtokens.Item;
+import de.upb.crypto.clarc.acs.user.impl.clarc.User;
+import de.upb.crypto.math.serialization.Representation;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * {@link ReviewTokenStore} keeping all tokens in memory.
+ * <p>
+ * This is the default store of the {@link User}. Its tokens are part of the representation of the {@link User}.
+ * </p>
+ */
+public class InMemoryReviewTokenStore implements ReviewTokenStore {
+    private final ReviewTokenIndex index = new ReviewTokenIndex();
+
+    @Override
+    public void add(ReviewToken token) {
+        index.add(token);
+    }
+
+    @Override
+    public List<ReviewToken> get(Representation issuerPublicKey, Item item) {
+        return index.get(issuerPublicKey, item);
+    }
+
+    @Override
+    public boolean remove(ReviewToken token) {
+        return index.remove(token);
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public Stream<ReviewToken> stream() {
+        return index.stream();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InMemoryReviewTokenStore that = (InMemoryReviewTokenStore) o;
+        return Objects.equals(index, that.index);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index);
+    }
+}
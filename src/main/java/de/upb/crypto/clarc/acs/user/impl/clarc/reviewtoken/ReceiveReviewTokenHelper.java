@@ -7,6 +7,7 @@ import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewToken;
 import de.upb.crypto.clarc.acs.issuer.reviewtokens.HashOfItem;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.VerificationKeyCache;
 import de.upb.crypto.clarc.acs.user.impl.clarc.UserSecret;
 import de.upb.crypto.craco.commitment.pedersen.PedersenOpenValue;
 import de.upb.crypto.craco.common.MessageBlock;
@@ -39,7 +40,8 @@ public class ReceiveReviewTokenHelper {
 
         Zp.ZpElement hash = issuable.getHash();
 
-        VerificationKey issuerPK = signatureScheme.getVerificationKey(issuerPublicIdentity.getIssuerPublicKey());
+        VerificationKey issuerPK =
+                VerificationKeyCache.getVerificationKey(signatureScheme, issuerPublicIdentity.getIssuerPublicKey());
 
         final ArrayList<RingElementPlainText> plainText = new ArrayList<>();
         plainText.add(new RingElementPlainText(usk.getUsk()));
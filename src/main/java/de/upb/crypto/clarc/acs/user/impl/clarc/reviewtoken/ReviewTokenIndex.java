@@ -0,0 +1,110 @@
+package de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken;
+
+import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewToken;
+import de.upb.crypto.clarc.acs.issuer.reviewtokens.Item;
+import de.upb.crypto.math.serialization.Representation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Index of review tokens by the representation of the issuer's public key and the item, which is shared by the
+ * {@link ReviewTokenStore} implementations.
+ * <p>
+ * The tokens of an issuer and item are kept in an immutable list which is replaced on every change, such that
+ * readers never observe a list which is being modified. All methods are thread-safe.
+ * </p>
+ */
+class ReviewTokenIndex {
+    private final Map<Key, List<ReviewToken>> tokens = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    void add(ReviewToken token) {
+        tokens.compute(Key.of(token), (key, list) -> {
+            List<ReviewToken> updated = list == null ? new ArrayList<>(1) : new ArrayList<>(list);
+            updated.add(token);
+            return Collections.unmodifiableList(updated);
+        });
+        size.incrementAndGet();
+    }
+
+    List<ReviewToken> get(Representation issuerPublicKey, Item item) {
+        return tokens.getOrDefault(new Key(issuerPublicKey, item), Collections.emptyList());
+    }
+
+    boolean contains(ReviewToken token) {
+        return tokens.getOrDefault(Key.of(token), Collections.emptyList()).contains(token);
+    }
+
+    boolean remove(ReviewToken token) {
+        AtomicBoolean removed = new AtomicBoolean();
+        tokens.computeIfPresent(Key.of(token), (key, list) -> {
+            List<ReviewToken> updated = new ArrayList<>(list);
+            removed.set(updated.remove(token));
+            return updated.isEmpty() ? null : Collections.unmodifiableList(updated);
+        });
+        if (removed.get()) {
+            size.decrementAndGet();
+        }
+        return removed.get();
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    Stream<ReviewToken> stream() {
+        return tokens.values().stream().flatMap(List::stream);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReviewTokenIndex that = (ReviewTokenIndex) o;
+        return Objects.equals(tokens, that.tokens);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tokens);
+    }
+
+    private static class Key {
+        private final Representation issuerPublicKey;
+        private final Item item;
+        private final int hashCode;
+
+        private Key(Representation issuerPublicKey, Item item) {
+            this.issuerPublicKey = issuerPublicKey;
+            this.item = item;
+            this.hashCode = Objects.hash(issuerPublicKey, item);
+        }
+
+        private static Key of(ReviewToken token) {
+            return new Key(token.getRatingIssuerPublicKey().getRepresentation(), token.getItem());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key that = (Key) o;
+            return hashCode == that.hashCode &&
+                    Objects.equals(item, that.item) &&
+                    Objects.equals(issuerPublicKey, that.issuerPublicKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
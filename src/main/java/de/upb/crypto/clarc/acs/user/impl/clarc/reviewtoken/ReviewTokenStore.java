@@ -0,0 +1,53 @@
+package de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken;
+
+import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewToken;
+import de.upb.crypto.clarc.acs.issuer.reviewtokens.Item;
+import de.upb.crypto.clarc.acs.user.impl.clarc.User;
+import de.upb.crypto.math.serialization.Representation;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Storage of the (deserialized) {@link ReviewToken}s of a {@link User}.
+ * <p>
+ * Tokens are indexed by the public key of their issuer and their item, such that looking up the tokens for an item,
+ * e.g. when creating a review, is possible in constant time. Implementations are expected to be safe for concurrent
+ * use.
+ * </p>
+ */
+public interface ReviewTokenStore {
+
+    /**
+     * Stores the given token.
+     *
+     * @param token the token to store
+     */
+    void add(ReviewToken token);
+
+    /**
+     * @param issuerPublicKey the representation of the verification key of the issuer of the tokens, see
+     *                        {@link de.upb.crypto.clarc.acs.issuer.IssuerPublicIdentity#getIssuerPublicKey()}
+     * @param item            the item of the tokens
+     * @return an unmodifiable list of the stored tokens for the given issuer and item, which is empty if there are none
+     */
+    List<ReviewToken> get(Representation issuerPublicKey, Item item);
+
+    /**
+     * Removes the given token, e.g. after it has been used for a review.
+     *
+     * @param token the token to remove
+     * @return true if the token has been removed, false if it was not stored
+     */
+    boolean remove(ReviewToken token);
+
+    /**
+     * @return the number of stored tokens
+     */
+    int size();
+
+    /**
+     * @return a stream of all stored tokens
+     */
+    Stream<ReviewToken> stream();
+}
@@ -6,6 +6,9 @@ import de.upb.crypto.clarc.acs.user.NonInteractivePolicyProof;
 import de.upb.crypto.clarc.protocols.parameters.Announcement;
 import de.upb.crypto.craco.interfaces.signature.Signature;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Interface for proving a simple execution of a verification process
  */
@@ -26,4 +29,22 @@ public interface CredentialVerifier {
 
 
     VerificationResult verifyNonInteractiveProof(NonInteractivePolicyProof proof, PolicyInformation policyInformation);
+
+    /**
+     * Verifies a number of proofs for the same policy at once. Implementations may check the proofs together, which
+     * is (much) more efficient than verifying each proof by itself. By default, every proof is verified via
+     * {@link #verifyNonInteractiveProof}.
+     *
+     * @param proofs            the proofs to verify
+     * @param policyInformation all information related to the policy to be fulfilled
+     * @return the results of the verification, in the same order as the given proofs
+     */
+    default List<VerificationResult> verifyBatch(List<? extends NonInteractivePolicyProof> proofs,
+                                                 PolicyInformation policyInformation) {
+        List<VerificationResult> results = new ArrayList<>(proofs.size());
+        for (NonInteractivePolicyProof proof : proofs) {
+            results.add(verifyNonInteractiveProof(proof, policyInformation));
+        }
+        return results;
+    }
 }
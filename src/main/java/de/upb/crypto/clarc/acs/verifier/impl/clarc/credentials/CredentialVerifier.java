@@ -1,12 +1,13 @@
 package de.upb.crypto.clarc.acs.verifier.impl.clarc.credentials;
 
 import de.upb.crypto.clarc.acs.policy.PolicyInformation;
-import de.upb.crypto.clarc.acs.protocols.ProtocolFactory;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.mastercred.MasterCredentialVerifierProtocolFactory;
+import de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred.ProtocolFactory;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred.ProtocolParameters;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred.VerifierIncludingMasterProtocolFactory;
+import de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred.VerifierPlan;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.provecred.VerifierProtocolFactory;
-import de.upb.crypto.clarc.acs.pseudonym.impl.clarc.Pseudonym;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSSignatureBatch;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.SystemManagerPublicIdentity;
 import de.upb.crypto.clarc.acs.user.impl.clarc.NonInteractivePolicyProof;
@@ -27,15 +28,47 @@ import de.upb.crypto.math.serialization.Representation;
 import de.upb.crypto.math.serialization.annotations.AnnotatedRepresentationUtil;
 import de.upb.crypto.math.serialization.annotations.Represented;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
 /**
  * Clarc specific implementation of the Verifier interface
+ * <p>
+ * A verifier is thread-safe: a single instance can verify any number of proofs concurrently, also for the same
+ * {@link PolicyInformation}. All state shared between verifications, i.e. the {@link VerifierPlan} of a policy, is
+ * immutable, and the protocols verifying a proof are created per verification and do not modify the policy.
+ * </p>
  */
 public class CredentialVerifier
         implements de.upb.crypto.clarc.acs.verifier.credentials.CredentialVerifier, Representable {
+    /**
+     * Default maximum number of policies for which a {@link VerifierPlan} is kept
+     */
+    public static final int DEFAULT_MAXIMUM_NUMBER_OF_PLANS = 100;
+
     private final PublicParameters pp;
     private final SystemManagerPublicIdentity systemManagerPublicIdentity;
     @Represented
     private final VerifierPublicIdentity identity;
+    /**
+     * Proof independent state for verifying proofs of a policy, indexed by the unique byte representation of the
+     * {@link PolicyInformation}. The least recently used plan is evicted if there are more than
+     * {@link #maximumNumberOfPlans} policies.
+     */
+    private final Map<ByteArrayImplementation, VerifierPlan> verifierPlans =
+            new LinkedHashMap<ByteArrayImplementation, VerifierPlan>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ByteArrayImplementation, VerifierPlan> eldest) {
+                    return size() > maximumNumberOfPlans;
+                }
+            };
+    private int maximumNumberOfPlans = DEFAULT_MAXIMUM_NUMBER_OF_PLANS;
+    private volatile Executor executor;
 
     /**
      * Constructs a new verifier for the given credential system parameters, policy and attributes
@@ -58,6 +91,37 @@ public class CredentialVerifier
         identity = new VerifierPublicIdentity(representation.obj().get("identity"), pp);
     }
 
+    /**
+     * Sets the executor which is used to verify the protocols for the individual sub policies and predicates of a
+     * proof in parallel. If the policy consists of several sub policies, these are verified in parallel, otherwise the
+     * predicates of the single sub policy are. Verification stops as soon as one of them does not accept.
+     *
+     * @param executor the executor to use, or null to verify sequentially in the calling thread (default)
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the maximum number of policies for which a {@link VerifierPlan} is kept, evicting the least recently used
+     * plans if there are more. A size of 0 sets up the plan again for every verification.
+     *
+     * @param maximumNumberOfPlans the maximum number of kept plans
+     */
+    public void setMaximumNumberOfPlans(int maximumNumberOfPlans) {
+        if (maximumNumberOfPlans < 0) {
+            throw new IllegalArgumentException("The maximum number of plans must not be negative");
+        }
+        synchronized (verifierPlans) {
+            this.maximumNumberOfPlans = maximumNumberOfPlans;
+            Iterator<ByteArrayImplementation> iterator = verifierPlans.keySet().iterator();
+            while (verifierPlans.size() > maximumNumberOfPlans && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
     @Override
     public InteractiveVerificationProcess initInteractiveVerificationProcess(
             de.upb.crypto.clarc.acs.protocols.ProtocolParameters protocolParameters,
@@ -74,7 +138,7 @@ public class CredentialVerifier
             if (masterCredential == null) {
                 throw new IllegalArgumentException("Master credential should be provided in this case");
             }
-            ProtocolFactory factory = new VerifierIncludingMasterProtocolFactory(
+            VerifierIncludingMasterProtocolFactory factory = new VerifierIncludingMasterProtocolFactory(
                     clarcProtocolParameters,
                     pp,
                     policyInformation.getUsedAttributeSpaces(),
@@ -83,14 +147,16 @@ public class CredentialVerifier
                     systemManagerPublicIdentity.getOpk(),
                     (PSSignature) masterCredential
             );
+            factory.setExecutor(executor);
             final InteractiveThreeWayAoK protocol = factory.getProtocol();
             return new InteractiveVerificationProcess(protocol, announcements);
         } else {
-            ProtocolFactory factory =
+            VerifierProtocolFactory factory =
                     new VerifierProtocolFactory(clarcProtocolParameters, pp, policyInformation
                             .getUsedAttributeSpaces(),
                             policyInformation.getPolicy(),
                             policyInformation.getRequiredDisclosures());
+            factory.setExecutor(executor);
             final InteractiveThreeWayAoK protocol = factory.getProtocol();
             return new InteractiveVerificationProcess(protocol, announcements);
         }
@@ -99,36 +165,196 @@ public class CredentialVerifier
     @Override
     public VerificationResult verifyNonInteractiveProof(de.upb.crypto.clarc.acs.user.NonInteractivePolicyProof proof,
                                                         PolicyInformation policyInformation) {
+        final NonInteractivePolicyProof clarcProof = toClarcProof(proof);
+        if (policyInformation.isMasterCredentialRequired() && !containsMasterCredential(clarcProof)) {
+            throw new IllegalArgumentException("Master credential should be provided in this case");
+        }
+        if (!containsIdentity(clarcProof)) {
+            throw new IllegalArgumentException("Aux Data of proof should contain the public identity");
+        }
+        InteractiveThreeWayAoK protocol = createVerifierProtocol(clarcProof, policyInformation, null);
+        FiatShamirHeuristic fiatShamirHeuristic = new FiatShamirHeuristic(protocol, new SHA256HashFunction());
+        return createResult(fiatShamirHeuristic.verify(clarcProof.getProof()), clarcProof, policyInformation);
+    }
+
+    /**
+     * Verifies a number of proofs for the same policy at once.
+     * <p>
+     * Every proof is verified as in {@link #verifyNonInteractiveProof}, except for the pairing based equations of the
+     * credential signatures. These are checked for all proofs at once using a random linear combination, see
+     * {@link PSSignatureBatch}. If this combined check fails, the proofs are split in halves which are checked
+     * separately (recursively), until the proofs with invalid signature equations are found.
+     * </p>
+     * <p>
+     * In contrast to {@link #verifyNonInteractiveProof}, malformed proofs, e.g. proofs lacking a required master
+     * credential or containing the identity of another verifier, result in an unsuccessful {@link VerificationResult}
+     * instead of an exception, such that a single malformed proof does not affect the other ones.
+     * </p>
+     *
+     * @param proofs            the proofs to verify
+     * @param policyInformation all information related to the policy to be fulfilled
+     * @return the results of the verification, in the same order as the given proofs
+     */
+    @Override
+    public List<VerificationResult> verifyBatch(List<? extends de.upb.crypto.clarc.acs.user.NonInteractivePolicyProof>
+                                                        proofs, PolicyInformation policyInformation) {
+        boolean[] verified = new boolean[proofs.size()];
+        List<PSSignatureBatch> signatureBatches = new ArrayList<>(proofs.size());
+        List<Integer> candidates = new ArrayList<>();
+
+        for (int i = 0; i < proofs.size(); i++) {
+            PSSignatureBatch signatureBatch = new PSSignatureBatch();
+            signatureBatches.add(signatureBatch);
+            if (verifyDeferringSignatureEquations(proofs.get(i), policyInformation, signatureBatch)) {
+                candidates.add(i);
+            }
+        }
+        verifySignatureEquations(signatureBatches, candidates, verified);
+
+        List<VerificationResult> results = new ArrayList<>(proofs.size());
+        for (int i = 0; i < proofs.size(); i++) {
+            results.add(createBatchResult(verified[i], proofs.get(i), policyInformation));
+        }
+        return results;
+    }
+
+    /**
+     * Checks the given proof like {@link #verifyNonInteractiveProof}, but adds the signature equations of the used
+     * credentials to the given batch instead of checking them.
+     *
+     * @param proof             the proof to check
+     * @param policyInformation all information related to the policy to be fulfilled
+     * @param signatureBatch    batch the signature equations are deferred to
+     * @return false, if the proof is invalid or malformed, true if it is valid, given the equations of the batch hold
+     */
+    private boolean verifyDeferringSignatureEquations(de.upb.crypto.clarc.acs.user.NonInteractivePolicyProof proof,
+                                                      PolicyInformation policyInformation,
+                                                      PSSignatureBatch signatureBatch) {
+        try {
+            NonInteractivePolicyProof clarcProof = toClarcProof(proof);
+            if (policyInformation.isMasterCredentialRequired() && !containsMasterCredential(clarcProof)
+                    || !containsIdentity(clarcProof)) {
+                return false;
+            }
+            InteractiveThreeWayAoK protocol = createVerifierProtocol(clarcProof, policyInformation, signatureBatch);
+            FiatShamirHeuristic fiatShamirHeuristic = new FiatShamirHeuristic(protocol, new SHA256HashFunction());
+            return fiatShamirHeuristic.verify(clarcProof.getProof());
+        } catch (RuntimeException e) {
+            // Malformed proofs are considered invalid
+            return false;
+        }
+    }
+
+    /**
+     * Creates the result for a proof of a batch, which only contains the proof's values if they are well-formed.
+     */
+    private VerificationResult createBatchResult(boolean verified,
+                                                 de.upb.crypto.clarc.acs.user.NonInteractivePolicyProof proof,
+                                                 PolicyInformation policyInformation) {
+        try {
+            return createResult(verified, toClarcProof(proof), policyInformation);
+        } catch (RuntimeException e) {
+            return new VerificationResult(false, null, policyInformation, null, null);
+        }
+    }
+
+    /**
+     * Checks the deferred signature equations of the given candidates at once and marks them as verified on success.
+     * Otherwise the candidates are split in halves which are checked recursively.
+     *
+     * @param signatureBatches the deferred signature equations of all proofs
+     * @param candidates       indices of the proofs to check
+     * @param verified         result array, the entries of successfully checked candidates are set to true
+     */
+    private void verifySignatureEquations(List<PSSignatureBatch> signatureBatches, List<Integer> candidates,
+                                          boolean[] verified) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        List<PSSignatureBatch> batches = candidates.stream().map(signatureBatches::get).collect(Collectors.toList());
+        if (PSSignatureBatch.verify(pp.getBilinearMap(), batches)) {
+            candidates.forEach(i -> verified[i] = true);
+        } else if (candidates.size() > 1) {
+            int middle = candidates.size() / 2;
+            verifySignatureEquations(signatureBatches, candidates.subList(0, middle), verified);
+            verifySignatureEquations(signatureBatches, candidates.subList(middle, candidates.size()), verified);
+        }
+    }
+
+    private NonInteractivePolicyProof toClarcProof(de.upb.crypto.clarc.acs.user.NonInteractivePolicyProof proof) {
         if (!(proof instanceof NonInteractivePolicyProof)) {
             throw new IllegalArgumentException("expected 'proof' object of the type 'NonInteractivePolicyProof'");
         }
-        final NonInteractivePolicyProof clarcProof = (NonInteractivePolicyProof) proof;
-        InteractiveThreeWayAoK protocol;
+        return (NonInteractivePolicyProof) proof;
+    }
+
+    private boolean containsMasterCredential(NonInteractivePolicyProof clarcProof) {
+        return clarcProof.getMasterCredential() != null && clarcProof.getMasterCredential().getSignature(pp) != null;
+    }
+
+    private boolean containsIdentity(NonInteractivePolicyProof clarcProof) {
+        ByteArrayImplementation identityBytes = new ByteArrayImplementation(identity.getUniqueByteRepresentation());
+        return clarcProof.getProof().getAuxData().length <= 1 ||
+                clarcProof.getProof().getAuxData()[1].equals(identityBytes);
+    }
+
+    /**
+     * Creates the protocol to verify the given proof with.
+     *
+     * @param clarcProof        the proof to verify
+     * @param policyInformation all information related to the policy to be fulfilled
+     * @param signatureBatch    batch the signature equations are deferred to, null to check them directly
+     * @return the verifier protocol
+     */
+    private InteractiveThreeWayAoK createVerifierProtocol(NonInteractivePolicyProof clarcProof,
+                                                          PolicyInformation policyInformation,
+                                                          PSSignatureBatch signatureBatch) {
+        VerifierPlan plan = getVerifierPlan(policyInformation);
+        ProtocolFactory factory;
         if (policyInformation.isMasterCredentialRequired()) {
-            if (clarcProof.getMasterCredential() == null || clarcProof.getMasterCredential().getSignature(pp) == null) {
-                throw new IllegalArgumentException("Master credential should be provided in this case");
-            }
             PSSignature masterCredential = clarcProof.getMasterCredential().getSignature(pp);
-            ProtocolFactory factory =
-                    new VerifierIncludingMasterProtocolFactory(clarcProof.getProtocolParameters(), pp,
-                            policyInformation.getUsedAttributeSpaces(), policyInformation.getPolicy(),
-                            policyInformation.getRequiredDisclosures(),
-                            systemManagerPublicIdentity.getOpk(), masterCredential);
-            protocol = factory.getProtocol();
+            factory = new VerifierIncludingMasterProtocolFactory(clarcProof.getProtocolParameters(), plan,
+                    systemManagerPublicIdentity.getOpk(), masterCredential, signatureBatch);
         } else {
-            ProtocolFactory factory =
-                    new VerifierProtocolFactory(clarcProof.getProtocolParameters(), pp,
-                            policyInformation.getUsedAttributeSpaces(), policyInformation.getPolicy());
-            protocol = factory.getProtocol();
+            factory = new VerifierProtocolFactory(clarcProof.getProtocolParameters(), plan, signatureBatch);
         }
-        FiatShamirHeuristic fiatShamirHeuristic = new FiatShamirHeuristic(protocol, new SHA256HashFunction());
-        RepresentableSignature signature = clarcProof.getMasterCredential();
-        ByteArrayImplementation identityBytes = new ByteArrayImplementation(identity.getUniqueByteRepresentation());
-        if (clarcProof.getProof().getAuxData().length > 1 && !clarcProof.getProof().getAuxData()[1].equals(identityBytes)) {
-            throw new IllegalArgumentException("Aux Data of proof should contain the public identity");
+        factory.setExecutor(executor);
+        return factory.getProtocol();
+    }
+
+    /**
+     * Returns the {@link VerifierPlan} for the given policy, which is set up once per policy and reused for every
+     * subsequent verification.
+     *
+     * @param policyInformation all information related to the policy to be fulfilled
+     * @return the plan for verifying proofs of the given policy
+     */
+    private VerifierPlan getVerifierPlan(PolicyInformation policyInformation) {
+        ByteArrayImplementation key = new ByteArrayImplementation(policyInformation.getUniqueByteRepresentation());
+        synchronized (verifierPlans) {
+            VerifierPlan plan = verifierPlans.get(key);
+            if (plan != null) {
+                return plan;
+            }
         }
-        return new VerificationResult(fiatShamirHeuristic.verify(clarcProof.getProof()),
-                clarcProof.getProof(), policyInformation, (Pseudonym) proof.getProtocolParameters().getPseudonym(), signature);
+        // Set up outside of the lock, setting up the same plan concurrently at worst results in redundant work
+        VerifierPlan plan = new VerifierPlan(pp, policyInformation);
+        synchronized (verifierPlans) {
+            if (maximumNumberOfPlans > 0) {
+                VerifierPlan cached = verifierPlans.putIfAbsent(key, plan);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+        return plan;
+    }
+
+    private VerificationResult createResult(boolean verified, NonInteractivePolicyProof clarcProof,
+                                            PolicyInformation policyInformation) {
+        RepresentableSignature signature = clarcProof.getMasterCredential();
+        return new VerificationResult(verified, clarcProof.getProof(), policyInformation,
+                clarcProof.getProtocolParameters().getPseudonym(), signature);
     }
 
     public SigmaProtocol createMasterCredVerifierProtocol(PSSignature masterCred,
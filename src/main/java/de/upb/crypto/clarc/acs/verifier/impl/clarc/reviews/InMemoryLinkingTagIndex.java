@@ -0,0 +1,31 @@
+package de.upb.crypto.clarc.acs.verifier.impl.clarc.reviews;
+
+import de.upb.crypto.craco.enc.sym.streaming.aes.ByteArrayImplementation;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link LinkingTagIndex} keeping all tags in a concurrent hash set.
+ * <p>
+ * This is the default index of the {@link ReviewVerifier}.
+ * </p>
+ */
+public class InMemoryLinkingTagIndex implements LinkingTagIndex {
+    private final Set<ByteArrayImplementation> tags = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean checkAndInsert(byte[] linkingTag) {
+        return tags.add(new ByteArrayImplementation(linkingTag));
+    }
+
+    @Override
+    public boolean contains(byte[] linkingTag) {
+        return tags.contains(new ByteArrayImplementation(linkingTag));
+    }
+
+    @Override
+    public int size() {
+        return tags.size();
+    }
+}
@@ -0,0 +1,30 @@
+package de.upb.crypto.clarc.acs.verifier.impl.clarc.reviews;
+
+/**
+ * Stores the linking tags of all accepted reviews, see {@link ReviewVerifier#getLinkingTag}, to detect whether a user
+ * already published a review for an item.
+ * <p>
+ * Implementations need to be thread-safe.
+ * </p>
+ */
+public interface LinkingTagIndex {
+
+    /**
+     * Atomically checks whether the given tag is already contained in the index and adds it otherwise.
+     *
+     * @param linkingTag the linking tag of a review
+     * @return true if the tag has been added, false if it was already contained, i.e. the review is a duplicate
+     */
+    boolean checkAndInsert(byte[] linkingTag);
+
+    /**
+     * @param linkingTag the linking tag of a review
+     * @return true if the tag is contained in the index
+     */
+    boolean contains(byte[] linkingTag);
+
+    /**
+     * @return the number of contained tags
+     */
+    int size();
+}
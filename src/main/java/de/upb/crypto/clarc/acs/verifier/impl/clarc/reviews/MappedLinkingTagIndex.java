@@ -0,0 +1,270 @@
+package de.upb.crypto.clarc.acs.verifier.impl.clarc.reviews;
+
+import de.upb.crypto.math.hash.impl.SHA256HashFunction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * {@link LinkingTagIndex} storing the tags in a memory-mapped file, organized as an open addressing hash table with
+ * linear probing.
+ * <p>
+ * Instead of the tags themselves, which are the unique byte representations of target group elements and hence
+ * rather large, their SHA-256 digests are stored. Every slot of the table consists of such a fixed-length digest, an
+ * empty slot is all zeros. Since the table lives in the mapped file, it does not occupy heap memory and the operating
+ * system decides which parts of it are kept in memory. The table is doubled whenever its load factor exceeds
+ * {@link #MAX_LOAD_FACTOR}.
+ * </p>
+ * <p>
+ * The layout of the file is a header consisting of a magic number, the number of slots (8 bytes, big endian) and the
+ * number of contained tags (8 bytes, big endian), followed by the slots. Modifications are written back to the file by
+ * the operating system, {@link #flush()} forces them to be written. The index survives restarts by opening it on the
+ * same file again.
+ * </p>
+ */
+public class MappedLinkingTagIndex implements LinkingTagIndex, Closeable {
+    private static final int MAGIC = 0x4c544931;
+    private static final int SLOT_SIZE = 32;
+    private static final int HEADER_SIZE = SLOT_SIZE;
+    private static final int SLOT_COUNT_OFFSET = Integer.BYTES;
+    private static final int SIZE_OFFSET = SLOT_COUNT_OFFSET + Long.BYTES;
+    /**
+     * The slots are mapped in segments of this number of slots, since a single mapping is limited to 2GB
+     */
+    private static final int SLOTS_PER_SEGMENT = 1 << 24;
+    private static final double MAX_LOAD_FACTOR = 0.5;
+    private static final long MIN_SLOT_COUNT = 1 << 10;
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private MappedByteBuffer[] segments;
+    private long slotCount;
+    private long size;
+
+    /**
+     * Opens the index backed by the given file. If the file does not exist or is empty, a new table with enough slots
+     * for the given number of tags is created, otherwise the existing table is used.
+     *
+     * @param file             the file of the index
+     * @param expectedCapacity the number of tags which can be stored before the table needs to be enlarged
+     * @throws UncheckedIOException if the file can not be opened or is no valid index
+     */
+    public MappedLinkingTagIndex(Path file, long expectedCapacity) {
+        this.file = file;
+        try {
+            if (!Files.exists(file) || Files.size(file) == 0) {
+                createTable(file, slotCountFor(expectedCapacity));
+            }
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open linking tag index " + file, e);
+        }
+    }
+
+    private static long slotCountFor(long capacity) {
+        long slotCount = MIN_SLOT_COUNT;
+        while (slotCount * MAX_LOAD_FACTOR < capacity) {
+            slotCount <<= 1;
+        }
+        return slotCount;
+    }
+
+    private static void createTable(Path file, long slotCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+            buffer.putInt(MAGIC).putLong(slotCount).putLong(0).rewind();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // Extending the file fills the slots with zeros, i.e. all slots are empty
+            channel.write(ByteBuffer.allocate(1), HEADER_SIZE + slotCount * SLOT_SIZE - 1);
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (header.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException("Not a linking tag index");
+        }
+        slotCount = header.getLong(SLOT_COUNT_OFFSET);
+        size = header.getLong(SIZE_OFFSET);
+        if (Long.bitCount(slotCount) != 1 || channel.size() < HEADER_SIZE + slotCount * SLOT_SIZE) {
+            channel.close();
+            throw new IOException("Linking tag index is corrupted");
+        }
+        segments = mapSegments(channel, slotCount);
+    }
+
+    /**
+     * Maps the given tag to the fixed-length value stored in the table. All zeros is reserved for empty slots.
+     */
+    private static byte[] digest(byte[] linkingTag) {
+        byte[] digest = new SHA256HashFunction().hash(linkingTag);
+        if (isEmpty(digest)) {
+            digest[0] = 1;
+        }
+        return digest;
+    }
+
+    private static boolean isEmpty(byte[] slot) {
+        for (byte b : slot) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the first slot to probe for the given digest, which is uniformly distributed
+     */
+    private long startSlot(byte[] digest) {
+        return ByteBuffer.wrap(digest).getLong() & (slotCount - 1);
+    }
+
+    private void readSlot(long slot, byte[] target) {
+        ByteBuffer segment = segments[(int) (slot / SLOTS_PER_SEGMENT)].duplicate();
+        segment.position((int) (slot % SLOTS_PER_SEGMENT) * SLOT_SIZE);
+        segment.get(target);
+    }
+
+    private void writeSlot(long slot, byte[] digest) {
+        ByteBuffer segment = segments[(int) (slot / SLOTS_PER_SEGMENT)].duplicate();
+        segment.position((int) (slot % SLOTS_PER_SEGMENT) * SLOT_SIZE);
+        segment.put(digest);
+    }
+
+    /**
+     * Probes the table for the given digest.
+     *
+     * @return the slot containing the digest or the empty slot it is to be inserted into
+     */
+    private long find(byte[] digest) {
+        byte[] slotContent = new byte[SLOT_SIZE];
+        long slot = startSlot(digest);
+        while (true) {
+            readSlot(slot, slotContent);
+            if (isEmpty(slotContent) || Arrays.equals(slotContent, digest)) {
+                return slot;
+            }
+            slot = (slot + 1) & (slotCount - 1);
+        }
+    }
+
+    @Override
+    public boolean checkAndInsert(byte[] linkingTag) {
+        byte[] digest = digest(linkingTag);
+        synchronized (this) {
+            long slot = find(digest);
+            byte[] slotContent = new byte[SLOT_SIZE];
+            readSlot(slot, slotContent);
+            if (!isEmpty(slotContent)) {
+                return false;
+            }
+            writeSlot(slot, digest);
+            size++;
+            header.putLong(SIZE_OFFSET, size);
+            if (size > slotCount * MAX_LOAD_FACTOR) {
+                grow();
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public boolean contains(byte[] linkingTag) {
+        byte[] digest = digest(linkingTag);
+        synchronized (this) {
+            byte[] slotContent = new byte[SLOT_SIZE];
+            readSlot(find(digest), slotContent);
+            return !isEmpty(slotContent);
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Doubles the number of slots. The enlarged table is built in a temporary file which then replaces the file of
+     * this index, such that the index stays consistent if the process is interrupted.
+     */
+    private void grow() {
+        Path resized = Paths.get(file.toString() + ".resize");
+        try {
+            MappedByteBuffer[] oldSegments = segments;
+            long oldSlotCount = slotCount;
+            createTable(resized, oldSlotCount * 2);
+
+            FileChannel oldChannel = channel;
+            try (FileChannel resizedChannel = FileChannel.open(resized, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                channel = resizedChannel;
+                header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+                slotCount = oldSlotCount * 2;
+                segments = mapSegments(resizedChannel, slotCount);
+                byte[] slotContent = new byte[SLOT_SIZE];
+                for (long slot = 0; slot < oldSlotCount; slot++) {
+                    ByteBuffer segment = oldSegments[(int) (slot / SLOTS_PER_SEGMENT)].duplicate();
+                    segment.position((int) (slot % SLOTS_PER_SEGMENT) * SLOT_SIZE);
+                    segment.get(slotContent);
+                    if (!isEmpty(slotContent)) {
+                        writeSlot(find(slotContent), slotContent);
+                    }
+                }
+                header.putLong(SIZE_OFFSET, size);
+                for (MappedByteBuffer segment : segments) {
+                    segment.force();
+                }
+                header.force();
+            }
+            oldChannel.close();
+            Files.move(resized, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to enlarge linking tag index " + file, e);
+        }
+    }
+
+    private static MappedByteBuffer[] mapSegments(FileChannel channel, long slotCount) throws IOException {
+        int numberOfSegments = (int) ((slotCount + SLOTS_PER_SEGMENT - 1) / SLOTS_PER_SEGMENT);
+        MappedByteBuffer[] segments = new MappedByteBuffer[numberOfSegments];
+        for (int i = 0; i < numberOfSegments; i++) {
+            long slotsInSegment = Math.min(SLOTS_PER_SEGMENT, slotCount - (long) i * SLOTS_PER_SEGMENT);
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_SIZE + (long) i * SLOTS_PER_SEGMENT * SLOT_SIZE, slotsInSegment * SLOT_SIZE);
+        }
+        return segments;
+    }
+
+    /**
+     * Forces all modifications of the index to be written to the file.
+     */
+    public synchronized void flush() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
@@ -0,0 +1,53 @@
+package de.upb.crypto.clarc.acs.verifier.impl.clarc.reviews;
+
+import de.upb.crypto.clarc.acs.review.impl.clarc.Review;
+
+/**
+ * Result of {@link ReviewVerifier#verifyAndTagBatch} for a single review.
+ */
+public class ReviewVerificationResult {
+    private final Review review;
+    private final boolean valid;
+    private final byte[] linkingTag;
+    private final boolean duplicate;
+
+    public ReviewVerificationResult(Review review, boolean valid, byte[] linkingTag, boolean duplicate) {
+        this.review = review;
+        this.valid = valid;
+        this.linkingTag = linkingTag;
+        this.duplicate = duplicate;
+    }
+
+    public Review getReview() {
+        return review;
+    }
+
+    /**
+     * @return whether the signature of the review is valid
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * @return the linking tag of the review, see {@link ReviewVerifier#getLinkingTag}, or null if it is not valid
+     */
+    public byte[] getLinkingTag() {
+        return linkingTag;
+    }
+
+    /**
+     * @return whether the user already published a review for the same item, i.e. the linking tag has already been
+     * contained in the {@link LinkingTagIndex} of the verifier
+     */
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+
+    /**
+     * @return whether the review is valid and no duplicate, i.e. it should be published
+     */
+    public boolean isAccepted() {
+        return valid && !duplicate;
+    }
+}
@@ -3,34 +3,55 @@ package de.upb.crypto.clarc.acs.verifier.impl.clarc.reviews;
 import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewToken;
 import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewTokenIssuerPublicIdentity;
 import de.upb.crypto.clarc.acs.protocols.impl.clarc.RateVerifyProtocolFactory;
+import de.upb.crypto.clarc.acs.pssignatureschnorrprotocol.PSSignatureBatch;
 import de.upb.crypto.clarc.acs.review.impl.clarc.Review;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.VerificationKeyCache;
 import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.SystemManager;
 import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.SystemManagerPublicIdentity;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.FiatShamirHeuristic;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.FiatShamirSignatureScheme;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirProof;
 import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirVerificationKey;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocol;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrProtocolProvider;
+import de.upb.crypto.clarc.protocols.parameters.Announcement;
+import de.upb.crypto.clarc.protocols.parameters.Challenge;
+import de.upb.crypto.clarc.protocols.parameters.Response;
 import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
 import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
 import de.upb.crypto.math.hash.impl.SHA256HashFunction;
-import de.upb.crypto.math.interfaces.mappings.BilinearMap;
+import de.upb.crypto.math.interfaces.hash.HashFunction;
+import de.upb.crypto.math.interfaces.hash.UniqueByteRepresentable;
 import de.upb.crypto.math.interfaces.mappings.PairingProductExpression;
 import de.upb.crypto.math.interfaces.structures.GroupElement;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static de.upb.crypto.clarc.acs.protocols.impl.clarc.ComputeRatingPublicKeyAndItemHashHelper.getHashedRatingPublicKeyAndItem;
 
 /**
  * Implementation the actor responsible for the issuing of ratings and also for the linking and verifying of ratings.
+ * <p>
+ * A review verifier is thread-safe, given that its {@link LinkingTagIndex} is, hence a single instance can verify any
+ * number of reviews concurrently. The protocols verifying a review are created per verification.
+ * </p>
  */
 public class ReviewVerifier implements de.upb.crypto.clarc.acs.verifier.reviews.ReviewVerifier {
-    private PublicParameters pp;
-    private SystemManagerPublicIdentity systemManagerPublicIdentity;
+    private final PublicParameters pp;
+    private final SystemManagerPublicIdentity systemManagerPublicIdentity;
 
-    private PSExtendedVerificationKey reviewTokenIssuerPublicKey;
+    private final PSExtendedVerificationKey reviewTokenIssuerPublicKey;
+
+    private final LinkingTagIndex linkingTagIndex;
+
+    private final HashFunction hashFunction = new SHA256HashFunction();
 
     /**
      * Initializes The ReviewVerifier with the linkability basis from the SystemManager
@@ -44,11 +65,30 @@ public class ReviewVerifier implements de.upb.crypto.clarc.acs.verifier.reviews.
     public ReviewVerifier(PublicParameters pp,
                           SystemManagerPublicIdentity systemManagerPublicIdentity,
                           ReviewTokenIssuerPublicIdentity reviewTokenIssuerPublicIdentity) {
+        this(pp, systemManagerPublicIdentity, reviewTokenIssuerPublicIdentity, new InMemoryLinkingTagIndex());
+    }
+
+    /**
+     * Initializes The ReviewVerifier with the linkability basis from the SystemManager
+     * {@link SystemManager}, using the given index to detect duplicate reviews in {@link #verifyAndTagBatch}.
+     *
+     * @param pp                              The acs public parameters
+     * @param systemManagerPublicIdentity     The public identity of the system manager which contains the linkability
+     *                                        information used for linking two reviews
+     * @param reviewTokenIssuerPublicIdentity Public identity of the token issuer
+     * @param linkingTagIndex                 index of the linking tags of all accepted reviews
+     */
+    public ReviewVerifier(PublicParameters pp,
+                          SystemManagerPublicIdentity systemManagerPublicIdentity,
+                          ReviewTokenIssuerPublicIdentity reviewTokenIssuerPublicIdentity,
+                          LinkingTagIndex linkingTagIndex) {
         this.pp = pp;
         this.systemManagerPublicIdentity = systemManagerPublicIdentity;
+        this.linkingTagIndex = linkingTagIndex;
 
         PSExtendedSignatureScheme signatureScheme = PublicParametersFactory.getSignatureScheme(pp);
-        this.reviewTokenIssuerPublicKey = signatureScheme.getVerificationKey(reviewTokenIssuerPublicIdentity.getIssuerPublicKey());
+        this.reviewTokenIssuerPublicKey = VerificationKeyCache.getVerificationKey(signatureScheme,
+                reviewTokenIssuerPublicIdentity.getIssuerPublicKey());
     }
 
     /**
@@ -73,9 +113,6 @@ public class ReviewVerifier implements de.upb.crypto.clarc.acs.verifier.reviews.
         GroupElement L1star = secondReview.getL1();
         GroupElement L2star = secondReview.getL2();
 
-        BilinearMap map = pp.getBilinearMap();
-        GroupElement leftSide = map.apply(L1.op(L1star.inv()), systemManagerPublicIdentity.getLinkabilityBasis());
-
         ReviewToken token = new ReviewToken(
                 ((Review) review1).getBlindedTokenSignature(),
                 ((Review) review1).getItem(),
@@ -83,8 +120,13 @@ public class ReviewVerifier implements de.upb.crypto.clarc.acs.verifier.reviews.
 
         GroupElement hash = getHashedRatingPublicKeyAndItem(token, pp);
 
-        GroupElement rightSide = map.apply(hash, L2.op(L2star.inv()));
-        return leftSide.equals(rightSide);
+        // e(L1 / L1*, b) = e(H(rpk, item), L2 / L2*) iff e(L1 / L1*, b) * e(H(rpk, item), L2 / L2*)^-1 = 1, which is
+        // evaluated as a multi-pairing with a single final exponentiation
+        return pp.getBilinearMap().pairingProductExpression()
+                .op(L1.op(L1star.inv()), systemManagerPublicIdentity.getLinkabilityBasis())
+                .op(hash.inv(), L2.op(L2star.inv()))
+                .evaluate()
+                .isNeutralElement();
     }
 
     /**
@@ -130,6 +172,7 @@ public class ReviewVerifier implements de.upb.crypto.clarc.acs.verifier.reviews.
      * do is store the tag along with the review. Whenever a new review is supposed to be published, one only needs to
      * compute the linking tag and compares it with the tags already stored. If there is a duplicate, the rating should
      * not be accepted. Otherwise, review and tag should be stored in the database for future duplicate checks.
+     * A {@link LinkingTagIndex} provides exactly this check, see {@link LinkingTagIndex#checkAndInsert}.
      *
      * @param review
      *              the linking tag is to computed for
@@ -140,18 +183,26 @@ public class ReviewVerifier implements de.upb.crypto.clarc.acs.verifier.reviews.
             throw new IllegalArgumentException("The given review is not valid!");
         }
 
-        // L1 = H^{zeta + usk}
-        GroupElement L1 = review.getL1();
-        // L2 = b^zeta
-        GroupElement L2 = review.getL2();
-
         ReviewToken token = new ReviewToken(
                                 review.getBlindedTokenSignature(),
                                 review.getItem(),
                                 reviewTokenIssuerPublicKey
                             );
+        return computeLinkingTag(review, getHashedRatingPublicKeyAndItem(token, pp));
+    }
 
-        GroupElement hash = getHashedRatingPublicKeyAndItem(token, pp);
+    /**
+     * Computes the linking tag of the given review without verifying it, see {@link #getLinkingTag}.
+     *
+     * @param review the review the linking tag is to computed for
+     * @param hash   H(rpk, item) for the verifier's rating public key rpk
+     * @return UBR of {@code e( H(rpk, item), b )^usk}
+     */
+    private byte[] computeLinkingTag(Review review, GroupElement hash) {
+        // L1 = H^{zeta + usk}
+        GroupElement L1 = review.getL1();
+        // L2 = b^zeta
+        GroupElement L2 = review.getL2();
 
         PairingProductExpression output = pp.getBilinearMap().pairingProductExpression();
         // e(L1, b) = e(H(rpk, item)^{zeta + usk}, b) = e(H(rpk, item), b)^{zeta} * e(H(rpk, item), b)^{usk}
@@ -162,4 +213,138 @@ public class ReviewVerifier implements de.upb.crypto.clarc.acs.verifier.reviews.
         // output = e(H(rpk, item), b)^{usk}
         return output.evaluate().getUniqueByteRepresentation();
     }
+
+    /**
+     * Verifies the given reviews, computes their linking tags and checks them for duplicates in a single pass.
+     * <p>
+     * In contrast to calling {@link #verify} for every review, the pairing based equations of all reviews are
+     * checked at once using a {@link PSSignatureBatch}, such that the number of pairings needed for verification
+     * does not depend on the number of reviews. If the combined check fails, the reviews are split in halves which
+     * are checked recursively to identify the invalid ones. The linking tags are computed for the valid reviews
+     * only, reusing the hash H(rpk, item) computed for the verification.
+     * </p>
+     * <p>
+     * The linking tag of every valid review is added to the {@link LinkingTagIndex} of this verifier in the order of
+     * the given collection, hence if a user published multiple reviews for the same item, all but the first one
+     * (including the ones already contained in the index) are reported as duplicates.
+     * </p>
+     *
+     * @param reviews the reviews to check
+     * @return the results for the given reviews in the same order
+     */
+    public List<ReviewVerificationResult> verifyAndTagBatch(Collection<? extends Review> reviews) {
+        List<Review> reviewList = new ArrayList<>(reviews);
+        boolean[] verified = new boolean[reviewList.size()];
+        List<PSSignatureBatch> signatureBatches = new ArrayList<>(reviewList.size());
+        List<GroupElement> hashes = new ArrayList<>(reviewList.size());
+        List<Integer> candidates = new ArrayList<>();
+
+        for (int i = 0; i < reviewList.size(); i++) {
+            Review review = reviewList.get(i);
+            PSSignatureBatch signatureBatch = new PSSignatureBatch();
+            signatureBatches.add(signatureBatch);
+            ReviewToken token = new ReviewToken(review.getBlindedTokenSignature(),
+                    review.getItem(),
+                    review.getReviewTokenIssuerPublicKey());
+            GroupElement hash = getHashedRatingPublicKeyAndItem(token, pp);
+            hashes.add(hash);
+            RateVerifyProtocolFactory factory = new RateVerifyProtocolFactory(pp,
+                    review.getBlindedRegistrationInformation(),
+                    review.getSystemManagerPublicKey(),
+                    systemManagerPublicIdentity.getLinkabilityBasis(),
+                    token,
+                    review.getL1(),
+                    review.getL2(),
+                    hash);
+            if (verifyDeferringPairingEquations(review, factory, signatureBatch)) {
+                candidates.add(i);
+            }
+        }
+        verifyPairingEquations(signatureBatches, candidates, verified);
+
+        List<ReviewVerificationResult> results = new ArrayList<>(reviewList.size());
+        for (int i = 0; i < reviewList.size(); i++) {
+            Review review = reviewList.get(i);
+            if (!verified[i]) {
+                results.add(new ReviewVerificationResult(review, false, null, false));
+                continue;
+            }
+            GroupElement hash = hashes.get(i);
+            if (!review.getReviewTokenIssuerPublicKey().equals(reviewTokenIssuerPublicKey)) {
+                ReviewToken token = new ReviewToken(review.getBlindedTokenSignature(), review.getItem(),
+                        reviewTokenIssuerPublicKey);
+                hash = getHashedRatingPublicKeyAndItem(token, pp);
+            }
+            byte[] linkingTag = computeLinkingTag(review, hash);
+            boolean duplicate = !linkingTagIndex.checkAndInsert(linkingTag);
+            results.add(new ReviewVerificationResult(review, true, linkingTag, duplicate));
+        }
+        return results;
+    }
+
+    /**
+     * Checks the Fiat-Shamir signature of the given review like {@link FiatShamirSignatureScheme#verify}, but adds the
+     * pairing based equations to the given batch instead of checking them, see
+     * {@link RateVerifyProtocolFactory#verifyDeferringPairingEquations}.
+     *
+     * @param review         the review to check
+     * @param factory        factory for the review's protocol
+     * @param signatureBatch batch the pairing based equations are deferred to
+     * @return false, if the review is invalid, true if it is valid, given the equations of the batch hold
+     */
+    private boolean verifyDeferringPairingEquations(Review review, RateVerifyProtocolFactory factory,
+                                                    PSSignatureBatch signatureBatch) {
+        try {
+            GeneralizedSchnorrProtocol linkingProtocol = factory.getLinkingProtocol();
+            FiatShamirHeuristic fiatShamirHeuristic = new FiatShamirHeuristic(linkingProtocol, hashFunction);
+            FiatShamirProof proof = review.getRatingSignature().getProof();
+            Announcement[] announcements = Arrays.stream(proof.getAnnouncementRepresentations())
+                    .map(linkingProtocol::recreateAnnouncement)
+                    .toArray(Announcement[]::new);
+            Response[] responses = Arrays.stream(proof.getResponseRepresentations())
+                    .map(linkingProtocol::recreateResponse)
+                    .toArray(Response[]::new);
+
+            // The proof needs to be bound to the message of the review
+            byte[] hashWithMessage = fiatShamirHeuristic.getHashForAnnouncementAndAuxData(announcements,
+                    new UniqueByteRepresentable[]{review.getMessage()}, hashFunction);
+            byte[] hashWithAuxData = fiatShamirHeuristic.getHashForAnnouncementAndAuxData(announcements,
+                    proof.getAuxData(), hashFunction);
+            if (!Arrays.equals(hashWithMessage, hashWithAuxData)) {
+                return false;
+            }
+            Challenge challenge = linkingProtocol.createChallengeFromByteArray(hashWithAuxData);
+            return factory.verifyDeferringPairingEquations(signatureBatch, announcements, challenge, responses);
+        } catch (RuntimeException e) {
+            // Malformed reviews are considered invalid
+            return false;
+        }
+    }
+
+    /**
+     * Checks the deferred pairing equations of the given candidates at once and marks them as verified on success.
+     * Otherwise the candidates are split in halves which are checked recursively.
+     *
+     * @param signatureBatches the deferred pairing equations of all reviews
+     * @param candidates       indices of the reviews to check
+     * @param verified         result array, the entries of successfully checked candidates are set to true
+     */
+    private void verifyPairingEquations(List<PSSignatureBatch> signatureBatches, List<Integer> candidates,
+                                        boolean[] verified) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        List<PSSignatureBatch> batches = candidates.stream().map(signatureBatches::get).collect(Collectors.toList());
+        if (PSSignatureBatch.verify(pp.getBilinearMap(), batches)) {
+            candidates.forEach(i -> verified[i] = true);
+        } else if (candidates.size() > 1) {
+            int middle = candidates.size() / 2;
+            verifyPairingEquations(signatureBatches, candidates.subList(0, middle), verified);
+            verifyPairingEquations(signatureBatches, candidates.subList(middle, candidates.size()), verified);
+        }
+    }
+
+    public LinkingTagIndex getLinkingTagIndex() {
+        return linkingTagIndex;
+    }
 }
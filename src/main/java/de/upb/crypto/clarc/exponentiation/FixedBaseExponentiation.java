@@ -0,0 +1,185 @@
+package de.upb.crypto.clarc.exponentiation;
+
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.structures.zn.Zn;
+
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exponentiation g^x for a fixed, long-lived base g, e.g. the generators of the Pedersen commitment public parameters,
+ * the generator of a {@link de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey} or the linkability basis of the
+ * system manager.
+ * <p>
+ * Once a base has been used repeatedly, a table of the powers g^(d * 2^(w * i)) for all digits d of the window size w
+ * is precomputed. Afterwards, g^x is computed from the digits of x with one group operation per window and without
+ * any squarings.
+ * </p>
+ * <p>
+ * The tables of all bases together hold at most {@link #getMemoryBudget()} group elements. If the budget is
+ * exhausted, further bases are exponentiated as usual. Instances are shared, see {@link #of}, hence they are
+ * effectively attached to the object g belongs to. All methods are thread-safe.
+ * </p>
+ */
+public class FixedBaseExponentiation {
+    private static final int MAXIMUM_NUMBER_OF_INSTANCES = 1024;
+    /**
+     * Number of exponentiations after which the table is precomputed, such that no budget is spent on bases which
+     * are only used once.
+     */
+    private static final int USES_BEFORE_PRECOMPUTATION = 2;
+    private static final int WINDOW_SIZE = 4;
+    private static final long DEFAULT_MEMORY_BUDGET = 1 << 15;
+
+    private static long memoryBudget = DEFAULT_MEMORY_BUDGET;
+    private static long usedMemory;
+    private static final Map<GroupElement, FixedBaseExponentiation> instances =
+            new LinkedHashMap<GroupElement, FixedBaseExponentiation>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<GroupElement, FixedBaseExponentiation> eldest) {
+                    if (size() > MAXIMUM_NUMBER_OF_INSTANCES) {
+                        usedMemory -= eldest.getValue().tableSize;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
+    private final GroupElement base;
+    private final BigInteger groupOrder;
+    private int uses;
+    private long tableSize;
+    /**
+     * table[i][d - 1] = g^(d * 2^(WINDOW_SIZE * i))
+     */
+    private volatile GroupElement[][] table;
+
+    private FixedBaseExponentiation(GroupElement base) {
+        this.base = base;
+        this.groupOrder = base.getStructure().size();
+    }
+
+    /**
+     * Returns the shared instance for the given base, which is created if necessary.
+     *
+     * @param base the fixed base g
+     * @return the exponentiation g^x
+     */
+    public static FixedBaseExponentiation of(GroupElement base) {
+        synchronized (instances) {
+            return instances.computeIfAbsent(base, FixedBaseExponentiation::new);
+        }
+    }
+
+    /**
+     * Sets the maximum number of group elements all tables together may hold. Existing tables are discarded.
+     *
+     * @param maximumNumberOfElements the budget, 0 disables the precomputation
+     */
+    public static void setMemoryBudget(long maximumNumberOfElements) {
+        if (maximumNumberOfElements < 0) {
+            throw new IllegalArgumentException("The memory budget must not be negative");
+        }
+        synchronized (instances) {
+            instances.clear();
+            memoryBudget = maximumNumberOfElements;
+            usedMemory = 0;
+        }
+    }
+
+    /**
+     * @return the maximum number of group elements all tables together may hold
+     */
+    public static long getMemoryBudget() {
+        synchronized (instances) {
+            return memoryBudget;
+        }
+    }
+
+    /**
+     * @param exponent exponent x
+     * @return g^x
+     */
+    public GroupElement pow(Zn.ZnElement exponent) {
+        return pow(exponent.getInteger());
+    }
+
+    /**
+     * @param exponent exponent x
+     * @return g^x
+     */
+    public GroupElement pow(BigInteger exponent) {
+        GroupElement[][] table = getTable();
+        if (table == null) {
+            return base.pow(exponent);
+        }
+        BigInteger reducedExponent = exponent.mod(groupOrder);
+        if (reducedExponent.bitLength() > table.length * WINDOW_SIZE) {
+            return base.pow(exponent);
+        }
+        GroupElement result = base.getStructure().getNeutralElement();
+        for (int i = 0; i < table.length; i++) {
+            int digit = 0;
+            for (int bit = WINDOW_SIZE - 1; bit >= 0; bit--) {
+                digit = (digit << 1) | (reducedExponent.testBit(i * WINDOW_SIZE + bit) ? 1 : 0);
+            }
+            if (digit != 0) {
+                result = result.op(table[i][digit - 1]);
+            }
+        }
+        return result;
+    }
+
+    public GroupElement getBase() {
+        return base;
+    }
+
+    /**
+     * Returns the table, which is precomputed if the base has been used often enough and the budget allows it.
+     *
+     * @return the table or null if exponentiations have to be computed as usual
+     */
+    private GroupElement[][] getTable() {
+        GroupElement[][] table = this.table;
+        if (table != null || groupOrder == null) {
+            return table;
+        }
+        synchronized (this) {
+            if (this.table != null || ++uses < USES_BEFORE_PRECOMPUTATION) {
+                return this.table;
+            }
+            int rows = (groupOrder.bitLength() + WINDOW_SIZE - 1) / WINDOW_SIZE;
+            int columns = (1 << WINDOW_SIZE) - 1;
+            if (!reserve((long) rows * columns)) {
+                return null;
+            }
+            GroupElement[][] newTable = new GroupElement[rows][columns];
+            GroupElement rowBase = base;
+            for (int i = 0; i < rows; i++) {
+                newTable[i][0] = rowBase;
+                for (int j = 1; j < columns; j++) {
+                    newTable[i][j] = newTable[i][j - 1].op(rowBase);
+                }
+                // rowBase^(2^WINDOW_SIZE)
+                rowBase = newTable[i][columns - 1].op(rowBase);
+            }
+            this.table = newTable;
+            return newTable;
+        }
+    }
+
+    /**
+     * Reserves memory for the table of this instance, unless this instance was evicted in the meantime.
+     */
+    private boolean reserve(long size) {
+        synchronized (instances) {
+            if (instances.get(base) != this || usedMemory + size > memoryBudget) {
+                return false;
+            }
+            usedMemory += size;
+            tableSize = size;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package de.upb.crypto.clarc.exponentiation;
+
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentPair;
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentValue;
+import de.upb.crypto.craco.commitment.pedersen.PedersenOpenValue;
+import de.upb.crypto.craco.commitment.pedersen.PedersenPublicParameters;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.structures.zn.Zp;
+
+/**
+ * Computes Pedersen commitments c = g^r * h_1^m_1 * ... * h_n^m_n like {@link PedersenCommitmentScheme#commit}, but
+ * uses {@link FixedBaseExponentiation} for the generators g and h_i of the public parameters.
+ */
+public class FixedBasePedersenCommitment {
+    private FixedBasePedersenCommitment() {
+    }
+
+    /**
+     * @param pp       the public parameters of the commitment scheme
+     * @param messages the messages m_1, ..., m_n to commit to, n has to match the number of generators h_i
+     * @return the commitment and its open value, which contains a fresh random value r
+     */
+    public static PedersenCommitmentPair commit(PedersenPublicParameters pp, Zp.ZpElement... messages) {
+        GroupElement[] h = pp.getH();
+        if (messages.length != h.length) {
+            throw new IllegalArgumentException("The message list and parameter list lengths are not compatible!");
+        }
+        Zp.ZpElement r = pp.getZp().getUniformlyRandomElement();
+        GroupElement commitment = FixedBaseExponentiation.of(pp.getG()).pow(r);
+        for (int i = 0; i < messages.length; i++) {
+            commitment = commitment.op(FixedBaseExponentiation.of(h[i]).pow(messages[i]));
+        }
+        return new PedersenCommitmentPair(new PedersenCommitmentValue(commitment), new PedersenOpenValue(messages, r));
+    }
+}
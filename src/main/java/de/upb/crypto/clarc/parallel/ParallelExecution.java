@@ -0,0 +1,148 @@
+package de.upb.crypto.clarc.parallel;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Runs independent tasks, e.g. the computations for the leaves of a proof of partial knowledge, either sequentially
+ * or on an {@link Executor}.
+ * <p>
+ * The tasks are identified by their index, hence results which are stored at that index are ordered deterministically,
+ * independent of the order in which the tasks actually finished.
+ * </p>
+ * <p>
+ * Only one level of nested executions is parallelized: if a task run on an executor starts another execution, e.g.
+ * the proof of partial knowledge of a sub policy verifying its predicates, the inner tasks are run sequentially in
+ * the thread of the outer task. Otherwise, the outer tasks would block the threads of a bounded executor waiting for
+ * inner tasks which cannot be run anymore.
+ * </p>
+ */
+public class ParallelExecution {
+    /**
+     * Whether the current thread runs a task submitted to an executor by this class
+     */
+    private static final ThreadLocal<Boolean> RUNNING_TASK = ThreadLocal.withInitial(() -> false);
+
+    private ParallelExecution() {
+    }
+
+    /**
+     * Runs the given task for the indices {@code from, ..., to - 1} and returns after all of them finished.
+     * <p>
+     * If no executor is given or this is called by a task of another execution, the tasks are run sequentially in the
+     * calling thread. Otherwise, every task is submitted to the executor. Everything written by the tasks is visible to
+     * the calling thread afterwards.
+     * </p>
+     *
+     * @param executor executor to run the tasks on, or null to run them sequentially
+     * @param from     first index (inclusive)
+     * @param to       last index (exclusive)
+     * @param task     the task to run for every index
+     * @throws RuntimeException the exception thrown by a task, after all tasks finished
+     */
+    public static void forEachIndex(Executor executor, int from, int to, IntConsumer task) {
+        if (runsSequentially(executor, from, to)) {
+            for (int i = from; i < to; i++) {
+                task.accept(i);
+            }
+            return;
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[to - from];
+        for (int i = from; i < to; i++) {
+            int index = i;
+            futures[i - from] = CompletableFuture.runAsync(() -> runAsTask(() -> task.accept(index)), executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Checks whether the given predicate holds for all indices {@code from, ..., to - 1}.
+     * <p>
+     * If no executor is given or this is called by a task of another execution, the predicate is tested sequentially
+     * in the calling thread, stopping at the first index it does not hold for. Otherwise, every test is submitted to
+     * the executor and the result is returned as soon as it is known, i.e. after all tests succeeded or the first one
+     * failed. In the latter case, tests which have not started yet are skipped, while tests which are already running
+     * finish in the background and their results are ignored.
+     * </p>
+     *
+     * @param executor  executor to run the tests on, or null to run them sequentially
+     * @param from      first index (inclusive)
+     * @param to        last index (exclusive)
+     * @param predicate the predicate to test for every index
+     * @return true iff the predicate holds for all indices
+     * @throws RuntimeException the first exception thrown by a test
+     */
+    public static boolean allMatch(Executor executor, int from, int to, IntPredicate predicate) {
+        if (runsSequentially(executor, from, to)) {
+            for (int i = from; i < to; i++) {
+                if (!predicate.test(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(to - from);
+        for (int i = from; i < to && !result.isDone(); i++) {
+            int index = i;
+            executor.execute(() -> runAsTask(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    if (!predicate.test(index)) {
+                        result.complete(false);
+                    } else if (remaining.decrementAndGet() == 0) {
+                        result.complete(true);
+                    }
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            }));
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static boolean runsSequentially(Executor executor, int from, int to) {
+        return executor == null || to - from <= 1 || RUNNING_TASK.get();
+    }
+
+    /**
+     * Runs the given task and marks the current thread as running a task meanwhile.
+     */
+    private static void runAsTask(Runnable task) {
+        boolean wasRunningTask = RUNNING_TASK.get();
+        RUNNING_TASK.set(true);
+        try {
+            task.run();
+        } finally {
+            RUNNING_TASK.set(wasRunningTask);
+        }
+    }
+
+    /**
+     * Unwraps the exception thrown by a task from the given {@link CompletionException}.
+     */
+    private static RuntimeException unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return e;
+    }
+}
@@ -5,6 +5,7 @@ import de.upb.crypto.craco.commitment.pedersen.PedersenPublicParameters;
 import de.upb.crypto.math.hash.annotations.AnnotatedUbrUtil;
 import de.upb.crypto.math.hash.annotations.UniqueByteRepresented;
 import de.upb.crypto.math.interfaces.hash.ByteAccumulator;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
 import de.upb.crypto.math.serialization.Representation;
 import de.upb.crypto.math.serialization.annotations.AnnotatedRepresentationUtil;
 import de.upb.crypto.math.serialization.annotations.Represented;
@@ -62,12 +63,22 @@ public class EqualityPublicParameterAdvancedProof extends EqualityPublicParamete
         this.knownDlog = knownDLog;
     }
 
+    public EqualityPublicParameterAdvancedProof(EqualityPublicParameterAdvancedProof pp, GroupElement commitment) {
+        super(pp, commitment);
+        this.knownDlog = pp.knownDlog;
+    }
+
     @Override
     @CheckReturnValue
     public Representation getRepresentation() {
         return AnnotatedRepresentationUtil.putAnnotatedRepresentation(this);
     }
 
+    @Override
+    public EqualityPublicParameterAdvancedProof withCommitment(GroupElement commitment) {
+        return new EqualityPublicParameterAdvancedProof(this, commitment);
+    }
+
     public Zp.ZpElement getKnownDlog() {
         return knownDlog;
     }
@@ -80,6 +80,13 @@ public class EqualityPublicParameterUnknownValue extends EqualityPublicParameter
         this.group2 = g2.getStructure();
     }
 
+    public EqualityPublicParameterUnknownValue(EqualityPublicParameterUnknownValue pp, GroupElement commitment) {
+        super(pp, commitment);
+        this.g2 = pp.g2;
+        this.y = pp.y;
+        this.group2 = pp.group2;
+    }
+
     public EqualityPublicParameterUnknownValue(Representation representation) {
         AnnotatedRepresentationUtil.restoreAnnotatedRepresentation(representation, this);
     }
@@ -90,6 +97,11 @@ public class EqualityPublicParameterUnknownValue extends EqualityPublicParameter
         return AnnotatedRepresentationUtil.putAnnotatedRepresentation(this);
     }
 
+    @Override
+    public EqualityPublicParameterUnknownValue withCommitment(GroupElement commitment) {
+        return new EqualityPublicParameterUnknownValue(this, commitment);
+    }
+
     public GroupElement getG2() {
         return g2;
     }
@@ -49,6 +49,25 @@ public abstract class EqualityPublicParameters implements PredicatePublicParamet
     protected EqualityPublicParameters() {
     }
 
+    protected EqualityPublicParameters(EqualityPublicParameters pp, GroupElement commitment) {
+        this.g1 = pp.g1;
+        this.h = pp.h;
+        this.commitment = commitment;
+        this.group1 = pp.group1;
+        this.positionOfFirstCommitment = pp.positionOfFirstCommitment;
+        this.positionOfSecondCommitment = pp.positionOfSecondCommitment;
+        this.zp = pp.zp;
+        this.type = pp.type;
+    }
+
+    /**
+     * Creates a copy of these public parameters for the given commitment, leaving this object unchanged.
+     *
+     * @param commitment the commitment the equality is to be proven for
+     * @return a copy of these public parameters containing the given commitment
+     */
+    public abstract EqualityPublicParameters withCommitment(GroupElement commitment);
+
     public GroupElement getG1() {
         return g1;
     }
@@ -1,5 +1,6 @@
 package de.upb.crypto.clarc.predicategeneration.fixedprotocols.popk;
 
+import de.upb.crypto.clarc.parallel.ParallelExecution;
 import de.upb.crypto.clarc.predicategeneration.policies.SigmaProtocolPolicyFact;
 import de.upb.crypto.clarc.protocols.arguments.SigmaProtocol;
 import de.upb.crypto.clarc.protocols.generalizedschnorrprotocol.GeneralizedSchnorrChallenge;
@@ -18,6 +19,7 @@ import de.upb.crypto.math.structures.zn.Zp;
 
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -36,6 +38,10 @@ import java.util.stream.Collectors;
  * The verifier accepts iff {@link ThresholdTreeSecretSharing#checkShareConsistency} == true for the given partial
  * challenges (shares) and internal protocols accept their corresponding
  * ({@link Announcement}, {@link Challenge}, {@link Response})-tuple.
+ * <p>
+ * The leaves are independent of each other, hence their announcements and responses can be computed and verified
+ * in parallel by setting an {@link Executor} via {@link #setExecutor}. The order of the announcements and responses
+ * is the same in either case, and the verification stops as soon as one leaf does not accept.
  */
 public class ProofOfPartialKnowledgeProtocol extends SigmaProtocol {
 
@@ -53,6 +59,7 @@ public class ProofOfPartialKnowledgeProtocol extends SigmaProtocol {
 
     private ThresholdTreeSecretSharing secretSharing;
     private Map<Integer, SigmaProtocol> protocolMapping;
+    private Executor executor;
 
 
     //Verifier constructor
@@ -71,6 +78,34 @@ public class ProofOfPartialKnowledgeProtocol extends SigmaProtocol {
         setupSecretSharing();
     }
 
+    /**
+     * Verifier constructor reusing the given {@link ThresholdTreeSecretSharing}, instead of setting up a new one.
+     * <p>
+     * The given secret sharing must have been set up for the inverted policy of a {@link ThresholdPolicy} of the same
+     * structure as the given one, i.e. it only differs in the protocols contained in the leaves. Leaves are matched by
+     * their {@link SigmaProtocolPolicyFact#getProtocolId()}. Since a secret sharing is not modified during
+     * verification, it can be shared among any number of verifier instances.
+     * </p>
+     *
+     * @param publicParameters          public parameters of the protocol
+     * @param transformedProtocolPolicy the policy which leaves are {@link SigmaProtocolPolicyFact}
+     * @param secretSharing             secret sharing for a policy of the same structure
+     */
+    public ProofOfPartialKnowledgeProtocol(ProofOfPartialKnowledgePublicParameters publicParameters,
+                                           ThresholdPolicy transformedProtocolPolicy,
+                                           ThresholdTreeSecretSharing secretSharing) {
+        super(new Witness[]{new EmptyWitness()}, publicParameters);
+        this.zp = publicParameters.getZp();
+        this.policyWithProtocolLeaves = transformedProtocolPolicy;
+        this.fulfilledProtocols = collectFulfilledLeaves(policyWithProtocolLeaves);
+        this.secretSharing = secretSharing;
+        Map<Integer, SigmaProtocol> protocolsById = new HashMap<>();
+        collectProtocolsById(policyWithProtocolLeaves, protocolsById);
+        protocolMapping = secretSharing.getShareReceiverMap().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                        entry -> protocolsById.get(((SigmaProtocolPolicyFact) entry.getValue()).getProtocolId())));
+    }
+
     public ProofOfPartialKnowledgeProtocol(Representation representation) {
         AnnotatedRepresentationUtil.restoreAnnotatedRepresentation(representation, this);
         setupSecretSharing();
@@ -87,6 +122,19 @@ public class ProofOfPartialKnowledgeProtocol extends SigmaProtocol {
     }
 
 
+    private void collectProtocolsById(ThresholdPolicy policy, Map<Integer, SigmaProtocol> protocolsById) {
+        for (Policy childPolicy : policy.getChildren()) {
+            if (childPolicy instanceof SigmaProtocolPolicyFact) {
+                SigmaProtocolPolicyFact leaf = (SigmaProtocolPolicyFact) childPolicy;
+                protocolsById.put(leaf.getProtocolId(), leaf.getProtocol());
+            } else if (childPolicy instanceof ThresholdPolicy) {
+                collectProtocolsById((ThresholdPolicy) childPolicy, protocolsById);
+            } else {
+                throw new IllegalArgumentException("Malformed Policy!");
+            }
+        }
+    }
+
     /**
      * Collect a set of all leaves of the policy tree, which are {@link SigmaProtocolPolicyFact}, that are fulfilled
      * with respect to the currently available {@link Witness}.
@@ -140,6 +188,20 @@ public class ProofOfPartialKnowledgeProtocol extends SigmaProtocol {
         }
     }
 
+    /**
+     * Sets the executor which is used to compute the announcements and responses of the leaves and to verify them in
+     * parallel.
+     *
+     * @param executor the executor to use, or null to do everything sequentially in the calling thread (default)
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
     @Override
     public Challenge createChallengeFromByteArray(byte[] integer) {
         return new GeneralizedSchnorrChallenge(zp.createZnElement(new BigInteger(integer)));
@@ -155,7 +217,7 @@ public class ProofOfPartialKnowledgeProtocol extends SigmaProtocol {
 
     @Override
     public Announcement[] generateAnnouncements() {
-        Set<Integer> unfulfilledShareIds = secretSharing.getShareReceiverMap().entrySet().parallelStream()
+        Set<Integer> unfulfilledShareIds = secretSharing.getShareReceiverMap().entrySet().stream()
                 .filter(entry ->
                         fulfilledProtocols.stream()
                                 .noneMatch(prot ->
@@ -164,26 +226,32 @@ public class ProofOfPartialKnowledgeProtocol extends SigmaProtocol {
                 .map(Map.Entry::getKey)
                 .collect(Collectors.toSet());
 
-        unqualifiedShares = secretSharing.getShares(zp.getOneElement()).entrySet().parallelStream()
+        unqualifiedShares = secretSharing.getShares(zp.getOneElement()).entrySet().stream()
                 .filter(entry -> unfulfilledShareIds.contains(entry.getKey()))
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
-        simulatedProtocolExecutions = new HashMap<>(unqualifiedShares.size());
-
         Announcement[] announcements =
                 new ProofOfPartialKnowledgeAnnouncement[secretSharing.getShareReceiverMap().size()];
+        Transcript[] transcripts = new Transcript[announcements.length];
         //Per contract of linear secret sharing all shares are indexed from 1,..,n.
         //Therefore we need to "shift" the position by 1
-        for (int i = 1; i <= announcements.length; i++) {
+        ParallelExecution.forEachIndex(executor, 1, announcements.length + 1, i -> {
             SigmaProtocol protocol = ((SigmaProtocolPolicyFact) secretSharing.getShareReceiver(i)).getProtocol();
             if (unqualifiedShares.containsKey(i)) {
                 Challenge c = new GeneralizedSchnorrChallenge(unqualifiedShares.get(i));
-                simulatedProtocolExecutions.put(i, protocol.getSimulator().simulate(c));
+                transcripts[i - 1] = protocol.getSimulator().simulate(c);
                 announcements[i - 1] = new ProofOfPartialKnowledgeAnnouncement(i,
-                        simulatedProtocolExecutions.get(i).getAnnouncements());
+                        transcripts[i - 1].getAnnouncements());
             } else {
                 announcements[i - 1] = new ProofOfPartialKnowledgeAnnouncement(i, protocol.generateAnnouncements());
             }
+        });
+
+        simulatedProtocolExecutions = new HashMap<>(unqualifiedShares.size());
+        for (int i = 1; i <= transcripts.length; i++) {
+            if (transcripts[i - 1] != null) {
+                simulatedProtocolExecutions.put(i, transcripts[i - 1]);
+            }
         }
         return announcements;
     }
@@ -202,7 +270,7 @@ public class ProofOfPartialKnowledgeProtocol extends SigmaProtocol {
         Map<Integer, Zp.ZpElement> completeShares = secretSharing.completeShares(c.getChallenge(), unqualifiedShares);
 
         //Collect ids of the leaves which contain the fulfilled protocols.
-        Set<Integer> fulfilledShareIds = secretSharing.getShareReceiverMap().entrySet().parallelStream()
+        Set<Integer> fulfilledShareIds = secretSharing.getShareReceiverMap().entrySet().stream()
                 .filter(entry -> fulfilledProtocols.stream().anyMatch(prot ->
                         prot.equals(entry.getValue())))
                 .map(Map.Entry::getKey)
@@ -211,7 +279,7 @@ public class ProofOfPartialKnowledgeProtocol extends SigmaProtocol {
         Response[] responses = new ProofOfPartialKnowledgeResponse[completeShares.size()];
         //Per contract of the linear secret sharing all shares are indexed from 1,..,n.
         //Therefore we need to "shift" the position by 1
-        for (int i = 1; i <= completeShares.size(); i++) {
+        ParallelExecution.forEachIndex(executor, 1, responses.length + 1, i -> {
             SigmaProtocol protocol = ((SigmaProtocolPolicyFact) secretSharing.getShareReceiver(i)).getProtocol();
             Zp.ZpElement ci = completeShares.get(i);
             if (fulfilledShareIds.contains(i)) {
@@ -221,7 +289,7 @@ public class ProofOfPartialKnowledgeProtocol extends SigmaProtocol {
                 responses[i - 1] = new ProofOfPartialKnowledgeResponse(i,
                         simulatedProtocolExecutions.get(i).getResponses(), ci);
             }
-        }
+        });
 
         return responses;
     }
@@ -266,18 +334,15 @@ public class ProofOfPartialKnowledgeProtocol extends SigmaProtocol {
         //Per contract of linear secret sharing all shares (and therefore the challenges) are indexed from 1,..,n.
         //Therefore we need to "shift" the position by 1
         //check that for all i: p_i.verify(a_i, c_i, r_i) == true
-        for (int i = 1; i <= popkResponses.length; i++) {
+        //The verifier accepts iff all partial challenges are consistent to the challenge sent earlier
+        // and all protocols in the leaves of the tree are successfully verified
+        return ParallelExecution.allMatch(executor, 1, popkResponses.length + 1, i -> {
             SigmaProtocol protocol = protocolMapping.get(i);
             Announcement[] protAnnouncements = popkAnnouncements[i - 1].getAnnouncements();
             Challenge protChallenge = new GeneralizedSchnorrChallenge(challenges.get(i));
             Response[] protResponses = popkResponses[i - 1].getResponses();
-            if (!protocol.verify(protAnnouncements, protChallenge, protResponses)) {
-                return false;
-            }
-        }
-        //The verifier accepts iff all partial challenges are consistent to the challenge sent earlier
-        // and all protocols in the leaves of the tree are successfully verified
-        return true;
+            return protocol.verify(protAnnouncements, protChallenge, protResponses);
+        });
     }
 
     @Override
@@ -121,6 +121,11 @@ public class InequalityPublicParameters implements PredicatePublicParameters {
         this(g1, h, g1.getStructure().getNeutralElement(), g2, y, positionOfFirstCommitment, -1, zp);
     }
 
+    public InequalityPublicParameters(InequalityPublicParameters pp, GroupElement commitment) {
+        this(pp.g1, pp.h, commitment, pp.g2, pp.y, pp.positionOfFirstCommitment, pp.positionOfSecondCommitment,
+                pp.zp);
+    }
+
     public InequalityPublicParameters(Representation representation) {
         AnnotatedRepresentationUtil.restoreAnnotatedRepresentation(representation, this);
     }
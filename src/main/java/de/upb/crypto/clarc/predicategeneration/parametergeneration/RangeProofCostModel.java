@@ -0,0 +1,95 @@
+package de.upb.crypto.clarc.predicategeneration.parametergeneration;
+
+import de.upb.crypto.clarc.predicategeneration.rangeproofs.ArbitraryRangeProofProtocol;
+import de.upb.crypto.clarc.predicategeneration.setmembershipproofs.SetMembershipAccumulatorCache;
+
+import java.math.BigInteger;
+
+/**
+ * Cost models for choosing the base u and the exponent l of an {@link ArbitraryRangeProofProtocol}, see
+ * {@link RangeProofParameterGen}.
+ * <p>
+ * An arbitrary range proof consists of two inner proofs with l digits each. For every digit, the prover blinds the
+ * accumulator witness of the digit and both parties evaluate one term of the commitment equation and the pairing
+ * equation of the digit. In addition, the accumulator value and the witnesses of all u digits have to be computed,
+ * which takes O(u) respectively O(u^2) exponentiations. As they are shared by all proofs with the same base (see
+ * {@link SetMembershipAccumulatorCache}), this cost is amortized over {@link #PRECOMPUTATION_AMORTIZATION} proofs.
+ * </p>
+ * <p>
+ * Times are measured in exponentiations, where a pairing counts as {@link #PAIRING_COST} exponentiations. The size is
+ * measured in group and Zp elements.
+ * </p>
+ */
+public enum RangeProofCostModel {
+    /**
+     * Minimizes the time to create a proof.
+     */
+    PROVER_TIME {
+        @Override
+        double getCostPerDigit() {
+            // Blinding the witness, the commitment term and two pairings with their exponentiations
+            return 1 + 1 + 2 * (PAIRING_COST + 1);
+        }
+
+        @Override
+        double getPrecomputationCost(BigInteger base) {
+            // Accumulator value and all witnesses
+            double u = base.doubleValue();
+            return u * (u + 1);
+        }
+    },
+    /**
+     * Minimizes the time to verify a proof.
+     */
+    VERIFIER_TIME {
+        @Override
+        double getCostPerDigit() {
+            // The commitment term and three pairings with their exponentiations
+            return 2 + 3 * (PAIRING_COST + 1);
+        }
+
+        @Override
+        double getPrecomputationCost(BigInteger base) {
+            // Accumulator value
+            return base.doubleValue();
+        }
+    },
+    /**
+     * Minimizes the size of a proof.
+     */
+    PROOF_SIZE {
+        @Override
+        double getCostPerDigit() {
+            // Blinded witness, announcement of the pairing equation and two responses
+            return 4;
+        }
+
+        @Override
+        double getPrecomputationCost(BigInteger base) {
+            // Does not affect the size, but breaks ties in favor of smaller bases
+            return base.doubleValue() / PRECOMPUTATION_AMORTIZATION;
+        }
+    };
+
+    /**
+     * Cost of a pairing relative to an exponentiation.
+     */
+    public static final double PAIRING_COST = 3;
+    /**
+     * Number of proofs the precomputation for a base is assumed to be shared by.
+     */
+    public static final double PRECOMPUTATION_AMORTIZATION = 100;
+
+    abstract double getCostPerDigit();
+
+    abstract double getPrecomputationCost(BigInteger base);
+
+    /**
+     * @param base     base u
+     * @param exponent exponent l
+     * @return the cost of an arbitrary range proof with the given base and exponent
+     */
+    public double getCost(BigInteger base, int exponent) {
+        return 2 * exponent * getCostPerDigit() + getPrecomputationCost(base) / PRECOMPUTATION_AMORTIZATION;
+    }
+}
@@ -10,6 +10,14 @@ import de.upb.crypto.math.structures.zn.Zp;
 import java.math.BigInteger;
 
 public class RangeProofParameterGen {
+    /**
+     * The cost model used if none is given.
+     */
+    public static final RangeProofCostModel DEFAULT_COST_MODEL = RangeProofCostModel.PROVER_TIME;
+    /**
+     * Larger bases are not considered, since the precomputation for a base u takes O(u^2) exponentiations.
+     */
+    private static final BigInteger MAXIMUM_BASE = BigInteger.valueOf(1024);
 
     /**
      * Generate {@link ArbitraryRangeProofPublicParameters} to create an instance of
@@ -29,33 +37,43 @@ public class RangeProofParameterGen {
                                                                  BigInteger upperBound, int positionOfCommitment,
                                                                  Zp zp,
                                                                  NguyenAccumulatorPublicParameters accumulatorPP) {
+        return getRangePP(pedersenPP, lowerBound, upperBound, positionOfCommitment, zp, accumulatorPP,
+                DEFAULT_COST_MODEL);
+    }
+
+    /**
+     * Generate {@link ArbitraryRangeProofPublicParameters} to create an instance of
+     * {@link ArbitraryRangeProofProtocol} to prove that the committed value is within a range.
+     *
+     * @param pedersenPP           used to generate the commitment on the attributes
+     * @param lowerBound           of the range
+     * @param upperBound           of the range
+     * @param positionOfCommitment position of the attribute in the credential / attribute space
+     * @param zp                   Zp used in the system
+     * @param accumulatorPP        public parameters of the accumulator used for the system
+     * @param costModel            the cost to minimize when choosing the base and the exponent
+     * @return the range PP without a commitment set
+     */
+    public static ArbitraryRangeProofPublicParameters getRangePP(PedersenPublicParameters pedersenPP,
+                                                                 BigInteger lowerBound,
+                                                                 BigInteger upperBound, int positionOfCommitment,
+                                                                 Zp zp,
+                                                                 NguyenAccumulatorPublicParameters accumulatorPP,
+                                                                 RangeProofCostModel costModel) {
         GroupElement h = pedersenPP.getH()[0];
         GroupElement g2 = pedersenPP.getG();
 
         // Compute matching u = base and l=exponent, s,t,  0 < B - A  < min(p+1/2u-1, u^l-1)
-        // start with u =2 and compute l = log_u( B) (sealed) and if this does not fulfill the requirement stops
-        // iteration
-        BigInteger base = getBase(lowerBound, upperBound);
-        BigInteger p = zp.size();
-        int exponent;
-
-        // Iteratively compute l, s.t. B - A < u^l
-        exponent = 0;
-        // While B -A >= u^l-1
-        while (upperBound.subtract(lowerBound).compareTo(base.pow(exponent).subtract(BigInteger.ONE)) >= 0) {
-            exponent++;
-        }
-
-        validateParameters(base, exponent, upperBound, lowerBound, p);
-
-        // Verify given base against public Nguyen accumulator parameters
-        if (base.compareTo(accumulatorPP.getUpperBoundForAccumulatableIdentities()) >= 0) {
-            throw new IllegalArgumentException("The base is invalid and does not match the" +
-                    " precomputed NguyenAccumulator");
-        }
-
-        return new ArbitraryRangeProofPublicParameters(g2, h, base, exponent,
+        BigInteger base = getBase(lowerBound, upperBound, zp.size(), accumulatorPP, costModel);
+        int exponent = getExponent(base, lowerBound, upperBound);
+
+        // Policies hold the parameters without a commitment, the commitment on the attribute is only added for each
+        // proof (see PredicateToSigmaProtocolTransformation). A placeholder would end up in the policy's unique byte
+        // representation, hence the constructor leaving the commitment unset is still used here.
+        @SuppressWarnings("deprecation")
+        ArbitraryRangeProofPublicParameters rangePP = new ArbitraryRangeProofPublicParameters(g2, h, base, exponent,
                 positionOfCommitment, accumulatorPP, zp, lowerBound, upperBound);
+        return rangePP;
     }
 
     public static ArbitraryRangeProofPublicParameters getRangePP(PedersenPublicParameters pedersenPP,
@@ -64,30 +82,37 @@ public class RangeProofParameterGen {
                                                                  BigInteger upperBound, int positionOfCommitment,
                                                                  Zp zp,
                                                                  NguyenAccumulatorPublicParameters accumulatorPP) {
+        return getRangePP(pedersenPP, commitment, lowerBound, upperBound, positionOfCommitment, zp, accumulatorPP,
+                DEFAULT_COST_MODEL);
+    }
+
+    /**
+     * Generate {@link ArbitraryRangeProofPublicParameters} for the given commitment, choosing the base and the
+     * exponent such that the given cost is minimized.
+     *
+     * @param pedersenPP           used to generate the commitment on the attributes
+     * @param commitment           commitment on the attribute
+     * @param lowerBound           of the range
+     * @param upperBound           of the range
+     * @param positionOfCommitment position of the attribute in the credential / attribute space
+     * @param zp                   Zp used in the system
+     * @param accumulatorPP        public parameters of the accumulator used for the system
+     * @param costModel            the cost to minimize when choosing the base and the exponent
+     * @return the range PP
+     */
+    public static ArbitraryRangeProofPublicParameters getRangePP(PedersenPublicParameters pedersenPP,
+                                                                 GroupElement commitment,
+                                                                 BigInteger lowerBound,
+                                                                 BigInteger upperBound, int positionOfCommitment,
+                                                                 Zp zp,
+                                                                 NguyenAccumulatorPublicParameters accumulatorPP,
+                                                                 RangeProofCostModel costModel) {
         GroupElement h = pedersenPP.getH()[0];
         GroupElement g2 = pedersenPP.getG();
 
         // Compute matching u = base and l=exponent, s,t,  0 < B - A  < min(p+1/2u-1, u^l-1)
-        // start with u =2 and compute l = log_u( B) (sealed) and if this does not fulfill the requirement stops
-        // iteration
-        BigInteger base = getBase(lowerBound, upperBound);
-        BigInteger p = zp.size();
-        int exponent;
-
-        // Iteratively compute l, s.t. B - A < u^l
-        exponent = 0;
-        // While B -A >= u^l-1
-        while (upperBound.subtract(lowerBound).compareTo(base.pow(exponent).subtract(BigInteger.ONE)) >= 0) {
-            exponent++;
-        }
-
-        validateParameters(base, exponent, upperBound, lowerBound, p);
-
-        // Verify given base against public Nguyen accumulator parameters
-        if (base.compareTo(accumulatorPP.getUpperBoundForAccumulatableIdentities()) >= 0) {
-            throw new IllegalArgumentException("The base is invalid and does not match the" +
-                    " precomputed NguyenAccumulator");
-        }
+        BigInteger base = getBase(lowerBound, upperBound, zp.size(), accumulatorPP, costModel);
+        int exponent = getExponent(base, lowerBound, upperBound);
 
         return new ArbitraryRangeProofPublicParameters(g2, h, commitment, base, exponent,
                 positionOfCommitment, accumulatorPP, zp, lowerBound, upperBound);
@@ -112,14 +137,61 @@ public class RangeProofParameterGen {
     }
 
     /**
-     * Currently, only 2 is used as a base. If a more efficient numeric computation of the base is desired, one can
-     * simply put this in here
+     * Computes the smallest exponent l, s.t. B - A &lt; u^l - 1.
      *
+     * @param base       base u
      * @param lowerBound of the interval
      * @param upperBound of the interval
+     * @return the exponent l
+     */
+    private static int getExponent(BigInteger base, BigInteger lowerBound, BigInteger upperBound) {
+        int exponent = 0;
+        // While B -A >= u^l-1
+        while (upperBound.subtract(lowerBound).compareTo(base.pow(exponent).subtract(BigInteger.ONE)) >= 0) {
+            exponent++;
+        }
+        return exponent;
+    }
+
+    /**
+     * Chooses the base u with the lowest cost according to the given cost model among all bases which can be
+     * accumulated by the given accumulator and which can represent the interval, see {@link #validateParameters}.
+     *
+     * @param lowerBound    of the interval
+     * @param upperBound    of the interval
+     * @param p             size of Zp
+     * @param accumulatorPP public parameters of the accumulator used for the system
+     * @param costModel     the cost to minimize
      * @return a base for the representation of the interval
      */
-    private static BigInteger getBase(BigInteger lowerBound, BigInteger upperBound) {
-        return BigInteger.valueOf(16);
+    private static BigInteger getBase(BigInteger lowerBound, BigInteger upperBound, BigInteger p,
+                                      NguyenAccumulatorPublicParameters accumulatorPP,
+                                      RangeProofCostModel costModel) {
+        if (upperBound.subtract(lowerBound).signum() <= 0) {
+            throw new IllegalArgumentException("Invalid Parameter, upper bound needs to be greater than lower bound");
+        }
+        BigInteger maximumBase = accumulatorPP.getUpperBoundForAccumulatableIdentities().subtract(BigInteger.ONE)
+                .min(MAXIMUM_BASE);
+        BigInteger bestBase = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (BigInteger base = BigInteger.valueOf(2); base.compareTo(maximumBase) <= 0;
+             base = base.add(BigInteger.ONE)) {
+            int exponent = getExponent(base, lowerBound, upperBound);
+            try {
+                validateParameters(base, exponent, upperBound, lowerBound, p);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            double cost = costModel.getCost(base, exponent);
+            if (cost < bestCost) {
+                bestBase = base;
+                bestCost = cost;
+            }
+        }
+        if (bestBase == null) {
+            throw new IllegalArgumentException("Cannot represent this Range using a base which can be accumulated" +
+                    " by the precomputed NguyenAccumulator");
+        }
+        return bestBase;
     }
 }
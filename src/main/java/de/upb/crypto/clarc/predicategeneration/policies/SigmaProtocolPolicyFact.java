@@ -8,7 +8,6 @@ import de.upb.crypto.math.interfaces.hash.ByteAccumulator;
 import de.upb.crypto.math.serialization.Representation;
 import de.upb.crypto.math.serialization.annotations.AnnotatedRepresentationUtil;
 import de.upb.crypto.math.serialization.annotations.Represented;
-import de.upb.crypto.math.serialization.converter.JSONConverter;
 
 import java.util.Collection;
 import java.util.Objects;
@@ -42,7 +41,7 @@ public class SigmaProtocolPolicyFact implements Policy, PolicyFact {
 
     @Override
     public ByteAccumulator updateAccumulator(ByteAccumulator accumulator) {
-        accumulator.escapeAndSeparate(new JSONConverter().serialize(protocol.getRepresentation())); //TODO replace serialization with something unique (along the lines of implementing the UniqueByteRepresentable interface)
+        accumulator.escapeAndSeparate(new UniqueRepresentation(protocol.getRepresentation()));
         accumulator.append(protocolId);
         return accumulator;
     }
@@ -56,6 +55,10 @@ public class SigmaProtocolPolicyFact implements Policy, PolicyFact {
         return protocol;
     }
 
+    public int getProtocolId() {
+        return protocolId;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -9,7 +9,6 @@ import de.upb.crypto.math.serialization.ObjectRepresentation;
 import de.upb.crypto.math.serialization.Representation;
 import de.upb.crypto.math.serialization.annotations.AnnotatedRepresentationUtil;
 import de.upb.crypto.math.serialization.annotations.Represented;
-import de.upb.crypto.math.serialization.converter.JSONConverter;
 
 import java.util.Collection;
 import java.util.Objects;
@@ -62,7 +61,7 @@ public class SubPolicyPolicyFact implements PolicyFact, Policy {
 
     @Override
     public ByteAccumulator updateAccumulator(ByteAccumulator byteAccumulator) {
-        byteAccumulator.escapeAndSeparate(new JSONConverter().serialize(issuerPublicKeyRepresentation)); //TODO replace serialization with something unique (along the lines of implementing the UniqueByteRepresentable interface)
+        byteAccumulator.escapeAndSeparate(new UniqueRepresentation(issuerPublicKeyRepresentation));
         byteAccumulator.escapeAndSeparate(subPolicy);
         return byteAccumulator;
     }
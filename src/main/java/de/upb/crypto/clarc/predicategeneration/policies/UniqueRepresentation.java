@@ -0,0 +1,105 @@
+package de.upb.crypto.clarc.predicategeneration.policies;
+
+import de.upb.crypto.clarc.serialization.RepresentationEncoder;
+import de.upb.crypto.math.hash.impl.ByteArrayAccumulator;
+import de.upb.crypto.math.interfaces.hash.ByteAccumulator;
+import de.upb.crypto.math.interfaces.hash.UniqueByteRepresentable;
+import de.upb.crypto.math.serialization.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Makes a {@link Representation} {@link UniqueByteRepresentable} such that it can be fed into a
+ * {@link ByteAccumulator}, e.g. for computing Fiat-Shamir challenges.
+ * <p>
+ * The representation is traversed once by a {@link RepresentationEncoder}, which appends every node to the accumulator
+ * as a type tag followed by its length-prefixed content, hence no intermediate (JSON) string of the whole
+ * representation is built. Keys of {@link ObjectRepresentation}s and entries of {@link MapRepresentation}s are appended
+ * in a canonical order, such that equal representations always result in the same bytes.
+ * </p>
+ */
+class UniqueRepresentation implements UniqueByteRepresentable {
+    private final Representation representation;
+
+    UniqueRepresentation(Representation representation) {
+        this.representation = representation;
+    }
+
+    @Override
+    public ByteAccumulator updateAccumulator(ByteAccumulator accumulator) {
+        new Encoder(accumulator).write(representation);
+        return accumulator;
+    }
+
+    private static class Encoder extends RepresentationEncoder {
+        private final ByteAccumulator accumulator;
+
+        private Encoder(ByteAccumulator accumulator) {
+            this.accumulator = accumulator;
+        }
+
+        @Override
+        protected Collection<String> getKeys(Map<String, Representation> map) {
+            return map.keySet().stream().sorted().collect(Collectors.toList());
+        }
+
+        @Override
+        protected void writeEntries(Map<Representation, Representation> map) {
+            // The iteration order of the map is not canonical, hence the encoded entries are sorted
+            List<byte[]> entries = new ArrayList<>();
+            for (Map.Entry<Representation, Representation> entry : map.entrySet()) {
+                Encoder entryEncoder = new Encoder(new ByteArrayAccumulator());
+                entryEncoder.write(entry.getKey());
+                entryEncoder.write(entry.getValue());
+                entries.add(entryEncoder.accumulator.extractBytes());
+            }
+            entries.sort(UniqueRepresentation::compare);
+            writeLength(entries.size());
+            entries.forEach(this::writeBytes);
+        }
+
+        @Override
+        protected void writeTag(byte tag) {
+            accumulator.append(tag);
+        }
+
+        @Override
+        protected void writeLength(int length) {
+            accumulator.append(length);
+        }
+
+        @Override
+        protected void writeString(String string) {
+            writeBytes(string.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        protected void writeBytes(byte[] bytes) {
+            accumulator.append(bytes.length);
+            accumulator.append(bytes);
+        }
+
+        @Override
+        protected void writeLong(long value) {
+            accumulator.append(ByteBuffer.allocate(Long.BYTES).putLong(value).array());
+        }
+    }
+
+    /**
+     * Compares the arrays lexicographically.
+     */
+    private static int compare(byte[] a, byte[] b) {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            if (a[i] != b[i]) {
+                return Byte.compare(a[i], b[i]);
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+}
@@ -113,7 +113,6 @@ public class ZeroToUPowLRangeProofProtocol extends SigmaProtocol {
     public ZeroToUPowLRangeProofAnnouncement[] generateAnnouncements() {
         ZeroToUPowLRangeProofPublicParameters rangePP = getPublicParameters();
         Zp zp = rangePP.getZp();
-        NguyenAccumulator accumulator = new NguyenAccumulator(rangePP.getNguyenAccumulatorPublicParameters());
 
         //Generate values alpha_j (the u-ary representation of the witness alpha)
         Zp.ZpElement[] alpha_j = getUaryRepresentationOf(getWitness().getAlpha().getInteger());
@@ -123,7 +122,9 @@ public class ZeroToUPowLRangeProofProtocol extends SigmaProtocol {
         z_j = new Zp.ZpElement[alpha_j.length];
         for (int j = 0; j < w_jHats.length; j++) {
             z_j[j] = zp.getUniformlyRandomUnit();
-            w_jHats[j] = getPublicParameters().getAccumulatorWitness(new NguyenAccumulatorIdentity(alpha_j[j])).getValue().pow(z_j[j]);
+            // The witnesses are shared by all range proofs with the same base, see SetMembershipAccumulatorCache
+            w_jHats[j] = getPublicParameters().getAccumulatorWitness(new NguyenAccumulatorIdentity(alpha_j[j]))
+                    .getValue().pow(z_j[j]);
         }
 
         // generate inner protocol.
@@ -1,6 +1,7 @@
 package de.upb.crypto.clarc.predicategeneration.rangeproofs.zerotoupowlrangeproof;
 
 import de.upb.crypto.clarc.predicategeneration.PredicatePublicParameters;
+import de.upb.crypto.clarc.predicategeneration.setmembershipproofs.SetMembershipAccumulatorCache;
 import de.upb.crypto.craco.accumulators.nguyen.*;
 import de.upb.crypto.math.interfaces.hash.ByteAccumulator;
 import de.upb.crypto.math.interfaces.structures.Group;
@@ -12,7 +13,6 @@ import de.upb.crypto.math.serialization.annotations.RepresentedSet;
 import de.upb.crypto.math.structures.zn.Zp;
 
 import java.math.BigInteger;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -43,9 +43,8 @@ public class ZeroToUPowLRangeProofPublicParameters implements PredicatePublicPar
     @Represented
     private int positionOfCommitment;
 
-    // cache values
-    private NguyenAccumulatorValue v;
-    private HashMap<NguyenAccumulatorIdentity, NguyenWitness> accumulatorWitnesses;
+    // shared accumulator value and witnesses for the digits
+    private SetMembershipAccumulatorCache.AccumulatedSet accumulatedDigits;
 
     public ZeroToUPowLRangeProofPublicParameters(Representation representation) {
         AnnotatedRepresentationUtil.restoreAnnotatedRepresentation(representation, this);
@@ -120,8 +119,7 @@ public class ZeroToUPowLRangeProofPublicParameters implements PredicatePublicPar
         this.exponent = params.exponent;
         this.nguyenAccumulatorPublicParameters = params.nguyenAccumulatorPublicParameters;
         this.positionOfCommitment = params.positionOfCommitment;
-        this.v = params.v;
-        this.accumulatorWitnesses = params.accumulatorWitnesses;
+        this.accumulatedDigits = params.accumulatedDigits;
     }
 
     /**
@@ -136,18 +134,12 @@ public class ZeroToUPowLRangeProofPublicParameters implements PredicatePublicPar
     }
 
     protected void initValues() {
-        NguyenAccumulator acc = new NguyenAccumulator(nguyenAccumulatorPublicParameters);
-
+        Set<NguyenAccumulatorIdentity> digits = new HashSet<>();
         for (BigInteger i = BigInteger.ZERO; i.compareTo(base) < 0; i = i.add(BigInteger.ONE)) {
-            omega.add(new NguyenAccumulatorIdentity(zp.createZnElement(i)));
-        }
-
-        this.v = acc.create(omega);
-
-        this.accumulatorWitnesses = new HashMap<>();
-        for (NguyenAccumulatorIdentity accumulatedValue : omega) {
-            accumulatorWitnesses.put(accumulatedValue, acc.createWitness(omega, accumulatedValue));
+            digits.add(new NguyenAccumulatorIdentity(zp.createZnElement(i)));
         }
+        this.accumulatedDigits = SetMembershipAccumulatorCache.get(nguyenAccumulatorPublicParameters, digits);
+        omega.addAll(digits);
     }
 
     public GroupElement getH() {
@@ -183,13 +175,13 @@ public class ZeroToUPowLRangeProofPublicParameters implements PredicatePublicPar
     }
 
     public NguyenAccumulatorValue getAccumulatorValue() {
-        return v;
+        return accumulatedDigits.getAccumulatorValue();
     }
 
     public NguyenWitness getAccumulatorWitness(NguyenAccumulatorIdentity accumulatedValue) {
         if (!omega.contains(accumulatedValue))
             throw new IllegalArgumentException(accumulatedValue.toString() + " is not accumulated");
-        return accumulatorWitnesses.get(accumulatedValue);
+        return accumulatedDigits.getWitness(accumulatedValue);
     }
 
     public Zp getZp() {
@@ -0,0 +1,170 @@
+package de.upb.crypto.clarc.predicategeneration.setmembershipproofs;
+
+import de.upb.crypto.craco.accumulators.nguyen.NguyenAccumulator;
+import de.upb.crypto.craco.accumulators.nguyen.NguyenAccumulatorIdentity;
+import de.upb.crypto.craco.accumulators.nguyen.NguyenAccumulatorPublicParameters;
+import de.upb.crypto.craco.accumulators.nguyen.NguyenAccumulatorValue;
+import de.upb.crypto.craco.accumulators.nguyen.NguyenWitness;
+import de.upb.crypto.craco.enc.sym.streaming.aes.ByteArrayImplementation;
+import de.upb.crypto.math.hash.impl.ByteArrayAccumulator;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of the accumulator values V := AccCreate(nguyenPP, \Omega), the pairings e(V, g~)^-1 and the
+ * witnesses W_alpha := WitCreate(nguyenPP, \Omega, alpha) used by the {@link SetMembershipProofProtocol} and by the
+ * range proofs, which accumulate the set of digits.
+ * <p>
+ * The value and each witness require O(|\Omega|) exponentiations and the pairing is evaluated for every proof and
+ * verification, but all of them only depend on the accumulator public parameters and the set. Hence, they are
+ * computed once per set and reused by all proofs and verifications for the same set. The sets are identified by the
+ * unique byte representation of the accumulator public parameters and the set members, which does not depend on the
+ * iteration order of the set. The least recently used sets are evicted if more than {@link #MAXIMUM_NUMBER_OF_SETS}
+ * sets are used. All methods are thread-safe.
+ * </p>
+ */
+public class SetMembershipAccumulatorCache {
+    public static final int MAXIMUM_NUMBER_OF_SETS = 128;
+
+    private static final Map<ByteArrayImplementation, AccumulatedSet> entries =
+            new LinkedHashMap<ByteArrayImplementation, AccumulatedSet>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ByteArrayImplementation, AccumulatedSet> eldest) {
+                    return size() > MAXIMUM_NUMBER_OF_SETS;
+                }
+            };
+
+    private SetMembershipAccumulatorCache() {
+    }
+
+    /**
+     * Returns the shared values for the given set, which is registered if necessary. The values are computed on first
+     * use. Callers which use the values repeatedly can keep the returned object instead of looking it up again.
+     *
+     * @param accPP      the accumulator public parameters
+     * @param setMembers the set \Omega
+     * @return the values for the given set
+     */
+    public static AccumulatedSet get(NguyenAccumulatorPublicParameters accPP,
+                                     Set<NguyenAccumulatorIdentity> setMembers) {
+        ByteArrayImplementation key = computeKey(accPP, setMembers);
+        synchronized (entries) {
+            return entries.computeIfAbsent(key, k -> new AccumulatedSet(accPP, setMembers));
+        }
+    }
+
+    /**
+     * @param setPP public parameters containing the accumulator public parameters and the set \Omega
+     * @return V := AccCreate(nguyenPP, \Omega)
+     */
+    public static NguyenAccumulatorValue getAccumulatorValue(SetMembershipPublicParameters setPP) {
+        return get(setPP).getAccumulatorValue();
+    }
+
+    /**
+     * @param setPP public parameters containing the accumulator public parameters and the set \Omega
+     * @return e(V, g~)^-1 = e(V, g~^-1) for V := AccCreate(nguyenPP, \Omega)
+     */
+    public static GroupElement getInverseValuePairing(SetMembershipPublicParameters setPP) {
+        return get(setPP).getInverseValuePairing();
+    }
+
+    /**
+     * @param setPP  public parameters containing the accumulator public parameters and the set \Omega
+     * @param member the member alpha of \Omega
+     * @return W_alpha := WitCreate(nguyenPP, \Omega, alpha)
+     */
+    public static NguyenWitness getWitness(SetMembershipPublicParameters setPP, NguyenAccumulatorIdentity member) {
+        return get(setPP).getWitness(member);
+    }
+
+    /**
+     * Removes all cached values and witnesses.
+     */
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static AccumulatedSet get(SetMembershipPublicParameters setPP) {
+        return get(setPP.getNguyenAccumulatorPublicParameters(), setPP.getSetMembers());
+    }
+
+    private static ByteArrayImplementation computeKey(NguyenAccumulatorPublicParameters accPP,
+                                                      Set<NguyenAccumulatorIdentity> setMembers) {
+        ByteArrayAccumulator accumulator = new ByteArrayAccumulator();
+        accumulator.escapeAndSeparate(accPP);
+        setMembers.stream()
+                .sorted(Comparator.comparing(member -> member.getIdentity().getInteger()))
+                .forEachOrdered(accumulator::escapeAndSeparate);
+        return new ByteArrayImplementation(accumulator.extractBytes());
+    }
+
+    /**
+     * The accumulator value, its pairing and the witnesses for a single set, which are computed on first use.
+     */
+    public static class AccumulatedSet {
+        private final NguyenAccumulatorPublicParameters accPP;
+        private final NguyenAccumulator accumulator;
+        private final Set<NguyenAccumulatorIdentity> setMembers;
+        private final Map<NguyenAccumulatorIdentity, NguyenWitness> witnesses = new ConcurrentHashMap<>();
+        private volatile NguyenAccumulatorValue accumulatorValue;
+        private volatile GroupElement inverseValuePairing;
+
+        private AccumulatedSet(NguyenAccumulatorPublicParameters accPP, Set<NguyenAccumulatorIdentity> setMembers) {
+            this.accPP = accPP;
+            this.accumulator = new NguyenAccumulator(accPP);
+            this.setMembers = new HashSet<>(setMembers);
+        }
+
+        /**
+         * @return V := AccCreate(nguyenPP, \Omega)
+         */
+        public NguyenAccumulatorValue getAccumulatorValue() {
+            NguyenAccumulatorValue value = accumulatorValue;
+            if (value == null) {
+                synchronized (this) {
+                    value = accumulatorValue;
+                    if (value == null) {
+                        value = accumulator.create(setMembers);
+                        accumulatorValue = value;
+                    }
+                }
+            }
+            return value;
+        }
+
+        /**
+         * @return e(V, g~)^-1 = e(V, g~^-1) for V := AccCreate(nguyenPP, \Omega)
+         */
+        public GroupElement getInverseValuePairing() {
+            GroupElement pairing = inverseValuePairing;
+            if (pairing == null) {
+                synchronized (this) {
+                    pairing = inverseValuePairing;
+                    if (pairing == null) {
+                        pairing = accPP.getBilinearMap().apply(getAccumulatorValue().getValue(), accPP.getG_Tilde())
+                                .inv();
+                        inverseValuePairing = pairing;
+                    }
+                }
+            }
+            return pairing;
+        }
+
+        /**
+         * @param member the member alpha of \Omega
+         * @return W_alpha := WitCreate(nguyenPP, \Omega, alpha)
+         */
+        public NguyenWitness getWitness(NguyenAccumulatorIdentity member) {
+            return witnesses.computeIfAbsent(member, m -> accumulator.createWitness(setMembers, m));
+        }
+    }
+}
@@ -77,13 +77,8 @@ public class SetMembershipProofProtocol extends SigmaProtocol {
 
         SetMembershipPublicParameters setPP = (SetMembershipPublicParameters) publicParameters;
 
-        // Compute V := AccCreate(nguyenPP, \Omega)
-        NguyenAccumulator accumulator = new NguyenAccumulator(setPP.getNguyenAccumulatorPublicParameters());
-        NguyenAccumulatorValue v = accumulator.create(setPP.getSetMembers());
-
         // W_alpha:=WitCreate(pp,\Omega,i), where \alpha is equal to the i-th value of \Omega
-        NguyenWitness wAlpha =
-                (NguyenWitness) accumulator.createWitness(setPP.getSetMembers(), new NguyenAccumulatorIdentity(alpha));
+        NguyenWitness wAlpha = SetMembershipAccumulatorCache.getWitness(setPP, new NguyenAccumulatorIdentity(alpha));
 
         // Choose z uniformly at random from Zp*
         Zp.ZpElement z = setPP.getZp().getUniformlyRandomUnit();
@@ -96,7 +91,7 @@ public class SetMembershipProofProtocol extends SigmaProtocol {
         // generate inner protocol
         ArithComparisonExpression[] problemInnerProtocol = new ArithComparisonExpression[]{
                 getFirstEquation(setPP, uniqueName),
-                getSecondEquation(setPP, v, w, uniqueName)};
+                getSecondEquation(setPP, w, uniqueName)};
         GeneralizedSchnorrProtocolFactory factory =
                 new GeneralizedSchnorrProtocolFactory(problemInnerProtocol, setPP.getZp());
 
@@ -134,13 +129,9 @@ public class SetMembershipProofProtocol extends SigmaProtocol {
             factory = new GeneralizedSchnorrProtocolFactory(new ArithComparisonExpression[0], setPP.getZp());
         } else {
 
-            // Compute V := AccCreate(nguyenPP, \Omega)
-            NguyenAccumulator accumulator = new NguyenAccumulator(setPP.getNguyenAccumulatorPublicParameters());
-            NguyenAccumulatorValue v = accumulator.create(setPP.getSetMembers());
-
             // Create problem equations for the GenSchnorrProtocol
             ArithComparisonExpression eq1 = getFirstEquation(setPP, uniqueName);
-            ArithComparisonExpression eq2 = getSecondEquation(setPP, v, w, uniqueName);
+            ArithComparisonExpression eq2 = getSecondEquation(setPP, w, uniqueName);
 
             // Create a GenSchnorrProtocol
             factory = new GeneralizedSchnorrProtocolFactory(new ArithComparisonExpression[]{eq1, eq2}, setPP.getZp());
@@ -173,12 +164,11 @@ public class SetMembershipProofProtocol extends SigmaProtocol {
      * Computes   e(W,g1~^s)^-1 = e(W,g1~) ^\alpha  \op e(V,g1~ ^-1 )^z
      *
      * @param setPP of the setMembershipProof
-     * @param v     accumulator value
      * @param w     :=WitCreate(pp,\Omega,i) ^z
      * @return the problem equation
      */
-    private ArithComparisonExpression getSecondEquation(SetMembershipPublicParameters setPP, NguyenAccumulatorValue v,
-                                                        GroupElement w, String uniqueName) {
+    private ArithComparisonExpression getSecondEquation(SetMembershipPublicParameters setPP, GroupElement w,
+                                                        String uniqueName) {
         NguyenAccumulatorPublicParameters accPP = setPP.getNguyenAccumulatorPublicParameters();
         // Firstly, compute e(W,g1~^s)^-1
         GroupElement lhs = accPP.getBilinearMap().apply(w, accPP.getG_Tilde_Power_S()).inv();
@@ -190,11 +180,9 @@ public class SetMembershipProofProtocol extends SigmaProtocol {
                         new NumberGroupElementLiteral(w),
                         new NumberGroupElementLiteral(accPP.getG_Tilde())),
                 new ZnVariable(ALPHA + uniqueName)));
+        // e(V,g1~^-1) = e(V,g1~)^-1 only depends on the set, hence it is computed once per set
         rhs.addElement(new PowerGroupElementExpression(
-                new PairingGroupElementExpression(
-                        accPP.getBilinearMap(),
-                        new NumberGroupElementLiteral(v.getValue()),
-                        new NumberGroupElementLiteral(accPP.getG_Tilde().inv())),
+                new NumberGroupElementLiteral(SetMembershipAccumulatorCache.getInverseValuePairing(setPP)),
                 new ZnVariable(Z + uniqueName)));
 
         return new GroupElementEqualityExpression(new NumberGroupElementLiteral(lhs), rhs);
@@ -263,13 +251,9 @@ public class SetMembershipProofProtocol extends SigmaProtocol {
         SetMembershipPublicParameters setPP = (SetMembershipPublicParameters) this.publicParameters;
         SetMembershipAnnouncement setMembershipAnnouncement = (SetMembershipAnnouncement) announcements[0];
 
-        // Compute V := AccCreate(nguyenPP, \Omega)
-        NguyenAccumulator accumulator = new NguyenAccumulator(setPP.getNguyenAccumulatorPublicParameters());
-        NguyenAccumulatorValue v = accumulator.create(setPP.getSetMembers());
-
         ArithComparisonExpression[] problemInnerProtocol = new ArithComparisonExpression[]{
                 getFirstEquation(setPP, this.witnesses[0].getName()),
-                getSecondEquation(setPP, v, setMembershipAnnouncement.getW(), this.witnesses[0].getName())};
+                getSecondEquation(setPP, setMembershipAnnouncement.getW(), this.witnesses[0].getName())};
 
         GeneralizedSchnorrProtocolFactory factory = new GeneralizedSchnorrProtocolFactory(problemInnerProtocol, (
                 (SetMembershipPublicParameters) this.publicParameters).getZp());
@@ -349,13 +333,9 @@ public class SetMembershipProofProtocol extends SigmaProtocol {
         this.w = w;
         // Recompute second equaiton
         SetMembershipPublicParameters setPP = (SetMembershipPublicParameters) this.publicParameters;
-        // Compute V := AccCreate(nguyenPP, \Omega)
-        NguyenAccumulator accumulator = new NguyenAccumulator(setPP.getNguyenAccumulatorPublicParameters());
-        NguyenAccumulatorValue v = accumulator.create(setPP.getSetMembers());
-
         // Create problem equations for the GenSchnorrProtocol
         ArithComparisonExpression eq1 = getFirstEquation(setPP, witnesses[0].getName());
-        ArithComparisonExpression eq2 = getSecondEquation(setPP, v, w, witnesses[0].getName());
+        ArithComparisonExpression eq2 = getSecondEquation(setPP, w, witnesses[0].getName());
 
         // Create a GenSchnorrProtocol
         GeneralizedSchnorrProtocolFactory factory = new GeneralizedSchnorrProtocolFactory(
@@ -91,6 +91,11 @@ public class SetMembershipPublicParameters implements PredicatePublicParameters
         this.zp = zp;
     }
 
+    public SetMembershipPublicParameters(SetMembershipPublicParameters pp, GroupElement commitment) {
+        this(pp.g2, pp.h, commitment, pp.setMembers, pp.positionOfCommitment,
+                pp.nguyenAccumulatorPublicParameters, pp.zp);
+    }
+
     public SetMembershipPublicParameters(Representation representation) {
         AnnotatedRepresentationUtil.restoreAnnotatedRepresentation(representation, this);
     }
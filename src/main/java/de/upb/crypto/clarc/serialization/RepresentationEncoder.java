@@ -0,0 +1,126 @@
+package de.upb.crypto.clarc.serialization;
+
+import de.upb.crypto.math.serialization.*;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Traverses a {@link Representation} once and writes every node as a tag byte, which determines its type, followed by
+ * its content. Subclasses define how lengths, strings, byte arrays and integers are written, e.g. into a binary
+ * message or into a {@link de.upb.crypto.math.interfaces.hash.ByteAccumulator}.
+ * <p>
+ * The content written after the tag is
+ * </p>
+ * <ul>
+ * <li>{@link #TAG_NULL}, {@link #TAG_TRUE} and {@link #TAG_FALSE}: nothing</li>
+ * <li>{@link #TAG_OBJECT}: the number of fields followed by the name and the encoded value of each field</li>
+ * <li>{@link #TAG_MAP}: the number of entries followed by the encoded key and value of each entry</li>
+ * <li>{@link #TAG_LIST}: the number of elements followed by the encoded elements</li>
+ * <li>{@link #TAG_REPRESENTABLE}: the name of the represented type followed by the encoded representation</li>
+ * <li>{@link #TAG_STRING}: the string</li>
+ * <li>{@link #TAG_BIG_INTEGER}: the two's complement bytes of the integer</li>
+ * <li>{@link #TAG_INTEGER}: the integer</li>
+ * <li>{@link #TAG_BYTES}: the bytes</li>
+ * </ul>
+ */
+public abstract class RepresentationEncoder {
+    public static final byte TAG_NULL = 0;
+    public static final byte TAG_OBJECT = 1;
+    public static final byte TAG_MAP = 2;
+    public static final byte TAG_LIST = 3;
+    public static final byte TAG_REPRESENTABLE = 4;
+    public static final byte TAG_STRING = 5;
+    public static final byte TAG_BIG_INTEGER = 6;
+    public static final byte TAG_INTEGER = 7;
+    public static final byte TAG_TRUE = 8;
+    public static final byte TAG_FALSE = 9;
+    public static final byte TAG_BYTES = 10;
+
+    /**
+     * Writes the given representation including all nested representations.
+     *
+     * @param representation the representation to write, may be null
+     * @throws IllegalArgumentException if the representation or a nested one has an unsupported type
+     */
+    public void write(Representation representation) {
+        if (representation == null) {
+            writeTag(TAG_NULL);
+        } else if (representation instanceof ObjectRepresentation) {
+            writeTag(TAG_OBJECT);
+            Map<String, Representation> map = ((ObjectRepresentation) representation).getMap();
+            writeLength(map.size());
+            for (String key : getKeys(map)) {
+                writeString(key);
+                write(map.get(key));
+            }
+        } else if (representation instanceof MapRepresentation) {
+            writeTag(TAG_MAP);
+            writeEntries(((MapRepresentation) representation).getMap());
+        } else if (representation instanceof ListRepresentation) {
+            writeTag(TAG_LIST);
+            Collection<Representation> list = ((ListRepresentation) representation).getList();
+            writeLength(list.size());
+            for (Representation element : list) {
+                write(element);
+            }
+        } else if (representation instanceof RepresentableRepresentation) {
+            writeTag(TAG_REPRESENTABLE);
+            RepresentableRepresentation repr = (RepresentableRepresentation) representation;
+            writeString(repr.getRepresentedTypeName());
+            write(repr.getRepresentation());
+        } else if (representation instanceof StringRepresentation) {
+            writeTag(TAG_STRING);
+            writeString(((StringRepresentation) representation).get());
+        } else if (representation instanceof BigIntegerRepresentation) {
+            writeTag(TAG_BIG_INTEGER);
+            writeBytes(((BigIntegerRepresentation) representation).get().toByteArray());
+        } else if (representation instanceof IntegerRepresentation) {
+            writeTag(TAG_INTEGER);
+            writeLong(((IntegerRepresentation) representation).get());
+        } else if (representation instanceof BooleanRepresentation) {
+            writeTag(((BooleanRepresentation) representation).get() ? TAG_TRUE : TAG_FALSE);
+        } else if (representation instanceof ByteArrayRepresentation) {
+            writeTag(TAG_BYTES);
+            writeBytes(((ByteArrayRepresentation) representation).get());
+        } else {
+            throw new IllegalArgumentException("Unsupported representation type "
+                    + representation.getClass().getName());
+        }
+    }
+
+    /**
+     * Returns the names of the fields of an {@link ObjectRepresentation} in the order they are written. By default,
+     * this is the iteration order of the map.
+     *
+     * @param map the fields of the object
+     * @return the names of all fields
+     */
+    protected Collection<String> getKeys(Map<String, Representation> map) {
+        return map.keySet();
+    }
+
+    /**
+     * Writes the number of entries of a {@link MapRepresentation} followed by the entries. By default, the entries
+     * are written in the iteration order of the map.
+     *
+     * @param map the entries of the map
+     */
+    protected void writeEntries(Map<Representation, Representation> map) {
+        writeLength(map.size());
+        for (Map.Entry<Representation, Representation> entry : map.entrySet()) {
+            write(entry.getKey());
+            write(entry.getValue());
+        }
+    }
+
+    protected abstract void writeTag(byte tag);
+
+    protected abstract void writeLength(int length);
+
+    protected abstract void writeString(String string);
+
+    protected abstract void writeBytes(byte[] bytes);
+
+    protected abstract void writeLong(long value);
+}
@@ -0,0 +1,186 @@
+package de.upb.crypto.clarc.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * A file to which records are only appended, which is used by stores that persist every change on its own instead of
+ * rewriting all of their data.
+ * <p>
+ * Each record consists of the length of its payload (4 bytes, big endian), the CRC-32 checksum of the payload (4 bytes,
+ * big endian) and the payload itself. When the log is opened, the existing records are replayed in the order they
+ * were written. The log is read in memory-mapped segments of at most {@link #SEGMENT_SIZE} bytes, hence its size is
+ * not limited by the size of a single mapping.
+ * </p>
+ * <p>
+ * If a record is incomplete or its checksum does not match, e.g. since the process crashed while writing it, the
+ * record and everything after it is cut off. A complete record which can not be processed by the consumer, i.e. the
+ * consumer throws a {@link RuntimeException}, is skipped, such that a single unreadable record does not prevent the
+ * owner of the log from being opened, see {@link #getSkippedRecords()}.
+ * </p>
+ * <p>
+ * Appending is thread-safe. A record is on disk when {@link #append} returns, hence owners are expected to make
+ * the change visible to other threads only afterwards.
+ * </p>
+ */
+public class AppendOnlyLog implements Closeable {
+    /**
+     * Maximum number of bytes which are mapped at once while replaying the log
+     */
+    public static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final FileChannel channel;
+    private final int segmentSize;
+    private long end;
+    private long skippedRecords;
+
+    /**
+     * Opens the log stored in the given file, creating the file if it does not exist yet, and replays all of its
+     * records.
+     *
+     * @param file     the file of the log
+     * @param consumer consumer for the payloads of the existing records
+     * @throws IOException if the file can not be opened or read
+     */
+    public AppendOnlyLog(Path file, Consumer<byte[]> consumer) throws IOException {
+        this(file, consumer, SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the log like {@link #AppendOnlyLog(Path, Consumer)}, but maps at most the given number of bytes at once.
+     */
+    AppendOnlyLog(Path file, Consumer<byte[]> consumer, int segmentSize) throws IOException {
+        this.segmentSize = segmentSize;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            end = replay(consumer);
+            if (end < channel.size()) {
+                channel.truncate(end);
+            }
+            channel.position(end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Passes the payloads of all valid records to the given consumer.
+     *
+     * @return the length of the log up to the end of the last valid record
+     */
+    private long replay(Consumer<byte[]> consumer) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        long segmentStart = 0;
+        MappedByteBuffer segment = null;
+        while (size - position >= HEADER_SIZE) {
+            if (segment == null || position + HEADER_SIZE > segmentStart + segment.limit()) {
+                segmentStart = position;
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentSize, size - position));
+            }
+            int offset = (int) (position - segmentStart);
+            int length = segment.getInt(offset);
+            int checksum = segment.getInt(offset + Integer.BYTES);
+            if (length < 0 || length > size - position - HEADER_SIZE || length > Integer.MAX_VALUE - HEADER_SIZE) {
+                return position;
+            }
+            if (position + HEADER_SIZE + length > segmentStart + segment.limit()) {
+                // The record exceeds the current segment, map a new one starting at the record
+                segmentStart = position;
+                offset = 0;
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.max(Math.min(segmentSize, size - position), HEADER_SIZE + length));
+            }
+            byte[] payload = new byte[length];
+            segment.position(offset + HEADER_SIZE);
+            segment.get(payload);
+            if (checksum != checksum(payload)) {
+                return position;
+            }
+            try {
+                consumer.accept(payload);
+            } catch (RuntimeException e) {
+                skippedRecords++;
+            }
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    /**
+     * Appends a record with the given payload and forces it to the disk.
+     *
+     * @param payload the payload of the record
+     * @throws IOException if the record could not be written, in which case the log is left unchanged if possible
+     */
+    public void append(byte[] payload) throws IOException {
+        append(Collections.singletonList(payload));
+    }
+
+    /**
+     * Appends records with the given payloads using a single write and forces them to the disk.
+     *
+     * @param payloads the payloads of the records
+     * @throws IOException if the records could not be written, in which case the log is left unchanged if possible
+     */
+    public synchronized void append(List<byte[]> payloads) throws IOException {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        int length = 0;
+        for (byte[] payload : payloads) {
+            length = Math.addExact(length, HEADER_SIZE + payload.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (byte[] payload : payloads) {
+            buffer.putInt(payload.length).putInt(checksum(payload)).put(payload);
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Remove the partially written records, such that later records are not cut off when replaying the log
+            try {
+                channel.truncate(end);
+                channel.position(end);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        end += length;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @return the number of records which have been skipped while opening the log since they could not be processed
+     */
+    public long getSkippedRecords() {
+        return skippedRecords;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
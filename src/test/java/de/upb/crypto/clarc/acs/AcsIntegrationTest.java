@@ -14,8 +14,10 @@ import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewTokenIssuer;
 import de.upb.crypto.clarc.acs.issuer.reviewtokens.Item;
 import de.upb.crypto.clarc.acs.policy.PolicyInformation;
 import de.upb.crypto.clarc.acs.pseudonym.impl.clarc.Identity;
+import de.upb.crypto.clarc.acs.review.impl.clarc.Review;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.VerificationKeyCache;
 import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.InteractiveJoinVerifyProcess;
 import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.JoinResponse;
 import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.SystemManager;
@@ -27,6 +29,8 @@ import de.upb.crypto.clarc.acs.user.impl.clarc.NonInteractiveJoinRequest;
 import de.upb.crypto.clarc.acs.user.impl.clarc.User;
 import de.upb.crypto.clarc.acs.user.impl.clarc.credentials.CredentialNonInteractiveResponseHandler;
 import de.upb.crypto.clarc.acs.user.impl.clarc.credentials.InteractiveRequestCredentialProcess;
+import de.upb.crypto.clarc.acs.user.impl.clarc.credentials.NonInteractiveCredentialRequest;
+import de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken.ReviewTokenNonInteractiveResponseHandler;
 import de.upb.crypto.clarc.acs.verifier.credentials.InteractiveVerificationProcess;
 import de.upb.crypto.clarc.acs.verifier.credentials.VerificationResult;
 import de.upb.crypto.clarc.acs.verifier.impl.clarc.credentials.CredentialVerifier;
@@ -36,17 +40,26 @@ import de.upb.crypto.clarc.predicategeneration.fixedprotocols.PredicateTypePrimi
 import de.upb.crypto.clarc.predicategeneration.parametergeneration.EqualityParameterGen;
 import de.upb.crypto.clarc.predicategeneration.policies.PredicatePolicyFact;
 import de.upb.crypto.clarc.predicategeneration.policies.SubPolicyPolicyFact;
+import de.upb.crypto.clarc.protocols.fiatshamirtechnique.impl.FiatShamirProof;
 import de.upb.crypto.clarc.protocols.parameters.Announcement;
 import de.upb.crypto.clarc.protocols.parameters.Response;
 import de.upb.crypto.craco.commitment.pedersen.PedersenPublicParameters;
+import de.upb.crypto.craco.enc.sym.streaming.aes.ByteArrayImplementation;
 import de.upb.crypto.craco.interfaces.policy.ThresholdPolicy;
+import de.upb.crypto.craco.sig.ps.PSExtendedVerificationKey;
+import de.upb.crypto.math.serialization.Representation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static de.upb.crypto.clarc.acs.policy.PolicyBuilder.policy;
 import static org.junit.jupiter.api.Assertions.*;
@@ -132,6 +145,34 @@ class AcsIntegrationTest {
 
     }
 
+    @Test
+    void batchJoinTest() {
+        SystemManager otherSystemManager = new SystemManager(pp);
+        List<User> users = Arrays.asList(new User(pp), new User(pp), new User(pp));
+        List<NonInteractiveJoinRequest> requests = new ArrayList<>();
+        for (User user : users) {
+            requests.add(user.createNonInteractiveJoinRequest(systemManager.getPublicIdentity()));
+        }
+        // Request for another system manager, whose tau does not match
+        requests.add(1, new User(pp).createNonInteractiveJoinRequest(otherSystemManager.getPublicIdentity()));
+        // The same user joining twice receives the same signature
+        requests.add(requests.get(0));
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            systemManager.setExecutor(pool);
+            List<JoinResponse> responses = systemManager.joinBatch(requests);
+            assertEquals(requests.size(), responses.size());
+            assertNull(responses.get(1), "request for another system manager should be rejected");
+            assertEquals(responses.get(0), responses.get(4), "joining twice should yield the same signature");
+            users.get(0).finishRegistration(responses.get(0));
+            users.get(1).finishRegistration(responses.get(2));
+            users.get(2).finishRegistration(responses.get(3));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     @Test
     void interactiveCredentialCreateAndProveTest() {
         final Identity identity = clarcUser.getIdentities().get(0);
@@ -185,6 +226,15 @@ class AcsIntegrationTest {
                 "Expected non-interactive verification to succeed");
         assertEquals(systemManager.retrievePublicKey(verificationResult), clarcUser.getPublicKey(),
                 "Opening should have worked");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            systemManager.setExecutor(executor);
+            assertEquals(systemManager.retrievePublicKey(verificationResult), clarcUser.getPublicKey(),
+                    "Opening should have worked in parallel");
+        } finally {
+            systemManager.setExecutor(null);
+            executor.shutdown();
+        }
 
         // Now we also check for the negative case for a non-valid policy. Open should NOT work in this case
         PedersenPublicParameters pedersenPP = PublicParametersFactory.getSingleMessageCommitmentScheme(pp).getPp();
@@ -211,6 +261,345 @@ class AcsIntegrationTest {
         assertThrows(IllegalArgumentException.class, () -> systemManager.retrievePublicKey(verificationFakeResult));
     }
 
+    @Test
+    void nonInteractiveBatchVerificationTest() {
+        final CredentialNonInteractiveResponseHandler credentialResponseHandler =
+                clarcUser.createNonInteractiveIssueCredentialRequest(issuer.getPublicIdentity(),
+                        clarcIdentity, attributes);
+        final CredentialIssueResponse nonInteractiveCredentialResponse =
+                issuer.issueNonInteractively(credentialResponseHandler.getRequest());
+        clarcUser.receiveCredentialNonInteractively(credentialResponseHandler, nonInteractiveCredentialResponse);
+
+        CredentialVerifier otherVerifier = new CredentialVerifier(pp, systemManager.getPublicIdentity());
+        de.upb.crypto.clarc.acs.user.impl.clarc.NonInteractivePolicyProof validProof =
+                (de.upb.crypto.clarc.acs.user.impl.clarc.NonInteractivePolicyProof)
+                        clarcUser.createNonInteractivePolicyProof(clarcIdentity, policyInformation,
+                                verifier.getIdentity());
+        List<NonInteractivePolicyProof> proofs = Arrays.asList(
+                validProof,
+                clarcUser.createNonInteractivePolicyProof(clarcIdentity, policyInformation,
+                        otherVerifier.getIdentity()),
+                new de.upb.crypto.clarc.acs.user.impl.clarc.NonInteractivePolicyProof(null, validProof.getProof(),
+                        validProof.getMasterCredential()),
+                clarcUser.createNonInteractivePolicyProof(clarcIdentity, policyInformation, verifier.getIdentity()));
+
+        List<VerificationResult> results = verifier.verifyBatch(proofs, policyInformation);
+        assertEquals(proofs.size(), results.size());
+        assertTrue(results.get(0).isVerify(), "Expected batch verification of first proof to succeed");
+        assertFalse(results.get(1).isVerify(), "Expected proof for another verifier to be rejected");
+        assertFalse(results.get(2).isVerify(), "Expected malformed proof to be rejected");
+        assertTrue(results.get(3).isVerify(), "Expected batch verification of last proof to succeed");
+        assertEquals(verifier.verifyNonInteractiveProof(proofs.get(0), policyInformation), results.get(0));
+    }
+
+    @Test
+    void batchIssuanceTest() {
+        CredentialIssuer otherIssuer =
+                new CredentialIssuer(pp, issuer.getPublicIdentity().getAttributeSpace().getDefinitions());
+        List<CredentialNonInteractiveResponseHandler> handlers = Arrays.asList(
+                clarcUser.createNonInteractiveIssueCredentialRequest(issuer.getPublicIdentity(), clarcIdentity,
+                        attributes),
+                clarcUser.createNonInteractiveIssueCredentialRequest(otherIssuer.getPublicIdentity(), clarcIdentity,
+                        attributes),
+                clarcUser.createNonInteractiveIssueCredentialRequest(issuer.getPublicIdentity(),
+                        clarcUser.createIdentity(), attributes));
+        List<NonInteractiveCredentialRequest> requests = new ArrayList<>();
+        handlers.forEach(handler -> requests.add((NonInteractiveCredentialRequest) handler.getRequest()));
+        NonInteractiveCredentialRequest validRequest = requests.get(0);
+        requests.add(new NonInteractiveCredentialRequest(validRequest.getCommitment(), validRequest.getPseudonym(),
+                validRequest.getIssuable(),
+                new FiatShamirProof(new Announcement[0], new ByteArrayImplementation[0], new Response[0])));
+        List<AttributeNameValuePair> tooManyAttributes = new ArrayList<>(
+                Arrays.asList(attributes.getAttributes(issuer.getPublicIdentity().getAttributeSpace())));
+        tooManyAttributes.add(new StringAttributeDefinition("nickname", "").createAttribute("Alice"));
+        requests.add(new NonInteractiveCredentialRequest(validRequest.getCommitment(), validRequest.getPseudonym(),
+                new Attributes(tooManyAttributes), (FiatShamirProof) validRequest.getProof()));
+        requests.add(new NonInteractiveCredentialRequest(validRequest.getCommitment(), validRequest.getPseudonym(),
+                new Attributes(tooManyAttributes.subList(tooManyAttributes.size() - 1, tooManyAttributes.size())),
+                (FiatShamirProof) validRequest.getProof()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<CredentialIssueResponse> responses;
+        try {
+            issuer.setExecutor(executor);
+            responses = issuer.issueBatch(requests);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(requests.size(), responses.size());
+        assertNotNull(responses.get(0), "Expected the first request to be accepted");
+        assertNull(responses.get(1), "Expected the request for another issuer to be rejected");
+        assertNotNull(responses.get(2), "Expected the third request to be accepted");
+        assertNull(responses.get(3), "Expected the request with a malformed proof to be rejected");
+        assertNull(responses.get(4), "Expected the request with too many attributes to be rejected");
+        assertNull(responses.get(5), "Expected the request with an undefined attribute to be rejected");
+
+        for (int i : new int[]{0, 2}) {
+            clarcUser.receiveCredentialNonInteractively(handlers.get(i), responses.get(i));
+            NonInteractivePolicyProof proof =
+                    clarcUser.createNonInteractivePolicyProof(clarcIdentity, policyInformation, verifier.getIdentity());
+            assertTrue(verifier.verifyNonInteractiveProof(proof, policyInformation).isVerify(),
+                    "Expected verification of a proof for a credential issued in a batch to succeed");
+        }
+    }
+
+    @Test
+    void repeatedNonInteractiveVerificationTest() {
+        final CredentialNonInteractiveResponseHandler credentialResponseHandler =
+                clarcUser.createNonInteractiveIssueCredentialRequest(issuer.getPublicIdentity(),
+                        clarcIdentity, attributes);
+        final CredentialIssueResponse nonInteractiveCredentialResponse =
+                issuer.issueNonInteractively(credentialResponseHandler.getRequest());
+        clarcUser.receiveCredentialNonInteractively(credentialResponseHandler, nonInteractiveCredentialResponse);
+
+        CredentialVerifier otherVerifier = new CredentialVerifier(pp, systemManager.getPublicIdentity());
+        NonInteractivePolicyProof proof =
+                clarcUser.createNonInteractivePolicyProof(clarcIdentity, policyInformation, verifier.getIdentity());
+        NonInteractivePolicyProof otherProof =
+                clarcUser.createNonInteractivePolicyProof(clarcIdentity, policyInformation,
+                        otherVerifier.getIdentity());
+
+        // the verifier set up for the policy during the first verification is reused for the following ones
+        assertTrue(verifier.verifyNonInteractiveProof(proof, policyInformation).isVerify());
+        assertTrue(otherVerifier.verifyNonInteractiveProof(otherProof, policyInformation).isVerify());
+        assertTrue(verifier.verifyNonInteractiveProof(
+                clarcUser.createNonInteractivePolicyProof(clarcIdentity, policyInformation, verifier.getIdentity()),
+                policyInformation).isVerify());
+        assertTrue(verifier.verifyNonInteractiveProof(proof, policyInformation).isVerify());
+
+        // without kept plans, the plan is set up again for every verification
+        otherVerifier.setMaximumNumberOfPlans(0);
+        assertTrue(otherVerifier.verifyNonInteractiveProof(otherProof, policyInformation).isVerify());
+        assertTrue(otherVerifier.verifyNonInteractiveProof(otherProof, policyInformation).isVerify());
+    }
+
+    @Test
+    void parallelPredicateVerificationTest() {
+        final CredentialNonInteractiveResponseHandler credentialResponseHandler =
+                clarcUser.createNonInteractiveIssueCredentialRequest(issuer.getPublicIdentity(),
+                        clarcIdentity, attributes);
+        final CredentialIssueResponse nonInteractiveCredentialResponse =
+                issuer.issueNonInteractively(credentialResponseHandler.getRequest());
+        clarcUser.receiveCredentialNonInteractively(credentialResponseHandler, nonInteractiveCredentialResponse);
+
+        // Runs every task in the calling thread, hence the tasks are submitted and run one after the other
+        AtomicInteger executedTasks = new AtomicInteger();
+        verifier.setExecutor(task -> {
+            executedTasks.incrementAndGet();
+            task.run();
+        });
+
+        // The policy consists of a single sub policy, hence its predicates are verified on the executor
+        NonInteractivePolicyProof proof =
+                clarcUser.createNonInteractivePolicyProof(clarcIdentity, policyInformation, verifier.getIdentity());
+        assertTrue(verifier.verifyNonInteractiveProof(proof, policyInformation).isVerify());
+        assertEquals(2, executedTasks.get(), "Expected both predicates to be verified on the executor");
+
+        PolicyInformation setFirstPolicy = policy(pp, true).forIssuer(issuer.getPublicIdentity())
+                .attribute("country").isInSet("Germany", "USA")
+                .attribute("age").isInRange(18, 200)
+                .build();
+        PolicyInformation otherSetPolicy = policy(pp, true).forIssuer(issuer.getPublicIdentity())
+                .attribute("country").isInSet("Germany", "France")
+                .attribute("age").isInRange(18, 200)
+                .build();
+        NonInteractivePolicyProof setFirstProof =
+                clarcUser.createNonInteractivePolicyProof(clarcIdentity, setFirstPolicy, verifier.getIdentity());
+        executedTasks.set(0);
+        assertFalse(verifier.verifyNonInteractiveProof(setFirstProof, otherSetPolicy).isVerify(),
+                "Expected a proof for another set to be rejected");
+        assertEquals(1, executedTasks.get(), "Expected the verification to stop at the first failing predicate");
+    }
+
+    @Test
+    void parallelProvingTest() {
+        final CredentialNonInteractiveResponseHandler credentialResponseHandler =
+                clarcUser.createNonInteractiveIssueCredentialRequest(issuer.getPublicIdentity(),
+                        clarcIdentity, attributes);
+        clarcUser.receiveCredentialNonInteractively(credentialResponseHandler,
+                issuer.issueNonInteractively(credentialResponseHandler.getRequest()));
+        CredentialIssuer otherIssuer =
+                new CredentialIssuer(pp, issuer.getPublicIdentity().getAttributeSpace().getDefinitions());
+        final CredentialNonInteractiveResponseHandler otherCredentialResponseHandler =
+                clarcUser.createNonInteractiveIssueCredentialRequest(otherIssuer.getPublicIdentity(),
+                        clarcIdentity, attributes);
+        clarcUser.receiveCredentialNonInteractively(otherCredentialResponseHandler,
+                otherIssuer.issueNonInteractively(otherCredentialResponseHandler.getRequest()));
+
+        PolicyInformation twoIssuerPolicy = policy(pp, true).forIssuer(issuer.getPublicIdentity())
+                .attribute("age").isInRange(18, 200)
+                .and()
+                .forIssuer(otherIssuer.getPublicIdentity())
+                .attribute("country").isInSet("Germany", "USA")
+                .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            clarcUser.setProvingExecutor(executor);
+            verifier.setExecutor(executor);
+            NonInteractivePolicyProof proof =
+                    clarcUser.createNonInteractivePolicyProof(clarcIdentity, twoIssuerPolicy, verifier.getIdentity());
+            assertTrue(verifier.verifyNonInteractiveProof(proof, twoIssuerPolicy).isVerify(),
+                    "Expected parallel verification of the proof created in parallel to succeed");
+
+            final InteractiveProvingProcess provingProcess =
+                    clarcUser.initInteractiveProvingProcess(clarcIdentity, twoIssuerPolicy);
+            final InteractiveVerificationProcess verificationProcess =
+                    verifier.initInteractiveVerificationProcess(
+                            provingProcess.getProtocolParameters(),
+                            provingProcess.getAnnouncements(),
+                            twoIssuerPolicy,
+                            provingProcess.getMasterCredential());
+            assertTrue(verificationProcess.verify(provingProcess.getResponses(verificationProcess.getChallenge())),
+                    "Expected interactive verification of the proof created in parallel to succeed");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentVerificationTest() throws Exception {
+        final CredentialNonInteractiveResponseHandler credentialResponseHandler =
+                clarcUser.createNonInteractiveIssueCredentialRequest(issuer.getPublicIdentity(),
+                        clarcIdentity, attributes);
+        clarcUser.receiveCredentialNonInteractively(credentialResponseHandler,
+                issuer.issueNonInteractively(credentialResponseHandler.getRequest()));
+
+        List<NonInteractivePolicyProof> proofs = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            proofs.add(clarcUser.createNonInteractivePolicyProof(clarcIdentity, policyInformation,
+                    verifier.getIdentity()));
+        }
+
+        // all proofs are verified by the same verifier for the same policy at the same time
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<VerificationResult>> results = new ArrayList<>();
+            for (NonInteractivePolicyProof proof : proofs) {
+                results.add(executor.submit(() -> verifier.verifyNonInteractiveProof(proof, policyInformation)));
+            }
+            for (int i = 0; i < proofs.size(); i++) {
+                assertTrue(results.get(i).get().isVerify(),
+                        "Expected concurrent verification of proof " + i + " to succeed");
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(verifier.verifyNonInteractiveProof(proofs.get(0), policyInformation).isVerify(),
+                "Expected the policy to be usable after the concurrent verifications");
+    }
+
+    @Test
+    void precomputedProvingTest() {
+        final CredentialNonInteractiveResponseHandler credentialResponseHandler =
+                clarcUser.createNonInteractiveIssueCredentialRequest(issuer.getPublicIdentity(),
+                        clarcIdentity, attributes);
+        clarcUser.receiveCredentialNonInteractively(credentialResponseHandler,
+                issuer.issueNonInteractively(credentialResponseHandler.getRequest()));
+        reviewTokenIssuer = new ReviewTokenIssuer(pp);
+        final ReviewTokenNonInteractiveResponseHandler reviewTokenResponseHandler =
+                clarcUser.createNonInteractiveIssueReviewTokenRequest(reviewTokenIssuer.getPublicIdentity(),
+                        clarcIdentity, "item".getBytes());
+        clarcUser.receiveReviewTokenNonInteractively(reviewTokenResponseHandler,
+                reviewTokenIssuer.issueNonInteractively(reviewTokenResponseHandler.getRequest()));
+        reviewVerifier = new ReviewVerifier(pp, systemManager.getPublicIdentity(),
+                reviewTokenIssuer.getPublicIdentity());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            clarcUser.enablePrecomputation(2, executor);
+            clarcUser.precompute();
+            // More proofs than precomputed values, such that both precomputed and online values are used
+            for (int i = 0; i < 3; i++) {
+                final Identity identity = clarcUser.createIdentity();
+                NonInteractivePolicyProof proof =
+                        clarcUser.createNonInteractivePolicyProof(identity, policyInformation, verifier.getIdentity());
+                assertTrue(verifier.verifyNonInteractiveProof(proof, policyInformation).isVerify(),
+                        "Expected verification of the proof created with precomputed values to succeed");
+
+                Review review = clarcUser.createReview("review".getBytes(), reviewTokenIssuer.getPublicIdentity(),
+                        "item".getBytes());
+                assertTrue(reviewVerifier.verify(review),
+                        "Expected verification of the review created with precomputed values to succeed");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void precomputationAfterRecreatedKeysTest() {
+        User user = new User(pp);
+        user.enablePrecomputation(1, null);
+        // The first join attempt is abandoned after values for its keys have been precomputed
+        user.createNonInteractiveJoinRequest(systemManager.getPublicIdentity());
+        user.precompute();
+        user.finishRegistration(systemManager.nonInteractiveJoinVerification(
+                user.createNonInteractiveJoinRequest(systemManager.getPublicIdentity())));
+
+        final Identity identity = user.createIdentity();
+        final CredentialNonInteractiveResponseHandler credentialResponseHandler =
+                user.createNonInteractiveIssueCredentialRequest(issuer.getPublicIdentity(), identity, attributes);
+        user.receiveCredentialNonInteractively(credentialResponseHandler,
+                issuer.issueNonInteractively(credentialResponseHandler.getRequest()));
+        NonInteractivePolicyProof proof =
+                user.createNonInteractivePolicyProof(identity, policyInformation, verifier.getIdentity());
+        assertTrue(verifier.verifyNonInteractiveProof(proof, policyInformation).isVerify(),
+                "Expected the identity to belong to the recreated keys");
+    }
+
+    @Test
+    void replacedCredentialProvingTest() {
+        final CredentialNonInteractiveResponseHandler credentialResponseHandler =
+                clarcUser.createNonInteractiveIssueCredentialRequest(issuer.getPublicIdentity(),
+                        clarcIdentity, attributes);
+        clarcUser.receiveCredentialNonInteractively(credentialResponseHandler,
+                issuer.issueNonInteractively(credentialResponseHandler.getRequest()));
+        NonInteractivePolicyProof proof =
+                clarcUser.createNonInteractivePolicyProof(clarcIdentity, policyInformation, verifier.getIdentity());
+        assertTrue(verifier.verifyNonInteractiveProof(proof, policyInformation).isVerify());
+
+        // Replace the credential, such that the values precomputed for the first credential must not be used anymore
+        Attributes otherAttributes = new Attributes(new AttributeNameValuePair[]{
+                new StringAttributeDefinition("country", "").createAttribute("USA"),
+                new BigIntegerAttributeDefinition("age", BigInteger.ONE, BigInteger.valueOf(200))
+                        .createAttribute(BigInteger.valueOf(30))
+        });
+        final CredentialNonInteractiveResponseHandler otherResponseHandler =
+                clarcUser.createNonInteractiveIssueCredentialRequest(issuer.getPublicIdentity(),
+                        clarcIdentity, otherAttributes);
+        clarcUser.receiveCredentialNonInteractively(otherResponseHandler,
+                issuer.issueNonInteractively(otherResponseHandler.getRequest()));
+        proof = clarcUser.createNonInteractivePolicyProof(clarcIdentity, policyInformation, verifier.getIdentity());
+        assertTrue(verifier.verifyNonInteractiveProof(proof, policyInformation).isVerify(),
+                "Expected the proof with the replaced credential to be valid");
+    }
+
+    @Test
+    void verificationKeyCacheTest() {
+        assertSame(PublicParametersFactory.getSignatureScheme(pp), PublicParametersFactory.getSignatureScheme(pp),
+                "the signature scheme should be shared");
+
+        Representation issuerPublicKey = issuer.getPublicIdentity().getIssuerPublicKey();
+        PSExtendedVerificationKey verificationKey = VerificationKeyCache.getVerificationKey(pp, issuerPublicKey);
+        assertEquals(issuerPublicKey, verificationKey.getRepresentation());
+        long hits = VerificationKeyCache.getCacheHits();
+        assertSame(verificationKey, VerificationKeyCache.getVerificationKey(pp, issuerPublicKey),
+                "the restored key should have been reused");
+        assertTrue(VerificationKeyCache.getCacheHits() > hits);
+
+        try {
+            VerificationKeyCache.setMaximumCacheSize(0);
+            assertEquals(0, VerificationKeyCache.getCacheSize());
+            long misses = VerificationKeyCache.getCacheMisses();
+            assertEquals(verificationKey, VerificationKeyCache.getVerificationKey(pp, issuerPublicKey));
+            assertTrue(VerificationKeyCache.getCacheMisses() > misses);
+            assertEquals(0, VerificationKeyCache.getCacheSize());
+        } finally {
+            VerificationKeyCache.setMaximumCacheSize(VerificationKeyCache.DEFAULT_MAXIMUM_CACHE_SIZE);
+        }
+    }
+
     @Test
     void createCredentialAndProveWithDisclosureTest() {
         final Identity identity = clarcUser.getIdentities().get(0);
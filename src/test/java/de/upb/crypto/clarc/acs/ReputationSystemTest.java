@@ -4,6 +4,7 @@ import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.InteractiveIssueRe
 import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewToken;
 import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewTokenIssueResponse;
 import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewTokenIssuer;
+import de.upb.crypto.clarc.acs.protocols.impl.clarc.ComputeRatingPublicKeyAndItemHashHelper;
 import de.upb.crypto.clarc.acs.pseudonym.impl.clarc.Identity;
 import de.upb.crypto.clarc.acs.review.Review;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
@@ -13,14 +14,26 @@ import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.SystemManager;
 import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.SystemManagerPublicIdentity;
 import de.upb.crypto.clarc.acs.user.InteractiveJoinProcess;
 import de.upb.crypto.clarc.acs.user.impl.clarc.User;
+import de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken.FileReviewTokenStore;
+import de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken.InMemoryReviewTokenStore;
 import de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken.InteractiveRequestReviewTokenProcess;
 import de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken.ReviewTokenNonInteractiveResponseHandler;
+import de.upb.crypto.clarc.acs.verifier.impl.clarc.reviews.ReviewVerificationResult;
 import de.upb.crypto.clarc.acs.verifier.impl.clarc.reviews.ReviewVerifier;
 import de.upb.crypto.clarc.protocols.parameters.Announcement;
 import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.clarc.storage.AppendOnlyLog;
 import de.upb.crypto.craco.sig.ps.PSExtendedSignatureScheme;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ReputationSystemTest {
@@ -155,4 +168,166 @@ public class ReputationSystemTest {
         assertTrue(reviewVerifier.areFromSameUser(review1, review2), "reviews are from the same user");
         assertArrayEquals(reviewVerifier.getLinkingTag(review1), reviewVerifier.getLinkingTag(review2), "Linking tags are equal");
     }
+
+    @Test
+    void batchVerifyAndTagTest() {
+        PublicParametersFactory ppFactory = new PublicParametersFactory();
+        ppFactory.setDebugMode(true);
+        PublicParameters pp = ppFactory.create();
+
+        User clarcUser = new User(pp);
+        SystemManager systemManager = new SystemManager(pp);
+        clarcUser.finishRegistration(systemManager.nonInteractiveJoinVerification(
+                clarcUser.createNonInteractiveJoinRequest(systemManager.getPublicIdentity())));
+        Identity identity = clarcUser.createIdentity();
+
+        ReviewTokenIssuer reviewTokenIssuer = new ReviewTokenIssuer(pp);
+        ReviewVerifier reviewVerifier =
+                new ReviewVerifier(pp, systemManager.getPublicIdentity(), reviewTokenIssuer.getPublicIdentity());
+
+        for (String item : new String[]{"123", "123", "456"}) {
+            final ReviewTokenNonInteractiveResponseHandler reviewTokenResponseHandler =
+                    clarcUser.createNonInteractiveIssueReviewTokenRequest(reviewTokenIssuer.getPublicIdentity(),
+                            identity, item.getBytes());
+            clarcUser.receiveReviewTokenNonInteractively(reviewTokenResponseHandler,
+                    reviewTokenIssuer.issueNonInteractively(reviewTokenResponseHandler.getRequest()));
+        }
+        ReviewToken[] tokens = clarcUser.getReviewTokens(reviewTokenIssuer.getPublicIdentity(), "123".getBytes());
+        de.upb.crypto.clarc.acs.review.impl.clarc.Review review1 =
+                clarcUser.createReview("This item was awesome".getBytes(), tokens[0]);
+        de.upb.crypto.clarc.acs.review.impl.clarc.Review review2 =
+                clarcUser.createReview("This item was not awesome".getBytes(), tokens[1]);
+        de.upb.crypto.clarc.acs.review.impl.clarc.Review review3 = clarcUser.createReview("Another item".getBytes(),
+                clarcUser.getReviewTokens(reviewTokenIssuer.getPublicIdentity(), "456".getBytes())[0]);
+        // valid proof, but for another registration information
+        de.upb.crypto.clarc.acs.review.impl.clarc.Review forgedReview =
+                new de.upb.crypto.clarc.acs.review.impl.clarc.Review(review1.getMessage(), review1.getItem(),
+                        review1.getSystemManagerPublicKey(), review1.getLinkabilityBasis(),
+                        review1.getReviewTokenIssuerPublicKey(), review3.getBlindedRegistrationInformation(),
+                        review1.getBlindedTokenSignature(), review1.getRatingSignature(), review1.getL1(),
+                        review1.getL2());
+        assertFalse(reviewVerifier.verify(forgedReview));
+
+        List<ReviewVerificationResult> results =
+                reviewVerifier.verifyAndTagBatch(Arrays.asList(review1, forgedReview, review2, review3));
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isAccepted(), "first review should be accepted");
+        assertFalse(results.get(1).isValid(), "forged review should be rejected");
+        assertTrue(results.get(2).isValid() && results.get(2).isDuplicate(),
+                "second review for the same item should be a duplicate");
+        assertTrue(results.get(3).isAccepted(), "review for another item should be accepted");
+        assertArrayEquals(reviewVerifier.getLinkingTag(review1), results.get(0).getLinkingTag());
+        assertArrayEquals(reviewVerifier.getLinkingTag(review3), results.get(3).getLinkingTag());
+        assertEquals(2, reviewVerifier.getLinkingTagIndex().size());
+
+        assertTrue(reviewVerifier.verifyAndTagBatch(Collections.singletonList(review3)).get(0).isDuplicate(),
+                "review should be detected as duplicate in subsequent batches");
+    }
+
+    @Test
+    void ratingPublicKeyAndItemHashCacheTest() {
+        PublicParametersFactory ppFactory = new PublicParametersFactory();
+        ppFactory.setDebugMode(true);
+        PublicParameters pp = ppFactory.create();
+
+        User clarcUser = new User(pp);
+        SystemManager systemManager = new SystemManager(pp);
+        clarcUser.finishRegistration(systemManager.nonInteractiveJoinVerification(
+                clarcUser.createNonInteractiveJoinRequest(systemManager.getPublicIdentity())));
+        Identity identity = clarcUser.createIdentity();
+
+        ReviewTokenIssuer reviewTokenIssuer = new ReviewTokenIssuer(pp);
+        ReviewVerifier reviewVerifier =
+                new ReviewVerifier(pp, systemManager.getPublicIdentity(), reviewTokenIssuer.getPublicIdentity());
+        final ReviewTokenNonInteractiveResponseHandler reviewTokenResponseHandler =
+                clarcUser.createNonInteractiveIssueReviewTokenRequest(reviewTokenIssuer.getPublicIdentity(),
+                        identity, "123".getBytes());
+        clarcUser.receiveReviewTokenNonInteractively(reviewTokenResponseHandler,
+                reviewTokenIssuer.issueNonInteractively(reviewTokenResponseHandler.getRequest()));
+        ReviewToken token = clarcUser.getReviewTokens(reviewTokenIssuer.getPublicIdentity(), "123".getBytes())[0];
+
+        Review review = clarcUser.createReview("This item was awesome".getBytes(), token);
+        long hits = ComputeRatingPublicKeyAndItemHashHelper.getCacheHits();
+        assertTrue(reviewVerifier.verify(review), "verification should have worked");
+        assertTrue(ComputeRatingPublicKeyAndItemHashHelper.getCacheHits() > hits,
+                "the hash computed while creating the review should have been reused");
+
+        ComputeRatingPublicKeyAndItemHashHelper.invalidate(token.getRatingIssuerPublicKey(), token.getItem());
+        long misses = ComputeRatingPublicKeyAndItemHashHelper.getCacheMisses();
+        assertTrue(reviewVerifier.verify(review), "verification should have worked");
+        assertTrue(ComputeRatingPublicKeyAndItemHashHelper.getCacheMisses() > misses,
+                "the hash should have been recomputed after invalidation");
+
+        try {
+            ComputeRatingPublicKeyAndItemHashHelper.setMaximumCacheSize(0);
+            assertEquals(0, ComputeRatingPublicKeyAndItemHashHelper.getCacheSize());
+            assertTrue(reviewVerifier.verify(review), "verification should work without cache");
+            assertEquals(0, ComputeRatingPublicKeyAndItemHashHelper.getCacheSize());
+        } finally {
+            ComputeRatingPublicKeyAndItemHashHelper.setMaximumCacheSize(
+                    ComputeRatingPublicKeyAndItemHashHelper.DEFAULT_MAXIMUM_CACHE_SIZE);
+        }
+    }
+
+    @Test
+    void reviewTokenStoreTest() throws IOException {
+        PublicParametersFactory ppFactory = new PublicParametersFactory();
+        ppFactory.setDebugMode(true);
+        PublicParameters pp = ppFactory.create();
+        SystemManager systemManager = new SystemManager(pp);
+        ReviewTokenIssuer reviewTokenIssuer = new ReviewTokenIssuer(pp);
+        ReviewVerifier reviewVerifier =
+                new ReviewVerifier(pp, systemManager.getPublicIdentity(), reviewTokenIssuer.getPublicIdentity());
+        Path file = Files.createTempFile("reviewtokens", ".log");
+        try {
+            User clarcUser;
+            try (FileReviewTokenStore store = new FileReviewTokenStore(file, pp)) {
+                clarcUser = new User(pp, store);
+                clarcUser.finishRegistration(systemManager.nonInteractiveJoinVerification(
+                        clarcUser.createNonInteractiveJoinRequest(systemManager.getPublicIdentity())));
+                Identity identity = clarcUser.createIdentity();
+                for (String item : new String[]{"123", "123", "456"}) {
+                    final ReviewTokenNonInteractiveResponseHandler reviewTokenResponseHandler =
+                            clarcUser.createNonInteractiveIssueReviewTokenRequest(
+                                    reviewTokenIssuer.getPublicIdentity(), identity, item.getBytes());
+                    clarcUser.receiveReviewTokenNonInteractively(reviewTokenResponseHandler,
+                            reviewTokenIssuer.issueNonInteractively(reviewTokenResponseHandler.getRequest()));
+                }
+                ReviewToken[] tokens =
+                        clarcUser.getReviewTokens(reviewTokenIssuer.getPublicIdentity(), "123".getBytes());
+                assertEquals(2, tokens.length);
+                assertTrue(clarcUser.removeReviewToken(tokens[0]));
+                assertFalse(clarcUser.removeReviewToken(tokens[0]), "token should only be removed once");
+                assertEquals(2, store.size());
+                assertFalse(clarcUser.getRepresentation().obj().getMap().containsKey("reviewTokens"),
+                        "file backed tokens should not be part of the representation");
+            }
+
+            // simulate a record which can not be restored and a record which was only partially written
+            try (AppendOnlyLog log = new AppendOnlyLog(file, record -> {
+            })) {
+                log.append(new byte[]{1, '{'});
+            }
+            Files.write(file, new byte[]{0, 0, 0}, StandardOpenOption.APPEND);
+
+            try (FileReviewTokenStore store = new FileReviewTokenStore(file, pp)) {
+                assertEquals(2, store.size());
+                assertEquals(1, store.getSkippedRecords());
+                User restored = new User(clarcUser.getRepresentation(), store);
+                assertEquals(1, restored.getReviewTokens(reviewTokenIssuer.getPublicIdentity(), "123".getBytes())
+                        .length);
+                assertTrue(reviewVerifier.verify(restored.createReview("review".getBytes(),
+                        reviewTokenIssuer.getPublicIdentity(), "456".getBytes())));
+
+                // The tokens of the default store are part of the representation
+                InMemoryReviewTokenStore inMemoryStore = new InMemoryReviewTokenStore();
+                store.stream().forEach(inMemoryStore::add);
+                User inMemory = new User(new User(restored.getRepresentation(), inMemoryStore).getRepresentation());
+                store.stream().forEach(token -> assertEquals(1, inMemory.getReviewTokens(
+                        reviewTokenIssuer.getPublicIdentity(), token.getItem().getData().getData()).length));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
 }
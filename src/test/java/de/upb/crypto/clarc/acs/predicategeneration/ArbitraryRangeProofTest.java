@@ -1,10 +1,14 @@
 package de.upb.crypto.clarc.acs.predicategeneration;
 
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.testdataprovider.IssuerTestdataProvider;
 import de.upb.crypto.clarc.acs.testdataprovider.ParameterTestdataProvider;
 import de.upb.crypto.clarc.acs.testdataprovider.PredicatePrimitiveTestdataProvider;
 import de.upb.crypto.clarc.acs.testdataprovider.UserAndSystemManagerTestdataProvider;
+import de.upb.crypto.clarc.predicategeneration.parametergeneration.RangeProofCostModel;
+import de.upb.crypto.clarc.predicategeneration.parametergeneration.RangeProofParameterGen;
 import de.upb.crypto.clarc.predicategeneration.rangeproofs.ArbitraryRangeProofProtocol;
+import de.upb.crypto.clarc.predicategeneration.rangeproofs.ArbitraryRangeProofPublicParameters;
 import de.upb.crypto.clarc.protocols.InteractiveThreeWayAoKTester;
 import de.upb.crypto.clarc.protocols.parameters.Announcement;
 import de.upb.crypto.clarc.protocols.parameters.Challenge;
@@ -152,6 +156,33 @@ public class ArbitraryRangeProofTest {
         assertThrows(IllegalArgumentException.class, invalidPMinus1);
     }
 
+    @Test
+    void costModelTest() {
+        PublicParameters pp = clarcProvider.getPublicParameters();
+        BigInteger sixteen = BigInteger.valueOf(16);
+        for (RangeProofCostModel costModel : RangeProofCostModel.values()) {
+            for (long width : new long[]{1, 182, 300, 36525, 1000000}) {
+                ArbitraryRangeProofPublicParameters rangePP = RangeProofParameterGen.getRangePP(
+                        pp.getSingleMessageCommitmentPublicParameters(), BigInteger.ZERO, BigInteger.valueOf(width),
+                        0, pp.getZp(), pp.getNguyenAccumulatorPP(), costModel);
+                BigInteger base = rangePP.getBase();
+                int exponent = rangePP.getExponent();
+                assertTrue(base.compareTo(pp.getNguyenAccumulatorPP().getUpperBoundForAccumulatableIdentities()) < 0,
+                        "The base needs to be accumulatable");
+                assertTrue(base.pow(exponent).subtract(BigInteger.ONE).compareTo(BigInteger.valueOf(width)) > 0,
+                        "The range needs to be representable");
+
+                // The chosen parameters are at least as good as the previously fixed base 16
+                int exponentForSixteen = 0;
+                while (sixteen.pow(exponentForSixteen).subtract(BigInteger.ONE)
+                        .compareTo(BigInteger.valueOf(width)) <= 0) {
+                    exponentForSixteen++;
+                }
+                assertTrue(costModel.getCost(base, exponent) <= costModel.getCost(sixteen, exponentForSixteen));
+            }
+        }
+    }
+
     private void checkRange(BigInteger lowerBound, BigInteger upperBound, boolean expectedResult, String errorMsg) {
         ArbitraryRangeProofProtocol prover =
                 predicateProvider.getArbitraryRangeProofProtocol(0, NAME, lowerBound, upperBound);
@@ -4,12 +4,17 @@ import de.upb.crypto.clarc.acs.testdataprovider.IssuerTestdataProvider;
 import de.upb.crypto.clarc.acs.testdataprovider.ParameterTestdataProvider;
 import de.upb.crypto.clarc.acs.testdataprovider.PredicatePrimitiveTestdataProvider;
 import de.upb.crypto.clarc.acs.testdataprovider.UserAndSystemManagerTestdataProvider;
+import de.upb.crypto.clarc.predicategeneration.setmembershipproofs.SetMembershipAccumulatorCache;
 import de.upb.crypto.clarc.predicategeneration.setmembershipproofs.SetMembershipProofProtocol;
 import de.upb.crypto.clarc.predicategeneration.setmembershipproofs.SetMembershipPublicParameters;
 import de.upb.crypto.clarc.protocols.InteractiveThreeWayAoKTester;
 import de.upb.crypto.clarc.protocols.parameters.Announcement;
 import de.upb.crypto.clarc.protocols.parameters.Challenge;
 import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.craco.accumulators.nguyen.NguyenAccumulator;
+import de.upb.crypto.craco.accumulators.nguyen.NguyenAccumulatorIdentity;
+import de.upb.crypto.craco.accumulators.nguyen.NguyenAccumulatorPublicParameters;
+import de.upb.crypto.craco.accumulators.nguyen.NguyenWitness;
 import de.upb.crypto.math.structures.zn.Zp;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -137,4 +142,27 @@ public class SetMembershipTest {
         FixedProtocolsMessageSerializationTest.testProtocolMessageSerialization(protocolProver,
                 protocolVerifier.chooseChallenge());
     }
-}
\ No newline at end of file
+
+    @Test
+    void accumulatorCacheTest() {
+        SetMembershipPublicParameters setPP = (SetMembershipPublicParameters) protocolProver.getPublicParameters();
+        NguyenAccumulator accumulator = new NguyenAccumulator(setPP.getNguyenAccumulatorPublicParameters());
+        assertEquals(accumulator.create(setPP.getSetMembers()),
+                SetMembershipAccumulatorCache.getAccumulatorValue(setPP));
+
+        // A copy of the set with the same members needs to be mapped to the same cached value
+        SetMembershipPublicParameters copiedSetPP = new SetMembershipPublicParameters(setPP.getG2(), setPP.getH(),
+                new HashSet<>(setPP.getSetMembers()), setPP.getPositionOfCommitment(),
+                setPP.getNguyenAccumulatorPublicParameters(), setPP.getZp());
+        assertSame(SetMembershipAccumulatorCache.getAccumulatorValue(setPP),
+                SetMembershipAccumulatorCache.getAccumulatorValue(copiedSetPP));
+        NguyenAccumulatorPublicParameters accPP = setPP.getNguyenAccumulatorPublicParameters();
+        assertEquals(accPP.getBilinearMap().apply(accumulator.create(setPP.getSetMembers()).getValue(),
+                accPP.getG_Tilde()).inv(), SetMembershipAccumulatorCache.getInverseValuePairing(copiedSetPP));
+
+        NguyenAccumulatorIdentity member = setPP.getSetMembers().iterator().next();
+        NguyenWitness witness = SetMembershipAccumulatorCache.getWitness(copiedSetPP, member);
+        assertEquals(accumulator.createWitness(setPP.getSetMembers(), member), witness);
+        assertSame(witness, SetMembershipAccumulatorCache.getWitness(setPP, member));
+    }
+}
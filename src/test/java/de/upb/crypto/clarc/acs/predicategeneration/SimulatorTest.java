@@ -5,6 +5,7 @@ import de.upb.crypto.clarc.acs.protocols.proveNym.ProveNymProtocol;
 import de.upb.crypto.clarc.acs.pseudonym.impl.clarc.Identity;
 import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
 import de.upb.crypto.clarc.acs.subpolicyproving.SubPolicyProvingProtocol;
+import de.upb.crypto.clarc.acs.subpolicyproving.SubPolicyProvingProtocolAnnouncement;
 import de.upb.crypto.clarc.acs.testdataprovider.*;
 import de.upb.crypto.clarc.predicategeneration.inequalityproofs.InequalityProofProtocol;
 import de.upb.crypto.clarc.predicategeneration.inequalityproofs.InequalityPublicParameters;
@@ -83,9 +84,12 @@ public class SimulatorTest {
     @Test
     public void testPredicateProfingProtocolSimulator() {
         SubPolicyProvingProtocol protocol = protocolProvider.getSubPolicyProvingProtocol();
+        // The verifier needs the commitments on the attributes the predicates are proven on
+        SubPolicyProvingProtocolAnnouncement announcement =
+                (SubPolicyProvingProtocolAnnouncement) protocol.generateAnnouncements()[0];
         testSimulation(protocol.getPredicateProvingProtocol(),
                 protocolProvider.getSubPolicyProvingProtocolFactory().getVerifieryProtocol()
-                        .getPredicateProvingProtocol(),
+                        .getPredicateVerifierProtocol(announcement),
                 protocol.chooseChallenge());
     }
 
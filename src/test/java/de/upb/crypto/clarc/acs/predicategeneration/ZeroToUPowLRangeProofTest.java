@@ -5,10 +5,14 @@ import de.upb.crypto.clarc.acs.testdataprovider.ParameterTestdataProvider;
 import de.upb.crypto.clarc.acs.testdataprovider.PredicatePrimitiveTestdataProvider;
 import de.upb.crypto.clarc.acs.testdataprovider.UserAndSystemManagerTestdataProvider;
 import de.upb.crypto.clarc.predicategeneration.rangeproofs.zerotoupowlrangeproof.ZeroToUPowLRangeProofProtocol;
+import de.upb.crypto.clarc.predicategeneration.rangeproofs.zerotoupowlrangeproof.ZeroToUPowLRangeProofPublicParameters;
 import de.upb.crypto.clarc.protocols.InteractiveThreeWayAoKTester;
 import de.upb.crypto.clarc.protocols.parameters.Announcement;
 import de.upb.crypto.clarc.protocols.parameters.Challenge;
 import de.upb.crypto.clarc.protocols.parameters.Response;
+import de.upb.crypto.craco.accumulators.nguyen.NguyenAccumulator;
+import de.upb.crypto.craco.accumulators.nguyen.NguyenAccumulatorIdentity;
+import de.upb.crypto.craco.accumulators.nguyen.NguyenWitness;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -141,4 +145,22 @@ public class ZeroToUPowLRangeProofTest {
         Response[] responses = prover.generateResponses(challenge);
         assertEquals(expectedResult, verifier.verify(announcements, challenge, responses), errorMsg);
     }
+
+    @Test
+    void digitWitnessTableTest() {
+        ZeroToUPowLRangeProofPublicParameters rangePP = protocolProver.getPublicParameters();
+        NguyenAccumulator accumulator = new NguyenAccumulator(rangePP.getNguyenAccumulatorPublicParameters());
+        assertEquals(accumulator.create(rangePP.getOmega()), rangePP.getAccumulatorValue());
+
+        // Parameters with the same accumulator parameters and base need to share the digit witnesses
+        ZeroToUPowLRangeProofPublicParameters otherRangePP = new ZeroToUPowLRangeProofPublicParameters(
+                rangePP.getG2(), rangePP.getH(), rangePP.getCommitment(), rangePP.getBase(), rangePP.getExponent(),
+                rangePP.getPositionOfCommitment(), rangePP.getNguyenAccumulatorPublicParameters(), rangePP.getZp());
+        assertSame(rangePP.getAccumulatorValue(), otherRangePP.getAccumulatorValue());
+        for (NguyenAccumulatorIdentity digit : rangePP.getOmega()) {
+            NguyenWitness witness = otherRangePP.getAccumulatorWitness(digit);
+            assertEquals(accumulator.createWitness(rangePP.getOmega(), digit), witness);
+            assertSame(witness, rangePP.getAccumulatorWitness(digit));
+        }
+    }
 }
@@ -0,0 +1,133 @@
+package de.upb.crypto.clarc.acs.serialization;
+
+import de.upb.crypto.clarc.acs.issuer.impl.clarc.reviewtokens.ReviewTokenIssuer;
+import de.upb.crypto.clarc.acs.pseudonym.impl.clarc.Identity;
+import de.upb.crypto.clarc.acs.review.impl.clarc.Review;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.systemmanager.impl.clarc.SystemManager;
+import de.upb.crypto.clarc.acs.testdataprovider.*;
+import de.upb.crypto.clarc.acs.user.impl.clarc.NonInteractivePolicyProof;
+import de.upb.crypto.clarc.acs.user.impl.clarc.User;
+import de.upb.crypto.clarc.acs.user.impl.clarc.reviewtoken.ReviewTokenNonInteractiveResponseHandler;
+import de.upb.crypto.clarc.acs.verifier.impl.clarc.reviews.ReviewVerifier;
+import de.upb.crypto.math.serialization.*;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryConverterTest {
+    private final BinaryConverter converter = new BinaryConverter();
+
+    @Test
+    void representationRoundTripTest() {
+        ObjectRepresentation object = new ObjectRepresentation();
+        object.put("string", new StringRepresentation("äöü"));
+        object.put("repeatedString", new StringRepresentation("string"));
+        object.put("bigInteger", new BigIntegerRepresentation(BigInteger.valueOf(2).pow(300).negate()));
+        object.put("integer", new IntegerRepresentation(Long.MIN_VALUE));
+        object.put("true", new BooleanRepresentation(true));
+        object.put("false", new BooleanRepresentation(false));
+        object.put("bytes", new ByteArrayRepresentation(new byte[]{0, -1, 127}));
+        object.put("list", new ListRepresentation(new IntegerRepresentation(-1), new StringRepresentation("list")));
+        MapRepresentation map = new MapRepresentation();
+        map.put(new BigIntegerRepresentation(BigInteger.ONE), new ListRepresentation());
+        object.put("map", map);
+        object.put("representable", new RepresentableRepresentation("de.upb.crypto.Type", new ObjectRepresentation()));
+
+        assertEquals(object, converter.deserialize(converter.serialize(object)));
+    }
+
+    @Test
+    void policyProofRoundTripTest() {
+        ParameterTestdataProvider clarcProvider = new ParameterTestdataProvider();
+        UserAndSystemManagerTestdataProvider userProvider =
+                new UserAndSystemManagerTestdataProvider(clarcProvider.getPublicParameters());
+        IssuerTestdataProvider issuerProvider = new IssuerTestdataProvider(clarcProvider.getPublicParameters(),
+                clarcProvider.getSignatureScheme(), userProvider.getUserSecret());
+        ExtendetProveCredTestdataProvider protocolProvider =
+                new ExtendetProveCredTestdataProvider(clarcProvider.getPublicParameters(), userProvider.getIdentity(),
+                        issuerProvider.getIssuer(), IssuerTestdataProvider.AGE, IssuerTestdataProvider.GENDER,
+                        issuerProvider.getCredentialWitfDefaultAttributeSpace(), clarcProvider.getSignatureScheme(),
+                        clarcProvider.getPedersenCommitmentScheme());
+        NonInteractiveTestdataProvider nonInteractiveProvider =
+                new NonInteractiveTestdataProvider(clarcProvider.getPP(), userProvider.getUser(),
+                        userProvider.getIdentity(), issuerProvider.getIssuer(),
+                        issuerProvider.getReviewTokenIssuer(), userProvider.getSystemManager(),
+                        protocolProvider.getProtocol(), protocolProvider.getProtocolParameters());
+        NonInteractivePolicyProof proof = nonInteractiveProvider.getNonInteractivePolicyProof();
+
+        byte[] encoded = WireFormat.encode(proof);
+        assertEquals(proof.getRepresentation(), converter.deserialize(encoded));
+        assertEquals(proof, WireFormat.decodeNonInteractivePolicyProof(ByteBuffer.wrap(encoded)));
+
+        byte[] encodedFiatShamirProof = WireFormat.encode(proof.getProof());
+        assertEquals(proof.getProof(), WireFormat.decodeFiatShamirProof(ByteBuffer.wrap(encodedFiatShamirProof)));
+    }
+
+    @Test
+    void reviewRoundTripTest() {
+        PublicParameters pp = new ParameterTestdataProvider().getPublicParameters();
+        SystemManager systemManager = new SystemManager(pp);
+        User user = new User(pp);
+        user.finishRegistration(systemManager.nonInteractiveJoinVerification(
+                user.createNonInteractiveJoinRequest(systemManager.getPublicIdentity())));
+        Identity identity = user.createIdentity();
+        ReviewTokenIssuer reviewTokenIssuer = new ReviewTokenIssuer(pp);
+        ReviewTokenNonInteractiveResponseHandler responseHandler = user.createNonInteractiveIssueReviewTokenRequest(
+                reviewTokenIssuer.getPublicIdentity(), identity, "123".getBytes());
+        user.receiveReviewTokenNonInteractively(responseHandler,
+                reviewTokenIssuer.issueNonInteractively(responseHandler.getRequest()));
+        Review review = (Review) user.createReview("This item was awesome".getBytes(),
+                reviewTokenIssuer.getPublicIdentity(), "123".getBytes());
+
+        // Two messages in a single buffer are read one after another
+        byte[] encoded = WireFormat.encode(review);
+        ByteBuffer buffer = ByteBuffer.allocate(2 * encoded.length);
+        buffer.put(encoded).put(encoded).flip();
+        Review decoded = WireFormat.decodeReview(buffer, pp);
+        assertEquals(review, decoded);
+        assertEquals(review, WireFormat.decodeReview(buffer, pp));
+        assertFalse(buffer.hasRemaining());
+
+        ReviewVerifier verifier =
+                new ReviewVerifier(pp, systemManager.getPublicIdentity(), reviewTokenIssuer.getPublicIdentity());
+        assertTrue(verifier.verify(decoded));
+    }
+
+    @Test
+    void malformedMessageTest() {
+        byte[] encoded = converter.serialize(new ListRepresentation(new StringRepresentation("string")));
+
+        byte[] unknownVersion = encoded.clone();
+        unknownVersion[0] = BinaryConverter.FORMAT_VERSION + 1;
+        assertThrows(IllegalArgumentException.class, () -> converter.deserialize(unknownVersion));
+
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> converter.deserialize(truncated));
+
+        byte[] trailing = Arrays.copyOf(encoded, encoded.length + 1);
+        assertThrows(IllegalArgumentException.class, () -> converter.deserialize(trailing));
+    }
+
+    @Test
+    void nestingDepthTest() {
+        Representation nested = new ListRepresentation();
+        for (int i = 1; i < BinaryConverter.MAXIMUM_NESTING_DEPTH; i++) {
+            nested = new ListRepresentation(nested);
+        }
+        assertEquals(nested, converter.deserialize(converter.serialize(nested)));
+
+        // A list containing a list containing ... which would overflow the stack when read recursively
+        byte[] tooDeep = new byte[1 + 2 * 100000];
+        tooDeep[0] = BinaryConverter.FORMAT_VERSION;
+        for (int i = 1; i < tooDeep.length; i += 2) {
+            tooDeep[i] = 3;
+            tooDeep[i + 1] = 1;
+        }
+        assertThrows(IllegalArgumentException.class, () -> converter.deserialize(tooDeep));
+    }
+}
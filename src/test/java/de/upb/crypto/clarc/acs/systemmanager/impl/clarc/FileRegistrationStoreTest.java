@@ -0,0 +1,97 @@
+package de.upb.crypto.clarc.acs.systemmanager.impl.clarc;
+
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.clarc.acs.user.impl.clarc.NonInteractiveJoinRequest;
+import de.upb.crypto.clarc.acs.user.impl.clarc.User;
+import de.upb.crypto.clarc.storage.AppendOnlyLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileRegistrationStoreTest {
+    private PublicParameters pp;
+    private Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        PublicParametersFactory ppFactory = new PublicParametersFactory();
+        ppFactory.setDebugMode(true);
+        pp = ppFactory.create();
+        file = Files.createTempFile("registry", ".log");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void entriesSurviveRestartTest() throws IOException {
+        User user = new User(pp);
+        SystemManager systemManager;
+        JoinResponse joinResponse;
+        try (FileRegistrationStore store = new FileRegistrationStore(file)) {
+            systemManager = new SystemManager(pp, store);
+            joinResponse = systemManager.nonInteractiveJoinVerification(
+                    user.createNonInteractiveJoinRequest(systemManager.getPublicIdentity()));
+            assertEquals(1, store.size());
+            assertFalse(systemManager.getRepresentation().obj().getMap().containsKey("registry"),
+                    "file backed entries should not be part of the representation");
+        }
+
+        // simulate a record which can not be restored and a record which was only partially written
+        try (AppendOnlyLog log = new AppendOnlyLog(file, record -> {
+        })) {
+            log.append("not an entry".getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(file, new byte[]{0, 0, 1}, StandardOpenOption.APPEND);
+
+        try (FileRegistrationStore store = new FileRegistrationStore(file)) {
+            assertEquals(1, store.size());
+            RegistrationEntry entry = store.get(user.getPublicKey());
+            assertNotNull(entry, "expected user to be registered after restart");
+
+            assertEquals(joinResponse.getRegistrationSignature(), entry.getSignature());
+
+            SystemManager restored = new SystemManager(systemManager.getRepresentation(), store);
+            User anotherUser = new User(pp);
+            restored.nonInteractiveJoinVerification(
+                    anotherUser.createNonInteractiveJoinRequest(restored.getPublicIdentity()));
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    void batchEntriesSurviveRestartTest() throws IOException {
+        List<User> users = Arrays.asList(new User(pp), new User(pp), new User(pp));
+        SystemManager systemManager;
+        try (FileRegistrationStore store = new FileRegistrationStore(file)) {
+            systemManager = new SystemManager(pp, store);
+            List<NonInteractiveJoinRequest> requests = new ArrayList<>();
+            for (User user : users) {
+                requests.add(user.createNonInteractiveJoinRequest(systemManager.getPublicIdentity()));
+            }
+            systemManager.joinBatch(requests);
+            assertEquals(users.size(), store.size());
+        }
+
+        try (FileRegistrationStore store = new FileRegistrationStore(file)) {
+            assertEquals(users.size(), store.size());
+            for (User user : users) {
+                assertNotNull(store.get(user.getPublicKey()), "expected user to be registered after restart");
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package de.upb.crypto.clarc.acs.verifier.impl.clarc.reviews;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedLinkingTagIndexTest {
+    private Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        file = Files.createTempFile("linkingtags", ".idx");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static List<byte[]> randomTags(int number) {
+        Random random = new Random(42);
+        List<byte[]> tags = new ArrayList<>(number);
+        for (int i = 0; i < number; i++) {
+            byte[] tag = new byte[384];
+            random.nextBytes(tag);
+            tags.add(tag);
+        }
+        return tags;
+    }
+
+    @Test
+    void tagsSurviveGrowingAndRestartTest() throws IOException {
+        // more tags than the initial table can hold to force it to be enlarged
+        List<byte[]> tags = randomTags(5000);
+        try (MappedLinkingTagIndex index = new MappedLinkingTagIndex(file, 10)) {
+            for (byte[] tag : tags) {
+                assertTrue(index.checkAndInsert(tag), "new tag should be inserted");
+            }
+            assertFalse(index.checkAndInsert(tags.get(0).clone()), "tag should be detected as duplicate");
+            assertEquals(tags.size(), index.size());
+        }
+
+        try (MappedLinkingTagIndex index = new MappedLinkingTagIndex(file, 10)) {
+            assertEquals(tags.size(), index.size());
+            for (byte[] tag : tags) {
+                assertTrue(index.contains(tag), "expected tag to be contained after restart");
+            }
+            assertFalse(index.contains(new byte[384]));
+            assertFalse(index.checkAndInsert(tags.get(tags.size() - 1)));
+        }
+    }
+
+    @Test
+    void concurrentCheckAndInsertTest() throws Exception {
+        List<byte[]> tags = randomTags(2000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (MappedLinkingTagIndex index = new MappedLinkingTagIndex(file, 100)) {
+            // every tag is inserted by all threads, exactly one of them has to succeed
+            List<Future<Integer>> insertions = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t * 500;
+                insertions.add(executor.submit(() -> {
+                    int inserted = 0;
+                    for (int i = offset; i < tags.size() + offset; i++) {
+                        if (index.checkAndInsert(tags.get(i % tags.size()))) {
+                            inserted++;
+                        }
+                    }
+                    return inserted;
+                }));
+            }
+            int inserted = 0;
+            for (Future<Integer> insertion : insertions) {
+                inserted += insertion.get();
+            }
+            assertEquals(tags.size(), inserted);
+            assertEquals(tags.size(), index.size());
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package de.upb.crypto.clarc.exponentiation;
+
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParameters;
+import de.upb.crypto.clarc.acs.setup.impl.clarc.PublicParametersFactory;
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentPair;
+import de.upb.crypto.craco.commitment.pedersen.PedersenCommitmentScheme;
+import de.upb.crypto.craco.common.RingElementPlainText;
+import de.upb.crypto.math.interfaces.structures.GroupElement;
+import de.upb.crypto.math.structures.zn.Zp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedBaseExponentiationTest {
+    private PublicParameters pp;
+    private long memoryBudget;
+
+    @BeforeEach
+    void setup() {
+        PublicParametersFactory ppFactory = new PublicParametersFactory();
+        ppFactory.setDebugMode(true);
+        pp = ppFactory.create();
+        memoryBudget = FixedBaseExponentiation.getMemoryBudget();
+    }
+
+    @AfterEach
+    void tearDown() {
+        FixedBaseExponentiation.setMemoryBudget(memoryBudget);
+    }
+
+    @Test
+    void powTest() {
+        GroupElement base = pp.getBilinearMap().getG1().getUniformlyRandomNonNeutral();
+        FixedBaseExponentiation exponentiation = FixedBaseExponentiation.of(base);
+        assertSame(exponentiation, FixedBaseExponentiation.of(base));
+
+        BigInteger order = base.getStructure().size();
+        BigInteger[] exponents = {BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(-1),
+                order.subtract(BigInteger.ONE), order, order.shiftLeft(3).add(BigInteger.TEN),
+                BigInteger.valueOf(-12345)};
+        // The table is precomputed during the first iterations, hence both code paths are covered
+        for (int i = 0; i < 3; i++) {
+            for (BigInteger exponent : exponents) {
+                assertEquals(base.pow(exponent), exponentiation.pow(exponent));
+            }
+            Zp.ZpElement exponent = pp.getZp().getUniformlyRandomElement();
+            assertEquals(base.pow(exponent), exponentiation.pow(exponent));
+        }
+    }
+
+    @Test
+    void withoutMemoryBudgetTest() {
+        FixedBaseExponentiation.setMemoryBudget(0);
+        GroupElement base = pp.getBilinearMap().getG2().getUniformlyRandomNonNeutral();
+        FixedBaseExponentiation exponentiation = FixedBaseExponentiation.of(base);
+        for (int i = 0; i < 3; i++) {
+            Zp.ZpElement exponent = pp.getZp().getUniformlyRandomElement();
+            assertEquals(base.pow(exponent), exponentiation.pow(exponent));
+        }
+    }
+
+    @Test
+    void commitTest() {
+        PedersenCommitmentScheme scheme = PublicParametersFactory.getSingleMessageCommitmentScheme(pp);
+        Zp.ZpElement message = pp.getZp().getUniformlyRandomElement();
+        for (int i = 0; i < 3; i++) {
+            PedersenCommitmentPair commitment = FixedBasePedersenCommitment.commit(scheme.getPp(), message);
+            assertTrue(scheme.verify(commitment.getCommitmentValue(), commitment.getOpenValue(),
+                    new RingElementPlainText(message)));
+        }
+    }
+}
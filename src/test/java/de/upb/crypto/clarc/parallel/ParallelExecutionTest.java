@@ -0,0 +1,86 @@
+package de.upb.crypto.clarc.parallel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelExecutionTest {
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void forEachIndexTest() {
+        int[] results = new int[100];
+        ParallelExecution.forEachIndex(executor, 1, results.length + 1, i -> results[i - 1] = i * i);
+        for (int i = 1; i <= results.length; i++) {
+            assertEquals(i * i, results[i - 1]);
+        }
+
+        assertThrows(IllegalStateException.class, () -> ParallelExecution.forEachIndex(executor, 0, 10, i -> {
+            if (i == 5) {
+                throw new IllegalStateException();
+            }
+        }));
+    }
+
+    @Test
+    void allMatchTest() {
+        assertTrue(ParallelExecution.allMatch(executor, 0, 100, i -> true));
+        assertTrue(ParallelExecution.allMatch(null, 0, 100, i -> true));
+        assertFalse(ParallelExecution.allMatch(executor, 0, 100, i -> i != 42));
+        assertFalse(ParallelExecution.allMatch(null, 0, 100, i -> i != 42));
+        assertThrows(IllegalStateException.class, () -> ParallelExecution.allMatch(executor, 0, 10, i -> {
+            throw new IllegalStateException();
+        }));
+    }
+
+    @Test
+    void nestedExecutionTest() {
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        try {
+            // The inner executions run in the thread of the outer tasks, otherwise the single thread would wait for
+            // inner tasks which are never run
+            int[][] results = new int[2][2];
+            ParallelExecution.forEachIndex(singleThread, 0, 2, i -> {
+                ParallelExecution.forEachIndex(singleThread, 0, 2, j -> results[i][j] = i + j);
+                assertTrue(ParallelExecution.allMatch(singleThread, 0, 2, j -> results[i][j] == i + j));
+            });
+            assertArrayEquals(new int[][]{{0, 1}, {1, 2}}, results);
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    @Test
+    void allMatchReturnsOnFirstFailureTest() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        // Index 0 blocks until released, the result must be known anyway since index 1 fails
+        assertFalse(ParallelExecution.allMatch(executor, 0, 2, i -> {
+            if (i == 0) {
+                try {
+                    return blocked.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return true;
+                }
+            }
+            return false;
+        }));
+        blocked.countDown();
+    }
+}
@@ -0,0 +1,88 @@
+package de.upb.crypto.clarc.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendOnlyLogTest {
+    private Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        file = Files.createTempFile("append", ".log");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void replayAcrossSegmentsTest() throws IOException {
+        List<String> written = new ArrayList<>();
+        try (AppendOnlyLog log = new AppendOnlyLog(file, record -> {
+            throw new AssertionError("expected empty log");
+        })) {
+            for (int i = 0; i < 50; i++) {
+                String record = "record " + i;
+                log.append(record.getBytes(StandardCharsets.UTF_8));
+                written.add(record);
+            }
+            // A record which is larger than a segment
+            char[] large = new char[100];
+            Arrays.fill(large, 'x');
+            log.append(new String(large).getBytes(StandardCharsets.UTF_8));
+            written.add(new String(large));
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (AppendOnlyLog log = new AppendOnlyLog(file, record -> replayed.add(new String(record,
+                StandardCharsets.UTF_8)), 32)) {
+            assertEquals(0, log.getSkippedRecords());
+        }
+        assertEquals(written, replayed);
+    }
+
+    @Test
+    void corruptRecordsTest() throws IOException {
+        try (AppendOnlyLog log = new AppendOnlyLog(file, record -> {
+            throw new AssertionError("expected empty log");
+        })) {
+            log.append(Arrays.asList("valid".getBytes(StandardCharsets.UTF_8),
+                    "unreadable".getBytes(StandardCharsets.UTF_8), "valid".getBytes(StandardCharsets.UTF_8)));
+        }
+        long validLength = Files.size(file);
+        // Complete header, but the checksum does not match the payload
+        Files.write(file, new byte[]{0, 0, 0, 1, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        List<String> replayed = new ArrayList<>();
+        try (AppendOnlyLog log = new AppendOnlyLog(file, record -> {
+            String value = new String(record, StandardCharsets.UTF_8);
+            if (!value.equals("valid")) {
+                throw new IllegalArgumentException("unreadable record");
+            }
+            replayed.add(value);
+        })) {
+            assertEquals(1, log.getSkippedRecords());
+            assertEquals(validLength, Files.size(file), "the corrupt tail should have been cut off");
+            log.append("valid".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(Arrays.asList("valid", "valid"), replayed);
+
+        replayed.clear();
+        try (AppendOnlyLog log = new AppendOnlyLog(file, record -> replayed.add("record"))) {
+            assertEquals(4, replayed.size());
+        }
+    }
+}